@@ -1,5 +1,6 @@
 package org.geotoolkit.benchmarks;
 
+import java.io.StringReader;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.ParsePosition;
@@ -12,8 +13,14 @@ import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.sis.util.CharSequences;
 import org.apache.sis.util.UnconvertibleObjectException;
+import org.geotoolkit.feature.xml.jaxp.StaxGeometryReader;
+import org.geotoolkit.gml.xml.GMLMarshallerPool;
+import org.locationtech.jts.geom.Geometry;
 import org.openjdk.jmh.annotations.*;
 
 /**
@@ -53,6 +60,64 @@ public class StringToDoubleArray {
         }
     }
 
+    /**
+     * Same values, written as the posList of a GML 3.2 line string.
+     */
+    @State(Scope.Benchmark)
+    public static class GmlLineString {
+
+        @Param({"100", "1000", "5000", "10000"})
+        public int nbValues;
+
+        public String document;
+
+        public final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        public StaxGeometryReader direct;
+        public StaxGeometryReader jaxb;
+
+        @Setup(Level.Trial)
+        public void createDocument() {
+            final Random rand = new Random();
+            document = IntStream.range(0, nbValues - nbValues % 2)
+                    .mapToDouble(idx -> rand.nextDouble() * 180)
+                    .mapToObj(Double::toString)
+                    .collect(Collectors.joining(" ",
+                            "<gml:LineString xmlns:gml=\"http://www.opengis.net/gml/3.2\" gml:id=\"l1\"><gml:posList srsDimension=\"2\">",
+                            "</gml:posList></gml:LineString>"));
+            direct = new StaxGeometryReader(GMLMarshallerPool.getInstance(), true, true);
+            jaxb   = new StaxGeometryReader(GMLMarshallerPool.getInstance(), true, false);
+        }
+
+        Geometry read(final StaxGeometryReader geometryReader) throws XMLStreamException {
+            final XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(document));
+            try {
+                reader.nextTag();
+                return geometryReader.read(reader, false);
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void staxGeometryReader(InputSequence state) {
+        double[] result = StaxGeometryReader.parseDoubles(state.sequence);
+        if (state.nbValues != result.length) throw new AssertionError("Bad decoding");
+    }
+
+    @Benchmark
+    public void gmlPosListDirect(GmlLineString state) throws XMLStreamException {
+        final Geometry geometry = state.read(state.direct);
+        if (state.nbValues / 2 != geometry.getNumPoints()) throw new AssertionError("Bad decoding");
+    }
+
+    @Benchmark
+    public void gmlPosListJaxb(GmlLineString state) throws XMLStreamException {
+        final Geometry geometry = state.read(state.jaxb);
+        if (state.nbValues / 2 != geometry.getNumPoints()) throw new AssertionError("Bad decoding");
+    }
+
     @Benchmark
     public void sisWay(InputSequence state) {
         double[] result = CharSequences.parseDoubles(state.sequence, ',');
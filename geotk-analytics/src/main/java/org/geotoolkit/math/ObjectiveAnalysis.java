@@ -17,23 +17,31 @@
  */
 package org.geotoolkit.math;
 
+import java.awt.Dimension;
+import java.awt.Point;
 import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BandedSampleModel;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBufferFloat;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.awt.image.WritableRaster;
+import java.util.stream.IntStream;
 import javax.media.jai.RasterFactory;
 import org.apache.sis.coverage.grid.PixelTranslation;
+import org.apache.sis.image.ComputedImage;
+import org.apache.sis.image.ImageLayout;
 import org.apache.sis.image.internal.shared.ColorModelFactory;
 import org.apache.sis.math.Plane;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
 import org.apache.sis.referencing.operation.matrix.NoninvertibleMatrixException;
+import static org.apache.sis.util.ArgumentChecks.ensurePositive;
 import static org.apache.sis.util.ArgumentChecks.ensureStrictlyPositive;
 import org.geotoolkit.resources.Errors;
 import org.opengis.metadata.spatial.PixelOrientation;
@@ -46,6 +54,12 @@ import org.opengis.metadata.spatial.PixelOrientation;
  * creating non-regular grids. For creating a non-regular grid, user should subclass
  * {@code ObjectiveAnalysis} and override the {@link #getOutputLocation getOutputLocation(...)}
  * method.
+ * <p>
+ * By default all observations are used for each output value, which requires solving a
+ * system of <var>N</var>×<var>N</var> equations where <var>N</var> is the number of
+ * observations. For large sets of observations, a {@linkplain #setNeighbourCount moving
+ * neighbourhood} can be used instead: output cells are grouped in blocks and each block
+ * uses only the observations nearest to its center.
  *
  * @author Martin Desruisseaux (IRD, Geomatys)
  * @author Howard Freeland (MPO, for algorithmic inspiration)
@@ -96,6 +110,17 @@ public class ObjectiveAnalysis {
      */
     private double[] xp, yp, zp;
 
+    /**
+     * Number of observations used for each block of output cells,
+     * or 0 for using all observations.
+     */
+    private int neighbourCount;
+
+    /**
+     * Number of output cells along each axis in a block sharing the same neighbour observations.
+     */
+    private static final int BLOCK_SIZE = 16;
+
     /**
      * Creates a new instance for interpolating values in the given region.
      *
@@ -142,6 +167,33 @@ public class ObjectiveAnalysis {
         this.zp = zp;
     }
 
+    /**
+     * Sets the number of observations used for interpolating each block of output cells.
+     * When this number is positive, output cells are grouped in blocks of 16×16 cells and
+     * the values in each block are interpolated from the observations nearest to the block
+     * center. Blocks are computed in parallel, and {@link #createImage()} returns a tiled
+     * image computed when first needed.
+     * <p>
+     * The default value is 0, which means that all observations are used for each cell.
+     * In moving neighbourhood mode, the {@link #correlation correlation} method may be
+     * invoked concurrently by many threads.
+     *
+     * @param count Number of nearest observations to use, or 0 for all observations.
+     */
+    public void setNeighbourCount(final int count) {
+        ensurePositive("count", count);
+        this.neighbourCount = count;
+    }
+
+    /**
+     * Returns the number of observations used for interpolating each block of output cells.
+     *
+     * @return Number of nearest observations used, or 0 if all observations are used.
+     */
+    public int getNeighbourCount() {
+        return neighbourCount;
+    }
+
     /**
      * Returns the number of points to be computed by this instance. This is the number
      * of grid cells. The {@link #interpolate(double[]) interpolate(...)} method will
@@ -247,6 +299,27 @@ public class ObjectiveAnalysis {
         ensureInputSet("xp", xp);
         ensureInputSet("yp", yp);
         ensureInputSet("zp", zp);
+        if (neighbourCount > 0) {
+            final Neighbourhood nh = new Neighbourhood();
+            final int bx = (nx + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            final int by = (ny + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            IntStream.range(0, bx * by).parallel().forEach((int b) -> {
+                final int x0 = (b % bx) * BLOCK_SIZE;
+                final int y0 = (b / bx) * BLOCK_SIZE;
+                final int w = Math.min(BLOCK_SIZE, nx - x0);
+                final int h = Math.min(BLOCK_SIZE, ny - y0);
+                final double[] values = new double[w * h];
+                nh.interpolate(x0, y0, w, h, values);
+                for (int y=0, k=0; y<h; y++) {
+                    final int offset = (y0 + y) * nx + x0;
+                    for (int x=0; x<w; x++, k++) {
+                        if (dest1 != null) dest1[offset + x] = (float) values[k];
+                        if (dest2 != null) dest2[offset + x] = values[k];
+                    }
+                }
+            });
+            return;
+        }
         /*
          * Compute a regression plane P of Z(x,y). The object P
          * will contains internally the plane's coefficients.
@@ -314,10 +387,17 @@ public class ObjectiveAnalysis {
      * locations defined by the {@link #getOutputLocation getOutputLocation(...)} method. The
      * default implementation assumes that the locations are defined in a row-major fashion,
      * with the row on the top of the image first and the row at the bottom of the image last.
+     * <p>
+     * If a {@linkplain #setNeighbourCount neighbour count} is set, the returned image is tiled
+     * and each tile is interpolated when first requested. Its color model is scaled on the
+     * range of input values.
      *
      * @return The image created from interpolated values.
      */
     public RenderedImage createImage() {
+        if (neighbourCount > 0) {
+            return createImage(ImageLayout.DEFAULT.suggestTileSize(nx, ny));
+        }
         final WritableRaster raster = RasterFactory.createBandedRaster(DataBufferFloat.TYPE_FLOAT, nx, ny, 1, null);
         final float[] data = ((DataBufferFloat) raster.getDataBuffer()).getData();
         final float[] result = interpolate(data);
@@ -342,6 +422,17 @@ public class ObjectiveAnalysis {
         return new BufferedImage(cm, raster, false, null);
     }
 
+    /**
+     * Creates a tiled image of values interpolated in moving neighbourhood mode,
+     * with the given tile size.
+     */
+    final RenderedImage createImage(final Dimension tileSize) {
+        ensureInputSet("xp", xp);
+        ensureInputSet("yp", yp);
+        ensureInputSet("zp", zp);
+        return new InterpolatedImage(new Neighbourhood(), tileSize);
+    }
+
     /**
      * Returns the correlation between the values at the two given points. For example if
      * {@code P1} and {@code P2} are the location of measurement stations and time series
@@ -371,4 +462,195 @@ public class ObjectiveAnalysis {
         }
         return Math.exp(-distance * distance);
     }
+
+    /**
+     * Observations prepared for the moving neighbourhood mode:
+     * a tree for searching nearest observations and the residuals to the regression plane.
+     */
+    private final class Neighbourhood {
+        private final Plane plane;
+        private final PointTree tree;
+        private final double[] residuals;
+        private final int count;
+
+        Neighbourhood() {
+            plane = new Plane();
+            plane.fit(xp, yp, zp);
+            residuals = new double[zp.length];
+            for (int i=0; i<residuals.length; i++) {
+                residuals[i] = zp[i] - plane.z(xp[i], yp[i]);
+            }
+            tree  = new PointTree(xp, yp);
+            count = Math.min(neighbourCount, zp.length);
+        }
+
+        /**
+         * Interpolates the values of the given range of grid cells, stored row by row.
+         * The grid is divided in blocks aligned on the grid origin, for each block intersecting
+         * the range a correlation matrix of the nearest observations is factorized once and reused
+         * for all cells of the block. Since blocks do not depend on the range, the values are the
+         * same whatever the way the grid is divided in ranges (image tiles for instance).
+         */
+        void interpolate(final int x0, final int y0, final int width, final int height, final double[] values) {
+            final Point2D.Double loc = new Point2D.Double();
+            final Point2D.Double P1  = new Point2D.Double();
+            final Point2D.Double P2  = new Point2D.Double();
+            final int[] selected = new int[count];
+            final double[] A = new double[count * count];
+            final double[] X = new double[count];
+            final int xmax = x0 + width;
+            final int ymax = y0 + height;
+            for (int by = (y0 / BLOCK_SIZE) * BLOCK_SIZE; by < ymax; by += BLOCK_SIZE) {
+                final int bh = Math.min(BLOCK_SIZE, ny - by);
+                final int ylo = Math.max(by, y0);
+                final int yhi = Math.min(by + bh, ymax);
+                for (int bx = (x0 / BLOCK_SIZE) * BLOCK_SIZE; bx < xmax; bx += BLOCK_SIZE) {
+                    final int bw = Math.min(BLOCK_SIZE, nx - bx);
+                    final int xlo = Math.max(bx, x0);
+                    final int xhi = Math.min(bx + bw, xmax);
+                    getOutputLocation((by + bh/2) * nx + (bx + bw/2), loc);
+                    final int n = tree.nearest(loc.x, loc.y, selected);
+                    /*
+                     * Lower triangle of the correlation matrix among selected observations,
+                     * then compute (A⁻¹) × (X) with a Cholesky factorization.
+                     */
+                    for (int i=0; i<n; i++) {
+                        P1.x = xp[selected[i]];
+                        P1.y = yp[selected[i]];
+                        for (int j=0; j<=i; j++) {
+                            P2.x = xp[selected[j]];
+                            P2.y = yp[selected[j]];
+                            A[i*n + j] = correlation(P1, P2);
+                        }
+                        X[i] = residuals[selected[i]];
+                    }
+                    if (!cholesky(A, n)) {
+                        throw new IllegalArgumentException("Correlation matrix of observations near ("
+                                + loc.x + ", " + loc.y + ") is not positive definite.");
+                    }
+                    solve(A, n, X);
+                    for (int y=ylo; y<yhi; y++) {
+                        final int row = (y - y0) * width - x0;
+                        for (int x=xlo; x<xhi; x++) {
+                            getOutputLocation(y * nx + x, loc);
+                            double value = plane.z(loc.x, loc.y);
+                            for (int k=0; k<n; k++) {
+                                P2.x = xp[selected[k]];
+                                P2.y = yp[selected[k]];
+                                value += X[k] * correlation(loc, P2);
+                            }
+                            values[row + x] = value;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the lower triangle of the symmetric matrix {@code A} by its Cholesky factor <var>L</var>,
+     * such as <var>A</var> = <var>L</var>×<var>L</var><sup>T</sup>.
+     *
+     * @param  A the matrix, row-major, only the lower triangle is read.
+     * @param  n the matrix size.
+     * @return {@code false} if the matrix is not positive definite.
+     */
+    private static boolean cholesky(final double[] A, final int n) {
+        for (int j=0; j<n; j++) {
+            final int rj = j*n;
+            double d = A[rj + j];
+            for (int k=0; k<j; k++) {
+                d -= A[rj + k] * A[rj + k];
+            }
+            if (!(d > 0)) {
+                return false;
+            }
+            d = Math.sqrt(d);
+            A[rj + j] = d;
+            for (int i=j+1; i<n; i++) {
+                final int ri = i*n;
+                double s = A[ri + j];
+                for (int k=0; k<j; k++) {
+                    s -= A[ri + k] * A[rj + k];
+                }
+                A[ri + j] = s / d;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves <var>L</var>×<var>L</var><sup>T</sup>×<var>x</var> = <var>b</var> in place,
+     * with <var>L</var> the factor computed by {@link #cholesky(double[], int)}.
+     */
+    private static void solve(final double[] L, final int n, final double[] b) {
+        for (int i=0; i<n; i++) {
+            double s = b[i];
+            for (int k=0; k<i; k++) {
+                s -= L[i*n + k] * b[k];
+            }
+            b[i] = s / L[i*n + i];
+        }
+        for (int i=n; --i >= 0;) {
+            double s = b[i];
+            for (int k=i+1; k<n; k++) {
+                s -= L[k*n + i] * b[k];
+            }
+            b[i] = s / L[i*n + i];
+        }
+    }
+
+    /**
+     * Image of values interpolated in moving neighbourhood mode, tiles are computed when first needed.
+     */
+    private final class InterpolatedImage extends ComputedImage {
+        private final Neighbourhood neighbourhood;
+        private final ColorModel colorModel;
+
+        InterpolatedImage(final Neighbourhood neighbourhood, final Dimension tileSize) {
+            super(new BandedSampleModel(DataBufferFloat.TYPE_FLOAT, tileSize.width, tileSize.height, 1));
+            this.neighbourhood = neighbourhood;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (final double v : zp) {
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (min < max) {
+                colorModel = ColorModelFactory.createGrayScale(DataBufferFloat.TYPE_FLOAT, 1, 0, min, max);
+            } else {
+                colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), false, false,
+                                                     Transparency.OPAQUE, DataBufferFloat.TYPE_FLOAT);
+            }
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return colorModel;
+        }
+
+        @Override
+        public int getWidth() {
+            return nx;
+        }
+
+        @Override
+        public int getHeight() {
+            return ny;
+        }
+
+        @Override
+        protected Raster computeTile(final int tileX, final int tileY, final WritableRaster previous) {
+            final int x0 = tileX * getTileWidth();
+            final int y0 = tileY * getTileHeight();
+            final int w = Math.min(getTileWidth(), nx - x0);
+            final int h = Math.min(getTileHeight(), ny - y0);
+            final WritableRaster tile = (previous != null) ? previous
+                    : Raster.createWritableRaster(getSampleModel(), new Point(x0, y0));
+            final double[] values = new double[w * h];
+            neighbourhood.interpolate(x0, y0, w, h, values);
+            tile.setSamples(x0, y0, w, h, 0, values);
+            return tile;
+        }
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.math;
+
+/**
+ * Balanced KD-tree on (<var>x</var>,<var>y</var>) points, for <var>k</var> nearest neighbours search.
+ * The tree is stored as a permutation of point indices: the node of range {@code [lo…hi)} is the
+ * median element at {@code (lo+hi)/2}, split on <var>x</var> or <var>y</var> alternatively.
+ * <p>
+ * Searches do not modify the tree and can be executed concurrently.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class PointTree {
+
+    private final double[] xs, ys;
+
+    /**
+     * Point indices, ordered as tree nodes.
+     */
+    private final int[] order;
+
+    /**
+     * Creates a tree on the given points. Arrays are not copied.
+     */
+    PointTree(final double[] xs, final double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        order = new int[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        build(0, order.length, 0);
+    }
+
+    private void build(final int lo, final int hi, final int depth) {
+        if (hi - lo < 2) return;
+        final int mid = (lo + hi) >>> 1;
+        select(lo, hi, mid, (depth & 1) == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Rearranges {@code order[lo…hi)} so that element at {@code k} is at its sorted position.
+     * Uses a three-way partition, stations on regular grids have many equal coordinates.
+     */
+    private void select(int lo, int hi, final int k, final double[] coords) {
+        while (hi - lo > 1) {
+            final double pivot = coords[order[(lo + hi) >>> 1]];
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                final double c = coords[order[i]];
+                if (c < pivot)      swap(lt++, i++);
+                else if (c > pivot) swap(i, --gt);
+                else                i++;
+            }
+            if      (k < lt)  hi = lt;
+            else if (k >= gt) lo = gt;
+            else return;
+        }
+    }
+
+    private void swap(final int a, final int b) {
+        final int t = order[a];
+        order[a] = order[b];
+        order[b] = t;
+    }
+
+    /**
+     * Finds the points nearest to the given location.
+     *
+     * @param  x location <var>x</var> coordinate.
+     * @param  y location <var>y</var> coordinate.
+     * @param  result where to store the point indices, in no particular order.
+     *         The array length is the maximal number of points to find.
+     * @return number of points found, smaller than {@code result.length} only if the tree has less points.
+     */
+    int nearest(final double x, final double y, final int[] result) {
+        final Heap heap = new Heap(result);
+        if (result.length > 0) {
+            search(0, order.length, 0, x, y, heap);
+        }
+        return heap.size;
+    }
+
+    private void search(final int lo, final int hi, final int depth, final double x, final double y, final Heap heap) {
+        if (lo >= hi) return;
+        final int mid = (lo + hi) >>> 1;
+        final int idx = order[mid];
+        final double dx = xs[idx] - x;
+        final double dy = ys[idx] - y;
+        heap.offer(idx, dx*dx + dy*dy);
+
+        final double diff = (depth & 1) == 0 ? x - xs[idx] : y - ys[idx];
+        if (diff <= 0) {
+            search(lo, mid, depth + 1, x, y, heap);
+            if (diff*diff < heap.bound()) search(mid + 1, hi, depth + 1, x, y, heap);
+        } else {
+            search(mid + 1, hi, depth + 1, x, y, heap);
+            if (diff*diff < heap.bound()) search(lo, mid, depth + 1, x, y, heap);
+        }
+    }
+
+    /**
+     * Bounded max-heap of the nearest points found so far, farthest point first.
+     */
+    private static final class Heap {
+        private final int[] indices;
+        private final double[] distances;
+        int size;
+
+        Heap(final int[] indices) {
+            this.indices = indices;
+            this.distances = new double[indices.length];
+        }
+
+        /**
+         * Squared distance a point must be under to enter the heap.
+         */
+        double bound() {
+            return size < indices.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(final int index, final double distance) {
+            int i;
+            if (size < indices.length) {
+                //sift up
+                i = size++;
+                while (i > 0) {
+                    final int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distance) break;
+                    indices[i] = indices[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+            } else if (distance < distances[0]) {
+                //replace farthest point and sift down
+                i = 0;
+                for (;;) {
+                    int child = 2*i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && distances[child + 1] > distances[child]) child++;
+                    if (distances[child] <= distance) break;
+                    indices[i] = indices[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+            } else {
+                return;
+            }
+            indices[i] = index;
+            distances[i] = distance;
+        }
+    }
+}
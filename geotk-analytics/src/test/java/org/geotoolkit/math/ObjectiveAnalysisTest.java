@@ -17,7 +17,9 @@
  */
 package org.geotoolkit.math;
 
+import java.awt.Dimension;
 import java.awt.Rectangle;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.util.Random;
 
@@ -72,4 +74,80 @@ public final class ObjectiveAnalysisTest {
         final RenderedImage image = ob.createImage();
         assertNotNull(image);
     }
+
+    /**
+     * Tests the moving neighbourhood mode. When all observations are in the neighbourhood,
+     * the results shall be the same than the global computation.
+     */
+    @Test
+    public void testNeighbourhood() {
+        final int      s = 40;
+        final double[] x = new double[s];
+        final double[] y = new double[s];
+        final double[] z = new double[s];
+        for (int i=0; i<z.length; i++) {
+            x[i] = (i * 7)  % s;     // All points are distinct.
+            y[i] = (i * 13) % s;
+            z[i] = x[i] * y[i];
+        }
+        final ObjectiveAnalysis ob = new ObjectiveAnalysis(
+                new Rectangle(s-1, s-1), s, s, PixelOrientation.UPPER_LEFT);
+        ob.setInputs(x, y, z);
+        final double[] expected = ob.interpolate((double[]) null);
+
+        ob.setNeighbourCount(s);
+        assertEquals(s, ob.getNeighbourCount());
+        final double[] computed = ob.interpolate((double[]) null);
+        assertArrayEquals(expected, computed, 1E-6);
+        /*
+         * Image tiles shall contain the same values.
+         */
+        final RenderedImage image = ob.createImage();
+        assertEquals(s, image.getWidth());
+        assertEquals(s, image.getHeight());
+        final Raster raster = image.getData();
+        for (int i=0; i<computed.length; i++) {
+            assertEquals(computed[i], raster.getSampleDouble(i % s, i / s, 0), 1E-3);
+        }
+        /*
+         * With less neighbours, all cells shall still be computed.
+         */
+        ob.setNeighbourCount(8);
+        for (final double v : ob.interpolate((double[]) null)) {
+            assertFalse(Double.isNaN(v));
+        }
+    }
+
+    /**
+     * Tests that image tiles contain the same values than the whole grid interpolation
+     * when the neighbourhood is smaller than the number of observations and the tile
+     * size is not a multiple of the block size.
+     */
+    @Test
+    public void testNeighbourhoodTiles() {
+        final int      s = 40;
+        final int     nx = 50;
+        final int     ny = 45;
+        final double[] x = new double[s];
+        final double[] y = new double[s];
+        final double[] z = new double[s];
+        final Random r = new Random(380951990);
+        for (int i=0; i<z.length; i++) {
+            x[i] = r.nextDouble() * (nx-1);
+            y[i] = r.nextDouble() * (ny-1);
+            z[i] = x[i] * y[i];
+        }
+        final ObjectiveAnalysis ob = new ObjectiveAnalysis(
+                new Rectangle(nx-1, ny-1), nx, ny, PixelOrientation.UPPER_LEFT);
+        ob.setInputs(x, y, z);
+        ob.setNeighbourCount(6);
+        final double[] computed = ob.interpolate((double[]) null);
+        final RenderedImage image = ob.createImage(new Dimension(20, 13));
+        assertEquals(3, image.getNumXTiles());
+        assertEquals(4, image.getNumYTiles());
+        final Raster raster = image.getData();
+        for (int i=0; i<computed.length; i++) {
+            assertEquals(computed[i], raster.getSampleDouble(i % nx, i / nx, 0), 1E-3);
+        }
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.tiling.TileMatrixSet;
 import org.apache.sis.storage.tiling.TiledResource;
 import org.geotoolkit.storage.coverage.TileMatrixSetCoverageReader;
+import org.geotoolkit.storage.coverage.TileReadPlanner;
 import org.geotoolkit.tms.model.TMSTileMatrixSets;
 import org.opengis.util.GenericName;
 
@@ -43,6 +44,10 @@ public class TMSResource extends AbstractGridCoverageResource implements TiledRe
 
     private final TileMapClient client;
     private final GenericName name;
+    /**
+     * Remote tiles are read concurrently, with the surrounding tiles and next level prefetched.
+     */
+    private final TileReadPlanner planner = new TileReadPlanner(4, 256, 1, true);
 
     TMSResource(TileMapClient client, GenericName name){
         super(null, false);
@@ -81,7 +86,7 @@ public class TMSResource extends AbstractGridCoverageResource implements TiledRe
 
     @Override
     public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
-        return new TileMatrixSetCoverageReader(this).read(domain, range);
+        return new TileMatrixSetCoverageReader(this, planner).read(domain, range);
     }
 
 }
@@ -422,6 +422,16 @@ public class StacClient {
         return MAPPER.treeToValue(data, Item.class);
     }
 
+    /**
+     * Returns the HTTP client used by this STAC client. It can be shared with a
+     * {@link StacDownloader} to reuse the same connection pool.
+     *
+     * @return the HTTP client
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
     /**
      * Extract the download URI from a STAC item using the registered extractor.
      *
@@ -543,7 +553,7 @@ public class StacClient {
      * @param uri the URI to extract the filename from
      * @return the extracted filename, or a generated name if no valid filename can be determined
      */
-    private static String extractFilename(URI uri) {
+    static String extractFilename(URI uri) {
         // The default name is based on the URI hash to ensure uniqueness if no filename can be extracted.
         // And it allows to use cache based on URI if the same URI is encountered again.
         String path = uri.getPath();
@@ -0,0 +1,474 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.stac.client;
+
+import org.geotoolkit.stac.dto.Asset;
+import org.geotoolkit.stac.dto.Item;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Concurrent download engine for STAC assets.
+ *
+ * <p>Transfers are executed by a fixed pool of threads, which bounds the number of simultaneous
+ * HTTP connections. Each asset is downloaded as one or more byte range segments:</p>
+ * <ul>
+ *   <li>Large assets served with {@code Accept-Ranges: bytes} are split in up to
+ *       {@code segmentsPerFile} segments downloaded in parallel.</li>
+ *   <li>Each segment is written in its own {@code .partN} file. If a previous download was
+ *       interrupted, the segment is resumed with a {@code Range} request starting after the
+ *       bytes already on disk.</li>
+ *   <li>Once all segments are complete they are concatenated, the checksum is verified if one
+ *       is known, and the file is moved atomically to its final name.</li>
+ * </ul>
+ *
+ * <p>Checksums use the multihash format of the STAC {@code file:checksum} extension field.
+ * The number of bytes transferred and the aggregate throughput since the downloader creation
+ * are available with {@link #getTransferredBytes()} and {@link #getThroughput()}.</p>
+ *
+ * @author Quentin Bialota (Geomatys)
+ */
+public class StacDownloader implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(StacDownloader.class.getName());
+
+    /**
+     * Name of the STAC file extension property holding the asset multihash checksum.
+     */
+    public static final String CHECKSUM_PROPERTY = "file:checksum";
+
+    /**
+     * Default minimum size of a segment, smaller assets are downloaded in a single request.
+     */
+    public static final long DEFAULT_MIN_SEGMENT_SIZE = 8L * 1024 * 1024;
+
+    /** Timeout for a single segment transfer. */
+    private static final Duration TRANSFER_TIMEOUT = Duration.ofMinutes(30);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpClient httpClient;
+    private final int segmentsPerFile;
+    private final long minSegmentSize;
+    private final ExecutorService executor;
+
+    private final LongAdder transferred = new LongAdder();
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Creates a downloader with the default minimum segment size.
+     *
+     * @param httpClient the HTTP client used for transfers
+     * @param parallelTransfers maximum number of simultaneous HTTP transfers
+     * @param segmentsPerFile maximum number of parallel segments for a single asset, 1 to disable splitting
+     */
+    public StacDownloader(HttpClient httpClient, int parallelTransfers, int segmentsPerFile) {
+        this(httpClient, parallelTransfers, segmentsPerFile, DEFAULT_MIN_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a downloader.
+     *
+     * @param httpClient the HTTP client used for transfers
+     * @param parallelTransfers maximum number of simultaneous HTTP transfers
+     * @param segmentsPerFile maximum number of parallel segments for a single asset, 1 to disable splitting
+     * @param minSegmentSize minimum size in bytes of a segment
+     */
+    public StacDownloader(HttpClient httpClient, int parallelTransfers, int segmentsPerFile, long minSegmentSize) {
+        if (parallelTransfers < 1) {
+            throw new IllegalArgumentException("Number of parallel transfers must be positive: " + parallelTransfers);
+        }
+        this.httpClient = httpClient;
+        this.segmentsPerFile = Math.max(1, segmentsPerFile);
+        this.minSegmentSize = Math.max(1, minSegmentSize);
+        final AtomicInteger inc = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelTransfers, (Runnable r) -> {
+            final Thread thread = new Thread(r, "STAC download " + inc.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedule the download of a file in given directory.
+     * If the file already exists (and matches the checksum when one is given) no transfer is made.
+     *
+     * @param uri the file URI
+     * @param outputDir the destination directory
+     * @param checksum expected multihash checksum in hexadecimal, may be null
+     * @return future path of the downloaded file
+     */
+    public CompletableFuture<Path> submit(URI uri, Path outputDir, String checksum) {
+        final Path destPath = outputDir.resolve(StacClient.extractFilename(uri));
+        return CompletableFuture.supplyAsync(() -> probe(uri, destPath, checksum), executor)
+                .thenCompose((Probe probe) -> {
+                    if (probe == null) {
+                        return CompletableFuture.completedFuture(destPath);
+                    }
+                    final List<CompletableFuture<Void>> segments = new ArrayList<>();
+                    for (int i = 0; i < probe.starts.length; i++) {
+                        final int index = i;
+                        segments.add(CompletableFuture.runAsync(() -> transfer(uri, probe, index), executor));
+                    }
+                    return CompletableFuture.allOf(segments.toArray(new CompletableFuture[segments.size()]))
+                            .thenApply((Void v) -> assemble(probe, destPath, checksum));
+                });
+    }
+
+    /**
+     * Download a file and wait for its completion.
+     *
+     * @param uri the file URI
+     * @param outputDir the destination directory
+     * @param checksum expected multihash checksum in hexadecimal, may be null
+     * @return path of the downloaded file
+     * @throws IOException if the transfer failed or the checksum does not match
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public Path download(URI uri, Path outputDir, String checksum) throws IOException, InterruptedException {
+        try {
+            return submit(uri, outputDir, checksum).get();
+        } catch (ExecutionException ex) {
+            final Throwable cause = getCause(ex);
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * @return number of bytes received since this downloader creation
+     */
+    public long getTransferredBytes() {
+        return transferred.sum();
+    }
+
+    /**
+     * @return aggregate throughput in bytes per second since this downloader creation
+     */
+    public double getThroughput() {
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+        return seconds > 0 ? transferred.sum() / seconds : 0;
+    }
+
+    /**
+     * Search the checksum declared by the asset of given item matching the URI.
+     * Alternate hrefs are searched too, in which case the checksum of the alternate
+     * is used if present, the main asset one otherwise.
+     *
+     * @param item the STAC item
+     * @param uri the URI of the downloaded asset
+     * @return multihash checksum in hexadecimal, or null if none is declared
+     */
+    public static String getChecksum(Item item, URI uri) {
+        final Map<String, Asset> assets = item.getAssets();
+        if (assets == null || uri == null) return null;
+        final String href = uri.toString();
+        for (Asset asset : assets.values()) {
+            final Object main = asset.getAdditionalProperties().get(CHECKSUM_PROPERTY);
+            if (href.equals(asset.getHref())) {
+                return main != null ? main.toString() : null;
+            }
+            if (asset.getAlternate() != null) {
+                for (Asset alternate : asset.getAlternate().values()) {
+                    if (href.equals(alternate.getHref())) {
+                        final Object alt = alternate.getAdditionalProperties().get(CHECKSUM_PROPERTY);
+                        return alt != null ? alt.toString() : (main != null ? main.toString() : null);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops all running transfers. Partial files are kept and will be resumed by a later download.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /*
+     * =====================
+     * TRANSFER STEPS
+     * =====================
+     */
+
+    /**
+     * Segments of a download. A length of -1 means the size is unknown,
+     * only possible with a single segment.
+     */
+    private static final class Probe {
+        final Path destPath;
+        final long[] starts;
+        final long[] lengths;
+
+        Probe(Path destPath, long[] starts, long[] lengths) {
+            this.destPath = destPath;
+            this.starts = starts;
+            this.lengths = lengths;
+        }
+
+        Path part(int index) {
+            return destPath.resolveSibling(destPath.getFileName() + ".part" + index);
+        }
+    }
+
+    /**
+     * Check if the file is already downloaded and compute the segments to transfer.
+     *
+     * @return segments, or null if the file is already complete
+     */
+    private Probe probe(URI uri, Path destPath, String checksum) {
+        try {
+            if (Files.exists(destPath)) {
+                if (checksum == null || checksumMatches(destPath, checksum)) {
+                    return null;
+                }
+                LOGGER.warning("Checksum mismatch for existing file " + destPath + ", downloading it again.");
+                Files.delete(destPath);
+            }
+
+            long length = -1;
+            boolean ranges = false;
+            if (segmentsPerFile > 1) {
+                try {
+                    final HttpResponse<Void> head = httpClient.send(HttpRequest.newBuilder(uri)
+                            .timeout(Duration.ofSeconds(60))
+                            .method("HEAD", HttpRequest.BodyPublishers.noBody()).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (head.statusCode() < 400) {
+                        final HttpHeaders headers = head.headers();
+                        length = headers.firstValueAsLong("Content-Length").orElse(-1);
+                        ranges = headers.firstValue("Accept-Ranges").map((String v) -> v.contains("bytes")).orElse(false);
+                    }
+                } catch (IOException ex) {
+                    LOGGER.fine("HEAD request failed for " + uri + ", downloading in a single segment : " + ex.getMessage());
+                }
+            }
+
+            final int nb = (ranges && length > 0) ? (int) Math.max(1, Math.min(segmentsPerFile, length / minSegmentSize)) : 1;
+            final long[] starts = new long[nb];
+            final long[] lengths = new long[nb];
+            if (nb == 1) {
+                lengths[0] = length;
+            } else {
+                final long step = length / nb;
+                for (int i = 0; i < nb; i++) {
+                    starts[i] = i * step;
+                    lengths[i] = (i == nb - 1) ? length - starts[i] : step;
+                }
+            }
+            return new Probe(destPath, starts, lengths);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * Download or resume a segment in its part file.
+     */
+    private void transfer(URI uri, Probe probe, int index) {
+        final Path part = probe.part(index);
+        final long start = probe.starts[index];
+        final long length = probe.lengths[index];
+        try {
+            final long existing = Files.exists(part) ? Files.size(part) : 0;
+            if (length >= 0 && existing >= length) {
+                return;
+            }
+            final HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(TRANSFER_TIMEOUT).GET();
+            final boolean ranged = existing > 0 || probe.starts.length > 1;
+            if (ranged) {
+                builder.header("Range", "bytes=" + (start + existing) + '-' + (length >= 0 ? Long.toString(start + length - 1) : ""));
+            }
+            final HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            final int status = response.statusCode();
+            final boolean append;
+            if (status == 206) {
+                append = true;
+            } else if (status == 416 && length < 0 && existing > 0) {
+                //requested range starts at the end, part is already complete
+                response.body().close();
+                return;
+            } else if (status < 400 && (!ranged || probe.starts.length == 1)) {
+                //range ignored by the server, restart from the beginning
+                append = false;
+            } else {
+                response.body().close();
+                throw new IOException("HTTP " + status + " downloading " + uri
+                        + (ranged && status < 400 ? " : server does not support range requests" : ""));
+            }
+            if (existing > 0 && append) {
+                LOGGER.fine("Resuming " + uri + " segment " + index + " at byte " + (start + existing));
+            }
+
+            try (InputStream in = response.body();
+                 OutputStream out = Files.newOutputStream(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, n);
+                    transferred.add(n);
+                }
+            }
+            if (length >= 0 && Files.size(part) != length) {
+                throw new IOException("Incomplete transfer of " + uri + " segment " + index
+                        + ", expected " + length + " bytes but was " + Files.size(part));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * Concatenate segments, verify checksum and move the result to its final name.
+     */
+    private Path assemble(Probe probe, Path destPath, String checksum) {
+        try {
+            Path result = probe.part(0);
+            if (probe.starts.length > 1) {
+                result = destPath.resolveSibling(destPath.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(result, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (int i = 0; i < probe.starts.length; i++) {
+                        try (FileChannel in = FileChannel.open(probe.part(i), StandardOpenOption.READ)) {
+                            final long size = in.size();
+                            long position = 0;
+                            while (position < size) {
+                                position += in.transferTo(position, size - position, out);
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < probe.starts.length; i++) {
+                    Files.delete(probe.part(i));
+                }
+            }
+            if (checksum != null && !checksumMatches(result, checksum)) {
+                Files.delete(result);
+                throw new IOException("Checksum mismatch for " + destPath.getFileName() + ", expected " + checksum);
+            }
+            Files.move(result, destPath, StandardCopyOption.REPLACE_EXISTING);
+            return destPath;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /*
+     * =====================
+     * HELPER METHODS
+     * =====================
+     */
+
+    /**
+     * Verify a file against a multihash checksum.
+     * Supported hash functions are SHA-1, SHA2-256, SHA2-512 and MD5,
+     * checksums with an unknown hash function are ignored.
+     *
+     * @param file the file to verify
+     * @param checksum multihash checksum in hexadecimal
+     * @return true if the checksum matches or can not be verified
+     * @throws IOException if the file can not be read
+     */
+    static boolean checksumMatches(Path file, String checksum) throws IOException {
+        final String hex = checksum.trim().toLowerCase(Locale.ROOT);
+        final String algorithm;
+        final int offset;
+        if (hex.startsWith("1114")) {
+            algorithm = "SHA-1";    offset = 4;
+        } else if (hex.startsWith("1220")) {
+            algorithm = "SHA-256";  offset = 4;
+        } else if (hex.startsWith("1340")) {
+            algorithm = "SHA-512";  offset = 4;
+        } else if (hex.startsWith("d50110")) {
+            algorithm = "MD5";      offset = 6;
+        } else {
+            LOGGER.fine("Unsupported checksum function, verification skipped : " + checksum);
+            return true;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException ex) {
+            LOGGER.fine("Unavailable checksum function " + algorithm + ", verification skipped.");
+            return true;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.substring(offset).equals(sb.toString());
+    }
+
+    /**
+     * Returns the original cause of a failed download future.
+     *
+     * @param ex exception thrown by the future
+     * @return underlying IOException or InterruptedException when possible
+     */
+    public static Throwable getCause(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException
+                || ex instanceof UncheckedIOException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+}
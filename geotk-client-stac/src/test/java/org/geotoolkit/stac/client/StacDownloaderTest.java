@@ -0,0 +1,211 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.stac.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.geotoolkit.stac.dto.Asset;
+import org.geotoolkit.stac.dto.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link StacDownloader}, using a local HTTP server supporting range requests.
+ *
+ * @author Quentin Bialota (Geomatys)
+ */
+public class StacDownloaderTest {
+
+    private static final int SIZE = 100_000;
+
+    private final byte[] content = new byte[SIZE];
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private final AtomicLong served = new AtomicLong();
+    private HttpServer server;
+    private String serverUrl;
+    private Path tempDir;
+
+    @Before
+    public void setup() throws Exception {
+        new Random(42).nextBytes(content);
+        tempDir = Files.createTempDirectory("stac-download-test");
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/assets/", exchange -> {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Content-Length", Integer.toString(SIZE));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            int start = 0;
+            int end = SIZE - 1;
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null) {
+                ranges.add(range);
+                final String[] parts = range.substring("bytes=".length()).split("-", -1);
+                start = Integer.parseInt(parts[0]);
+                if (!parts[1].isEmpty()) end = Integer.parseInt(parts[1]);
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + start + '-' + end + '/' + SIZE);
+            }
+            final int length = end - start + 1;
+            exchange.sendResponseHeaders(range != null ? 206 : 200, length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(content, start, length);
+            }
+            served.addAndGet(length);
+        });
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (tempDir != null && Files.exists(tempDir)) {
+            Files.walk(tempDir)
+                 .sorted((a, b) -> b.compareTo(a))
+                 .forEach(p -> {
+                     try {
+                         Files.delete(p);
+                     } catch (IOException e) {
+                         // ignore
+                     }
+                 });
+        }
+    }
+
+    /**
+     * Large files must be split in parallel range segments and reassembled.
+     */
+    @Test
+    public void testSegmentedDownload() throws Exception {
+        try (StacDownloader downloader = new StacDownloader(HttpClient.newHttpClient(), 4, 4, 10_000)) {
+            final Path file = downloader.download(URI.create(serverUrl + "/assets/segmented.bin"), tempDir, null);
+            assertArrayEquals(content, Files.readAllBytes(file));
+            assertEquals(4, ranges.size());
+            assertTrue(ranges.contains("bytes=0-24999"));
+            assertTrue(ranges.contains("bytes=75000-99999"));
+            assertEquals(SIZE, downloader.getTransferredBytes());
+            assertTrue(downloader.getThroughput() > 0);
+        }
+        try (var files = Files.list(tempDir)) {
+            assertEquals("Part files must be removed", 1, files.count());
+        }
+    }
+
+    /**
+     * An interrupted download must be resumed after the bytes already on disk.
+     */
+    @Test
+    public void testResume() throws Exception {
+        Files.write(tempDir.resolve("resumed.bin.part0"), Arrays.copyOf(content, 30_000));
+        try (StacDownloader downloader = new StacDownloader(HttpClient.newHttpClient(), 2, 1)) {
+            final Path file = downloader.download(URI.create(serverUrl + "/assets/resumed.bin"), tempDir, null);
+            assertArrayEquals(content, Files.readAllBytes(file));
+        }
+        assertEquals(Collections.singletonList("bytes=30000-"), ranges);
+        assertEquals(SIZE - 30_000, served.get());
+    }
+
+    /**
+     * Checksums declared with the STAC file extension must be verified.
+     */
+    @Test
+    public void testChecksum() throws Exception {
+        final String valid = "1220" + hex(MessageDigest.getInstance("SHA-256").digest(content));
+        final String invalid = "1220" + hex(new byte[32]);
+        final URI uri = URI.create(serverUrl + "/assets/checked.bin");
+
+        final Item item = new Item();
+        final Asset asset = new Asset(uri.toString());
+        asset.setAdditionalProperty(StacDownloader.CHECKSUM_PROPERTY, valid);
+        final Map<String, Asset> assets = new HashMap<>();
+        assets.put("data", asset);
+        item.setAssets(assets);
+        assertEquals(valid, StacDownloader.getChecksum(item, uri));
+
+        try (StacDownloader downloader = new StacDownloader(HttpClient.newHttpClient(), 2, 1)) {
+            try {
+                downloader.download(uri, tempDir, invalid);
+                fail("Checksum mismatch should have been detected");
+            } catch (IOException ex) {
+                // expected
+            }
+            assertFalse(Files.exists(tempDir.resolve("checked.bin")));
+
+            final Path file = downloader.download(uri, tempDir, valid);
+            assertArrayEquals(content, Files.readAllBytes(file));
+        }
+    }
+
+    /**
+     * Several files downloaded concurrently must all be complete.
+     */
+    @Test
+    public void testConcurrentDownloads() throws Exception {
+        try (StacDownloader downloader = new StacDownloader(HttpClient.newHttpClient(), 3, 2, 10_000)) {
+            final List<CompletableFuture<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(downloader.submit(URI.create(serverUrl + "/assets/file" + i + ".bin"), tempDir, null));
+            }
+            for (int i = 0; i < 8; i++) {
+                final Path file = futures.get(i).get();
+                assertEquals("file" + i + ".bin", file.getFileName().toString());
+                assertArrayEquals(content, Files.readAllBytes(file));
+            }
+            assertEquals(8L * SIZE, downloader.getTransferredBytes());
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
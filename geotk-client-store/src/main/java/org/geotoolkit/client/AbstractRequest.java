@@ -37,6 +37,7 @@ import java.util.logging.Logger;
 import java.util.zip.GZIPInputStream;
 import org.apache.sis.io.TableAppender;
 import org.apache.sis.util.ArgumentChecks;
+import org.geotoolkit.client.http.HttpTileFetcher;
 import org.geotoolkit.nio.IOUtilities;
 import org.geotoolkit.security.ClientSecurity;
 import org.geotoolkit.security.DefaultClientSecurity;
@@ -265,7 +266,7 @@ public abstract class AbstractRequest implements Request {
     public InputStream getResponseStream() throws IOException{
         URLConnection cnx = getURL().openConnection();
 
-        cnx.setRequestProperty("User-Agent", "Geotoolkit/2025");
+        cnx.setRequestProperty("User-Agent", HttpTileFetcher.USER_AGENT);
         //Set all fields from the headerMap to the properties of this URLConnection.
         for(final Entry<String,String> entry : headerMap.entrySet()){
             cnx.setRequestProperty(entry.getKey(),entry.getValue());
@@ -0,0 +1,423 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.util.ArgumentChecks;
+
+/**
+ * Persistent HTTP response cache stored in a directory.
+ * Each response is stored in two files named after the SHA-256 digest of the URI :
+ * the raw body ({@code .bin}) and the response metadata ({@code .meta}) used for
+ * freshness and revalidation.
+ * <p>
+ * Freshness follows the response {@code Cache-Control} ({@code no-store}, {@code no-cache},
+ * {@code max-age}, {@code s-maxage}) and {@code Expires} headers. The cache is shared by
+ * all clients, responses marked {@code private} are not stored. When none is given,
+ * a heuristic freshness of 10% of the age since {@code Last-Modified} is used, capped to one day.
+ * Stale entries having an {@code ETag} or {@code Last-Modified} validator are kept for
+ * conditional revalidation.
+ * </p>
+ * <p>
+ * When the cache grows over its maximum size, least recently used entries are removed.
+ * </p>
+ *
+ * @module
+ */
+public final class HttpDiskCache {
+
+    private static final Logger LOGGER = Logger.getLogger("org.geotoolkit.client.http");
+
+    private static final String BODY_SUFFIX = ".bin";
+    private static final String META_SUFFIX = ".meta";
+    private static final long MAX_HEURISTIC_FRESHNESS = 24L * 3600 * 1000;
+
+    private static final String KEY_URI = "uri";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "last-modified";
+    private static final String KEY_CONTENT_TYPE = "content-type";
+    private static final String KEY_EXPIRES = "expires";
+
+    private final Path directory;
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Open or create a cache in given directory.
+     *
+     * @param directory cache directory, created if needed
+     * @param maxSize maximum size of cached bodies, in bytes
+     * @throws IOException if the directory can not be created or listed
+     */
+    public HttpDiskCache(final Path directory, final long maxSize) throws IOException {
+        ArgumentChecks.ensureNonNull("directory", directory);
+        ArgumentChecks.ensureStrictlyPositive("maxSize", maxSize);
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            for (Path p : stream) {
+                total += Files.size(p);
+            }
+        }
+        size.set(total);
+    }
+
+    /**
+     * @return cache directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return current size of cached bodies, in bytes
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    /**
+     * Get cached response for given URI.
+     *
+     * @param uri requested URI
+     * @return cached entry, fresh or not, empty if there is none
+     */
+    public Optional<Entry> get(final URI uri) {
+        final String key = key(uri);
+        final Path meta = directory.resolve(key + META_SUFFIX);
+        final Path body = directory.resolve(key + BODY_SUFFIX);
+        final Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(meta)) {
+            props.load(in);
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Unreadable cache entry for " + uri, ex);
+            return Optional.empty();
+        }
+        if (!uri.toString().equals(props.getProperty(KEY_URI)) || !Files.isRegularFile(body)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Entry(body,
+                props.getProperty(KEY_ETAG),
+                props.getProperty(KEY_LAST_MODIFIED),
+                props.getProperty(KEY_CONTENT_TYPE),
+                Long.parseLong(props.getProperty(KEY_EXPIRES, "0"))));
+    }
+
+    /**
+     * Store a response.
+     * Nothing is stored if the response forbids it or can not be revalidated once stale.
+     *
+     * @param uri requested URI
+     * @param headers response headers
+     * @param data response body
+     * @return true if the response has been stored
+     */
+    public boolean put(final URI uri, final HttpHeaders headers, final byte[] data) {
+        if (data.length > maxSize) return false;
+        final long now = System.currentTimeMillis();
+        final long expires = expires(headers, now);
+        final String etag = headers.firstValue("ETag").orElse(null);
+        final String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        if (expires < 0 || (expires <= now && etag == null && lastModified == null)) {
+            //no-store or useless entry
+            remove(uri);
+            return false;
+        }
+        final String key = key(uri);
+        final Path body = directory.resolve(key + BODY_SUFFIX);
+        try {
+            final long previous = Files.exists(body) ? Files.size(body) : 0;
+            final Path tmp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(key, uri, etag, lastModified, headers.firstValue("Content-Type").orElse(null), expires);
+            size.addAndGet(data.length - previous);
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Response can not be cached for " + uri, ex);
+            return false;
+        }
+        if (size.get() > maxSize) {
+            evict();
+        }
+        return true;
+    }
+
+    /**
+     * Update the metadata of an entry after a successful revalidation ({@code 304 Not Modified}).
+     *
+     * @param uri requested URI
+     * @param entry revalidated entry
+     * @param headers headers of the 304 response
+     */
+    public void revalidated(final URI uri, final Entry entry, final HttpHeaders headers) {
+        final long expires = expires(headers, System.currentTimeMillis());
+        if (expires < 0) {
+            remove(uri);
+            return;
+        }
+        try {
+            writeMeta(key(uri), uri,
+                    headers.firstValue("ETag").orElse(entry.etag),
+                    headers.firstValue("Last-Modified").orElse(entry.lastModified),
+                    entry.contentType, expires);
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Cache entry can not be updated for " + uri, ex);
+        }
+    }
+
+    /**
+     * Remove cached response for given URI.
+     */
+    public void remove(final URI uri) {
+        remove(key(uri));
+    }
+
+    private void remove(final String key) {
+        try {
+            final Path body = directory.resolve(key + BODY_SUFFIX);
+            final long length = Files.exists(body) ? Files.size(body) : 0;
+            Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+            if (Files.deleteIfExists(body)) {
+                size.addAndGet(-length);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Cache entry can not be removed : " + key, ex);
+        }
+    }
+
+    private void writeMeta(final String key, final URI uri, final String etag, final String lastModified,
+            final String contentType, final long expires) throws IOException {
+        final Properties props = new Properties();
+        props.setProperty(KEY_URI, uri.toString());
+        if (etag != null) props.setProperty(KEY_ETAG, etag);
+        if (lastModified != null) props.setProperty(KEY_LAST_MODIFIED, lastModified);
+        if (contentType != null) props.setProperty(KEY_CONTENT_TYPE, contentType);
+        props.setProperty(KEY_EXPIRES, Long.toString(expires));
+        final Path tmp = Files.createTempFile(directory, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, null);
+        }
+        Files.move(tmp, directory.resolve(key + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Remove least recently used entries until the cache size is under 90% of its maximum.
+     */
+    private synchronized void evict() {
+        if (size.get() <= maxSize) return;
+        final List<Path> bodies = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            stream.forEach(bodies::add);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cache directory can not be listed : " + directory, ex);
+            return;
+        }
+        final List<Object[]> times = new ArrayList<>(bodies.size());
+        for (Path p : bodies) {
+            try {
+                times.add(new Object[]{p, Files.getLastModifiedTime(p)});
+            } catch (IOException ex) {
+                //removed concurrently
+            }
+        }
+        times.sort((Object[] a, Object[] b) -> ((FileTime) a[1]).compareTo((FileTime) b[1]));
+        final long target = maxSize / 10 * 9;
+        for (Object[] t : times) {
+            if (size.get() <= target) break;
+            final String name = ((Path) t[0]).getFileName().toString();
+            remove(name.substring(0, name.length() - BODY_SUFFIX.length()));
+        }
+    }
+
+    /**
+     * Compute expiration time of a response.
+     *
+     * @return expiration time in milliseconds, -1 if response must not be stored.
+     */
+    static long expires(final HttpHeaders headers, final long now) {
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        boolean noCache = false;
+        for (String value : headers.allValues("Cache-Control")) {
+            for (String directive : value.split(",")) {
+                directive = directive.trim().toLowerCase();
+                if (directive.equals("no-store") || directive.equals("private")) {
+                    //this cache is shared, private responses are not stored
+                    return -1;
+                } else if (directive.equals("no-cache")) {
+                    noCache = true;
+                } else if (directive.startsWith("max-age=")) {
+                    maxAge = parseSeconds(directive);
+                } else if (directive.startsWith("s-maxage=")) {
+                    sharedMaxAge = parseSeconds(directive);
+                }
+            }
+        }
+        if (noCache) {
+            return now;
+        } else if (sharedMaxAge >= 0) {
+            //this cache is shared, s-maxage overrides max-age (RFC 9111 section 5.2.2.10)
+            return now + sharedMaxAge * 1000;
+        } else if (maxAge >= 0) {
+            return now + maxAge * 1000;
+        }
+        final Optional<String> expires = headers.firstValue("Expires");
+        if (expires.isPresent()) {
+            final long time = parseDate(expires.get());
+            return (time < 0) ? now : time;
+        }
+        final Optional<String> lastModified = headers.firstValue("Last-Modified");
+        if (lastModified.isPresent()) {
+            final long time = parseDate(lastModified.get());
+            if (time >= 0 && time < now) {
+                return now + Math.min((now - time) / 10, MAX_HEURISTIC_FRESHNESS);
+            }
+        }
+        return now;
+    }
+
+    /**
+     * Parse the delta-seconds value of a cache directive, invalid values are handled as zero.
+     */
+    private static long parseSeconds(final String directive) {
+        try {
+            return Long.parseLong(directive.substring(directive.indexOf('=') + 1).replace("\"", "").trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static long parseDate(final String date) {
+        try {
+            return ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            return -1;
+        }
+    }
+
+    private static String key(final URI uri) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            //SHA-256 is mandatory on all java platforms
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    public static final class Entry {
+
+        private final Path body;
+        private final String etag;
+        private final String lastModified;
+        private final String contentType;
+        private final long expires;
+
+        Entry(final Path body, final String etag, final String lastModified, final String contentType, final long expires) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.expires = expires;
+        }
+
+        /**
+         * @return entity tag validator, may be null
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return last modification date validator, may be null
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return response content type, may be null
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @param now current time in milliseconds
+         * @return true if the entry can be used without revalidation
+         */
+        public boolean isFresh(final long now) {
+            return now < expires;
+        }
+
+        /**
+         * @return true if the entry has a validator for conditional requests
+         */
+        public boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * Read cached body, marking this entry as recently used.
+         *
+         * @return response body
+         * @throws IOException if the entry has been removed meanwhile
+         */
+        public byte[] read() throws IOException {
+            final byte[] data = Files.readAllBytes(body);
+            try {
+                Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException ex) {
+                //not important
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import org.apache.sis.util.ArgumentChecks;
+import org.geotoolkit.client.AbstractRequest;
+import org.geotoolkit.client.Request;
+import org.geotoolkit.security.ClientSecurity;
+
+/**
+ * Asynchronous fetcher for small resources such as map tiles.
+ * <p>
+ * All requests share a single {@link HttpClient}, its connections are pooled and
+ * multiplexed when the server supports HTTP/2. The number of simultaneous requests
+ * sent to a given host is bounded, extra requests are queued without blocking the caller.
+ * Concurrent requests for the same URI share the same response.
+ * </p>
+ * <p>
+ * When a {@link HttpDiskCache} is configured, fresh responses are served from the disk
+ * without any network access and stale responses are revalidated with conditional
+ * requests ({@code If-None-Match}, {@code If-Modified-Since}).
+ * </p>
+ * <p>
+ * The default instance is shared by all web map clients. Its disk cache is enabled by
+ * setting the {@value #CACHE_DIRECTORY_PROPERTY} system property, the cache maximum size
+ * in megabytes can be set with {@value #CACHE_SIZE_PROPERTY} (default 512) and the
+ * per host concurrency with {@value #MAX_PER_HOST_PROPERTY} (default 8).
+ * </p>
+ *
+ * @module
+ */
+public final class HttpTileFetcher {
+
+    private static final Logger LOGGER = Logger.getLogger("org.geotoolkit.client.http");
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "geotk.client.http.cache.dir";
+    public static final String CACHE_SIZE_PROPERTY = "geotk.client.http.cache.size";
+    public static final String MAX_PER_HOST_PROPERTY = "geotk.client.http.maxPerHost";
+
+    /**
+     * User agent sent by web clients, with the library version read from the jar manifest.
+     */
+    public static final String USER_AGENT;
+    static {
+        final String version = HttpTileFetcher.class.getPackage().getImplementationVersion();
+        USER_AGENT = (version != null) ? "Geotoolkit/" + version : "Geotoolkit";
+    }
+
+    private static HttpTileFetcher DEFAULT;
+
+    private final HttpClient client;
+    private final HttpDiskCache cache;
+    private final int maxPerHost;
+    private final Map<String,HostQueue> hosts = new HashMap<>();
+    private final ConcurrentHashMap<URI,CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new fetcher.
+     *
+     * @param cache disk cache, can be null
+     * @param maxPerHost maximum number of simultaneous requests to a host
+     */
+    public HttpTileFetcher(final HttpDiskCache cache, final int maxPerHost) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(20))
+                .build(), cache, maxPerHost);
+    }
+
+    /**
+     * Create a new fetcher using given client.
+     *
+     * @param client http client, not null
+     * @param cache disk cache, can be null
+     * @param maxPerHost maximum number of simultaneous requests to a host
+     */
+    public HttpTileFetcher(final HttpClient client, final HttpDiskCache cache, final int maxPerHost) {
+        ArgumentChecks.ensureNonNull("client", client);
+        ArgumentChecks.ensureStrictlyPositive("maxPerHost", maxPerHost);
+        this.client = client;
+        this.cache = cache;
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     * Get the fetcher shared by web map clients.
+     * See class documentation for the system properties used to configure it.
+     *
+     * @return shared fetcher, never null
+     */
+    public static synchronized HttpTileFetcher getDefault() {
+        if (DEFAULT == null) {
+            HttpDiskCache cache = null;
+            final String dir = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+            if (dir != null && !dir.isBlank()) {
+                final long size = Long.getLong(CACHE_SIZE_PROPERTY, 512L);
+                try {
+                    cache = new HttpDiskCache(Paths.get(dir), size * 1024 * 1024);
+                } catch (IOException | RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "HTTP disk cache can not be created in " + dir, ex);
+                }
+            }
+            DEFAULT = new HttpTileFetcher(cache, Integer.getInteger(MAX_PER_HOST_PROPERTY, 8));
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * @return disk cache, may be null
+     */
+    public HttpDiskCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return maximum number of simultaneous requests to a host
+     */
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    /**
+     * Fetch the response body of given request.
+     * Request headers, security and timeout are used as configured on the request.
+     *
+     * @param request request to send
+     * @return future response body, completed exceptionally with an {@link IOException}
+     *         if the request fails or the server answers with an error code
+     */
+    public CompletableFuture<byte[]> fetch(final Request request) {
+        final HttpRequest.Builder builder;
+        try {
+            builder = request.getRequestBuilder();
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(new IOException(ex.getMessage(), ex));
+        }
+        if (request.getTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(request.getTimeout()));
+        }
+        final ClientSecurity security = (request instanceof AbstractRequest) ? ((AbstractRequest) request).getClientSecurity() : null;
+        return fetch(builder, security);
+    }
+
+    /**
+     * Fetch the response body of given request builder.
+     *
+     * @param builder request builder, with uri, headers and security configured
+     * @param security used to decrypt the response, can be null
+     * @return future response body
+     */
+    public CompletableFuture<byte[]> fetch(final HttpRequest.Builder builder, final ClientSecurity security) {
+        builder.setHeader("User-Agent", USER_AGENT);
+        builder.setHeader("Accept-Encoding", "gzip");
+        builder.GET();
+        final HttpRequest base = builder.copy().build();
+        final URI uri = base.uri();
+        //secured responses may differ per user, they are not shared
+        final boolean shared = base.headers().firstValue("Authorization").isEmpty()
+                            && base.headers().firstValue("Cookie").isEmpty();
+        if (!shared) {
+            return submit(uri, () -> send(base, null, security));
+        }
+
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        final CompletableFuture<byte[]> previous = inFlight.putIfAbsent(uri, future);
+        if (previous != null) {
+            return previous;
+        }
+        future.whenComplete((byte[] r, Throwable t) -> inFlight.remove(uri, future));
+
+        CompletableFuture<byte[]> result = null;
+        if (cache != null) {
+            final Optional<HttpDiskCache.Entry> entry = cache.get(uri);
+            if (entry.isPresent()) {
+                final HttpDiskCache.Entry e = entry.get();
+                if (e.isFresh(System.currentTimeMillis())) {
+                    try {
+                        result = CompletableFuture.completedFuture(decrypt(e.read(), security));
+                    } catch (IOException ex) {
+                        //entry removed meanwhile, fetch it again
+                        LOGGER.log(Level.FINE, ex.getMessage(), ex);
+                    }
+                } else if (e.canRevalidate()) {
+                    if (e.getETag() != null) builder.setHeader("If-None-Match", e.getETag());
+                    if (e.getLastModified() != null) builder.setHeader("If-Modified-Since", e.getLastModified());
+                    final HttpRequest conditional = builder.build();
+                    result = submit(uri, () -> send(conditional, e, security));
+                }
+            }
+        }
+        if (result == null) {
+            result = submit(uri, () -> send(base, null, security));
+        }
+        result.whenComplete((byte[] r, Throwable t) -> {
+            if (t != null) future.completeExceptionally(t);
+            else future.complete(r);
+        });
+        return future;
+    }
+
+    private CompletableFuture<byte[]> send(final HttpRequest request, final HttpDiskCache.Entry cached, final ClientSecurity security) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply((HttpResponse<byte[]> response) -> {
+            try {
+                final int code = response.statusCode();
+                final HttpHeaders headers = response.headers();
+                if (code == 304 && cached != null) {
+                    cache.revalidated(request.uri(), cached, headers);
+                    return decrypt(cached.read(), security);
+                }
+                if (code < 200 || code >= 300) {
+                    throw new IOException("Server returned HTTP code " + code + " for URL : " + request.uri());
+                }
+                byte[] data = response.body();
+                if (headers.firstValue("Content-Encoding").map((String s) -> s.equalsIgnoreCase("gzip")).orElse(false)) {
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                        data = in.readAllBytes();
+                    }
+                }
+                if (cache != null && code == 200 && isStorable(request, headers)) {
+                    cache.put(request.uri(), headers, data);
+                }
+                return decrypt(data, security);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private boolean isStorable(final HttpRequest request, final HttpHeaders headers) {
+        if (request.headers().firstValue("Authorization").isPresent()) return false;
+        for (String vary : headers.allValues("Vary")) {
+            for (String name : vary.split(",")) {
+                name = name.trim();
+                if (!name.isEmpty() && !name.equalsIgnoreCase("Accept-Encoding")) return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] decrypt(final byte[] data, final ClientSecurity security) throws IOException {
+        if (security == null) return data;
+        try (InputStream in = security.decrypt(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Run given task when a slot for the uri host is available.
+     */
+    private CompletableFuture<byte[]> submit(final URI uri, final Supplier<CompletableFuture<byte[]>> task) {
+        final String host = uri.getScheme() + "://" + uri.getAuthority();
+        final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        final Runnable run = () -> {
+            final CompletableFuture<byte[]> f;
+            try {
+                f = task.get();
+            } catch (RuntimeException ex) {
+                release(host);
+                result.completeExceptionally(ex);
+                return;
+            }
+            f.whenComplete((byte[] r, Throwable t) -> {
+                release(host);
+                if (t != null) result.completeExceptionally(unwrap(t));
+                else result.complete(r);
+            });
+        };
+        final boolean now;
+        synchronized (hosts) {
+            final HostQueue queue = hosts.computeIfAbsent(host, (String k) -> new HostQueue());
+            now = queue.active < maxPerHost;
+            if (now) queue.active++;
+            else queue.pending.add(run);
+        }
+        if (now) run.run();
+        return result;
+    }
+
+    private void release(final String host) {
+        final Runnable next;
+        synchronized (hosts) {
+            final HostQueue queue = hosts.get(host);
+            next = queue.pending.poll();
+            if (next == null) {
+                queue.active--;
+                if (queue.active == 0) hosts.remove(host);
+            }
+        }
+        if (next != null) next.run();
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof UncheckedIOException) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * Wait for the response body of given request.
+     *
+     * @param request request to send
+     * @return response body
+     * @throws IOException if the request failed
+     */
+    public byte[] fetchNow(final Request request) throws IOException {
+        try {
+            return fetch(request).join();
+        } catch (CompletionException ex) {
+            final Throwable cause = unwrap(ex);
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private static final class HostQueue {
+        private int active;
+        private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+    }
+}
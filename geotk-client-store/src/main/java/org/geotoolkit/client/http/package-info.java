@@ -0,0 +1,27 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+
+/**
+ * Asynchronous HTTP fetching and persistent response cache shared by the web map clients.
+ *
+ * <p>
+ * Exemple, enable the disk cache of the shared fetcher :
+ * <pre>
+ * -Dgeotk.client.http.cache.dir=/var/cache/geotk -Dgeotk.client.http.cache.size=1024
+ * </pre>
+ */
+package org.geotoolkit.client.http;
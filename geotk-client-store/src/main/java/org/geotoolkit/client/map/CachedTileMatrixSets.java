@@ -17,33 +17,38 @@
 package org.geotoolkit.client.map;
 
 import java.awt.image.RenderedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 import javax.imageio.spi.ImageReaderSpi;
-import javax.imageio.stream.ImageInputStream;
-import javax.imageio.stream.MemoryCacheImageInputStream;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.tiling.Tile;
 import org.apache.sis.storage.tiling.TileMatrix;
 import org.apache.sis.storage.tiling.TileMatrixSet;
+import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.collection.Cache;
 import org.geotoolkit.client.Client;
 import org.geotoolkit.client.Request;
+import org.geotoolkit.client.http.HttpTileFetcher;
 import org.geotoolkit.image.io.XImageIO;
 import org.geotoolkit.storage.coverage.*;
 import org.geotoolkit.storage.multires.TileMatrices;
 
 /**
+ * Tile matrix sets of web map clients.
+ * Tiles are downloaded with a {@link HttpTileFetcher}, by default the shared one
+ * which may store responses in a persistent disk cache.
  *
  * @author Johann Sorel (Geomatys)
  * @module
@@ -59,6 +64,7 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
     protected final Client server;
     protected final boolean useURLQueries;
     protected final boolean cacheImages;
+    private HttpTileFetcher fetcher = HttpTileFetcher.getDefault();
 
     public CachedTileMatrixSets(Client server, boolean useURLQueries, boolean cacheImages) {
         this.server = server;
@@ -75,6 +81,21 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
         return server;
     }
 
+    /**
+     * @return fetcher used to download tiles, never null
+     */
+    public HttpTileFetcher getFetcher() {
+        return fetcher;
+    }
+
+    /**
+     * @param fetcher fetcher used to download tiles, not null
+     */
+    public void setFetcher(HttpTileFetcher fetcher) {
+        ArgumentChecks.ensureNonNull("fetcher", fetcher);
+        this.fetcher = fetcher;
+    }
+
     public abstract Request getTileRequest(TileMatrixSet pyramid, TileMatrix mosaic, long[] indices, Map hints) throws DataStoreException;
 
     public Optional<Tile> getTile(TileMatrixSet pyramid, TileMatrix mosaic, long[] indices, Map hints) throws DataStoreException {
@@ -91,7 +112,7 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
         if (cacheImages) {
             return Optional.of(new DefaultImageTile(mosaic, spi, getTileImage(pyramid, mosaic, indices, hints), 0, indices));
         } else {
-            return Optional.of(new RequestImageTile(mosaic, spi, getTileRequest(pyramid, mosaic, indices, hints), 0, indices));
+            return Optional.of(new RequestImageTile(mosaic, spi, getTileRequest(pyramid, mosaic, indices, hints), fetcher, 0, indices));
         }
     }
 
@@ -116,29 +137,10 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
                 value = handler.peek();
                 if (value == null) {
                     final Request request = getTileRequest(pyramid, mosaic, indices, hints);
-                    InputStream stream = null;
-                    ImageInputStream iis = null;
                     try {
-                        stream = request.getResponseStream();
-                        iis = new MemoryCacheImageInputStream(stream);
-                        value = ImageIO.read(iis);
+                        value = decode(fetcher.fetchNow(request));
                     } catch (IOException ex) {
                         LOGGER.log(Level.INFO, ex.getMessage());
-                    } finally {
-                        if(iis != null && value == null){
-                            try {
-                                iis.close();
-                            } catch (IOException ex) {
-                                LOGGER.log(Level.WARNING, ex.getMessage(), ex);
-                            }
-                        }
-                        if(stream != null){
-                            try {
-                                stream.close();
-                            } catch (IOException ex) {
-                                LOGGER.log(Level.WARNING, ex.getMessage(), ex);
-                            }
-                        }
                     }
                 }
             } finally {
@@ -148,31 +150,45 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
         return value;
     }
 
+    private static RenderedImage decode(byte[] data) throws IOException {
+        final RenderedImage image = ImageIO.read(new ByteArrayInputStream(data));
+        if (image == null) {
+            throw new IOException("No image reader found for the tile content");
+        }
+        return image;
+    }
+
     public Stream<Tile> getTiles(TileMatrixSet pyramid, TileMatrix mosaic, Collection<long[]> locations, Map hints) throws DataStoreException {
 
-        return queryUnoptimizedIO(pyramid, mosaic, locations);
+        return queryUnoptimizedIO(pyramid, mosaic, locations, hints);
     }
 
     /**
-     * Use standard java IO with a thread pool.
+     * Send all requests at once, the fetcher bounds the number of concurrent
+     * requests per host. Tiles are returned in the request order.
      */
     private Stream<Tile> queryUsingIO(final List<ImagePack> downloadList){
-        return downloadList.stream().parallel().map((ImagePack pack) -> {
-            final Tile tr;
+        final List<CompletableFuture<Tile>> futures = new ArrayList<>(downloadList.size());
+        for (ImagePack pack : downloadList) {
+            futures.add(pack.fetch());
+        }
+        return futures.stream().map((CompletableFuture<Tile> future) -> {
             try {
-                tr = pack.readNow();
-            } catch (Exception ex) {
-                LOGGER.log(Level.WARNING, ex.getMessage(),ex);
+                return future.join();
+            } catch (CompletionException ex) {
+                final Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+                LOGGER.log(Level.WARNING, cause.getMessage(), cause);
                 return null;
             }
-            return tr;
         }).filter(Objects::nonNull);
     }
 
     /**
-     * When service is secured or has other constraints we can only use standard IO.
+     * Tiles in the image cache are returned first, the others are downloaded
+     * through the shared {@link HttpTileFetcher}, which answers from its disk
+     * cache when enabled and the response is still fresh.
      */
-    private Stream<Tile> queryUnoptimizedIO(TileMatrixSet pyramid, TileMatrix mosaic, Collection<long[]> locations){
+    private Stream<Tile> queryUnoptimizedIO(TileMatrixSet pyramid, TileMatrix mosaic, Collection<long[]> locations, Map hints){
 
         final List<Tile> queue = new ArrayList<>();
 
@@ -192,7 +208,7 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
                 queue.add(tile);
             } else {
                 //we will have to download this image
-                downloadList.add(new ImagePack(pyramid, mosaic, p));
+                downloadList.add(new ImagePack(pyramid, mosaic, p, hints));
             }
         }
 
@@ -207,37 +223,40 @@ public abstract class CachedTileMatrixSets extends DefaultTileMatrixSets {
 
     private final class ImagePack {
 
-        private final String requestPath;
         private final TileMatrixSet matrixSet;
         private final TileMatrix matrix;
         private final long[] pt;
+        private final Map hints;
 
-        public ImagePack(String requestPath, TileMatrixSet matrixSet, TileMatrix matrix, long[] pt) {
-            this.requestPath = requestPath;
-            this.matrixSet = matrixSet;
-            this.matrix = matrix;
-            this.pt = pt;
-        }
-
-        public ImagePack(TileMatrixSet matrixSet, TileMatrix matrix, long[] pt) {
-            this.requestPath = null;
+        public ImagePack(TileMatrixSet matrixSet, TileMatrix matrix, long[] pt, Map hints) {
             this.matrixSet = matrixSet;
             this.matrix = matrix;
             this.pt = pt;
+            this.hints = hints;
         }
 
-        public String getRequestPath() {
-            return requestPath;
-        }
-
-        public Tile readNow() throws DataStoreException, IOException{
-            //tile should never be null at this point
-            final DefaultImageTile ref = (DefaultImageTile) matrix.getTile(new long[]{pt[0], pt[1]}).orElse(null);
-            if (ref.getInput() instanceof RenderedImage) {
-                return ref;
+        /**
+         * Start downloading the tile, decoding happens in the fetcher threads.
+         */
+        public CompletableFuture<Tile> fetch() {
+            final Request request;
+            try {
+                request = getTileRequest(matrixSet, matrix, pt, hints);
+            } catch (DataStoreException ex) {
+                return CompletableFuture.failedFuture(ex);
             }
-            final RenderedImage img = ref.getImage();
-            return new DefaultImageTile(matrix, ref.getImageReaderSpi(), img, 0, ref.getIndices());
+            return fetcher.fetch(request).thenApply((byte[] data) -> {
+                final RenderedImage img;
+                try {
+                    img = decode(data);
+                } catch (IOException ex) {
+                    throw new CompletionException(ex);
+                }
+                if (tileCache != null) {
+                    tileCache.put(toId(matrixSet, matrix, pt), img);
+                }
+                return new DefaultImageTile(matrix, null, img, 0, pt);
+            });
         }
 
     }
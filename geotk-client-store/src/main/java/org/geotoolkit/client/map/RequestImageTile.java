@@ -16,6 +16,7 @@
  */
 package org.geotoolkit.client.map;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import javax.imageio.ImageReader;
@@ -26,6 +27,7 @@ import org.apache.sis.storage.StorageConnector;
 import org.apache.sis.storage.tiling.TileMatrix;
 import org.apache.sis.storage.tiling.TileStatus;
 import org.geotoolkit.client.Request;
+import org.geotoolkit.client.http.HttpTileFetcher;
 import org.geotoolkit.image.io.XImageIO;
 import org.geotoolkit.storage.coverage.DefaultImageTile;
 
@@ -35,8 +37,26 @@ import org.geotoolkit.storage.coverage.DefaultImageTile;
  */
 public class RequestImageTile extends DefaultImageTile {
 
+    /**
+     * Fetcher used to download the tile, if null the request stream is used.
+     */
+    private final HttpTileFetcher fetcher;
+
     public RequestImageTile(TileMatrix matrix, ImageReaderSpi spi, Request input, int imageIndex, long... position) {
+        this(matrix, spi, input, null, imageIndex, position);
+    }
+
+    public RequestImageTile(TileMatrix matrix, ImageReaderSpi spi, Request input, HttpTileFetcher fetcher, int imageIndex, long... position) {
         super(matrix, spi, input, imageIndex, position);
+        this.fetcher = fetcher;
+    }
+
+    private InputStream getResponseStream() throws IOException {
+        final Request request = (Request) input;
+        if (fetcher != null) {
+            return new ByteArrayInputStream(fetcher.fetchNow(request));
+        }
+        return request.getResponseStream();
     }
 
     @Override
@@ -50,7 +70,7 @@ public class RequestImageTile extends DefaultImageTile {
             ImageReader reader = XImageIO.getReaderBySuffix(request.getURL(), Boolean.TRUE, Boolean.TRUE);
             InputStream in = null;
             try {
-                in = request.getResponseStream();
+                in = getResponseStream();
                 byte[] readAllBytes = in.readAllBytes();
                 final StorageConnector cnx = new StorageConnector(readAllBytes);
                 final ImageInputStream imin = cnx.getStorageAs(ImageInputStream.class);
@@ -78,7 +98,7 @@ public class RequestImageTile extends DefaultImageTile {
             }
         }
 
-        final Object inputTmp = ((Request)input).getResponseStream();
+        final Object inputTmp = getResponseStream();
         Object in = XImageIO.toSupportedInput(spi, inputTmp);
 
         final ImageReader reader = spi.createReaderInstance();
@@ -0,0 +1,211 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.client.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.geotoolkit.client.AbstractRequest;
+import org.geotoolkit.client.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link HttpTileFetcher} and {@link HttpDiskCache} against a local server.
+ */
+public class HttpTileFetcherTest {
+
+    private static final byte[] BODY = "tile-content".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private Path directory;
+    private String base;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("httpcache");
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/etag", (HttpExchange exchange) -> {
+            hits.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                send(exchange, BODY);
+            }
+        });
+        server.createContext("/maxage", (HttpExchange exchange) -> {
+            hits.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            send(exchange, BODY);
+        });
+        server.createContext("/nostore", (HttpExchange exchange) -> {
+            hits.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            send(exchange, BODY);
+        });
+        server.createContext("/private", (HttpExchange exchange) -> {
+            hits.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "private, max-age=3600");
+            send(exchange, BODY);
+        });
+        server.createContext("/slow", (HttpExchange exchange) -> {
+            final int n = active.incrementAndGet();
+            maxActive.accumulateAndGet(n, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            send(exchange, exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/missing", (HttpExchange exchange) -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop(0);
+        executor.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach((Path p) -> p.toFile().delete());
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final byte[] data) throws IOException {
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private static Request request(final String url) {
+        return new AbstractRequest(url, (String) null) {};
+    }
+
+    /**
+     * Stale entries must be revalidated, a 304 response is served from the disk.
+     */
+    @Test
+    public void revalidationTest() throws Exception {
+        final HttpTileFetcher fetcher = new HttpTileFetcher(new HttpDiskCache(directory, 1 << 20), 4);
+        assertArrayEquals(BODY, fetcher.fetchNow(request(base + "/etag")));
+        assertArrayEquals(BODY, fetcher.fetchNow(request(base + "/etag")));
+        assertEquals(2, hits.get());
+        assertEquals(1, notModified.get());
+    }
+
+    /**
+     * Fresh entries must be served without contacting the server, even by a new fetcher.
+     */
+    @Test
+    public void freshnessTest() throws Exception {
+        final HttpDiskCache cache = new HttpDiskCache(directory, 1 << 20);
+        assertArrayEquals(BODY, new HttpTileFetcher(cache, 4).fetchNow(request(base + "/maxage")));
+        assertEquals(BODY.length, cache.getSize());
+
+        final HttpTileFetcher other = new HttpTileFetcher(new HttpDiskCache(directory, 1 << 20), 4);
+        assertArrayEquals(BODY, other.fetchNow(request(base + "/maxage")));
+        assertEquals(1, hits.get());
+
+        assertArrayEquals(BODY, other.fetchNow(request(base + "/nostore")));
+        assertArrayEquals(BODY, other.fetchNow(request(base + "/nostore")));
+        assertEquals(3, hits.get());
+
+        //the cache is shared, private responses are not stored
+        assertArrayEquals(BODY, other.fetchNow(request(base + "/private")));
+        assertArrayEquals(BODY, other.fetchNow(request(base + "/private")));
+        assertEquals(5, hits.get());
+        assertEquals(BODY.length, cache.getSize());
+    }
+
+    /**
+     * The cache is shared, s-maxage must take precedence over max-age whatever the directive order.
+     */
+    @Test
+    public void sharedMaxAgeTest() {
+        final long now = System.currentTimeMillis();
+        assertEquals(now + 3600_000, HttpDiskCache.expires(cacheControl("public, max-age=3600"), now));
+        assertEquals(now, HttpDiskCache.expires(cacheControl("max-age=3600, s-maxage=0"), now));
+        assertEquals(now + 60_000, HttpDiskCache.expires(cacheControl("s-maxage=60, max-age=3600"), now));
+        assertEquals(now + 60_000, HttpDiskCache.expires(cacheControl("max-age=0, s-maxage=\"60\""), now));
+    }
+
+    private static HttpHeaders cacheControl(final String value) {
+        return HttpHeaders.of(Collections.singletonMap("Cache-Control", Collections.singletonList(value)),
+                (String name, String v) -> true);
+    }
+
+    /**
+     * The number of simultaneous requests to a host must not exceed the limit.
+     */
+    @Test
+    public void perHostLimitTest() throws Exception {
+        final HttpTileFetcher fetcher = new HttpTileFetcher(null, 2);
+        final List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            futures.add(fetcher.fetch(request(base + "/slow?" + i)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(String.valueOf(i), new String(futures.get(i).join(), StandardCharsets.UTF_8));
+        }
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    /**
+     * Error codes must be reported as IOException.
+     */
+    @Test(expected = IOException.class)
+    public void errorTest() throws Exception {
+        new HttpTileFetcher(null, 2).fetchNow(request(base + "/missing"));
+    }
+}
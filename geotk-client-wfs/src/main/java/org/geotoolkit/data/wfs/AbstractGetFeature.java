@@ -72,6 +72,7 @@ public abstract class AbstractGetFeature extends AbstractRequest implements GetF
     private QName typeName       = null;
     private Filter filter        = null;
     private Integer maxFeatures  = null;
+    private Integer startIndex   = null;
     private GenericName[] propertyNames = null;
     private String outputFormat  = null;
 
@@ -128,6 +129,22 @@ public abstract class AbstractGetFeature extends AbstractRequest implements GetF
         maxFeatures = max;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Integer getStartIndex(){
+        return startIndex;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void setStartIndex(final Integer index){
+        startIndex = index;
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -232,7 +249,7 @@ public abstract class AbstractGetFeature extends AbstractRequest implements GetF
         final XMLFilter xmlFilter = prepareFilter().orElse(null);
         final Query query = WFSXmlFactory.buildQuery(version.getCode(), xmlFilter, typeNames, null, null, null, propNames);
 
-        final GetFeature request = WFSXmlFactory.buildGetFeature(version.getCode(), "WFS", null, null, maxFeatures, query, ResultTypeType.RESULTS, outputFormat);
+        final GetFeature request = WFSXmlFactory.buildGetFeature(version.getCode(), "WFS", null, startIndex, maxFeatures, query, ResultTypeType.RESULTS, outputFormat);
 
         final URL url = new URL(serverURL);
         URLConnection conec = url.openConnection();
@@ -63,15 +63,35 @@ public class Bundle extends IndexedResourceBundle {
          */
         public static final short longitudeFirstRemarks = 4;
 
+        /**
+         * Page size
+         */
+        public static final short pageSize = 5;
+
+        /**
+         * Number of features requested by each GetFeature page, WFS 2.0 only.
+         */
+        public static final short pageSizeRemarks = 6;
+
+        /**
+         * Page window
+         */
+        public static final short pageWindow = 7;
+
+        /**
+         * Maximum number of pages requested and parsed concurrently.
+         */
+        public static final short pageWindowRemarks = 8;
+
         /**
          * POST queries
          */
-        public static final short post = 5;
+        public static final short post = 9;
 
         /**
          * Use post queries.
          */
-        public static final short postRemarks = 6;
+        public static final short postRemarks = 10;
     }
 
     /**
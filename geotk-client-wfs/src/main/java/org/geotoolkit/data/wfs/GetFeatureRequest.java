@@ -64,6 +64,18 @@ public interface GetFeatureRequest extends Request{
      */
     void setMaxFeatures(Integer max);
 
+    /**
+     * @return Integer : index of the first returned feature, starting at zero,
+     *  null to start at the first feature. Only supported by WFS 2.0.
+     */
+    Integer getStartIndex();
+
+    /**
+     * @param index : index of the first returned feature, starting at zero,
+     *  null to start at the first feature. Only supported by WFS 2.0.
+     */
+    void setStartIndex(Integer index);
+
     /**
      * @return String[] : array of requested properties,
      *  null if all properties, empty for only the id.
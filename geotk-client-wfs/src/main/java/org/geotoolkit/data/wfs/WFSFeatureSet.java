@@ -80,6 +80,7 @@ import org.geotoolkit.util.NamesExt;
 import org.geotoolkit.wfs.xml.TransactionResponse;
 import org.geotoolkit.wfs.xml.WFSCapabilities;
 import org.geotoolkit.wfs.xml.WFSMarshallerPool;
+import org.geotoolkit.wfs.xml.WFSVersion;
 import org.locationtech.jts.geom.Geometry;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
@@ -404,6 +405,11 @@ public class WFSFeatureSet implements WritableFeatureSet {
         // TODO : remove SIS conventions
         final GetFeatureRequest request = store.createGetFeature();
         request.setTypeName(typeName);
+        final int pageSize = store.getPageSize();
+        final boolean paged = pageSize > 0
+                && (store.getVersion() == WFSVersion.v200 || store.getVersion() == WFSVersion.v202);
+        long pageStart = 0;
+        long pageLimit = -1;
 
         /* We create a secondary query whose role is to handle mappings we won't
          * delegate to the WFS service. Examples are start offset, which cannot
@@ -453,7 +459,15 @@ public class WFSFeatureSet implements WritableFeatureSet {
 
             final long start = gquery.getOffset();
             final long max = gquery.getLimit().orElse(-1);
-            if (start <= 0 && max != -1) {
+            if (paged) {
+                /* WFS 2.0 supports STARTINDEX, the offset and limit are handled
+                 * by the paged reader, the limit is kept in the remaining query
+                 * but will never be reached before.
+                 */
+                pageStart = Math.max(0, start);
+                pageLimit = max;
+                remainingQuery.setOffset(0);
+            } else if (start <= 0 && max != -1) {
                 request.setMaxFeatures((int) max);
                 // For this one, do not remove from remaining queries : If the
                 // wfs service does not manage it, we will do it afterwards.
@@ -478,19 +492,25 @@ public class WFSFeatureSet implements WritableFeatureSet {
             }
         } else remainingQuery = null;
 
-        final XmlFeatureReader reader = new JAXPStreamFeatureReader(type);
-        reader.getProperties().put(JAXPStreamFeatureReader.SKIP_UNEXPECTED_PROPERTY_TAGS, true);
-        final InputStream stream;
-        if (store.getUsePost()) {
-            store.getLogger().log(Level.INFO, "[WFS Client] request feature by POST.");
-            stream = request.getResponseStream();
+        FeatureReader streamReader;
+        if (paged) {
+            final WFSPagedFeatureReader.PageSource source = (long startIndex, int count) -> {
+                final GetFeatureRequest page = store.createGetFeature();
+                page.setTypeName(request.getTypeName());
+                page.setFilter(request.getFilter());
+                page.setPropertyNames(request.getPropertyNames());
+                page.setOutputFormat(request.getOutputFormat());
+                page.setStartIndex(Math.toIntExact(startIndex));
+                page.setMaxFeatures(count);
+                return openFeatureStream(page);
+            };
+            streamReader = new WFSPagedFeatureReader(type, source, pageStart, pageLimit, pageSize,
+                    store.getPageWindow(), store.getPageExecutor());
         } else {
-            final URL url = request.getURL();
-            store.getLogger().log(Level.INFO, "[WFS Client] request feature : {0}", url);
-            stream = url.openStream();
+            final XmlFeatureReader reader = new JAXPStreamFeatureReader(type);
+            reader.getProperties().put(JAXPStreamFeatureReader.SKIP_UNEXPECTED_PROPERTY_TAGS, true);
+            streamReader = reader.readAsStream(openFeatureStream(request));
         }
-
-        FeatureReader streamReader = reader.readAsStream(stream);
         if (remainingQuery != null) {
             streamReader = FeatureStreams.subset(streamReader, remainingQuery);
         }
@@ -498,6 +518,17 @@ public class WFSFeatureSet implements WritableFeatureSet {
         return streamReader;
     }
 
+    private InputStream openFeatureStream(final GetFeatureRequest request) throws IOException {
+        if (store.getUsePost()) {
+            store.getLogger().log(Level.INFO, "[WFS Client] request feature by POST.");
+            return request.getResponseStream();
+        } else {
+            final URL url = request.getURL();
+            store.getLogger().log(Level.INFO, "[WFS Client] request feature : {0}", url);
+            return url.openStream();
+        }
+    }
+
     private static class PropertyNameReplacement extends DuplicatingFilterVisitor {
         public PropertyNameReplacement(Map<String, String> nameReplacements) {
             setExpressionHandler(FunctionNames.ValueReference, (e) -> {
@@ -0,0 +1,236 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.wfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.xml.stream.XMLStreamException;
+import org.geotoolkit.feature.xml.XmlFeatureReader;
+import org.geotoolkit.feature.xml.jaxp.JAXPStreamFeatureReader;
+import org.geotoolkit.storage.feature.FeatureReader;
+import org.geotoolkit.storage.feature.FeatureStoreRuntimeException;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
+
+/**
+ * Feature reader requesting WFS 2.0 GetFeature pages concurrently with STARTINDEX and COUNT.
+ * <p>
+ * At most {@code window} pages are requested and parsed in advance, a new page is requested
+ * only when the oldest one is consumed. Features are returned in page order.
+ * </p>
+ * <p>
+ * Servers may return less features than requested because of their own count limit.
+ * When a page is shorter than requested, pages requested after it are cancelled, the page size
+ * becomes the number of features received and a single page is requested after the last received
+ * feature. The window is filled again once a full page is received. Only an empty page, or the
+ * requested limit, ends the iteration.
+ * </p>
+ * <p>
+ * Pages are read by an executor shared with other readers, closing the reader
+ * cancels its pending pages.
+ * </p>
+ * <p>
+ * Paging is only reliable if the server returns features in a stable order, which is
+ * usually the case when no sort order is requested on a static dataset.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class WFSPagedFeatureReader implements FeatureReader {
+
+    /**
+     * Opens the response of a single page.
+     */
+    @FunctionalInterface
+    interface PageSource {
+        InputStream open(long startIndex, int count) throws IOException;
+    }
+
+    /**
+     * A page requested but not yet consumed.
+     */
+    private static final class Page {
+        final int count;
+        final Future<List<Feature>> features;
+
+        Page(final int count, final Future<List<Feature>> features) {
+            this.count = count;
+            this.features = features;
+        }
+    }
+
+    private final FeatureType type;
+    private final PageSource source;
+    private final long start;
+    private final long limit;
+    private final int window;
+    private final ExecutorService executor;
+    private final ArrayDeque<Page> pages = new ArrayDeque<>();
+
+    /**
+     * Number of features requested by each page, reduced to the server limit when detected.
+     */
+    private int pageSize;
+
+    /**
+     * Number of features requested so far, from {@link #start}.
+     */
+    private long requested;
+
+    /**
+     * Number of features received so far, from {@link #start}.
+     */
+    private long received;
+    private boolean exhausted;
+    private Iterator<Feature> current = Collections.emptyIterator();
+
+    /**
+     * @param type type of the returned features.
+     * @param source opens page responses.
+     * @param start index of the first feature.
+     * @param limit maximum number of features, negative for no limit.
+     * @param pageSize number of features requested by each page.
+     * @param window maximum number of pages requested in advance.
+     * @param executor executor reading the pages, not shut down by this reader.
+     */
+    WFSPagedFeatureReader(final FeatureType type, final PageSource source, final long start, final long limit,
+            final int pageSize, final int window, final ExecutorService executor) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.limit = limit;
+        this.pageSize = pageSize;
+        this.window = window;
+        this.executor = executor;
+        fillWindow();
+    }
+
+    @Override
+    public FeatureType getFeatureType() {
+        return type;
+    }
+
+    /**
+     * Requests pages until the window is full.
+     */
+    private void fillWindow() {
+        while (pages.size() < window && !exhausted && !(limit >= 0 && requested >= limit)) {
+            requestNextPage();
+        }
+    }
+
+    private void requestNextPage() {
+        if (exhausted || (limit >= 0 && requested >= limit)) {
+            return;
+        }
+        final long index = start + requested;
+        final int count = (limit >= 0) ? Math.toIntExact(Math.min(pageSize, limit - requested)) : pageSize;
+        requested += count;
+        pages.add(new Page(count, executor.submit(() -> readPage(index, count))));
+    }
+
+    private List<Feature> readPage(final long index, final int count) throws IOException, XMLStreamException {
+        final List<Feature> features = new ArrayList<>(count);
+        final XmlFeatureReader reader = new JAXPStreamFeatureReader(type);
+        reader.getProperties().put(JAXPStreamFeatureReader.SKIP_UNEXPECTED_PROPERTY_TAGS, true);
+        try (InputStream stream = source.open(index, count)) {
+            final FeatureReader ite = reader.readAsStream(stream);
+            try {
+                while (ite.hasNext()) {
+                    features.add(ite.next());
+                }
+            } finally {
+                ite.close();
+            }
+        } finally {
+            reader.dispose();
+        }
+        return features;
+    }
+
+    @Override
+    public boolean hasNext() throws FeatureStoreRuntimeException {
+        while (!current.hasNext()) {
+            final Page page = pages.poll();
+            if (page == null) {
+                return false;
+            }
+            final List<Feature> features;
+            try {
+                features = page.features.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new FeatureStoreRuntimeException(ex);
+            } catch (ExecutionException ex) {
+                close();
+                throw new FeatureStoreRuntimeException(ex.getCause());
+            }
+            received += features.size();
+            if (features.isEmpty()) {
+                //no more features, following requests are useless
+                close();
+                return false;
+            } else if (features.size() < page.count) {
+                /*
+                 * Either the last page or a server limit lower than the requested count.
+                 * Following pages were requested at wrong offsets, continue after the
+                 * last received feature with a single page of the received size.
+                 */
+                cancelPages();
+                pageSize = features.size();
+                requested = received;
+                requestNextPage();
+            } else {
+                fillWindow();
+            }
+            current = features.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Feature next() throws FeatureStoreRuntimeException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more features.");
+        }
+        return current.next();
+    }
+
+    private void cancelPages() {
+        for (Page p : pages) {
+            p.features.cancel(true);
+        }
+        pages.clear();
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+        cancelPages();
+        current = Collections.emptyIterator();
+    }
+}
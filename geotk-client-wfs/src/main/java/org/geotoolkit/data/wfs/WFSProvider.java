@@ -78,9 +78,29 @@ public class WFSProvider extends DataStoreProvider {
             .setRequired(false)
             .create(Boolean.class, Boolean.FALSE);
 
+    /**
+     * Optional number of features requested by each GetFeature page, WFS 2.0 only.
+     * Features are requested in a single response if not set.
+     */
+    public static final ParameterDescriptor<Integer> PAGE_SIZE = new ParameterBuilder()
+            .addName("pageSize")
+            .addName(Bundle.formatInternational(Bundle.Keys.pageSize))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.pageSizeRemarks))
+            .setRequired(false)
+            .createBounded(Integer.class, 1, null, null);
+    /**
+     * Optional maximum number of pages requested and parsed concurrently.
+     */
+    public static final ParameterDescriptor<Integer> PAGE_WINDOW = new ParameterBuilder()
+            .addName("pageWindow")
+            .addName(Bundle.formatInternational(Bundle.Keys.pageWindow))
+            .setRemarks(Bundle.formatInternational(Bundle.Keys.pageWindowRemarks))
+            .setRequired(false)
+            .createBounded(1, 64, 4);
+
     public static final ParameterDescriptorGroup PARAMETERS_DESCRIPTOR =
             new ParameterBuilder().addName(NAME).createGroup(AbstractClientProvider.URL, VERSION, AbstractClientProvider.SECURITY,
-                LONGITUDE_FIRST,POST_REQUEST,AbstractClientProvider.TIMEOUT);
+                LONGITUDE_FIRST,POST_REQUEST,AbstractClientProvider.TIMEOUT,PAGE_SIZE,PAGE_WINDOW);
 
     @Override
     public String getShortName() {
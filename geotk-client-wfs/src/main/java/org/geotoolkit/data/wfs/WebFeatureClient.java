@@ -30,6 +30,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jakarta.xml.bind.JAXBException;
@@ -50,6 +54,7 @@ import org.geotoolkit.data.wfs.v110.Native110;
 import org.geotoolkit.data.wfs.v110.Transaction110;
 import org.geotoolkit.data.wfs.v110.Update110;
 import org.geotoolkit.data.wfs.v200.GetFeature200;
+import org.geotoolkit.internal.Threads;
 import org.geotoolkit.ows.xml.AbstractCapabilitiesBase;
 import org.geotoolkit.security.ClientSecurity;
 import org.geotoolkit.security.DefaultClientSecurity;
@@ -88,6 +93,11 @@ public class WebFeatureClient extends DataStore implements Aggregate, Client {
 
     private volatile WFSCapabilities capabilities;
 
+    /**
+     * Executor reading GetFeature pages, shared by all paged readers. Created when first needed.
+     */
+    private ThreadPoolExecutor pageExecutor;
+
 
     public WebFeatureClient(final URL serverURL, final ClientSecurity security, final WFSVersion version, final boolean usePost) {
          Parameters parameters = Parameters.castOrWrap(create(WFSProvider.PARAMETERS_DESCRIPTOR, serverURL, security));
@@ -196,7 +206,11 @@ public class WebFeatureClient extends DataStore implements Aggregate, Client {
     }
 
     @Override
-    public void close() throws DataStoreException {
+    public synchronized void close() throws DataStoreException {
+        if (pageExecutor != null) {
+            pageExecutor.shutdownNow();
+            pageExecutor = null;
+        }
     }
 
     // WFS CLIENT methods //////////////////////////////////////////////////////
@@ -283,6 +297,44 @@ public class WebFeatureClient extends DataStore implements Aggregate, Client {
         return parameters.getValue(WFSProvider.LONGITUDE_FIRST);
     }
 
+    /**
+     * @return number of features requested by each GetFeature page, 0 if features are not paged.
+     */
+    public int getPageSize(){
+        try {
+            final Integer size = parameters.getValue(WFSProvider.PAGE_SIZE);
+            return (size != null) ? size : 0;
+        } catch (ParameterNotFoundException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return maximum number of GetFeature pages requested and parsed concurrently.
+     */
+    public int getPageWindow(){
+        try {
+            return parameters.getValue(WFSProvider.PAGE_WINDOW);
+        } catch (ParameterNotFoundException ex) {
+            return WFSProvider.PAGE_WINDOW.getDefaultValue();
+        }
+    }
+
+    /**
+     * Returns the executor reading GetFeature pages, shared by all paged readers of this store.
+     * Its threads are bounded by the {@linkplain #getPageWindow() page window} and stop when idle,
+     * readers which are not closed do not retain them.
+     */
+    synchronized ExecutorService getPageExecutor() {
+        if (pageExecutor == null) {
+            final int window = getPageWindow();
+            pageExecutor = new ThreadPoolExecutor(window, window, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), Threads.createThreadFactory("WFS GetFeature page "));
+            pageExecutor.allowCoreThreadTimeOut(true);
+        }
+        return pageExecutor;
+    }
+
     /**
      * @return The WFS server capabilities.
      * @throws WebFeatureException if an error occurred while querying the capabilities from the server.
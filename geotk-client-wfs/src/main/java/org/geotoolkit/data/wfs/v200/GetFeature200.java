@@ -42,4 +42,20 @@ public class GetFeature200 extends AbstractGetFeature {
     public String getTypeNameParameterKey() {
         return "TYPENAMES";
     }
+
+    /**
+     * WFS 2.0 replaces MAXFEATURES by COUNT and adds STARTINDEX for paging.
+     */
+    @Override
+    protected void prepareParameters() {
+        super.prepareParameters();
+        final String count = requestParameters.remove("MAXFEATURES");
+        if (count != null) {
+            requestParameters.put("COUNT", count);
+        }
+        final Integer startIndex = getStartIndex();
+        if (startIndex != null) {
+            requestParameters.put("STARTINDEX", startIndex.toString());
+        }
+    }
 }
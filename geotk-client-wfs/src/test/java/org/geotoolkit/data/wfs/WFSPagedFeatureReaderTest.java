@@ -0,0 +1,161 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.wfs;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.sis.feature.builder.FeatureTypeBuilder;
+import org.geotoolkit.util.NamesExt;
+import org.junit.After;
+import org.junit.Test;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test paged reading of WFS 2.0 GetFeature responses.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class WFSPagedFeatureReaderTest {
+
+    private static final String NS = "http://geotoolkit.org/test";
+
+    private final FeatureType type;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    public WFSPagedFeatureReaderTest() {
+        final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
+        ftb.setName(NamesExt.create(NS, "Item"));
+        ftb.addAttribute(Integer.class).setName(NamesExt.create(NS, "index"));
+        type = ftb.build();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Simulate a server containing {@code size} features.
+     */
+    private static WFSPagedFeatureReader.PageSource server(final int size, final AtomicInteger requests) {
+        return server(size, Integer.MAX_VALUE, requests);
+    }
+
+    /**
+     * Simulate a server containing {@code size} features, returning at most {@code max} features by request.
+     */
+    private static WFSPagedFeatureReader.PageSource server(final int size, final int max, final AtomicInteger requests) {
+        return (long startIndex, int count) -> {
+            requests.incrementAndGet();
+            count = Math.min(count, max);
+            final StringBuilder sb = new StringBuilder();
+            sb.append("<wfs:FeatureCollection xmlns:wfs=\"http://www.opengis.net/wfs/2.0\" ")
+              .append("xmlns:gml=\"http://www.opengis.net/gml/3.2\" xmlns:t=\"").append(NS).append("\">");
+            for (long i = startIndex, n = Math.min(size, startIndex + count); i < n; i++) {
+                sb.append("<wfs:member><t:Item gml:id=\"i").append(i).append("\"><t:index>")
+                  .append(i).append("</t:index></t:Item></wfs:member>");
+            }
+            sb.append("</wfs:FeatureCollection>");
+            return new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private List<Integer> read(final WFSPagedFeatureReader reader) {
+        final List<Integer> indexes = new ArrayList<>();
+        try {
+            while (reader.hasNext()) {
+                final Feature feature = reader.next();
+                indexes.add((Integer) feature.getPropertyValue("index"));
+            }
+        } finally {
+            reader.close();
+        }
+        return indexes;
+    }
+
+    private static void assertSequence(final List<Integer> indexes, final int start, final int count) {
+        assertEquals(count, indexes.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(start + i, indexes.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void readAllTest() {
+        final AtomicInteger requests = new AtomicInteger();
+        final List<Integer> indexes = read(new WFSPagedFeatureReader(type, server(47, requests), 0, -1, 10, 3, executor));
+        assertSequence(indexes, 0, 47);
+        //5 pages, the last one being incomplete, at most 2 pages requested in advance, then an empty page
+        assertTrue(requests.get() >= 6 && requests.get() <= 8);
+    }
+
+    /**
+     * Server returning less features than requested, no feature must be lost.
+     */
+    @Test
+    public void serverLimitTest() {
+        final AtomicInteger requests = new AtomicInteger();
+        assertSequence(read(new WFSPagedFeatureReader(type, server(47, 4, requests), 0, -1, 10, 3, executor)), 0, 47);
+
+        requests.set(0);
+        assertSequence(read(new WFSPagedFeatureReader(type, server(100, 7, requests), 15, 32, 10, 4, executor)), 15, 32);
+        //first page of 7, cancelled pages, then pages of 7
+        assertTrue(requests.get() >= 5 && requests.get() <= 8);
+    }
+
+    @Test
+    public void readOffsetLimitTest() {
+        final AtomicInteger requests = new AtomicInteger();
+        final List<Integer> indexes = read(new WFSPagedFeatureReader(type, server(100, requests), 15, 32, 10, 4, executor));
+        assertSequence(indexes, 15, 32);
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void exactPageTest() {
+        final AtomicInteger requests = new AtomicInteger();
+        final List<Integer> indexes = read(new WFSPagedFeatureReader(type, server(20, requests), 0, -1, 10, 1, executor));
+        assertSequence(indexes, 0, 20);
+        //last request returns an empty page
+        assertEquals(3, requests.get());
+    }
+
+    /**
+     * Closing a reader must not stop the executor shared with other readers.
+     */
+    @Test
+    public void sharedExecutorTest() {
+        final AtomicInteger requests = new AtomicInteger();
+        final WFSPagedFeatureReader first = new WFSPagedFeatureReader(type, server(100, requests), 0, -1, 10, 2, executor);
+        final WFSPagedFeatureReader second = new WFSPagedFeatureReader(type, server(35, requests), 0, -1, 10, 2, executor);
+        assertTrue(first.hasNext());
+        first.next();
+        first.close();
+        assertFalse(first.hasNext());
+        assertSequence(read(second), 0, 35);
+        assertFalse(executor.isShutdown());
+    }
+}
@@ -22,6 +22,7 @@ import javax.xml.namespace.QName;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.referencing.CommonCRS;
 import org.geotoolkit.data.wfs.v110.GetFeature110;
+import org.geotoolkit.data.wfs.v200.GetFeature200;
 import static org.geotoolkit.filter.FilterUtilities.FF;
 import static org.junit.Assert.*;
 import org.junit.Test;
@@ -63,4 +64,19 @@ public class GetFeatureTest {
         assertTrue("was:" + sUrl, sUrl.contains("lowerCorner%3E-180.0+-90.0"));
         assertTrue("was:" + sUrl, sUrl.contains("upperCorner%3E180.0+90.0"));
     }
+
+    /**
+     * Ensures WFS 2.0 requests use COUNT and STARTINDEX parameters.
+     */
+    @Test
+    public void testGetFeature200Paging() throws MalformedURLException {
+        final GetFeature200 getFeat200 = new GetFeature200("http://test.com",null);
+        getFeat200.setTypeName(new QName("http://myqnametest.com", "value", "ut"));
+        getFeat200.setStartIndex(40);
+        getFeat200.setMaxFeatures(20);
+        final String sUrl = getFeat200.getURL().toString();
+        assertTrue("was:" + sUrl, sUrl.contains("COUNT=20"));
+        assertTrue("was:" + sUrl, sUrl.contains("STARTINDEX=40"));
+        assertFalse("was:" + sUrl, sUrl.contains("MAXFEATURES"));
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.sis.storage.tiling.TileMatrixSet;
 import org.apache.sis.storage.tiling.TiledResource;
 import org.geotoolkit.client.CapabilitiesException;
 import org.geotoolkit.storage.coverage.TileMatrixSetCoverageReader;
+import org.geotoolkit.storage.coverage.TileReadPlanner;
 import org.geotoolkit.wmsc.model.WMSCTileMatrixSets;
 import org.opengis.util.GenericName;
 
@@ -43,6 +44,10 @@ public class WMSCCoverageResource extends AbstractGridCoverageResource implement
     private final WebMapClientCached server;
     private final GenericName name;
     private final WMSCTileMatrixSets set;
+    /**
+     * Remote tiles are read concurrently, with the surrounding tiles and next level prefetched.
+     */
+    private final TileReadPlanner planner = new TileReadPlanner(4, 256, 1, true);
 
     public WMSCCoverageResource(final WebMapClientCached server,
             final GenericName name) throws CapabilitiesException{
@@ -83,7 +88,7 @@ public class WMSCCoverageResource extends AbstractGridCoverageResource implement
 
     @Override
     public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
-        return new TileMatrixSetCoverageReader<>(this).read(domain, range);
+        return new TileMatrixSetCoverageReader<>(this, planner).read(domain, range);
     }
 
 }
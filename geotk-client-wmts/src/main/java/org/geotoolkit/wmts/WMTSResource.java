@@ -31,6 +31,7 @@ import org.apache.sis.storage.event.StoreEvent;
 import org.apache.sis.storage.tiling.TileMatrixSet;
 import org.apache.sis.storage.tiling.TiledResource;
 import org.geotoolkit.storage.coverage.TileMatrixSetCoverageReader;
+import org.geotoolkit.storage.coverage.TileReadPlanner;
 import org.geotoolkit.storage.event.ModelEvent;
 import org.geotoolkit.wmts.model.WMTSTileMatrixSets;
 import org.geotoolkit.wmts.xml.v100.LayerType;
@@ -47,6 +48,10 @@ public final class WMTSResource extends AbstractGridCoverageResource implements
     private final WebMapTileClient server;
     private final GenericName name;
     private final boolean cacheImage;
+    /**
+     * Remote tiles are read concurrently, with the surrounding tiles and next level prefetched.
+     */
+    private final TileReadPlanner planner = new TileReadPlanner(4, 256, 1, true);
     private WMTSTileMatrixSets set;
 
     WMTSResource(WebMapTileClient server, GenericName name, boolean cacheImage){
@@ -129,7 +134,7 @@ public final class WMTSResource extends AbstractGridCoverageResource implements
 
     @Override
     public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
-        return new TileMatrixSetCoverageReader<>(this).read(domain, range);
+        return new TileMatrixSetCoverageReader<>(this, planner).read(domain, range);
     }
 
     /**
@@ -148,6 +153,7 @@ public final class WMTSResource extends AbstractGridCoverageResource implements
      */
     void resetCache() {
         set = null;
+        planner.clear();
         //send event
         listeners.fire(StoreEvent.class, new ModelEvent(this));
     }
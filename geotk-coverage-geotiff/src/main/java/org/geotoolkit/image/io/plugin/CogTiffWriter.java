@@ -0,0 +1,549 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import javax.imageio.IIOException;
+import org.apache.sis.io.stream.ChannelDataOutput;
+import static org.geotoolkit.metadata.geotiff.GeoTiffConstants.*;
+
+/**
+ * Writes a tiled, Deflate compressed image with its overviews in Cloud Optimized GeoTIFF layout.<br/>
+ * All image file directories and their arrays are written at the beginning of the file,
+ * followed by tile data from the smallest overview to the full resolution image.
+ * Tiles are compressed concurrently by batches but written in their index order,
+ * so output is identical regardless of the number of threads.
+ * <p>
+ * Overviews are computed by averaging 2x2 pixel blocks, ignoring NaN values, except for
+ * indexed color images which use the top left pixel. The first overview is held in memory,
+ * it weights a quarter of the written image region.
+ * </p>
+ *
+ * @see TiffImageWriteParam#setCloudOptimized(boolean)
+ */
+final class CogTiffWriter {
+
+    private static final short TYPE_USHORT = 3, TYPE_UINT = 4, TYPE_ULONG = 16;
+
+    /**
+     * Size in bytes of each tiff type.
+     */
+    private static final int[] TYPE_SIZE = {0, 1, 1, 2, 4, 8, 1, 1, 2, 4, 8, 4, 8, 4, 0, 0, 8, 8, 8};
+
+    /**
+     * Tags describing the image geolocation, only written on the full resolution directory.
+     */
+    private static final int[] GEO_TAGS = {ModelPixelScaleTag, ModelTiepointTag, ModelTransformationTag,
+            GeoKeyDirectoryTag, GeoDoubleParamsTag, GeoAsciiParamsTag};
+
+    private final ChannelDataOutput out;
+    private final ByteOrder order;
+    private final boolean bigTiff;
+    private final int tileWidth, tileHeight;
+    private final int deflateLevel;
+    private final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param out destination, header must be already written
+     * @param order byte order of the destination
+     * @param bigTiff whether the header is a BigTIFF header
+     * @param tileWidth tile width, multiple of 16
+     * @param tileHeight tile height, multiple of 16
+     * @param deflateLevel {@link Deflater} compression level
+     */
+    CogTiffWriter(final ChannelDataOutput out, final ByteOrder order, final boolean bigTiff,
+            final int tileWidth, final int tileHeight, final int deflateLevel) {
+        this.out          = out;
+        this.order        = order;
+        this.bigTiff      = bigTiff;
+        this.tileWidth    = tileWidth;
+        this.tileHeight   = tileHeight;
+        this.deflateLevel = deflateLevel;
+    }
+
+    /**
+     * Number of overviews needed so the smallest one fits in a single tile.
+     */
+    static int defaultOverviewCount(int width, int height, final int tileWidth, final int tileHeight) {
+        int count = 0;
+        while (width > tileWidth || height > tileHeight) {
+            width  = (width  + 1) >> 1;
+            height = (height + 1) >> 1;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns {@code true} if the image may not fit in a classic tiff, which offsets are limited to 4 GB.
+     * The estimation uses the uncompressed size of all tiles plus the Deflate worst case overhead,
+     * so the decision does not depend on the data.
+     */
+    static boolean requiresBigTiff(final SampleModel sm, final int width, final int height,
+            final int tileWidth, final int tileHeight, final int overviews) {
+        final long pixelSize = (long) sm.getNumBands() * DataBuffer.getDataTypeSize(sm.getDataType()) / Byte.SIZE;
+        final long tileSize  = pixelSize * tileWidth * tileHeight;
+        long total = 1 << 20;
+        int w = width, h = height;
+        for (int i = 0; i <= overviews; i++) {
+            final long tiles = (long) ((w + tileWidth - 1) / tileWidth) * ((h + tileHeight - 1) / tileHeight);
+            total += tiles * (tileSize + tileSize / 1000 + 64 + 16);
+            w = (w + 1) >> 1;
+            h = (h + 1) >> 1;
+        }
+        return total >= 0xFFFFFFFFL;
+    }
+
+    /**
+     * Write image directories and tiles.
+     *
+     * @param image source image
+     * @param region region of the source image to write
+     * @param properties tags of the full resolution image, tile and compression tags are replaced
+     * @param overviews number of overviews to write
+     * @param predictor tiff predictor : 1, 2 for integer samples, 3 for floating point samples
+     * @param ifdPosition position of the first directory, as written in the header
+     * @return position of the next directory offset of the last written directory
+     */
+    long write(final RenderedImage image, final Rectangle region, final Map<Integer, Map<String, Object>> properties,
+            final int overviews, final int predictor, final long ifdPosition) throws IOException {
+        final SampleModel sm   = image.getSampleModel();
+        final int dataType     = sm.getDataType();
+        final int sampleBytes  = DataBuffer.getDataTypeSize(dataType) / Byte.SIZE;
+        final int numBands     = sm.getNumBands();
+        for (int size : sm.getSampleSize()) {
+            if (size != sampleBytes * Byte.SIZE) {
+                throw new IIOException("Cloud optimized writing requires byte aligned samples, found " + size + " bits.");
+            }
+        }
+        final boolean floating = dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE;
+        if ((predictor == 2 && floating) || (predictor == 3 && !floating) || predictor < 1 || predictor > 3) {
+            throw new IIOException("Predictor " + predictor + " is not compatible with image data type.");
+        }
+
+        //-- levels, first is the full resolution image --//
+        final boolean nearest = image.getColorModel() instanceof IndexColorModel;
+        final List<Level> levels = new ArrayList<>(overviews + 1);
+        levels.add(new Level(image, null, region));
+        for (int i = 1; i <= overviews; i++) {
+            final Level previous = levels.get(i - 1);
+            final WritableRaster raster = (i == 1)
+                    ? downsample(image, region, nearest)
+                    : downsample(previous.raster, nearest);
+            levels.add(new Level(null, raster, raster.getBounds()));
+        }
+        final int numTilesMax = levels.get(0).numTiles();
+        final short arrayType = bigTiff ? TYPE_ULONG : TYPE_UINT;
+
+        //-- directories properties --//
+        for (int i = 0; i < levels.size(); i++) {
+            final Level level = levels.get(i);
+            final Map<Integer, Map<String, Object>> props = new TreeMap<>(properties);
+            props.remove(StripOffsets);
+            props.remove(StripByteCounts);
+            props.remove(RowsPerStrip);
+            props.remove(NewSubfileType);
+            if (i > 0) {
+                for (int tag : GEO_TAGS) props.remove(tag);
+                put(props, NewSubfileType, TYPE_UINT, new int[]{1});
+            }
+            put(props, ImageWidth,  TYPE_UINT, new int[]{level.bounds.width});
+            put(props, ImageLength, TYPE_UINT, new int[]{level.bounds.height});
+            put(props, Compression, TYPE_USHORT, new short[]{8});
+            put(props, PlanarConfiguration, TYPE_USHORT, new short[]{1});
+            put(props, Predictor, TYPE_USHORT, new short[]{(short) predictor});
+            put(props, TileWidth,  TYPE_UINT, new int[]{tileWidth});
+            put(props, TileLength, TYPE_UINT, new int[]{tileHeight});
+            final int n = level.numTiles();
+            put(props, TileOffsets,    arrayType, bigTiff ? new long[n] : new int[n]);
+            put(props, TileByteCounts, arrayType, bigTiff ? new long[n] : new int[n]);
+            level.properties = props;
+        }
+
+        //-- directories layout --//
+        long position = ifdPosition;
+        for (Level level : levels) {
+            level.ifdPosition = position;
+            position += directoryLength(level.properties);
+        }
+        final long dataStart = position;
+
+        //-- tiles data, smallest overview first --//
+        out.seek(dataStart);
+        final int batchSize = Math.max(1, 4 * Runtime.getRuntime().availableProcessors());
+        final long[] offsets = new long[numTilesMax];
+        final long[] counts  = new long[numTilesMax];
+        try {
+            for (int l = levels.size() - 1; l >= 0; l--) {
+                final Level level = levels.get(l);
+                final int n = level.numTiles();
+                for (int start = 0; start < n; start += batchSize) {
+                    final int end = Math.min(n, start + batchSize);
+                    final byte[][] tiles = IntStream.range(start, end).parallel()
+                            .mapToObj((int t) -> encode(level, t, dataType, sampleBytes, numBands, predictor))
+                            .toArray(byte[][]::new);
+                    for (int t = start; t < end; t++) {
+                        final byte[] data = tiles[t - start];
+                        offsets[t] = out.getStreamPosition();
+                        counts[t]  = data.length;
+                        out.write(data);
+                    }
+                }
+                final Object off = level.properties.get(TileOffsets).get(ATT_VALUE);
+                final Object cnt = level.properties.get(TileByteCounts).get(ATT_VALUE);
+                for (int t = 0; t < n; t++) {
+                    if (bigTiff) {
+                        ((long[]) off)[t] = offsets[t];
+                        ((long[]) cnt)[t] = counts[t];
+                    } else {
+                        ((int[]) off)[t] = (int) offsets[t];
+                        ((int[]) cnt)[t] = (int) counts[t];
+                    }
+                }
+            }
+        } finally {
+            Deflater d;
+            while ((d = deflaters.poll()) != null) d.end();
+        }
+        final long end = out.getStreamPosition();
+
+        //-- directories --//
+        long nextPosition = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            final Level level = levels.get(i);
+            out.seek(level.ifdPosition);
+            nextPosition = writeDirectory(level.properties, level.ifdPosition, (i + 1 < levels.size()) ? levels.get(i + 1).ifdPosition : 0);
+        }
+        assert out.getStreamPosition() == dataStart;
+        out.seek(end);
+        return nextPosition;
+    }
+
+    /**
+     * A resolution level, full resolution image or overview.
+     */
+    private final class Level {
+        final RenderedImage image;
+        final WritableRaster raster;
+        final Rectangle bounds;
+        Map<Integer, Map<String, Object>> properties;
+        long ifdPosition;
+
+        Level(final RenderedImage image, final WritableRaster raster, final Rectangle bounds) {
+            this.image  = image;
+            this.raster = raster;
+            this.bounds = bounds;
+        }
+
+        int numXTiles() {
+            return (bounds.width + tileWidth - 1) / tileWidth;
+        }
+
+        int numTiles() {
+            return numXTiles() * ((bounds.height + tileHeight - 1) / tileHeight);
+        }
+
+        /**
+         * Returns the raster holding the given region of this level.
+         */
+        Raster getData(final Rectangle area) {
+            return (image != null) ? image.getData(area) : raster;
+        }
+    }
+
+    /**
+     * Compress a tile with Deflate, after predictor is applied.
+     */
+    private byte[] encode(final Level level, final int tileIndex, final int dataType, final int sampleBytes,
+            final int numBands, final int predictor) {
+        final int tx = tileIndex % level.numXTiles();
+        final int ty = tileIndex / level.numXTiles();
+        final Rectangle area = new Rectangle(level.bounds.x + tx * tileWidth, level.bounds.y + ty * tileHeight, tileWidth, tileHeight)
+                .intersection(level.bounds);
+        final Raster raster = level.getData(area);
+        final int rowSamples = tileWidth * numBands;
+        final ByteBuffer buffer = ByteBuffer.allocate(rowSamples * tileHeight * sampleBytes).order(order);
+
+        switch (dataType) {
+            case DataBuffer.TYPE_FLOAT : {
+                final float[] row = new float[area.width * numBands];
+                final byte[] bytes = new byte[rowSamples * sampleBytes];
+                for (int y = 0; y < area.height; y++) {
+                    raster.getPixels(area.x, area.y + y, area.width, 1, row);
+                    buffer.position(y * bytes.length);
+                    if (predictor != 3) {
+                        for (float v : row) buffer.putFloat(v);
+                        continue;
+                    }
+                    Arrays.fill(bytes, (byte) 0);
+                    for (int k = 0; k < row.length; k++) {
+                        final int bits = Float.floatToRawIntBits(row[k]);
+                        for (int j = 0; j < Float.BYTES; j++) {
+                            bytes[j * rowSamples + k] = (byte) (bits >>> (24 - 8 * j));
+                        }
+                    }
+                    differencing(bytes, numBands);
+                    buffer.put(bytes);
+                }
+                break;
+            }
+            case DataBuffer.TYPE_DOUBLE : {
+                final double[] row = new double[area.width * numBands];
+                final byte[] bytes = new byte[rowSamples * sampleBytes];
+                for (int y = 0; y < area.height; y++) {
+                    raster.getPixels(area.x, area.y + y, area.width, 1, row);
+                    buffer.position(y * bytes.length);
+                    if (predictor != 3) {
+                        for (double v : row) buffer.putDouble(v);
+                        continue;
+                    }
+                    Arrays.fill(bytes, (byte) 0);
+                    for (int k = 0; k < row.length; k++) {
+                        final long bits = Double.doubleToRawLongBits(row[k]);
+                        for (int j = 0; j < Double.BYTES; j++) {
+                            bytes[j * rowSamples + k] = (byte) (bits >>> (56 - 8 * j));
+                        }
+                    }
+                    differencing(bytes, numBands);
+                    buffer.put(bytes);
+                }
+                break;
+            }
+            default : {
+                final int[] row = new int[area.width * numBands];
+                for (int y = 0; y < area.height; y++) {
+                    raster.getPixels(area.x, area.y + y, area.width, 1, row);
+                    if (predictor == 2) {
+                        for (int k = row.length - 1; k >= numBands; k--) {
+                            row[k] -= row[k - numBands];
+                        }
+                    }
+                    buffer.position(y * rowSamples * sampleBytes);
+                    switch (sampleBytes) {
+                        case Byte.BYTES    : for (int v : row) buffer.put((byte) v); break;
+                        case Short.BYTES   : for (int v : row) buffer.putShort((short) v); break;
+                        default            : for (int v : row) buffer.putInt(v); break;
+                    }
+                }
+                break;
+            }
+        }
+        return deflate(buffer.array());
+    }
+
+    /**
+     * Byte differencing of floating point predictor, from the end of the row.
+     */
+    private static void differencing(final byte[] bytes, final int numBands) {
+        for (int i = bytes.length - 1; i >= numBands; i--) {
+            bytes[i] -= bytes[i - numBands];
+        }
+    }
+
+    private byte[] deflate(final byte[] data) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(deflateLevel);
+        } else {
+            deflater.reset();
+        }
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] result = new byte[Math.max(64, data.length / 4)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                length += deflater.deflate(result, length, result.length - length);
+            }
+            return Arrays.copyOf(result, length);
+        } finally {
+            deflaters.offer(deflater);
+        }
+    }
+
+    /**
+     * Compute the first overview of given image region, reading source by bands of rows.
+     */
+    private WritableRaster downsample(final RenderedImage image, final Rectangle region, final boolean nearest) {
+        final WritableRaster target = Raster.createWritableRaster(image.getSampleModel()
+                .createCompatibleSampleModel((region.width + 1) >> 1, (region.height + 1) >> 1), null);
+        final int step = Math.max(2, tileHeight * 2);
+        for (int y = 0; y < region.height; y += step) {
+            final Rectangle band = new Rectangle(region.x, region.y + y, region.width, Math.min(step, region.height - y));
+            downsample(image.getData(band), band, target, y >> 1, nearest);
+        }
+        return target;
+    }
+
+    /**
+     * Compute the next overview of given overview.
+     */
+    private static WritableRaster downsample(final WritableRaster source, final boolean nearest) {
+        final WritableRaster target = source.createCompatibleWritableRaster((source.getWidth() + 1) >> 1, (source.getHeight() + 1) >> 1);
+        downsample(source, source.getBounds(), target, 0, nearest);
+        return target;
+    }
+
+    /**
+     * Reduce given source area by two in each dimension, writing rows from {@code targetY} in target raster.
+     */
+    private static void downsample(final Raster source, final Rectangle area, final WritableRaster target,
+            final int targetY, final boolean nearest) {
+        final int numBands = source.getNumBands();
+        final int width    = target.getWidth();
+        final boolean integer = source.getSampleModel().getDataType() != DataBuffer.TYPE_FLOAT
+                             && source.getSampleModel().getDataType() != DataBuffer.TYPE_DOUBLE;
+        final double[] row0 = new double[area.width * numBands];
+        final double[] row1 = new double[area.width * numBands];
+        final double[] result = new double[width * numBands];
+        for (int y = 0; y < area.height; y += 2) {
+            source.getPixels(area.x, area.y + y, area.width, 1, row0);
+            source.getPixels(area.x, area.y + Math.min(y + 1, area.height - 1), area.width, 1, row1);
+            for (int x = 0; x < width; x++) {
+                final int x0 = 2 * x;
+                final int x1 = Math.min(x0 + 1, area.width - 1);
+                for (int b = 0; b < numBands; b++) {
+                    final double v;
+                    if (nearest) {
+                        v = row0[x0 * numBands + b];
+                    } else {
+                        double sum = 0;
+                        int n = 0;
+                        for (double s : new double[]{row0[x0 * numBands + b], row0[x1 * numBands + b],
+                                                     row1[x0 * numBands + b], row1[x1 * numBands + b]}) {
+                            if (!Double.isNaN(s)) {
+                                sum += s;
+                                n++;
+                            }
+                        }
+                        v = (n == 0) ? Double.NaN : (integer ? Math.floor(sum / n + 0.5) : sum / n);
+                    }
+                    result[x * numBands + b] = v;
+                }
+            }
+            target.setPixels(target.getMinX(), target.getMinY() + targetY + (y >> 1), width, 1, result);
+        }
+    }
+
+    private static void put(final Map<Integer, Map<String, Object>> props, final int tag, final short type, final Object value) {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ATT_TYPE, type);
+        attributes.put(ATT_COUNT, java.lang.reflect.Array.getLength(value));
+        attributes.put(ATT_VALUE, value);
+        props.put(tag, attributes);
+    }
+
+    private int valueLength(final Map<String, Object> attributes) {
+        final short type = (short) attributes.get(ATT_TYPE);
+        final int count  = (int) attributes.get(ATT_COUNT);
+        return TYPE_SIZE[type] * count;
+    }
+
+    /**
+     * Length of a directory and of its values which do not fit in the entries, word aligned.
+     */
+    private long directoryLength(final Map<Integer, Map<String, Object>> props) {
+        final int offsetSize = bigTiff ? 8 : 4;
+        long length = (bigTiff ? 8 : 2) + (long) props.size() * (bigTiff ? 20 : 12) + offsetSize;
+        for (Map<String, Object> attributes : props.values()) {
+            final int size = valueLength(attributes);
+            if (size > offsetSize) length += size + (size & 1);
+        }
+        return length;
+    }
+
+    /**
+     * Write a directory at current position, followed by its values which do not fit in the entries.
+     *
+     * @return position of the next directory offset
+     */
+    private long writeDirectory(final Map<Integer, Map<String, Object>> props, final long position, final long next) throws IOException {
+        final int offsetSize = bigTiff ? 8 : 4;
+        long deferred = position + (bigTiff ? 8 : 2) + (long) props.size() * (bigTiff ? 20 : 12) + offsetSize;
+        if (bigTiff) out.writeLong(props.size());
+        else out.writeShort(props.size());
+        final List<Map<String, Object>> values = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Object>> entry : props.entrySet()) {
+            final int tag = entry.getKey();
+            final Map<String, Object> attributes = entry.getValue();
+            final short type = (short) attributes.get(ATT_TYPE);
+            final int count  = (int) attributes.get(ATT_COUNT);
+            out.writeShort((tag >= 1000000) ? GDAL_NODATA_KEY : tag);
+            out.writeShort(type);
+            if (bigTiff) out.writeLong(count);
+            else out.writeInt(count);
+            final int size = valueLength(attributes);
+            if (size <= offsetSize) {
+                writeValues(type, attributes.get(ATT_VALUE));
+                for (int i = size; i < offsetSize; i++) out.writeByte(0);
+            } else {
+                if (bigTiff) out.writeLong(deferred);
+                else out.writeInt((int) deferred);
+                deferred += size + (size & 1);
+                values.add(attributes);
+            }
+        }
+        final long nextPosition = out.getStreamPosition();
+        if (bigTiff) out.writeLong(next);
+        else out.writeInt((int) next);
+        for (Map<String, Object> attributes : values) {
+            final short type = (short) attributes.get(ATT_TYPE);
+            writeValues(type, attributes.get(ATT_VALUE));
+            if ((valueLength(attributes) & 1) != 0) out.writeByte(0);
+        }
+        return nextPosition;
+    }
+
+    private void writeValues(final short type, final Object value) throws IOException {
+        if (value instanceof byte[])        out.write((byte[]) value);
+        else if (value instanceof short[])  out.writeShorts((short[]) value);
+        else if (value instanceof int[])    out.writeInts((int[]) value);
+        else if (value instanceof long[])   out.writeLongs((long[]) value);
+        else if (value instanceof float[])  out.writeFloats((float[]) value);
+        else if (value instanceof double[]) {
+            final double[] array = (double[]) value;
+            if (TYPE_SIZE[type] == Float.BYTES) {
+                for (double d : array) out.writeFloat((float) d);
+            } else {
+                out.writeDoubles(array);
+            }
+        } else {
+            throw new IIOException("Unsupported tag value type : " + type);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin;
+
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.imageio.IIOException;
+
+/**
+ * Stateless decoding of a whole compressed strip or tile, called a block.<br/>
+ * Methods of this class do not share any state and may be called concurrently
+ * by {@link TiffImageReader} to decode several blocks in parallel.
+ */
+final class TiffBlockDecoder {
+
+    private static final int LZW_CLEAR_CODE = 256;
+    private static final int LZW_EOI_CODE   = 257;
+    private static final int LZW_MAX_CODES  = 4096;
+
+    private TiffBlockDecoder() {
+    }
+
+    /**
+     * Uncompress Deflate (tag value 8 or 32946) data.
+     *
+     * @param compressed compressed block data
+     * @param length expected uncompressed length in bytes
+     * @return uncompressed data, missing bytes are left to zero
+     */
+    static byte[] inflate(final byte[] compressed, final int length) throws IOException {
+        final byte[] result = new byte[length];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int nb = 0;
+            while (nb < length) {
+                final int n = inflater.inflate(result, nb, length - nb);
+                if (n <= 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+                nb += n;
+            }
+        } catch (DataFormatException ex) {
+            throw new IIOException(ex.getMessage(), ex);
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    /**
+     * Uncompress LZW (tag value 5) data, codes are stored most significant bit first
+     * and their length increases one code early as required by TIFF specification.
+     *
+     * @param compressed compressed block data
+     * @param length expected uncompressed length in bytes
+     * @return uncompressed data, missing bytes are left to zero
+     */
+    static byte[] lzw(final byte[] compressed, final int length) throws IOException {
+        final byte[] result  = new byte[length];
+        final int[]  prefix  = new int[LZW_MAX_CODES];
+        final byte[] suffix  = new byte[LZW_MAX_CODES];
+        final byte[] first   = new byte[LZW_MAX_CODES];
+        final int[]  lengths = new int[LZW_MAX_CODES];
+        for (int i = 0; i < 256; i++) {
+            prefix[i]  = -1;
+            suffix[i]  = (byte) i;
+            first[i]   = (byte) i;
+            lengths[i] = 1;
+        }
+        int next     = LZW_EOI_CODE + 1;
+        int codeSize = 9;
+        int old      = -1;
+        int outPos   = 0;
+
+        long bits     = 0;
+        int bitCount  = 0;
+        int inPos     = 0;
+        while (outPos < length) {
+            while (bitCount < codeSize && inPos < compressed.length) {
+                bits = (bits << 8) | (compressed[inPos++] & 0xFF);
+                bitCount += 8;
+            }
+            if (bitCount < codeSize) break;
+            final int code = (int) ((bits >>> (bitCount - codeSize)) & ((1 << codeSize) - 1));
+            bitCount -= codeSize;
+
+            if (code == LZW_EOI_CODE) break;
+            if (code == LZW_CLEAR_CODE) {
+                next     = LZW_EOI_CODE + 1;
+                codeSize = 9;
+                old      = -1;
+                continue;
+            }
+            if (old == -1) {
+                if (code > 255) throw new IIOException("Invalid LZW code : " + code);
+                result[outPos++] = (byte) code;
+                old = code;
+                continue;
+            }
+            final byte firstByte;
+            if (code < next) {
+                firstByte = first[code];
+            } else if (code == next) {
+                firstByte = first[old];
+            } else {
+                throw new IIOException("Invalid LZW code : " + code);
+            }
+            if (next < LZW_MAX_CODES) {
+                prefix[next]  = old;
+                suffix[next]  = firstByte;
+                first[next]   = first[old];
+                lengths[next] = lengths[old] + 1;
+                next++;
+            }
+            //-- write string of current code, starting from its end --//
+            final int len = lengths[code];
+            for (int c = code, p = outPos + len - 1; c != -1; c = prefix[c], p--) {
+                if (p < length) result[p] = suffix[c];
+            }
+            outPos += len;
+            old = code;
+            if (next + 1 >= (1 << codeSize) && codeSize < 12) {
+                codeSize++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Revert horizontal differencing (predictor 2), in place.
+     * Samples are added to the previous sample of the same band, with the sample integer size.
+     *
+     * @param data uncompressed block bytes
+     * @param order file byte order
+     * @param bytesPerSample size of a sample in bytes : 1, 2, 4 or 8
+     * @param samplesPerRow number of samples in a block row, all bands included
+     * @param bands number of interleaved bands in the block
+     */
+    static void horizontalPredictor(final byte[] data, final ByteOrder order, final int bytesPerSample,
+            final int samplesPerRow, final int bands) {
+        final int rows = data.length / (samplesPerRow * bytesPerSample);
+        final ByteBuffer buffer = ByteBuffer.wrap(data).order(order);
+        for (int r = 0; r < rows; r++) {
+            final int base = r * samplesPerRow;
+            for (int i = bands; i < samplesPerRow; i++) {
+                final int idx  = base + i;
+                final int prev = idx - bands;
+                switch (bytesPerSample) {
+                    case Byte.BYTES    : data[idx] += data[prev]; break;
+                    case Short.BYTES   : buffer.putShort(idx * 2, (short) (buffer.getShort(idx * 2) + buffer.getShort(prev * 2))); break;
+                    case Integer.BYTES : buffer.putInt(idx * 4, buffer.getInt(idx * 4) + buffer.getInt(prev * 4)); break;
+                    case Long.BYTES    : buffer.putLong(idx * 8, buffer.getLong(idx * 8) + buffer.getLong(prev * 8)); break;
+                    default: throw new AssertionError(bytesPerSample);
+                }
+            }
+        }
+    }
+
+    /**
+     * Revert floating point differencing (predictor 3), in place.
+     * Each row holds the differenced bytes of all samples grouped by significance, most significant
+     * bytes first. Samples are written back in the file byte order.
+     *
+     * @param data uncompressed block bytes
+     * @param order file byte order
+     * @param bytesPerSample size of a sample in bytes : 2, 4 or 8
+     * @param samplesPerRow number of samples in a block row, all bands included
+     * @param bands number of interleaved bands in the block
+     */
+    static void floatingPointPredictor(final byte[] data, final ByteOrder order, final int bytesPerSample,
+            final int samplesPerRow, final int bands) {
+        final int rowBytes = samplesPerRow * bytesPerSample;
+        final int rows     = data.length / rowBytes;
+        final byte[] row   = new byte[rowBytes];
+        final boolean bigEndian = (order == ByteOrder.BIG_ENDIAN);
+        for (int r = 0; r < rows; r++) {
+            final int base = r * rowBytes;
+            for (int i = base + bands, end = base + rowBytes; i < end; i++) {
+                data[i] += data[i - bands];
+            }
+            System.arraycopy(data, base, row, 0, rowBytes);
+            for (int k = 0; k < samplesPerRow; k++) {
+                final int target = base + k * bytesPerSample;
+                for (int j = 0; j < bytesPerSample; j++) {
+                    data[target + (bigEndian ? j : bytesPerSample - 1 - j)] = row[j * samplesPerRow + k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert uncompressed bytes to an array compatible with given data buffer type.
+     *
+     * @param data uncompressed block bytes
+     * @param order file byte order
+     * @param dataType {@link DataBuffer} type
+     * @return primitive array of the {@link DataBuffer} type
+     */
+    static Object toArray(final byte[] data, final ByteOrder order, final int dataType) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data).order(order);
+        switch (dataType) {
+            case DataBuffer.TYPE_BYTE : return data;
+            case DataBuffer.TYPE_SHORT :
+            case DataBuffer.TYPE_USHORT : {
+                final short[] array = new short[data.length / Short.BYTES];
+                buffer.asShortBuffer().get(array);
+                return array;
+            }
+            case DataBuffer.TYPE_INT : {
+                final int[] array = new int[data.length / Integer.BYTES];
+                buffer.asIntBuffer().get(array);
+                return array;
+            }
+            case DataBuffer.TYPE_FLOAT : {
+                final float[] array = new float[data.length / Float.BYTES];
+                buffer.asFloatBuffer().get(array);
+                return array;
+            }
+            case DataBuffer.TYPE_DOUBLE : {
+                final double[] array = new double[data.length / Double.BYTES];
+                buffer.asDoubleBuffer().get(array);
+                return array;
+            }
+            default: throw new AssertionError(dataType);
+        }
+    }
+
+    /**
+     * Copy {@code count} elements between two primitive arrays of the same type, with given steps.
+     */
+    static void copy(final Object src, int srcPos, final int srcStep,
+                     final Object dst, int dstPos, final int dstStep, final int count) {
+        if (src instanceof byte[]) {
+            final byte[] s = (byte[]) src, d = (byte[]) dst;
+            for (int i = 0; i < count; i++, srcPos += srcStep, dstPos += dstStep) d[dstPos] = s[srcPos];
+        } else if (src instanceof short[]) {
+            final short[] s = (short[]) src, d = (short[]) dst;
+            for (int i = 0; i < count; i++, srcPos += srcStep, dstPos += dstStep) d[dstPos] = s[srcPos];
+        } else if (src instanceof int[]) {
+            final int[] s = (int[]) src, d = (int[]) dst;
+            for (int i = 0; i < count; i++, srcPos += srcStep, dstPos += dstStep) d[dstPos] = s[srcPos];
+        } else if (src instanceof float[]) {
+            final float[] s = (float[]) src, d = (float[]) dst;
+            for (int i = 0; i < count; i++, srcPos += srcStep, dstPos += dstStep) d[dstPos] = s[srcPos];
+        } else {
+            final double[] s = (double[]) src, d = (double[]) dst;
+            for (int i = 0; i < count; i++, srcPos += srcStep, dstPos += dstStep) d[dstPos] = s[srcPos];
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferDouble;
@@ -35,6 +36,7 @@ import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
@@ -69,6 +71,7 @@ import org.apache.sis.image.WritablePixelIterator;
 import org.apache.sis.io.stream.ChannelImageInputStream;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.ArraysExt;
+import org.apache.sis.util.collection.Cache;
 import org.apache.sis.util.logging.Logging;
 import org.geotoolkit.coverage.SampleDimensionUtils;
 import org.geotoolkit.image.SampleModels;
@@ -302,6 +305,15 @@ public class TiffImageReader extends SpatialImageReader {
      */
     private int noDataTemporaryKey = 1000000;
 
+    /**
+     * Decompressed strips or tiles of current input, as arrays of the raster data type.
+     * Keys are the layer index in the 32 upper bits and the block index in the lower bits.
+     * Cost is the block size in kilobytes.
+     *
+     * @see #readFromBlocks(java.awt.image.WritableRaster, javax.imageio.ImageReadParam, java.awt.Rectangle, java.awt.Rectangle)
+     */
+    private Cache<Long,Object> blockCache = createBlockCache();
+
     /**
      * Creates a new reader.
      *
@@ -894,6 +906,7 @@ public class TiffImageReader extends SpatialImageReader {
         bitsPerSample  = null;
         tileOffsets    = null;
         rawImageType   = null;
+        if (blockCache != null) blockCache.clear();
 
         if (imageStream != null) {
             // If given input was a stream or an ImageInputStream, it's the owner of the stream who should close it.
@@ -942,6 +955,22 @@ public class TiffImageReader extends SpatialImageReader {
 
         // clear cache
         extensions = null;
+        blockCache = createBlockCache();
+    }
+
+    /**
+     * Create cache of decompressed blocks, holding strongly at most 64 MB.
+     */
+    private static Cache<Long,Object> createBlockCache() {
+        return new Cache<Long,Object>(16, 64 * 1024, true) {
+            @Override
+            protected int cost(final Object value) {
+                final int length = Array.getLength(value);
+                final Class<?> type = value.getClass().getComponentType();
+                final int size = (type == byte.class) ? 1 : (type == short.class) ? 2 : (type == double.class) ? 8 : 4;
+                return Math.max(1, (int) (((long) length * size) >> 10));
+            }
+        };
     }
 
     /**
@@ -1378,6 +1407,8 @@ public class TiffImageReader extends SpatialImageReader {
             case Compression: { //-- Compression.
                 assert count == 1 : "with tiff compression tag, count should be equal 1.";
                 compression = (int) (imageStream.readShort() & 0xFFFF);
+                //-- '32 946' is the obsolete Deflate code, same codec --//
+                if (compression == 32946) compression = 8;
                 if (compression != 1 && compression != 32773 && compression != 5 && compression != 8) {
                     // '1' stands for "uncompressed".
                     // '8' stands for "Deflate".
@@ -1819,7 +1850,9 @@ public class TiffImageReader extends SpatialImageReader {
         final Rectangle srcRegion = new Rectangle();
         final Rectangle dstRegion = new Rectangle();
         computeRegions(sparam, imageWidth, imageHeight, image, srcRegion, dstRegion);// calculer une region de l'image sur le fichier que l'on doit lire
-        if (compression == 32773) {
+        if (canReadBlocks(raster, sparam)) {
+            readFromBlocks(raster, sparam, srcRegion, dstRegion);
+        } else if (compression == 32773) {
             assert stripOffsets != null : "with compression 32773 (packbits) : image should be writen in strip offset use case.";
             readFromStrip32773(raster, sparam, srcRegion, dstRegion);
         } else if (compression == 5) {
@@ -3577,6 +3610,213 @@ public class TiffImageReader extends SpatialImageReader {
         }
     }
 
+    /**
+     * Returns {@code true} if current layer can be read by {@link #readFromBlocks}.
+     * Block reading supports Deflate and LZW compressed tiles or strips with byte aligned samples
+     * and predictors 1, 2 or 3, when destination raster is a {@link ComponentSampleModel}.
+     * Deflate strips and floating point predictor are only supported by this path.
+     *
+     * @param raster destination raster
+     * @param param  read parameters without source and destination bands, or {@code null}
+     */
+    private boolean canReadBlocks(final WritableRaster raster, final ImageReadParam param) {
+        if (compression != 5 && compression != 8) return false;
+        if (param != null && (param.getSourceBands() != null || param.getDestinationBands() != null)) return false;
+        if (!(raster.getSampleModel() instanceof ComponentSampleModel) || raster.getNumBands() != samplesPerPixel) return false;
+        final int bits = DataBuffer.getDataTypeSize(raster.getDataBuffer().getDataType());
+        if (bitsPerSample == null || bits % Byte.SIZE != 0) return false;
+        for (long b : bitsPerSample) {
+            if (b != bits) return false;
+        }
+        final Map<String, Object> fillOrder = headProperties.get(FillOrder);
+        if (fillOrder != null && ((long[]) fillOrder.get(ATT_VALUE))[0] == 2) return false;
+        final int predic = getPredictor();
+        if (predic < 1 || predic > 3 || (predic == 3 && bits == Byte.SIZE)) return false;
+        //-- LZW strips keep their sequential reader, except for floating point predictor --//
+        return tileOffsets != null || compression == 8 || predic == 3;
+    }
+
+    /**
+     * Returns predictor tag value of current layer, 1 if none.
+     */
+    private int getPredictor() {
+        final Map<String, Object> predictor = headProperties.get(Predictor);
+        return (predictor != null) ? (int) ((long[]) predictor.get(ATT_VALUE))[0] : 1;
+    }
+
+    /**
+     * Process to the image reading, and stores the pixels in the given raster.<br/>
+     * Strips or tiles, called blocks, intersecting source region are read with positional reads and
+     * decompressed concurrently, then copied in destination raster.
+     * Decompressed blocks are kept in a cache shared by successive read calls on the same input.
+     *
+     * @param  raster    The raster where to store the pixel values.
+     * @param  param     Parameters used to control the reading process, or {@code null}.
+     * @param  srcRegion The region to read in source image.
+     * @param  dstRegion The region to write in the given raster.
+     * @throws IOException If an error occurred while reading the image.
+     * @see #canReadBlocks(java.awt.image.WritableRaster, javax.imageio.ImageReadParam)
+     */
+    private void readFromBlocks(final WritableRaster raster, final ImageReadParam param,
+            final Rectangle srcRegion, final Rectangle dstRegion) throws IOException
+    {
+        clearAbortRequest();
+        final int sourceXSubsampling = (param != null) ? param.getSourceXSubsampling() : 1;
+        final int sourceYSubsampling = (param != null) ? param.getSourceYSubsampling() : 1;
+
+        //-- planar configuration --//
+        final Map<String, Object> planarConfig = headProperties.get(PlanarConfiguration);
+        short pC = 1;
+        if (planarConfig != null && samplesPerPixel > 1) {
+            pC = ((short[]) planarConfig.get(ATT_VALUE)) [0];
+        }
+        final int blockBands = (pC == 2) ? 1 : samplesPerPixel;
+        final int numPlanes  = (pC == 2) ? samplesPerPixel : 1;
+
+        //-- block geometry, a strip is a block as wide as the image --//
+        final boolean tiled = tileOffsets != null;
+        final int blockWidth  = tiled ? tileWidth : imageWidth;
+        final int blockHeight = tiled ? tileHeight : ((rowsPerStrip <= 0 || rowsPerStrip > imageHeight) ? imageHeight : rowsPerStrip);
+        final int numXBlock   = (imageWidth  + blockWidth  - 1) / blockWidth;
+        final int numYBlock   = (imageHeight + blockHeight - 1) / blockHeight;
+        final long[] offsets    = tiled ? tileOffsets    : stripOffsets;
+        final long[] byteCounts = tiled ? tileByteCounts : stripByteCounts;
+
+        final int minBlockX = srcRegion.x / blockWidth;
+        final int minBlockY = srcRegion.y / blockHeight;
+        final int maxBlockX = (srcRegion.x + srcRegion.width  + blockWidth  - 1) / blockWidth;
+        final int maxBlockY = (srcRegion.y + srcRegion.height + blockHeight - 1) / blockHeight;
+
+        final List<Integer> blocks = new ArrayList<>();
+        for (int p = 0; p < numPlanes; p++) {
+            for (int by = minBlockY; by < maxBlockY; by++) {
+                for (int bx = minBlockX; bx < maxBlockX; bx++) {
+                    blocks.add((p * numYBlock + by) * numXBlock + bx);
+                }
+            }
+        }
+
+        final ComponentSampleModel sm  = (ComponentSampleModel) raster.getSampleModel();
+        final DataBuffer dataBuffer    = raster.getDataBuffer();
+        final int dataType             = dataBuffer.getDataType();
+        final int bytesPerSample       = DataBuffer.getDataTypeSize(dataType) / Byte.SIZE;
+        final int scanlineStride       = sm.getScanlineStride();
+        final int pixelStride          = sm.getPixelStride();
+        final int[] bandOffsets        = sm.getBandOffsets();
+        final int[] bankIndices        = sm.getBankIndices();
+        final int[] bufferOffsets      = dataBuffer.getOffsets();
+        final int translateX           = raster.getSampleModelTranslateX();
+        final int translateY           = raster.getSampleModelTranslateY();
+        final ByteOrder order          = imageStream.getByteOrder();
+        final int predictor            = getPredictor();
+        final int layer                = currentImage;
+        final Object[] banks           = new Object[dataBuffer.getNumBanks()];
+        for (int b = 0; b < banks.length; b++) {
+            switch (dataType) {
+                case DataBuffer.TYPE_BYTE   : banks[b] = ((DataBufferByte)   dataBuffer).getData(b); break;
+                case DataBuffer.TYPE_USHORT : banks[b] = ((DataBufferUShort) dataBuffer).getData(b); break;
+                case DataBuffer.TYPE_SHORT  : banks[b] = ((DataBufferShort)  dataBuffer).getData(b); break;
+                case DataBuffer.TYPE_INT    : banks[b] = ((DataBufferInt)    dataBuffer).getData(b); break;
+                case DataBuffer.TYPE_FLOAT  : banks[b] = ((DataBufferFloat)  dataBuffer).getData(b); break;
+                case DataBuffer.TYPE_DOUBLE : banks[b] = ((DataBufferDouble) dataBuffer).getData(b); break;
+                default: throw new AssertionError(dataType);
+            }
+        }
+
+        //-- positional reads are possible on files, other inputs are read under lock --//
+        final FileChannel fileChannel = IOUtilities.canProcessAsPath(currentInput)
+                ? FileChannel.open(IOUtilities.toPath(currentInput), StandardOpenOption.READ) : null;
+        final ImageInputStream rasterStream = (fileChannel == null) ? getImageInputStream(false) : null;
+        try {
+            blocks.parallelStream().forEach((Integer blockIndex) -> {
+                if (abortRequested()) return;
+                final int index  = blockIndex;
+                final int plane  = index / (numXBlock * numYBlock);
+                final int bx     = index % numXBlock;
+                final int by     = (index / numXBlock) % numYBlock;
+                final int rows   = tiled ? blockHeight : Math.min(blockHeight, imageHeight - by * blockHeight);
+                final Long key   = (((long) layer) << 32) | index;
+                Object samples   = blockCache.peek(key);
+                if (samples == null) {
+                    try {
+                        final byte[] compressed = readBlock(fileChannel, rasterStream, offsets[index], (int) byteCounts[index]);
+                        final int samplesPerRow = blockWidth * blockBands;
+                        final int length = samplesPerRow * rows * bytesPerSample;
+                        final byte[] data = (compression == 5)
+                                ? TiffBlockDecoder.lzw(compressed, length)
+                                : TiffBlockDecoder.inflate(compressed, length);
+                        if (predictor == 2) {
+                            TiffBlockDecoder.horizontalPredictor(data, order, bytesPerSample, samplesPerRow, blockBands);
+                        } else if (predictor == 3) {
+                            TiffBlockDecoder.floatingPointPredictor(data, order, bytesPerSample, samplesPerRow, blockBands);
+                        }
+                        samples = TiffBlockDecoder.toArray(data, order, dataType);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    blockCache.put(key, samples);
+                }
+
+                //-- intersection between source region and block, aligned on subsampling grid --//
+                final int blockMinX = bx * blockWidth;
+                final int blockMinY = by * blockHeight;
+                final int interMaxX = Math.min(srcRegion.x + srcRegion.width,  Math.min(blockMinX + blockWidth, imageWidth));
+                final int interMaxY = Math.min(srcRegion.y + srcRegion.height, blockMinY + rows);
+                final int startX = srcRegion.x + ceilDiv(Math.max(srcRegion.x, blockMinX) - srcRegion.x, sourceXSubsampling) * sourceXSubsampling;
+                final int startY = srcRegion.y + ceilDiv(Math.max(srcRegion.y, blockMinY) - srcRegion.y, sourceYSubsampling) * sourceYSubsampling;
+                if (startX >= interMaxX || startY >= interMaxY) return;
+                final int count = (interMaxX - startX + sourceXSubsampling - 1) / sourceXSubsampling;
+                final int dstX  = dstRegion.x + (startX - srcRegion.x) / sourceXSubsampling - translateX;
+
+                for (int sy = startY; sy < interMaxY; sy += sourceYSubsampling) {
+                    final int dstY = dstRegion.y + (sy - srcRegion.y) / sourceYSubsampling - translateY;
+                    final int srcRow = ((sy - blockMinY) * blockWidth + (startX - blockMinX)) * blockBands;
+                    for (int b = 0; b < blockBands; b++) {
+                        final int band = (blockBands == 1) ? plane : b;
+                        TiffBlockDecoder.copy(samples, srcRow + b, blockBands * sourceXSubsampling,
+                                banks[bankIndices[band]],
+                                bufferOffsets[bankIndices[band]] + bandOffsets[band] + dstY * scanlineStride + dstX * pixelStride,
+                                pixelStride, count);
+                    }
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            if (fileChannel != null) fileChannel.close();
+        }
+    }
+
+    /**
+     * Read compressed bytes of a block.
+     *
+     * @param fileChannel channel for positional reads, or {@code null} to use the stream
+     * @param stream stream used when there is no file channel, access is synchronized on it
+     */
+    private static byte[] readBlock(final FileChannel fileChannel, final ImageInputStream stream,
+            final long offset, final int length) throws IOException {
+        final byte[] data = new byte[length];
+        if (fileChannel != null) {
+            final ByteBuffer bb = ByteBuffer.wrap(data);
+            long position = offset;
+            while (bb.hasRemaining()) {
+                final int n = fileChannel.read(bb, position);
+                if (n < 0) throw new EOFException("Unexpected end of file at position " + position);
+                position += n;
+            }
+        } else {
+            synchronized (stream) {
+                stream.seek(offset);
+                stream.readFully(data);
+            }
+        }
+        return data;
+    }
+
+    private static int ceilDiv(final int value, final int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
     /**
      * Return an image input stream for data usage.
      * @param reversedReading True if we want the returned stream to inverse byte values at reading. False otherwise.
@@ -29,12 +29,95 @@ import org.geotoolkit.image.io.SpatialImageWriteParam;
  */
 public class TiffImageWriteParam extends SpatialImageWriteParam {
 
+    /**
+     * Whether images are written in Cloud Optimized GeoTIFF layout.
+     */
+    private boolean cloudOptimized;
+
+    /**
+     * Deflate predictor, or -1 for automatic selection.
+     */
+    private int predictor = -1;
+
+    /**
+     * Number of overviews written with a cloud optimized image, or -1 for automatic selection.
+     */
+    private int overviewCount = -1;
+
     public TiffImageWriteParam(ImageWriter writer) {
         super(writer);
         canOffsetTiles      = false;
         canWriteCompressed  = true;
         canWriteProgressive = false;
         canWriteTiles       = true;
-        compressionTypes    = new String[]{"LZW", "PackBits"};
+        compressionTypes    = new String[]{"LZW", "PackBits", "Deflate"};
+    }
+
+    /**
+     * Returns {@code true} if images are written in Cloud Optimized GeoTIFF layout.
+     *
+     * @return {@code true} for cloud optimized layout.
+     */
+    public boolean isCloudOptimized() {
+        return cloudOptimized;
+    }
+
+    /**
+     * Set whether images are written in Cloud Optimized GeoTIFF layout : Deflate compressed
+     * tiles (512 x 512 if tiling is not explicitly set), internal overviews, and all image file
+     * directories at the beginning of the file so readers can fetch any tile with a range request.
+     * A cloud optimized image must be the first image of the file.
+     *
+     * @param cloudOptimized {@code true} for cloud optimized layout.
+     */
+    public void setCloudOptimized(final boolean cloudOptimized) {
+        this.cloudOptimized = cloudOptimized;
+    }
+
+    /**
+     * Returns Deflate predictor, 1 for none, 2 for horizontal differencing and 3 for floating point,
+     * or -1 if predictor is chosen from image data type.
+     *
+     * @return predictor or -1.
+     */
+    public int getPredictor() {
+        return predictor;
+    }
+
+    /**
+     * Set predictor applied before Deflate compression.
+     * Horizontal differencing (2) applies to integer samples only,
+     * floating point predictor (3) to floating point samples only.
+     *
+     * @param predictor 1, 2, 3 or -1 for automatic selection.
+     */
+    public void setPredictor(final int predictor) {
+        if (predictor != -1 && (predictor < 1 || predictor > 3)) {
+            throw new IllegalArgumentException("Predictor must be 1, 2, 3 or -1, found : "+predictor);
+        }
+        this.predictor = predictor;
+    }
+
+    /**
+     * Returns number of overviews written with a cloud optimized image, or -1 if overviews
+     * are added until the smallest one fits in a single tile.
+     *
+     * @return overview count or -1.
+     */
+    public int getOverviewCount() {
+        return overviewCount;
+    }
+
+    /**
+     * Set number of overviews written with a cloud optimized image.
+     * Each overview is half the size of the previous level.
+     *
+     * @param overviewCount positive overview count or -1 for automatic selection.
+     */
+    public void setOverviewCount(final int overviewCount) {
+        if (overviewCount < -1) {
+            throw new IllegalArgumentException("Overview count must be positive or -1, found : "+overviewCount);
+        }
+        this.overviewCount = overviewCount;
     }
 }
@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
 import javax.imageio.IIOException;
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -102,6 +103,13 @@ public class TiffImageWriter extends SpatialImageWriter {
      */
     private final static String packbits = "PackBits";
 
+    /**
+     * String use to determinate Deflate compression type.
+     *
+     * @see TiffImageWriteParam#compressionTypes
+     */
+    private final static String deflate = "Deflate";
+
     /**
      * Size of data structures in standard TIFF files ({@code SIZE_*}) and in big TIFF files
      * ({@code SIZE_BIG_*}). In standard TIFF, the size of structures for counting the number
@@ -649,6 +657,10 @@ public class TiffImageWriter extends SpatialImageWriter {
         if (param == null) {
             param = getDefaultWriteParam();
         }
+        if (extractCompression(param) == 8
+                || (param instanceof TiffImageWriteParam && ((TiffImageWriteParam) param).isCloudOptimized())) {
+            throw new IIOException("Deflate compression and cloud optimized layout are not supported when writing empty image.");
+        }
         // TODO : Remove test when tiles won't be necessary.
         if (param.getTilingMode() != ImageWriteParam.MODE_EXPLICIT || param.getTileWidth() <= 0 || param.getTileHeight() <= 0) {
             //-- with prepare write empty force writing by tile 256 x 256--//
@@ -968,6 +980,11 @@ public class TiffImageWriter extends SpatialImageWriter {
      */
     private void write(final RenderedImage image, final Map<Integer, Map<String, Object>> headProperties,
                        final ImageWriteParam param, final long[] ifdPosition) throws IOException {
+        if (extractCompression(param) == 8
+                || (param instanceof TiffImageWriteParam && ((TiffImageWriteParam) param).isCloudOptimized())) {
+            writeCloudOptimized(image, headProperties, param, ifdPosition);
+            return;
+        }
         if (channel != null) {
             //-- We authorize to write none big tiff image after big tiff already writen but not the inverse --//
             if (isBigTIFF != isBigTiff(image)) {
@@ -1021,6 +1038,108 @@ public class TiffImageWriter extends SpatialImageWriter {
         this.headProperties = null;
     }
 
+    /**
+     * Write {@link RenderedImage} by Deflate compressed tiles, with its overviews if
+     * {@link TiffImageWriteParam#isCloudOptimized()} is set.
+     * Tiles are compressed in parallel by {@link CogTiffWriter}, which also writes the tiff tags.
+     *
+     * @param image {@link RenderedImage} which will be write.
+     * @param headProperties image properties. (All needed tag information are set in this Map).
+     * @param param properties to write image, never null.
+     * @param ifdPosition table of length 2 where ifdPosition[0] contain chanel position of current image datas beginning
+     *                    and ifdPosition[1] contain chanel position where to write the nextIFD offset.
+     * @throws IOException if problem during writing or if param is not supported.
+     */
+    private void writeCloudOptimized(final RenderedImage image, final Map<Integer, Map<String, Object>> headProperties,
+                                     final ImageWriteParam param, final long[] ifdPosition) throws IOException {
+        final TiffImageWriteParam tiffParam = (param instanceof TiffImageWriteParam) ? (TiffImageWriteParam) param : null;
+        final boolean cloudOptimized = tiffParam != null && tiffParam.isCloudOptimized();
+        if (cloudOptimized && channel != null) {
+            throw new IIOException("A cloud optimized image must be the first image of the tiff file.");
+        }
+        if (param.getSourceXSubsampling() != 1 || param.getSourceYSubsampling() != 1) {
+            throw new IIOException("Subsampling is not supported with Deflate compression.");
+        }
+        Rectangle region = new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+        if (param.getSourceRegion() != null) {
+            region = region.intersection(param.getSourceRegion());
+            if (region.isEmpty()) {
+                throw new IIOException("Source region does not intersect image.");
+            }
+        }
+
+        //-- tiling, default 512 x 512 for cloud optimized image as most readers expect --//
+        int tileWidth  = cloudOptimized ? 512 : 256;
+        int tileHeight = tileWidth;
+        if (param.getTilingMode() == ImageWriteParam.MODE_EXPLICIT && param.getTileWidth() > 0 && param.getTileHeight() > 0) {
+            tileWidth  = param.getTileWidth();
+            tileHeight = param.getTileHeight();
+        }
+        if (tileWidth % 16 != 0 || tileHeight % 16 != 0) {
+            throw new IIOException("Tile width and height must be multiples of 16, found "+tileWidth+" x "+tileHeight);
+        }
+
+        final int overviews;
+        if (!cloudOptimized) {
+            overviews = 0;
+        } else if (tiffParam.getOverviewCount() >= 0) {
+            overviews = tiffParam.getOverviewCount();
+        } else {
+            overviews = CogTiffWriter.defaultOverviewCount(region.width, region.height, tileWidth, tileHeight);
+        }
+
+        int predictor = (tiffParam != null) ? tiffParam.getPredictor() : -1;
+        if (predictor < 0) {
+            final int dataType = image.getSampleModel().getDataType();
+            if (dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE) {
+                predictor = 3;
+            } else {
+                //-- differencing palette indexes does not improve compression --//
+                predictor = (image.getColorModel() instanceof IndexColorModel) ? 1 : 2;
+            }
+        }
+
+        final boolean bigTiff = CogTiffWriter.requiresBigTiff(image.getSampleModel(), region.width, region.height,
+                                                              tileWidth, tileHeight, overviews);
+        if (channel != null) {
+            if (bigTiff && !isBigTIFF) {
+                throw new IllegalArgumentException("You can't write a bigtiff image when you have already writen none bigtiff image.");
+            }
+            final long offset = channel.getStreamPosition();
+            if (ifdPosition[1] > 0) {
+                channel.seek(ifdPosition[1]);
+                if (isBigTIFF) channel.writeLong(offset);
+                else channel.writeInt((int) offset);
+                channel.seek(offset);
+            }
+            ifdPosition[0] = offset;
+        } else {
+            isBigTIFF = bigTiff;
+            if (isBigTIFF) {
+                currentSizeEntry     = SIZE_BIG_ENTRY;
+                currentSizeTagNumber = Long.SIZE / Byte.SIZE; // long
+                currentSizeNextIFD   = Long.SIZE / Byte.SIZE; // long
+            } else {
+                currentSizeEntry     = SIZE_ENTRY;
+                currentSizeTagNumber = Short.SIZE / Byte.SIZE; // short
+                currentSizeNextIFD   = Integer.SIZE / Byte.SIZE; // int
+            }
+        }
+        open(ifdPosition);
+
+        //-- add image properties in a Map in attempt to writing. --//
+        addImageProperties(image, headProperties, param);
+
+        final CogTiffWriter writer = new CogTiffWriter(channel, currentBO, isBigTIFF, tileWidth, tileHeight, Deflater.DEFAULT_COMPRESSION);
+        ifdPosition[1] = writer.write(image, region, headProperties, overviews, predictor, ifdPosition[0]);
+
+        if (metaIndex == metaHeads.length) {
+            metaHeads = Arrays.copyOf(metaHeads, metaHeads.length << 1);
+        }
+        metaHeads[metaIndex++] = headProperties;
+        this.headProperties = null;
+    }
+
     /**
      * Check tagsProperties {@link Map} and define if image will be written by stripOffsets or by tiles.
      *
@@ -1479,6 +1598,8 @@ public class TiffImageWriter extends SpatialImageWriter {
                     compression = 5;
                 } else if (packbits.equalsIgnoreCase(comp)) {
                     compression = 32773;
+                } else if (deflate.equalsIgnoreCase(comp)) {
+                    compression = 8;
                 } else {
                     throw new IllegalStateException("the compression type : "+comp+". Is not known. Impossible to write image.");
                 }
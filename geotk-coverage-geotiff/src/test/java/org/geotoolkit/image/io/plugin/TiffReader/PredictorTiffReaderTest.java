@@ -0,0 +1,255 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin.TiffReader;
+
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.stream.ImageInputStream;
+import org.geotoolkit.image.io.plugin.TiffImageReader;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test reading of Deflate compressed tiled images with horizontal (2)
+ * and floating point (3) predictors.
+ */
+public class PredictorTiffReaderTest {
+
+    private static final int WIDTH  = 50;
+    private static final int HEIGHT = 37;
+    private static final int TILE   = 16;
+
+    private static int ushortSample(final int x, final int y, final int b) {
+        return (x * 977 + y * 131 + b * 20000) % 65536;
+    }
+
+    private static float floatSample(final int x, final int y) {
+        return (float) (Math.sin(x * 0.1) * y + x * 0.5);
+    }
+
+    /**
+     * RGB unsigned short tiles, little endian, with horizontal differencing.
+     */
+    @Test
+    public void horizontalPredictorTest() throws IOException {
+        final Path file = Files.createTempFile("predictor2", ".tiff");
+        try {
+            writeTiff(file, ByteOrder.LITTLE_ENDIAN, 3, 16, 1, 2, 2, (ByteBuffer buffer, Integer x, Integer y, Integer b) -> {
+                buffer.putShort((short) ushortSample(x, y, b));
+            });
+            for (boolean stream : new boolean[]{false, true}) {
+                final Raster full = read(file, stream, null, 1, 1);
+                assertEquals(WIDTH, full.getWidth());
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        for (int b = 0; b < 3; b++) {
+                            assertEquals(ushortSample(x, y, b), full.getSample(x, y, b));
+                        }
+                    }
+                }
+                final Rectangle region = new Rectangle(5, 3, 30, 25);
+                final Raster sub = read(file, stream, region, 3, 2);
+                assertEquals(10, sub.getWidth());
+                assertEquals(13, sub.getHeight());
+                for (int y = 0; y < sub.getHeight(); y++) {
+                    for (int x = 0; x < sub.getWidth(); x++) {
+                        for (int b = 0; b < 3; b++) {
+                            assertEquals(ushortSample(region.x + 3 * x, region.y + 2 * y, b), sub.getSample(x, y, b));
+                        }
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Single band float tiles, big endian, with floating point predictor.
+     */
+    @Test
+    public void floatingPointPredictorTest() throws IOException {
+        final Path file = Files.createTempFile("predictor3", ".tiff");
+        try {
+            writeTiff(file, ByteOrder.BIG_ENDIAN, 1, 32, 3, 3, 1, (ByteBuffer buffer, Integer x, Integer y, Integer b) -> {
+                buffer.putFloat(floatSample(x, y));
+            });
+            for (boolean stream : new boolean[]{false, true}) {
+                final Rectangle region = new Rectangle(7, 2, 40, 30);
+                //-- read twice, the second read uses cached tiles --//
+                for (int i = 0; i < 2; i++) {
+                    final Raster raster = read(file, stream, region, 1, 1);
+                    for (int y = 0; y < region.height; y++) {
+                        for (int x = 0; x < region.width; x++) {
+                            assertEquals(floatSample(region.x + x, region.y + y), raster.getSampleFloat(x, y, 0), 0f);
+                        }
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Raster read(final Path file, final boolean stream, final Rectangle region,
+            final int xs, final int ys) throws IOException {
+        final TiffImageReader reader = new TiffImageReader(null);
+        final ImageInputStream in = stream ? ImageIO.createImageInputStream(file.toFile()) : null;
+        try {
+            reader.setInput(stream ? in : file.toFile());
+            final ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(region);
+            param.setSourceSubsampling(xs, ys, 0, 0);
+            return reader.read(0, param).getRaster();
+        } finally {
+            reader.dispose();
+            if (in != null) in.close();
+        }
+    }
+
+    private interface SampleWriter {
+        void write(ByteBuffer buffer, Integer x, Integer y, Integer band);
+    }
+
+    /**
+     * Write a minimal tiled and Deflate compressed tiff.
+     */
+    private static void writeTiff(final Path file, final ByteOrder order, final int bands, final int bits,
+            final int sampleFormat, final int predictor, final int photometric, final SampleWriter sampleWriter) throws IOException {
+        final int bytes = bits / 8;
+        final int numX = (WIDTH + TILE - 1) / TILE;
+        final int numY = (HEIGHT + TILE - 1) / TILE;
+        final int rowSamples = TILE * bands;
+        final List<byte[]> tiles = new ArrayList<>();
+        for (int ty = 0; ty < numY; ty++) {
+            for (int tx = 0; tx < numX; tx++) {
+                final ByteBuffer tile = ByteBuffer.allocate(TILE * rowSamples * bytes).order(order);
+                for (int y = 0; y < TILE; y++) {
+                    for (int x = 0; x < TILE; x++) {
+                        for (int b = 0; b < bands; b++) {
+                            sampleWriter.write(tile, Math.min(tx * TILE + x, WIDTH - 1), Math.min(ty * TILE + y, HEIGHT - 1), b);
+                        }
+                    }
+                }
+                final byte[] data = tile.array();
+                for (int y = 0; y < TILE; y++) {
+                    final int base = y * rowSamples;
+                    if (predictor == 2) {
+                        for (int i = rowSamples - 1; i >= bands; i--) {
+                            final int p = (base + i) * bytes, q = (base + i - bands) * bytes;
+                            tile.putShort(p, (short) (tile.getShort(p) - tile.getShort(q)));
+                        }
+                    } else if (predictor == 3) {
+                        final int rowBytes = rowSamples * bytes;
+                        final byte[] row = new byte[rowBytes];
+                        for (int k = 0; k < rowSamples; k++) {
+                            for (int j = 0; j < bytes; j++) {
+                                final int pos = (base + k) * bytes + (order == ByteOrder.BIG_ENDIAN ? j : bytes - 1 - j);
+                                row[j * rowSamples + k] = data[pos];
+                            }
+                        }
+                        for (int i = rowBytes - 1; i >= bands; i--) {
+                            row[i] -= row[i - bands];
+                        }
+                        System.arraycopy(row, 0, data, base * bytes, rowBytes);
+                    }
+                }
+                final Deflater deflater = new Deflater();
+                deflater.setInput(data);
+                deflater.finish();
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] chunk = new byte[4096];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+                deflater.end();
+                tiles.add(out.toByteArray());
+            }
+        }
+
+        //-- header, tiles, offset and count arrays then directory --//
+        final int n = tiles.size();
+        int dataLength = 0;
+        for (byte[] t : tiles) dataLength += t.length;
+        final int offsetsPos = 8 + dataLength;
+        final int countsPos  = offsetsPos + 4 * n;
+        final int ifdPos     = countsPos + 4 * n;
+        final int nbEntries  = 13;
+        final ByteBuffer buffer = ByteBuffer.allocate(ifdPos + 2 + nbEntries * 12 + 4 + 16).order(order);
+        buffer.put((byte) (order == ByteOrder.BIG_ENDIAN ? 'M' : 'I'));
+        buffer.put(buffer.get(0));
+        buffer.putShort((short) 42);
+        buffer.putInt(ifdPos);
+        final int[] offsets = new int[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = buffer.position();
+            buffer.put(tiles.get(i));
+        }
+        for (int i = 0; i < n; i++) buffer.putInt(offsets[i]);
+        for (int i = 0; i < n; i++) buffer.putInt(tiles.get(i).length);
+        final int extraPos = ifdPos + 2 + nbEntries * 12 + 4;
+
+        buffer.putShort((short) nbEntries);
+        entry(buffer, 256, 4, 1, WIDTH);
+        entry(buffer, 257, 4, 1, HEIGHT);
+        if (bands <= 2) {
+            buffer.putShort((short) 258).putShort((short) 3).putInt(bands);
+            buffer.putShort((short) bits).putShort((short) (bands == 2 ? bits : 0));
+        } else {
+            entry(buffer, 258, 3, bands, extraPos);
+        }
+        shortEntry(buffer, 259, 8);
+        shortEntry(buffer, 262, photometric);
+        shortEntry(buffer, 277, bands);
+        shortEntry(buffer, 284, 1);
+        shortEntry(buffer, 317, predictor);
+        entry(buffer, 322, 4, 1, TILE);
+        entry(buffer, 323, 4, 1, TILE);
+        entry(buffer, 324, 4, n, offsetsPos);
+        entry(buffer, 325, 4, n, countsPos);
+        if (bands <= 2) {
+            buffer.putShort((short) 339).putShort((short) 3).putInt(bands);
+            buffer.putShort((short) sampleFormat).putShort((short) (bands == 2 ? sampleFormat : 0));
+        } else {
+            entry(buffer, 339, 3, bands, extraPos + 8);
+        }
+        buffer.putInt(0);
+        for (int b = 0; b < 4; b++) buffer.putShort((short) bits);
+        for (int b = 0; b < 4; b++) buffer.putShort((short) sampleFormat);
+        Files.write(file, buffer.array());
+    }
+
+    private static void entry(final ByteBuffer buffer, final int tag, final int type, final int count, final int value) {
+        buffer.putShort((short) tag).putShort((short) type).putInt(count).putInt(value);
+    }
+
+    private static void shortEntry(final ByteBuffer buffer, final int tag, final int value) {
+        buffer.putShort((short) tag).putShort((short) 3).putInt(1).putShort((short) value).putShort((short) 0);
+    }
+}
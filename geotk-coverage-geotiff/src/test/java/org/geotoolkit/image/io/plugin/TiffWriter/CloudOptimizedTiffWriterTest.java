@@ -0,0 +1,155 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.plugin.TiffWriter;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageWriteParam;
+import org.geotoolkit.image.io.plugin.TiffImageReader;
+import org.geotoolkit.image.io.plugin.TiffImageWriteParam;
+import org.geotoolkit.image.io.plugin.TiffImageWriter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test writing of Deflate compressed images in Cloud Optimized GeoTIFF layout.
+ */
+public class CloudOptimizedTiffWriterTest {
+
+    private static final int WIDTH  = 300;
+    private static final int HEIGHT = 200;
+    private static final int TILE   = 64;
+
+    /**
+     * Unsigned short image with horizontal predictor, overviews must be averages of the previous level.
+     */
+    @Test
+    public void ushortTest() throws IOException {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_GRAY);
+        final WritableRaster raster = image.getRaster();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                raster.setSample(x, y, 0, (x * 211 + y * 97) % 65536);
+            }
+        }
+        final Path file = Files.createTempFile("cog", ".tiff");
+        try {
+            final byte[] data = write(image, file);
+            final TiffImageReader reader = new TiffImageReader(null);
+            try {
+                reader.setInput(file.toFile());
+                //-- overviews are read as thumbnails : 150 x 100, 75 x 50 and 38 x 25 --//
+                assertEquals(1, reader.getNumImages(true));
+                assertEquals(3, reader.getNumThumbnails(0));
+                final Raster full = reader.read(0).getRaster();
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        assertEquals(raster.getSample(x, y, 0), full.getSample(x, y, 0));
+                    }
+                }
+                final Raster overview = reader.readThumbnail(0, 0).getRaster();
+                assertEquals(WIDTH  / 2, overview.getWidth());
+                assertEquals(HEIGHT / 2, overview.getHeight());
+                for (int y = 0; y < HEIGHT / 2; y++) {
+                    for (int x = 0; x < WIDTH / 2; x++) {
+                        final double mean = (raster.getSample(2*x, 2*y,   0) + raster.getSample(2*x+1, 2*y,   0)
+                                           + raster.getSample(2*x, 2*y+1, 0) + raster.getSample(2*x+1, 2*y+1, 0)) / 4.0;
+                        assertEquals(Math.floor(mean + 0.5), overview.getSample(x, y, 0), 0);
+                    }
+                }
+                assertEquals(38, reader.readThumbnail(0, 2).getWidth());
+            } finally {
+                reader.dispose();
+            }
+            //-- output must not depend on tile compression order --//
+            assertArrayEquals(data, write(image, file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Float image with floating point predictor, NaN values must be ignored in overviews.
+     */
+    @Test
+    public void floatTest() throws IOException {
+        final ColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                false, false, Transparency.OPAQUE, DataBuffer.TYPE_FLOAT);
+        final WritableRaster raster = cm.createCompatibleWritableRaster(WIDTH, HEIGHT);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                raster.setSample(x, y, 0, (x == 0) ? Float.NaN : (float) (Math.cos(x * 0.05) * y));
+            }
+        }
+        final BufferedImage image = new BufferedImage(cm, raster, false, null);
+        final Path file = Files.createTempFile("cog", ".tiff");
+        try {
+            write(image, file);
+            final TiffImageReader reader = new TiffImageReader(null);
+            try {
+                reader.setInput(file.toFile());
+                final Raster full = reader.read(0).getRaster();
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        assertEquals(raster.getSampleFloat(x, y, 0), full.getSampleFloat(x, y, 0), 0f);
+                    }
+                }
+                final Raster overview = reader.readThumbnail(0, 0).getRaster();
+                for (int y = 0; y < HEIGHT / 2; y++) {
+                    final float mean = (raster.getSampleFloat(1, 2*y, 0) + raster.getSampleFloat(1, 2*y+1, 0)) / 2;
+                    assertEquals(mean, overview.getSampleFloat(0, y, 0), 1E-4f);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Write image as cloud optimized tiff and return written bytes.
+     */
+    private static byte[] write(final BufferedImage image, final Path file) throws IOException {
+        Files.deleteIfExists(file);
+        final TiffImageWriter writer = new TiffImageWriter(null);
+        try {
+            final TiffImageWriteParam param = (TiffImageWriteParam) writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionType("Deflate");
+            param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setTiling(TILE, TILE, 0, 0);
+            param.setCloudOptimized(true);
+            writer.setOutput(file);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return Files.readAllBytes(file);
+    }
+}
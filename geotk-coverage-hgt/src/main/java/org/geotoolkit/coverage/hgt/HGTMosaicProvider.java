@@ -0,0 +1,101 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.coverage.hgt;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import org.apache.sis.parameter.ParameterBuilder;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreProvider;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.ProbeResult;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.storage.base.Capability;
+import org.apache.sis.storage.base.StoreMetadata;
+import org.opengis.parameter.ParameterDescriptor;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.parameter.ParameterValueGroup;
+
+/**
+ * Directory of NASA HGT files, as a single mosaic.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+@StoreMetadata(
+        formatName = HGTMosaicProvider.NAME,
+        capabilities = {Capability.READ},
+        resourceTypes = {GridCoverageResource.class})
+public class HGTMosaicProvider extends DataStoreProvider {
+
+    /** factory identification **/
+    public static final String NAME = "hgt-folder";
+
+    /**
+     * Mandatory - the directory uri
+     */
+    public static final ParameterDescriptor<URI> PATH;
+
+    /**
+     * Optional - maximum number of memory mapped tiles
+     */
+    public static final ParameterDescriptor<Integer> MAX_MAPPED_TILES;
+
+    public static final ParameterDescriptorGroup PARAMETERS_DESCRIPTOR;
+
+    static {
+        final ParameterBuilder builder = new ParameterBuilder();
+        PATH = builder.setRequired(true).addName(DataStoreProvider.LOCATION).addName("path")
+                      .setDescription("HGT files directory")
+                      .create(URI.class, null);
+        MAX_MAPPED_TILES = builder.setRequired(false).addName("maxMappedTiles")
+                      .setDescription("Maximum number of tiles memory mapped at the same time")
+                      .createBounded(1, Integer.MAX_VALUE, HGTMosaicStore.DEFAULT_MAX_MAPPED_TILES);
+        PARAMETERS_DESCRIPTOR = builder.addName(NAME).createGroup(PATH, MAX_MAPPED_TILES);
+    }
+
+    @Override
+    public String getShortName() {
+        return NAME;
+    }
+
+    @Override
+    public ParameterDescriptorGroup getOpenParameters() {
+        return PARAMETERS_DESCRIPTOR;
+    }
+
+    @Override
+    public ProbeResult probeContent(StorageConnector connector) throws DataStoreException {
+        //directories must be opened explicitly
+        return ProbeResult.UNSUPPORTED_STORAGE;
+    }
+
+    @Override
+    public HGTMosaicStore open(StorageConnector sc) throws DataStoreException {
+        return new HGTMosaicStore(sc);
+    }
+
+    @Override
+    public HGTMosaicStore open(ParameterValueGroup parameters) throws DataStoreException {
+        final Parameters params = Parameters.castOrWrap(parameters);
+        final URI uri = params.getMandatoryValue(PATH);
+        final Integer max = params.getValue(MAX_MAPPED_TILES);
+        return new HGTMosaicStore(new StorageConnector(Paths.get(uri)),
+                max == null ? HGTMosaicStore.DEFAULT_MAX_MAPPED_TILES : max);
+    }
+
+}
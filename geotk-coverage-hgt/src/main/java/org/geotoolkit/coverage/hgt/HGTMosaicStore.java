@@ -0,0 +1,406 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.coverage.hgt;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferShort;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.referencing.internal.shared.AffineTransform2D;
+import org.apache.sis.storage.DataStore;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreProvider;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.StorageConnector;
+import org.geotoolkit.image.BufferedImages;
+import org.geotoolkit.nio.IOUtilities;
+import org.geotoolkit.storage.DataStores;
+import org.geotoolkit.storage.coverage.GeoreferencedGridCoverageResource;
+import org.geotoolkit.util.NamesExt;
+import org.opengis.geometry.Envelope;
+import org.opengis.metadata.Metadata;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.util.GenericName;
+
+/**
+ * Store for a directory of HGT files, exposed as a single mosaic coverage.
+ * <p>
+ * Tiles are indexed by their file name ({@code N45E006.hgt}), sub-directories are searched too.
+ * All tiles must have the same resolution. Tiles are memory mapped when first needed, the most
+ * recently used mappings are kept open, up to a maximum number of tiles. Missing tiles are
+ * filled with the no-data value.
+ * </p>
+ * <p>
+ * Each tile covers one degree with its own samples, tiles are placed side by side using the
+ * same grid geometry as {@link HGTStore}.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class HGTMosaicStore extends DataStore implements GridCoverageResource {
+
+    /**
+     * Default maximum number of memory mapped tiles.
+     */
+    public static final int DEFAULT_MAX_MAPPED_TILES = 64;
+
+    private final Parameters parameters;
+    private final Path directory;
+    private final Res resource;
+
+    /**
+     * Tile files, row by row from north to south, null for missing tiles.
+     */
+    private final Path[] tiles;
+    private final int tilesX;
+    private final int tilesY;
+    private final int minLongitude;
+    private final int maxLatitude;
+    /**
+     * Number of samples on each axis of a tile.
+     */
+    private final int size;
+
+    /**
+     * Mapped tiles, in access order.
+     */
+    private final Map<Integer,ShortBuffer> mapped;
+
+    public HGTMosaicStore(final StorageConnector connector) throws DataStoreException {
+        this(connector, DEFAULT_MAX_MAPPED_TILES);
+    }
+
+    /**
+     * @param connector connector to the tile directory
+     * @param maxMappedTiles maximum number of tiles memory mapped at the same time
+     */
+    public HGTMosaicStore(final StorageConnector connector, final int maxMappedTiles) throws DataStoreException {
+        super(DataStores.getProviderById(HGTMosaicProvider.NAME), connector);
+        if (maxMappedTiles < 1) {
+            throw new IllegalArgumentException("Maximum number of mapped tiles must be positive : " + maxMappedTiles);
+        }
+        this.directory = connector.commit(Path.class, HGTMosaicProvider.NAME);
+        this.parameters = Parameters.castOrWrap(HGTMosaicProvider.PARAMETERS_DESCRIPTOR.createValue());
+        this.parameters.getOrCreate(HGTMosaicProvider.PATH).setValue(directory.toUri());
+        this.parameters.getOrCreate(HGTMosaicProvider.MAX_MAPPED_TILES).setValue(maxMappedTiles);
+        this.mapped = new LinkedHashMap<Integer,ShortBuffer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer,ShortBuffer> eldest) {
+                //mapping is released when the buffer is garbage collected
+                return size() > maxMappedTiles;
+            }
+        };
+
+        //index tiles by position
+        final List<Path> files = new ArrayList<>();
+        final List<int[]> positions = new ArrayList<>();
+        int minLon = Integer.MAX_VALUE, maxLon = Integer.MIN_VALUE;
+        int minLat = Integer.MAX_VALUE, maxLat = Integer.MIN_VALUE;
+        long fileSize = -1;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) stream::iterator) {
+                if (!Files.isRegularFile(file) || !"hgt".equalsIgnoreCase(IOUtilities.extension(file))) continue;
+                final Matcher matcher = HGTStore.FILENAME_PATTERN.matcher(IOUtilities.filenameWithoutExtension(file));
+                if (!matcher.matches()) continue;
+                final int latitude = matcher.group(1).equalsIgnoreCase("n") ?
+                        Integer.parseInt(matcher.group(2)) : -Integer.parseInt(matcher.group(2));
+                final int longitude = matcher.group(3).equalsIgnoreCase("e") ?
+                        Integer.parseInt(matcher.group(4)) : -Integer.parseInt(matcher.group(4));
+                final long s = Files.size(file);
+                if (fileSize < 0) {
+                    fileSize = s;
+                } else if (fileSize != s) {
+                    throw new DataStoreException("All HGT tiles must have the same resolution, " + file + " differs.");
+                }
+                files.add(file);
+                positions.add(new int[]{longitude, latitude});
+                minLon = Math.min(minLon, longitude);
+                maxLon = Math.max(maxLon, longitude);
+                minLat = Math.min(minLat, latitude);
+                maxLat = Math.max(maxLat, latitude);
+            }
+        } catch (IOException ex) {
+            throw new DataStoreException(ex.getMessage(), ex);
+        }
+        if (files.isEmpty()) {
+            throw new DataStoreException("No HGT file found in " + directory);
+        }
+
+        this.size = Math.toIntExact(Math.round(Math.sqrt(fileSize / Short.BYTES)));
+        if ((long) size * size * Short.BYTES != fileSize) {
+            throw new DataStoreException("HGT tiles are not square, file size : " + fileSize);
+        }
+        this.minLongitude = minLon;
+        this.maxLatitude = maxLat;
+        this.tilesX = maxLon - minLon + 1;
+        this.tilesY = maxLat - minLat + 1;
+        this.tiles = new Path[tilesX * tilesY];
+        for (int i = 0, n = files.size(); i < n; i++) {
+            final int[] pos = positions.get(i);
+            tiles[(maxLat - pos[1]) * tilesX + (pos[0] - minLon)] = files.get(i);
+        }
+        this.resource = new Res();
+    }
+
+    @Override
+    public Optional<GenericName> getIdentifier() throws DataStoreException {
+        return resource.getIdentifier();
+    }
+
+    @Override
+    public Optional<ParameterValueGroup> getOpenParameters() {
+        return Optional.of(parameters);
+    }
+
+    @Override
+    public Optional<FileSet> getFileSet() throws DataStoreException {
+        final List<Path> paths = new ArrayList<>();
+        for (Path p : tiles) {
+            if (p != null) paths.add(p);
+        }
+        return Optional.of(new FileSet(paths));
+    }
+
+    @Override
+    public DataStoreProvider getProvider() {
+        return DataStores.getProviderById(HGTMosaicProvider.NAME);
+    }
+
+    @Override
+    public Metadata getMetadata() throws DataStoreException {
+        return resource.getMetadata();
+    }
+
+    @Override
+    public void close() {
+        synchronized (mapped) {
+            mapped.clear();
+        }
+    }
+
+    @Override
+    public GridGeometry getGridGeometry() {
+        return resource.getGridGeometry();
+    }
+
+    @Override
+    public List<SampleDimension> getSampleDimensions() {
+        return resource.getSampleDimensions();
+    }
+
+    @Override
+    public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
+        return resource.read(domain, range);
+    }
+
+    @Override
+    public Optional<Envelope> getEnvelope() throws DataStoreException {
+        return resource.getEnvelope();
+    }
+
+    /**
+     * Evaluate elevations at geographic positions, using a bilinear interpolation
+     * between the four nearest samples. No-data samples are excluded from the interpolation.
+     * This method is thread safe.
+     *
+     * @param longitudes longitudes in degrees (CRS:84)
+     * @param latitudes latitudes in degrees (CRS:84), same length as longitudes
+     * @return elevations in metres, NaN for points outside of the mosaic, in missing tiles or without data.
+     * @throws DataStoreException if a tile could not be read
+     */
+    public double[] getElevations(final double[] longitudes, final double[] latitudes) throws DataStoreException {
+        if (longitudes.length != latitudes.length) {
+            throw new IllegalArgumentException("Longitudes and latitudes arrays must have the same length");
+        }
+        final int width = tilesX * size;
+        final int height = tilesY * size;
+        final Sampler sampler = new Sampler();
+        final double[] result = new double[longitudes.length];
+        for (int i = 0; i < result.length; i++) {
+            //grid coordinates, relative to samples centers
+            double gx = (longitudes[i] - minLongitude) * size - 0.5;
+            double gy = (maxLatitude + 1 - latitudes[i]) * size - 0.5;
+            if (!(gx >= -0.5 && gx <= width - 0.5 && gy >= -0.5 && gy <= height - 0.5)) {
+                result[i] = Double.NaN;
+                continue;
+            }
+            gx = Math.max(0, Math.min(gx, width - 1));
+            gy = Math.max(0, Math.min(gy, height - 1));
+            final int x0 = (int) gx;
+            final int y0 = (int) gy;
+            final int x1 = Math.min(x0 + 1, width - 1);
+            final int y1 = Math.min(y0 + 1, height - 1);
+            final double fx = gx - x0;
+            final double fy = gy - y0;
+
+            double sum = 0;
+            double weight = 0;
+            int s;
+            double w;
+            if ((w = (1 - fx) * (1 - fy)) > 0 && (s = sampler.get(x0, y0)) != Short.MIN_VALUE) { sum += w * s; weight += w; }
+            if ((w = fx * (1 - fy)) > 0        && (s = sampler.get(x1, y0)) != Short.MIN_VALUE) { sum += w * s; weight += w; }
+            if ((w = (1 - fx) * fy) > 0        && (s = sampler.get(x0, y1)) != Short.MIN_VALUE) { sum += w * s; weight += w; }
+            if ((w = fx * fy) > 0              && (s = sampler.get(x1, y1)) != Short.MIN_VALUE) { sum += w * s; weight += w; }
+            result[i] = weight > 0 ? sum / weight : Double.NaN;
+        }
+        return result;
+    }
+
+    /**
+     * Sample reader caching the last used tile, not thread safe.
+     */
+    private final class Sampler {
+        private int tileIndex = -1;
+        private ShortBuffer tile;
+
+        /**
+         * @return sample value, Short.MIN_VALUE if tile is missing
+         */
+        int get(final int x, final int y) throws DataStoreException {
+            final int tx = x / size;
+            final int ty = y / size;
+            final int index = ty * tilesX + tx;
+            if (index != tileIndex) {
+                tile = getTile(index);
+                tileIndex = index;
+            }
+            return tile == null ? Short.MIN_VALUE : tile.get((y - ty * size) * size + (x - tx * size));
+        }
+    }
+
+    /**
+     * Get the mapped samples of a tile.
+     *
+     * @param index tile index, row by row from north to south
+     * @return tile big-endian samples, null if tile does not exist
+     */
+    private ShortBuffer getTile(final int index) throws DataStoreException {
+        final Path file = tiles[index];
+        if (file == null) return null;
+        synchronized (mapped) {
+            final ShortBuffer buffer = mapped.get(index);
+            if (buffer != null) return buffer;
+        }
+        //map outside of the lock, concurrent mappings of the same tile are harmless
+        ShortBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asShortBuffer();
+        } catch (IOException ex) {
+            throw new DataStoreException(ex.getMessage(), ex);
+        }
+        synchronized (mapped) {
+            final ShortBuffer previous = mapped.putIfAbsent(index, buffer);
+            return previous != null ? previous : buffer;
+        }
+    }
+
+    private final class Res extends GeoreferencedGridCoverageResource {
+
+        private final GenericName name;
+        private final GridGeometry grid;
+
+        private Res() {
+            super(HGTMosaicStore.this);
+            this.name = NamesExt.create(directory.getFileName() == null ? "hgt" : directory.getFileName().toString());
+            final MathTransform gridToCrsCorner = new AffineTransform2D(1d/size, 0, 0, -1d/size, minLongitude, maxLatitude+1);
+            grid = new GridGeometry(new GridExtent((long) tilesX * size, (long) tilesY * size),
+                    PixelInCell.CELL_CORNER, gridToCrsCorner, CommonCRS.defaultGeographic());
+        }
+
+        @Override
+        public Optional<GenericName> getIdentifier() {
+            return Optional.of(name);
+        }
+
+        @Override
+        public GridGeometry getGridGeometry() {
+            return grid;
+        }
+
+        @Override
+        public List<SampleDimension> getSampleDimensions() {
+            return Collections.singletonList(HGTStore.SAMPLE_DIMENSION);
+        }
+
+        @Override
+        protected GridCoverage readGridSlice(GridGeometry resultGrid, int[] areaLower, int[] areaUpper, int[] subsampling, int ... range) throws DataStoreException {
+
+            final GridGeometry gridGeometry = getGridGeometry(getGridGeometry(), areaLower, areaUpper, subsampling);
+            final int width = (int) gridGeometry.getExtent().getSize(0);
+            final int height = (int) gridGeometry.getExtent().getSize(1);
+            final BufferedImage image = BufferedImages.createImage(width, height, 1, DataBuffer.TYPE_SHORT);
+            final short[] data = ((DataBufferShort) image.getRaster().getDataBuffer()).getData();
+            Arrays.fill(data, Short.MIN_VALUE);
+
+            //copy each row by spans within a tile
+            for (int y = 0; y < height; y++) {
+                final int gy = areaLower[1] + y * subsampling[1];
+                final int ty = gy / size;
+                final int rowOffset = (gy - ty * size) * size;
+                final int offset = y * width;
+                int x = 0;
+                while (x < width) {
+                    final int gx = areaLower[0] + x * subsampling[0];
+                    final int tx = gx / size;
+                    final int xEnd = Math.min(width, ((tx + 1) * size - 1 - areaLower[0]) / subsampling[0] + 1);
+                    final ShortBuffer tile = getTile(ty * tilesX + tx);
+                    if (tile != null) {
+                        int index = rowOffset + (gx - tx * size);
+                        if (subsampling[0] == 1) {
+                            tile.get(index, data, offset + x, xEnd - x);
+                        } else {
+                            for (int i = x; i < xEnd; i++, index += subsampling[0]) {
+                                data[offset + i] = tile.get(index);
+                            }
+                        }
+                    }
+                    x = xEnd;
+                }
+            }
+
+            final GridCoverageBuilder gcb = new GridCoverageBuilder();
+            gcb.setValues(image);
+            gcb.setRanges(getSampleDimensions());
+            gcb.setDomain(gridGeometry);
+            return gcb.build();
+        }
+    }
+
+}
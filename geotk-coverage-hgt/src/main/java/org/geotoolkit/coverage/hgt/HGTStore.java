@@ -70,9 +70,9 @@ public class HGTStore extends DataStore implements GridCoverageResource {
     /**
      * HGT file name pattern. Give lower-left geographic position (CRS:84) of the current tile.
      */
-    private static final Pattern FILENAME_PATTERN = Pattern.compile("(?i)(N|S)(\\d+)(E|W)(\\d+)");
+    static final Pattern FILENAME_PATTERN = Pattern.compile("(?i)(N|S)(\\d+)(E|W)(\\d+)");
 
-    private static final SampleDimension SAMPLE_DIMENSION;
+    static final SampleDimension SAMPLE_DIMENSION;
     static {
         SAMPLE_DIMENSION = new SampleDimension.Builder()
                 .addQuantitative("data", Short.MIN_VALUE + 1, Short.MAX_VALUE, Units.METRE)
@@ -0,0 +1,156 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.coverage.hgt;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.StorageConnector;
+import org.junit.AfterClass;
+import static org.junit.Assert.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for HGT directory mosaic. Three tiles of a 2x2 mosaic are created, the north-east one is missing.
+ * Sample value is the tile base value plus its position in the tile buffer.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class HGTMosaicTest {
+
+    private static final int SIZE = 11;
+    private static Path TEMP_DIR;
+
+    @BeforeClass
+    public static void init() throws IOException {
+        TEMP_DIR = Files.createTempDirectory("hgtMosaicTests");
+        createTile("N00E000.hgt", 0);
+        createTile("N00E001.hgt", 1000);
+        Files.createDirectory(TEMP_DIR.resolve("north"));
+        createTile("north/N01E000.hgt", 2000);
+    }
+
+    private static void createTile(final String name, final int base) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SIZE * SIZE * Short.BYTES);
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            buffer.putShort((short) (base + i));
+        }
+        Files.write(TEMP_DIR.resolve(name), buffer.array());
+    }
+
+    @AfterClass
+    public static void destroy() throws IOException {
+        Files.walkFileTree(TEMP_DIR, new SimpleFileVisitor<Path>(){
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return super.postVisitDirectory(dir, exc);
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return super.visitFile(file, attrs);
+            }
+        });
+    }
+
+    /**
+     * Expected sample in the mosaic grid.
+     */
+    private static int expected(final int x, final int y) {
+        final int tx = x / SIZE;
+        final int ty = y / SIZE;
+        final int index = (y % SIZE) * SIZE + (x % SIZE);
+        if (ty == 0) {
+            return tx == 0 ? 2000 + index : Short.MIN_VALUE;
+        } else {
+            return (tx == 0 ? 0 : 1000) + index;
+        }
+    }
+
+    @Test
+    public void readFullyTest() throws DataStoreException {
+        try (HGTMosaicStore store = new HGTMosaicStore(new StorageConnector(TEMP_DIR), 2)) {
+            final GeneralEnvelope expectedEnv = new GeneralEnvelope(CommonCRS.defaultGeographic());
+            expectedEnv.setEnvelope(0, 0, 2, 2);
+            assertTrue(expectedEnv.equals(store.getGridGeometry().getEnvelope(), 1e-6, false));
+
+            final Raster raster = store.read(null).render(null).getData();
+            assertEquals(2 * SIZE, raster.getWidth());
+            assertEquals(2 * SIZE, raster.getHeight());
+            for (int y = 0; y < 2 * SIZE; y++) {
+                for (int x = 0; x < 2 * SIZE; x++) {
+                    assertEquals("Pixel value at (" + x + ", " + y + ") is invalid !", expected(x, y), raster.getSample(x, y, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readSubSampledRegion() throws DataStoreException {
+        try (HGTMosaicStore store = new HGTMosaicStore(new StorageConnector(TEMP_DIR), 1)) {
+            final GridGeometry grid = store.getGridGeometry();
+            final GridGeometry readParam = new GridGeometry(new GridExtent(null, new long[]{5, 4}, new long[]{20, 19}, true),
+                    PixelInCell.CELL_CORNER, grid.getGridToCRS(PixelInCell.CELL_CORNER), grid.getCoordinateReferenceSystem())
+                    .derive().subgrid((GridExtent) null, 3, 2).build();
+            final RenderedImage image = store.read(readParam).render(null);
+            final Raster raster = image.getData();
+            assertEquals(6, image.getWidth());
+            assertEquals(8, image.getHeight());
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    assertEquals(expected(5 + 3 * x, 4 + 2 * y), raster.getSample(image.getMinX() + x, image.getMinY() + y, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void elevationsTest() throws DataStoreException {
+        try (HGTMosaicStore store = new HGTMosaicStore(new StorageConnector(TEMP_DIR), 1)) {
+            final double[] elevations = store.getElevations(
+                    new double[]{2.5 / SIZE,       3.0 / SIZE,       1.0,              1.0,              1.5, -1.0},
+                    new double[]{1 - 3.5 / SIZE,   1 - 3.5 / SIZE,   1 - 3.5 / SIZE,   2 - 5.5 / SIZE,   1.5,  0.5});
+            //sample center
+            assertEquals(35, elevations[0], 1e-6);
+            //between two samples
+            assertEquals(35.5, elevations[1], 1e-6);
+            //between two tiles
+            assertEquals((43 + 1033) / 2.0, elevations[2], 1e-6);
+            //next to a missing tile
+            assertEquals(2065, elevations[3], 1e-6);
+            //missing tile
+            assertTrue(Double.isNaN(elevations[4]));
+            //outside of mosaic
+            assertTrue(Double.isNaN(elevations[5]));
+        }
+    }
+}
@@ -40,6 +40,7 @@ import javax.media.jai.TileCache;
  *
  * @author Rémi Maréchal (Geomatys)
  * @author Alexis Manin  (Geomatys)
+ * @see MappedTileCache
  */
 public final class LargeCache implements TileCache {
 
@@ -221,7 +221,7 @@ public class LargeRenderedImage implements RenderedImage, Disposable {
         }
 
 
-        this.tilecache = LargeCache.getInstance();
+        this.tilecache = MappedTileCache.getInstance();
         this.tileGridXOffset = 0;
         this.tileGridYOffset = 0;
         if (tileSize != null) {
@@ -405,7 +405,8 @@ public class LargeRenderedImage implements RenderedImage, Disposable {
         tileLock.readLock().lock();
         try {
             if (isRead[tileY][tileX]) {
-                return tilecache.getTile(this, tileX, tileY);
+                final Raster tile = tilecache.getTile(this, tileX, tileY);
+                if (tile != null) return tile;
             }
         } catch (IllegalArgumentException e) {
             /*
@@ -428,7 +429,8 @@ public class LargeRenderedImage implements RenderedImage, Disposable {
         try {
             try {
                 if (isRead[tileY][tileX]) {
-                    return tilecache.getTile(this, tileX, tileY);
+                    final Raster tile = tilecache.getTile(this, tileX, tileY);
+                    if (tile != null) return tile;
                 }
             } catch (Exception e) {
                  // Do not log again, it must have been done above.
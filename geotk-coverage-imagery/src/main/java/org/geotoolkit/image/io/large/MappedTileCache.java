@@ -0,0 +1,764 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.Point;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRenderedImage;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.media.jai.TileCache;
+import org.apache.sis.util.ArgumentChecks;
+
+/**
+ * Tile cache keeping tiles in memory up to a given capacity, then spilling the raw
+ * {@link DataBuffer} content of evicted tiles to a single memory-mapped file.
+ * <p>
+ * Compared to {@link LargeCache} :
+ * <ul>
+ *   <li>spilled tiles are not encoded, their banks are copied as-is in a mapped segment
+ *       and restored with a single bulk copy,</li>
+ *   <li>all images share one spill file, each image only keeps a compact index of the
+ *       tile offsets in this file,</li>
+ *   <li>there is no global lock, each image has its own set of striped locks,</li>
+ *   <li>memory is managed globally with a cost based eviction (GreedyDual-Size) :
+ *       the tile with the lowest {@code cost / weight} ratio, aged by the last eviction,
+ *       is evicted first. The cost is the {@code tileCacheMetric} given to
+ *       {@link #add(RenderedImage, int, int, Raster, Object)} when it is a number,
+ *       1 otherwise, which makes eviction behave as an LRU for tiles of equal size.</li>
+ * </ul>
+ * <p>
+ * Unlike {@link LargeCache}, {@link #getTile(RenderedImage, int, int)} follows the
+ * {@link TileCache} contract and returns {@code null} for unknown tiles.
+ * <p>
+ * Tiles whose layout differs from the first spilled tile of their image are not spilled,
+ * they are simply dropped from memory on eviction.
+ */
+public final class MappedTileCache implements TileCache {
+
+    private static final Logger LOGGER = Logger.getLogger("org.geotoolkit.image.io.large");
+
+    private static final Path TEMPORARY_PATH = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Number of locks per image, must be a power of 2.
+     */
+    private static final int STRIPES = 16;
+
+    private static MappedTileCache INSTANCE;
+
+    private final ConcurrentHashMap<ImageKey,ImageSlot> images = new ConcurrentHashMap<>();
+    private final ReferenceQueue<RenderedImage> collected = new ReferenceQueue<>();
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final boolean enableSwap;
+    private volatile long memoryCapacity;
+    private volatile float memoryThreshold = 0.75f;
+
+    /**
+     * GreedyDual-Size aging value, priority of the last evicted tile.
+     */
+    private volatile double inflation;
+
+    /**
+     * Access counter, used to order tiles of equal priority from least to most recently used.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Lock held by the thread running eviction.
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Lazily created spill file, guarded by {@code this}.
+     */
+    private SpillFile spill;
+
+    /**
+     * Create a new cache, see {@link #getInstance()} for the shared one.
+     *
+     * @param memoryCapacity maximum amount of tile data kept in memory, in bytes.
+     * @param enableSwap true to spill evicted tiles on disk, false to drop them.
+     */
+    MappedTileCache(final long memoryCapacity, final boolean enableSwap) {
+        ArgumentChecks.ensurePositive("memoryCapacity", memoryCapacity);
+        this.memoryCapacity = memoryCapacity;
+        this.enableSwap = enableSwap;
+    }
+
+    /**
+     * Shared cache instance, configured by {@link ImageCacheConfiguration}.
+     *
+     * @return TileCache
+     */
+    public static synchronized MappedTileCache getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new MappedTileCache(ImageCacheConfiguration.getCacheMemorySize(),
+                                           ImageCacheConfiguration.isCacheSwapEnable());
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Get currently used amount of memory.
+     *
+     * @return memory used by tiles in memory, in bytes.
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    private ImageSlot getSlot(final RenderedImage ri) {
+        return images.get(new ImageKey(ri, null));
+    }
+
+    private ImageSlot getOrCreateSlot(final RenderedImage ri) {
+        cleanCollected();
+        final ImageKey key = new ImageKey(ri, collected);
+        return images.computeIfAbsent(key, (ImageKey k) -> new ImageSlot(ri));
+    }
+
+    /**
+     * Release tiles of garbage collected images.
+     */
+    private void cleanCollected() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            final ImageSlot slot = images.remove((ImageKey) ref);
+            if (slot != null) slot.clear();
+        }
+    }
+
+    private synchronized SpillFile spillFile() throws IOException {
+        if (spill == null) {
+            spill = new SpillFile(TEMPORARY_PATH);
+        }
+        return spill;
+    }
+
+    private static long weight(final Raster raster) {
+        final DataBuffer buffer = raster.getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / Byte.SIZE;
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void add(RenderedImage ri, int tileX, int tileY, Raster raster) {
+        add(ri, tileX, tileY, raster, null);
+    }
+
+    /**
+     * {@inheritDoc }.
+     * If {@code tileCacheMetric} is a {@link Number}, it is used as the cost of recomputing
+     * the tile (for example its computation time), expensive tiles stay longer in memory.
+     */
+    @Override
+    public void add(RenderedImage ri, int tileX, int tileY, Raster raster, Object tileCacheMetric) {
+        ArgumentChecks.ensureNonNull("raster", raster);
+        final double cost = (tileCacheMetric instanceof Number) ? Math.max(((Number) tileCacheMetric).doubleValue(), 0.0) : 1.0;
+        getOrCreateSlot(ri).put(tileX, tileY, raster, cost);
+        if (usedMemory.get() > memoryCapacity) {
+            memoryControl();
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void addTiles(RenderedImage ri, Point[] points, Raster[] rasters, Object tileCacheMetric) {
+        if (points.length != rasters.length) {
+            throw new IllegalArgumentException("point and raster tables must have same length.");
+        }
+        for (int i = 0; i < points.length; i++) {
+            add(ri, points[i].x, points[i].y, rasters[i], tileCacheMetric);
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public Raster getTile(RenderedImage ri, int tileX, int tileY) {
+        final ImageSlot slot = getSlot(ri);
+        if (slot == null) return null;
+        final Raster raster;
+        try {
+            raster = slot.get(ri, tileX, tileY);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unreadable spilled tile : " + tileX + "," + tileY, ex);
+            return null;
+        }
+        if (usedMemory.get() > memoryCapacity) {
+            memoryControl();
+        }
+        return raster;
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public Raster[] getTiles(RenderedImage ri, Point[] points) {
+        final Raster[] rasters = new Raster[points.length];
+        for (int i = 0; i < points.length; i++) {
+            rasters[i] = getTile(ri, points[i].x, points[i].y);
+        }
+        return rasters;
+    }
+
+    /**
+     * {@inheritDoc }.
+     * Only tiles currently in memory are returned.
+     */
+    @Override
+    public Raster[] getTiles(RenderedImage ri) {
+        final ImageSlot slot = getSlot(ri);
+        if (slot == null) return null;
+        final List<Raster> rasters = new ArrayList<>();
+        for (Tile tile : slot.resident.values()) {
+            rasters.add(tile.raster);
+        }
+        return rasters.toArray(new Raster[rasters.size()]);
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void remove(RenderedImage ri, int tileX, int tileY) {
+        final ImageSlot slot = getSlot(ri);
+        if (slot != null) {
+            slot.remove(tileX, tileY);
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void removeTiles(RenderedImage ri) {
+        final ImageSlot slot = images.remove(new ImageKey(ri, null));
+        if (slot != null) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     * Remove all tiles, in memory and spilled.
+     */
+    @Override
+    public void flush() {
+        for (ImageKey key : new ArrayList<>(images.keySet())) {
+            final ImageSlot slot = images.remove(key);
+            if (slot != null) slot.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     * When memory capacity is exceeded, tiles are evicted by increasing priority
+     * until the used memory falls under {@code capacity * threshold}.
+     */
+    @Override
+    public void memoryControl() {
+        cleanCollected();
+        final long capacity = memoryCapacity;
+        if (usedMemory.get() <= capacity) return;
+        synchronized (evictionLock) {
+            final long target = (long) (capacity * memoryThreshold);
+            if (usedMemory.get() <= target) return;
+            final List<Tile> candidates = new ArrayList<>();
+            for (ImageSlot slot : images.values()) {
+                candidates.addAll(slot.resident.values());
+            }
+            final Tile[] array = candidates.toArray(new Tile[candidates.size()]);
+            final double[] priorities = new double[array.length];
+            final long[] accesses = new long[array.length];
+            for (int i = 0; i < array.length; i++) {
+                priorities[i] = array[i].priority;
+                accesses[i] = array[i].lastAccess;
+            }
+            final Integer[] order = new Integer[array.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (Integer a, Integer b) -> {
+                final int c = Double.compare(priorities[a], priorities[b]);
+                return (c != 0) ? c : Long.compare(accesses[a], accesses[b]);
+            });
+            for (int i = 0; i < order.length && usedMemory.get() > target; i++) {
+                final Tile tile = array[order[i]];
+                if (tile.slot.evict(tile)) {
+                    inflation = priorities[order[i]];
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void setMemoryCapacity(long memoryCapacity) {
+        ArgumentChecks.ensurePositive("memoryCapacity", memoryCapacity);
+        this.memoryCapacity = memoryCapacity;
+        memoryControl();
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public long getMemoryCapacity() {
+        return memoryCapacity;
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public void setMemoryThreshold(float memoryThreshold) {
+        ArgumentChecks.ensureBetween("memoryThreshold", 0f, 1f, memoryThreshold);
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public float getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /*
+     * UNSUPPORTED OPERATIONS
+     */
+
+    /**
+     * Eviction order is cost based, comparators are not supported.
+     */
+    @Override
+    public void setTileComparator(Comparator comparator) {
+        throw new UnsupportedOperationException("Eviction order is cost based.");
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    public Comparator getTileComparator() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    @Deprecated
+    public void setTileCapacity(int i) {
+    }
+
+    /**
+     * {@inheritDoc }.
+     */
+    @Override
+    @Deprecated
+    public int getTileCapacity() {
+        return 0;
+    }
+
+    /**
+     * Weak identity key of a cached image.
+     */
+    private static final class ImageKey extends WeakReference<RenderedImage> {
+
+        private final int hash;
+
+        ImageKey(final RenderedImage image, final ReferenceQueue<RenderedImage> queue) {
+            super(image, queue);
+            hash = System.identityHashCode(image);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) return true;
+            if (obj instanceof ImageKey) {
+                final RenderedImage image = get();
+                return image != null && image == ((ImageKey) obj).get();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A tile in memory.
+     */
+    private static final class Tile {
+
+        private final ImageSlot slot;
+        private final int index;
+        private final Raster raster;
+        private final long weight;
+        private final double cost;
+
+        /**
+         * GreedyDual-Size priority and access time, refreshed on each access.
+         */
+        private volatile double priority;
+        private volatile long lastAccess;
+
+        Tile(final ImageSlot slot, final int index, final Raster raster, final long weight, final double cost,
+                final double inflation, final long time) {
+            this.slot   = slot;
+            this.index  = index;
+            this.raster = raster;
+            this.weight = weight;
+            this.cost   = cost;
+            touch(inflation, time);
+        }
+
+        void touch(final double inflation, final long time) {
+            priority   = inflation + cost / Math.max(weight, 1);
+            lastAccess = time;
+        }
+    }
+
+    /**
+     * Tiles of one image : tiles in memory and index of spilled tiles.
+     */
+    private final class ImageSlot {
+
+        private final int minTileX;
+        private final int minTileY;
+        private final int numXTiles;
+        private final int numYTiles;
+        private final int tileGridXOffset;
+        private final int tileGridYOffset;
+        private final int tileWidth;
+        private final int tileHeight;
+        private final boolean writable;
+        private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+        private final ConcurrentHashMap<Integer,Tile> resident = new ConcurrentHashMap<>();
+
+        /**
+         * Offset of each tile in the spill file, -1 if not spilled. Created on first spill.
+         * Guarded by the tile stripe lock.
+         */
+        private volatile long[] spillOffsets;
+
+        /**
+         * Layout shared by all spilled tiles of this image, set on first spill.
+         */
+        private volatile Layout layout;
+
+        ImageSlot(final RenderedImage ri) {
+            minTileX        = ri.getMinTileX();
+            minTileY        = ri.getMinTileY();
+            numXTiles       = ri.getNumXTiles();
+            numYTiles       = ri.getNumYTiles();
+            tileGridXOffset = ri.getTileGridXOffset();
+            tileGridYOffset = ri.getTileGridYOffset();
+            tileWidth       = ri.getTileWidth();
+            tileHeight      = ri.getTileHeight();
+            writable        = ri instanceof WritableRenderedImage;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new ReentrantReadWriteLock();
+            }
+        }
+
+        private int index(final int tileX, final int tileY) {
+            final int x = tileX - minTileX;
+            final int y = tileY - minTileY;
+            if (x < 0 || y < 0 || x >= numXTiles || y >= numYTiles) {
+                throw new IllegalArgumentException("Tile (" + tileX + ", " + tileY + ") is outside of image tile grid.");
+            }
+            return y * numXTiles + x;
+        }
+
+        private ReentrantReadWriteLock lock(final int index) {
+            return locks[index & (STRIPES - 1)];
+        }
+
+        void put(final int tileX, final int tileY, final Raster raster, final double cost) {
+            final int index = index(tileX, tileY);
+            final Tile tile = new Tile(this, index, raster, weight(raster), cost, inflation, clock.incrementAndGet());
+            final ReentrantReadWriteLock lock = lock(index);
+            lock.writeLock().lock();
+            try {
+                final Tile previous = resident.put(index, tile);
+                if (previous != null) usedMemory.addAndGet(-previous.weight);
+                usedMemory.addAndGet(tile.weight);
+                //content changed, spilled copy is obsolete
+                releaseSpilled(index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Raster get(final RenderedImage ri, final int tileX, final int tileY) throws IOException {
+            final int index = index(tileX, tileY);
+            final ReentrantReadWriteLock lock = lock(index);
+            lock.readLock().lock();
+            try {
+                final Tile tile = resident.get(index);
+                if (tile != null) {
+                    tile.touch(inflation, clock.incrementAndGet());
+                    return tile.raster;
+                }
+                final long[] offsets = spillOffsets;
+                if (offsets == null || offsets[index] < 0) {
+                    return null;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                //check again, another thread may have restored the tile
+                Tile tile = resident.get(index);
+                if (tile != null) {
+                    tile.touch(inflation, clock.incrementAndGet());
+                    return tile.raster;
+                }
+                final long[] offsets = spillOffsets;
+                if (offsets == null || offsets[index] < 0) {
+                    return null;
+                }
+                final Layout layout = this.layout;
+                final DataBuffer buffer = spillFile().read(offsets[index], layout.dataType, layout.numBanks,
+                        layout.bankLength, layout.size, layout.offsets);
+                final Point location = new Point(tileGridXOffset + tileX * tileWidth, tileGridYOffset + tileY * tileHeight);
+                final Raster raster = Raster.createWritableRaster(layout.sampleModel, buffer, location);
+                //spilled copy is kept, it is still valid unless the tile is replaced or the image is writable
+                tile = new Tile(this, index, raster, weight(raster), 1.0, inflation, clock.incrementAndGet());
+                resident.put(index, tile);
+                usedMemory.addAndGet(tile.weight);
+                return raster;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(final int tileX, final int tileY) {
+            final int index = index(tileX, tileY);
+            final ReentrantReadWriteLock lock = lock(index);
+            lock.writeLock().lock();
+            try {
+                final Tile previous = resident.remove(index);
+                if (previous != null) usedMemory.addAndGet(-previous.weight);
+                releaseSpilled(index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Remove given tile from memory, spilling it if needed.
+         *
+         * @return true if tile has been evicted, false if it is busy or has been replaced.
+         */
+        boolean evict(final Tile tile) {
+            final ReentrantReadWriteLock lock = lock(tile.index);
+            if (!lock.writeLock().tryLock()) return false;
+            try {
+                if (resident.get(tile.index) != tile) return false;
+                if (enableSwap) {
+                    try {
+                        spill(tile);
+                    } catch (IOException ex) {
+                        LOGGER.log(Level.WARNING, "Tile can not be spilled, it will be dropped.", ex);
+                    }
+                }
+                resident.remove(tile.index);
+                usedMemory.addAndGet(-tile.weight);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Copy tile data in the spill file, caller must hold the tile write lock.
+         */
+        private void spill(final Tile tile) throws IOException {
+            long[] offsets = spillOffsets;
+            if (offsets != null && offsets[tile.index] >= 0 && !writable) {
+                //unchanged since last spill
+                return;
+            }
+            Layout layout = this.layout;
+            if (layout == null) {
+                synchronized (this) {
+                    layout = this.layout;
+                    if (layout == null) {
+                        layout = new Layout(tile.raster);
+                        if (layout.byteLength > SpillFile.SEGMENT_SIZE) {
+                            throw new IOException("Tile too large to be spilled : " + layout.byteLength + " bytes.");
+                        }
+                        this.layout = layout;
+                    }
+                }
+            }
+            if (!layout.accepts(tile.raster)) {
+                return;
+            }
+            if (offsets == null) {
+                synchronized (this) {
+                    offsets = spillOffsets;
+                    if (offsets == null) {
+                        offsets = new long[numXTiles * numYTiles];
+                        Arrays.fill(offsets, -1);
+                        spillOffsets = offsets;
+                    }
+                }
+            }
+            final SpillFile file = spillFile();
+            long offset = offsets[tile.index];
+            if (offset < 0) {
+                offset = file.allocate(layout.byteLength);
+            }
+            file.write(offset, tile.raster.getDataBuffer());
+            offsets[tile.index] = offset;
+        }
+
+        /**
+         * Release spill file slot of given tile, caller must hold the tile write lock.
+         */
+        private void releaseSpilled(final int index) {
+            final long[] offsets = spillOffsets;
+            if (offsets != null && offsets[index] >= 0) {
+                final SpillFile file;
+                synchronized (MappedTileCache.this) {
+                    file = spill;
+                }
+                if (file != null) file.release(offsets[index], layout.byteLength);
+                offsets[index] = -1;
+            }
+        }
+
+        /**
+         * Remove all tiles of this image.
+         */
+        void clear() {
+            for (ReentrantReadWriteLock lock : locks) {
+                lock.writeLock().lock();
+            }
+            try {
+                for (Tile tile : resident.values()) {
+                    usedMemory.addAndGet(-tile.weight);
+                }
+                resident.clear();
+                final long[] offsets = spillOffsets;
+                if (offsets != null) {
+                    for (int i = 0; i < offsets.length; i++) {
+                        releaseSpilled(i);
+                    }
+                }
+            } finally {
+                for (ReentrantReadWriteLock lock : locks) {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Data buffer layout of spilled tiles.
+     */
+    private static final class Layout {
+
+        private final SampleModel sampleModel;
+        private final int dataType;
+        private final int numBanks;
+        private final int bankLength;
+        private final int size;
+        private final int[] offsets;
+        private final int byteLength;
+
+        Layout(final Raster raster) {
+            final DataBuffer buffer = raster.getDataBuffer();
+            sampleModel = raster.getSampleModel();
+            dataType    = buffer.getDataType();
+            numBanks    = buffer.getNumBanks();
+            bankLength  = bankLength(buffer);
+            size        = buffer.getSize();
+            offsets     = buffer.getOffsets();
+            byteLength  = (int) Math.min(Integer.MAX_VALUE,
+                    (long) numBanks * bankLength * DataBuffer.getDataTypeSize(dataType) / Byte.SIZE);
+        }
+
+        /**
+         * Length of data arrays, -1 if banks do not have the same length.
+         */
+        private static int bankLength(final DataBuffer buffer) {
+            int length = -1;
+            for (int b = 0, n = buffer.getNumBanks(); b < n; b++) {
+                final int l;
+                if      (buffer instanceof DataBufferByte)   l = ((DataBufferByte)   buffer).getData(b).length;
+                else if (buffer instanceof DataBufferUShort) l = ((DataBufferUShort) buffer).getData(b).length;
+                else if (buffer instanceof DataBufferShort)  l = ((DataBufferShort)  buffer).getData(b).length;
+                else if (buffer instanceof DataBufferInt)    l = ((DataBufferInt)    buffer).getData(b).length;
+                else if (buffer instanceof DataBufferFloat)  l = ((DataBufferFloat)  buffer).getData(b).length;
+                else if (buffer instanceof DataBufferDouble) l = ((DataBufferDouble) buffer).getData(b).length;
+                else return -1;
+                if (length >= 0 && l != length) return -1;
+                length = l;
+            }
+            return length;
+        }
+
+        boolean accepts(final Raster raster) {
+            final DataBuffer buffer = raster.getDataBuffer();
+            return bankLength >= 0
+                && buffer.getDataType() == dataType
+                && buffer.getNumBanks() == numBanks
+                && buffer.getSize() == size
+                && Arrays.equals(buffer.getOffsets(), offsets)
+                && bankLength(buffer) == bankLength
+                && raster.getSampleModel().equals(sampleModel);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ *    Geotoolkit.org - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.image.io.large;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single temporary file where {@link MappedTileCache} spills raw tile data.
+ * The file is memory-mapped by segments of fixed size, a tile never overlaps two segments.
+ * Tile data are the raw {@link DataBuffer} banks in native byte order, no image encoding
+ * is involved. Released slots are recycled for tiles of the same length, which is the
+ * common case since tiles of an image share the same layout.
+ */
+final class SpillFile implements Closeable {
+
+    /**
+     * Mapped segment size, 256 MB.
+     */
+    private static final int SEGMENT_SHIFT = 28;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[4];
+
+    /**
+     * Next never used position in the file.
+     */
+    private long end;
+
+    /**
+     * Released slots, grouped by length.
+     */
+    private final Map<Integer,ArrayDeque<Long>> freeSlots = new HashMap<>();
+
+    /**
+     * Create a new spill file in given directory, it is deleted when closed or at JVM exit.
+     */
+    SpillFile(final Path directory) throws IOException {
+        final Path path = Files.createTempFile(directory, "tiles", ".spill");
+        path.toFile().deleteOnExit();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Reserve a slot of given length.
+     *
+     * @param length slot length in bytes, must not exceed {@link #SEGMENT_SIZE}
+     * @return slot offset in the file
+     */
+    synchronized long allocate(final int length) {
+        final ArrayDeque<Long> free = freeSlots.get(length);
+        if (free != null && !free.isEmpty()) {
+            return free.pop();
+        }
+        if ((end >>> SEGMENT_SHIFT) != ((end + length - 1) >>> SEGMENT_SHIFT)) {
+            //tile would overlap two segments, start at next segment
+            end = ((end >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+        }
+        final long offset = end;
+        end += length;
+        return offset;
+    }
+
+    /**
+     * Release a slot previously obtained with {@link #allocate(int)}.
+     */
+    synchronized void release(final long offset, final int length) {
+        freeSlots.computeIfAbsent(length, (Integer k) -> new ArrayDeque<>()).push(offset);
+    }
+
+    /**
+     * Return a view over the mapped segment containing given offset, positioned at this offset.
+     * The view has its own position and may be used without synchronization.
+     */
+    private ByteBuffer view(final long offset) throws IOException {
+        final int index = (int) (offset >>> SEGMENT_SHIFT);
+        MappedByteBuffer segment;
+        synchronized (this) {
+            if (index >= segments.length) {
+                segments = Arrays.copyOf(segments, Math.max(index + 1, segments.length * 2));
+            }
+            segment = segments[index];
+            if (segment == null) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, ((long) index) << SEGMENT_SHIFT, SEGMENT_SIZE);
+                segments[index] = segment;
+            }
+        }
+        final ByteBuffer view = segment.duplicate().order(ByteOrder.nativeOrder());
+        view.position((int) (offset & (SEGMENT_SIZE - 1)));
+        return view;
+    }
+
+    /**
+     * Copy all banks of given buffer at given offset.
+     */
+    void write(final long offset, final DataBuffer buffer) throws IOException {
+        final ByteBuffer view = view(offset);
+        for (int b = 0, n = buffer.getNumBanks(); b < n; b++) {
+            switch (buffer.getDataType()) {
+                case DataBuffer.TYPE_BYTE : {
+                    view.put(((DataBufferByte) buffer).getData(b));
+                    break;
+                }
+                case DataBuffer.TYPE_USHORT : {
+                    final short[] data = ((DataBufferUShort) buffer).getData(b);
+                    view.asShortBuffer().put(data);
+                    view.position(view.position() + data.length * Short.BYTES);
+                    break;
+                }
+                case DataBuffer.TYPE_SHORT : {
+                    final short[] data = ((DataBufferShort) buffer).getData(b);
+                    view.asShortBuffer().put(data);
+                    view.position(view.position() + data.length * Short.BYTES);
+                    break;
+                }
+                case DataBuffer.TYPE_INT : {
+                    final int[] data = ((DataBufferInt) buffer).getData(b);
+                    view.asIntBuffer().put(data);
+                    view.position(view.position() + data.length * Integer.BYTES);
+                    break;
+                }
+                case DataBuffer.TYPE_FLOAT : {
+                    final float[] data = ((DataBufferFloat) buffer).getData(b);
+                    view.asFloatBuffer().put(data);
+                    view.position(view.position() + data.length * Float.BYTES);
+                    break;
+                }
+                case DataBuffer.TYPE_DOUBLE : {
+                    final double[] data = ((DataBufferDouble) buffer).getData(b);
+                    view.asDoubleBuffer().put(data);
+                    view.position(view.position() + data.length * Double.BYTES);
+                    break;
+                }
+                default : throw new IOException("Unsupported data buffer type : " + buffer.getDataType());
+            }
+        }
+    }
+
+    /**
+     * Create a new buffer filled with the data stored at given offset.
+     *
+     * @param offset slot offset
+     * @param dataType buffer {@link DataBuffer} type
+     * @param numBanks number of banks
+     * @param bankLength length of each bank, in elements
+     * @param size buffer size as returned by {@link DataBuffer#getSize()}
+     * @param offsets bank offsets
+     */
+    DataBuffer read(final long offset, final int dataType, final int numBanks, final int bankLength,
+            final int size, final int[] offsets) throws IOException {
+        final ByteBuffer view = view(offset);
+        switch (dataType) {
+            case DataBuffer.TYPE_BYTE : {
+                final byte[][] banks = new byte[numBanks][bankLength];
+                for (byte[] bank : banks) view.get(bank);
+                return new DataBufferByte(banks, size, offsets);
+            }
+            case DataBuffer.TYPE_USHORT : {
+                final short[][] banks = new short[numBanks][bankLength];
+                for (short[] bank : banks) {
+                    view.asShortBuffer().get(bank);
+                    view.position(view.position() + bankLength * Short.BYTES);
+                }
+                return new DataBufferUShort(banks, size, offsets);
+            }
+            case DataBuffer.TYPE_SHORT : {
+                final short[][] banks = new short[numBanks][bankLength];
+                for (short[] bank : banks) {
+                    view.asShortBuffer().get(bank);
+                    view.position(view.position() + bankLength * Short.BYTES);
+                }
+                return new DataBufferShort(banks, size, offsets);
+            }
+            case DataBuffer.TYPE_INT : {
+                final int[][] banks = new int[numBanks][bankLength];
+                for (int[] bank : banks) {
+                    view.asIntBuffer().get(bank);
+                    view.position(view.position() + bankLength * Integer.BYTES);
+                }
+                return new DataBufferInt(banks, size, offsets);
+            }
+            case DataBuffer.TYPE_FLOAT : {
+                final float[][] banks = new float[numBanks][bankLength];
+                for (float[] bank : banks) {
+                    view.asFloatBuffer().get(bank);
+                    view.position(view.position() + bankLength * Float.BYTES);
+                }
+                return new DataBufferFloat(banks, size, offsets);
+            }
+            case DataBuffer.TYPE_DOUBLE : {
+                final double[][] banks = new double[numBanks][bankLength];
+                for (double[] bank : banks) {
+                    view.asDoubleBuffer().get(bank);
+                    view.position(view.position() + bankLength * Double.BYTES);
+                }
+                return new DataBufferDouble(banks, size, offsets);
+            }
+            default : throw new IOException("Unsupported data buffer type : " + dataType);
+        }
+    }
+
+    /**
+     * Close and delete the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Arrays.fill(segments, null);
+        freeSlots.clear();
+        channel.close();
+    }
+}
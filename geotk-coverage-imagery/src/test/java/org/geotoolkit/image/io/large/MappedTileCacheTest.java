@@ -0,0 +1,95 @@
+package org.geotoolkit.image.io.large;
+
+import java.awt.Point;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import javax.media.jai.RasterFactory;
+import javax.media.jai.TiledImage;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test {@link MappedTileCache} eviction and spilling.
+ */
+public class MappedTileCacheTest {
+
+    private static final int TILE_SIZE = 64;
+    private static final int NB_TILES = 4;
+
+    private static TiledImage createImage() {
+        final SampleModel sm = RasterFactory.createBandedSampleModel(DataBuffer.TYPE_FLOAT, TILE_SIZE, TILE_SIZE, 2);
+        return new TiledImage(0, 0, TILE_SIZE * NB_TILES, TILE_SIZE * NB_TILES, 0, 0, sm, null);
+    }
+
+    private static WritableRaster createTile(final TiledImage image, final int tileX, final int tileY) {
+        final WritableRaster raster = Raster.createWritableRaster(image.getSampleModel(),
+                new Point(tileX * TILE_SIZE, tileY * TILE_SIZE));
+        for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+                raster.setSample(raster.getMinX() + x, raster.getMinY() + y, 0, tileX * 1000 + x);
+                raster.setSample(raster.getMinX() + x, raster.getMinY() + y, 1, tileY * 1000 + y);
+            }
+        }
+        return raster;
+    }
+
+    /**
+     * Tiles evicted from memory must be restored with the same values and location.
+     */
+    @Test
+    public void spillAndRestoreTest() {
+        final long tileWeight = TILE_SIZE * TILE_SIZE * 2 * Float.BYTES;
+        final MappedTileCache cache = new MappedTileCache(tileWeight * 3, true);
+        final TiledImage image = createImage();
+        for (int ty = 0; ty < NB_TILES; ty++) {
+            for (int tx = 0; tx < NB_TILES; tx++) {
+                cache.add(image, tx, ty, createTile(image, tx, ty));
+                assertTrue(cache.getUsedMemory() <= cache.getMemoryCapacity());
+            }
+        }
+
+        for (int ty = 0; ty < NB_TILES; ty++) {
+            for (int tx = 0; tx < NB_TILES; tx++) {
+                final Raster tile = cache.getTile(image, tx, ty);
+                assertNotNull(tile);
+                assertEquals(tx * TILE_SIZE, tile.getMinX());
+                assertEquals(ty * TILE_SIZE, tile.getMinY());
+                for (int y = 0; y < TILE_SIZE; y++) {
+                    for (int x = 0; x < TILE_SIZE; x++) {
+                        assertEquals(tx * 1000 + x, tile.getSampleFloat(tile.getMinX() + x, tile.getMinY() + y, 0), 0f);
+                        assertEquals(ty * 1000 + y, tile.getSampleFloat(tile.getMinX() + x, tile.getMinY() + y, 1), 0f);
+                    }
+                }
+                assertTrue(cache.getUsedMemory() <= cache.getMemoryCapacity());
+            }
+        }
+
+        cache.remove(image, 1, 1);
+        assertNull(cache.getTile(image, 1, 1));
+
+        cache.removeTiles(image);
+        assertNull(cache.getTile(image, 0, 0));
+        assertEquals(0, cache.getUsedMemory());
+    }
+
+    /**
+     * Without swap, evicted tiles are lost.
+     */
+    @Test
+    public void memoryOnlyTest() {
+        final long tileWeight = TILE_SIZE * TILE_SIZE * 2 * Float.BYTES;
+        final MappedTileCache cache = new MappedTileCache(tileWeight * 2, false);
+        final TiledImage image = createImage();
+        for (int tx = 0; tx < NB_TILES; tx++) {
+            cache.add(image, tx, 0, createTile(image, tx, 0));
+        }
+        assertTrue(cache.getUsedMemory() <= cache.getMemoryCapacity());
+        assertNull(cache.getTile(image, 0, 0));
+        assertNotNull(cache.getTile(image, NB_TILES - 1, 0));
+        cache.flush();
+        assertEquals(0, cache.getUsedMemory());
+    }
+}
@@ -22,18 +22,23 @@ import static java.lang.Double.NEGATIVE_INFINITY;
 import static java.lang.Double.NaN;
 import static java.lang.Double.POSITIVE_INFINITY;
 import static java.lang.Double.isNaN;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import javax.imageio.ImageReader;
 import javax.imageio.event.IIOReadProgressListener;
 import javax.imageio.event.IIOReadWarningListener;
+import org.apache.sis.coverage.BandedCoverage.Evaluator;
 import org.apache.sis.coverage.SampleDimension;
 import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridExtent;
@@ -49,6 +54,7 @@ import org.apache.sis.referencing.operation.transform.TransformSeparator;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.Classes;
 import org.apache.sis.util.collection.BackingStoreException;
+import org.apache.sis.util.collection.Cache;
 import org.apache.sis.util.collection.FrequencySortedSet;
 import org.geotoolkit.image.palette.IIOListeners;
 import org.geotoolkit.image.palette.IIOReadProgressAdapter;
@@ -497,6 +503,12 @@ public class GridCoverageStack extends org.geotoolkit.coverage.grid.GridCoverage
      */
     private transient NumberRange<?> lowerRange, upperRange;
 
+    /**
+     * Coverages of elements recently used by batch evaluation, weighted by their number
+     * of sample values. Created when first needed.
+     */
+    private transient volatile Cache<Integer,GridCoverage> slices;
+
     /**
      * Sample byte values. Allocated when first needed, in order to avoid allocating
      * them again every time an {@code evaluate(...)} method is invoked.
@@ -521,6 +533,12 @@ public class GridCoverageStack extends org.geotoolkit.coverage.grid.GridCoverage
      */
     private transient double[] doubleBuffer;
 
+    /**
+     * Maximal cost of element coverages kept by strong references in the batch evaluation
+     * cache, in millions of sample values. Older ones are kept by soft references.
+     */
+    private static final int SLICE_CACHE_LIMIT = 256;
+
     /**
      * Initializes fields after deserialization.
      */
@@ -1438,6 +1456,309 @@ public class GridCoverageStack extends org.geotoolkit.coverage.grid.GridCoverage
         return Arrays.asList(new GridCoverage[] {lower, upper});
     }
 
+    /**
+     * Returns sample values for many points in the coverage. This method is more efficient
+     * than invoking {@code evaluate(...)} for each point when points span several elements,
+     * for example when extracting time series at many locations:
+     * <p>
+     * <ul>
+     *   <li>points are grouped by coverage element, each element is loaded once for all its
+     *       points and evaluated in parallel with the other elements;</li>
+     *   <li>points of an element are evaluated in ascending <var>y</var> then <var>x</var>
+     *       order, so each tile is used by consecutive evaluations;</li>
+     *   <li>loaded elements are kept in a cache weighted by their number of sample values,
+     *       so successive calls on the same elements do not load them again.</li>
+     * </ul>
+     * <p>
+     * Contrarily to {@code evaluate(...)}, a point outside the coverage does not cause an
+     * exception, its values are set to {@link Double#NaN} as for missing data.
+     * Coverage elements may be loaded by a background thread, but never concurrently.
+     *
+     * @param  points The coordinate points where to evaluate, in this coverage CRS.
+     * @return The sample values of each point, in the same order.
+     * @throws CannotEvaluateException if the computation failed.
+     *
+     * @since 5.0
+     */
+    public double[][] evaluate(final List<? extends DirectPosition> points) throws CannotEvaluateException {
+        final int numPoints = points.size();
+        final int numBands  = getSampleDimensions().size();
+        final boolean interpolate = isInterpolationEnabled();
+        /*
+         * Find the elements of each point, z values are often shared by many points.
+         */
+        final Map<Double,Slot> slotsByZ = new HashMap<>();
+        final Slot[] slots = new Slot[numPoints];
+        final int[] counts = new int[elements.length];
+        try {
+            for (int i=0; i<numPoints; i++) {
+                final double z = points.get(i).getCoordinate(zDimension);
+                Slot slot = slotsByZ.get(z);
+                if (slot == null && !slotsByZ.containsKey(z)) {
+                    slot = locate(z, interpolate);
+                    slotsByZ.put(z, slot);
+                }
+                slots[i] = slot;
+                if (slot != null) {
+                    counts[slot.lower]++;
+                    if (slot.upper != slot.lower) counts[slot.upper]++;
+                }
+            }
+        } catch (IOException | BackingStoreException exception) {
+            // TODO: localize
+            throw new CannotEvaluateException("Can't fetch coverage properties.",
+                    (exception instanceof BackingStoreException bse) ? bse.unwrapOrRethrow(IOException.class) : exception);
+        }
+        final int[][] pointsByElement = new int[elements.length][];
+        for (int e=0; e<elements.length; e++) {
+            pointsByElement[e] = new int[counts[e]];
+            counts[e] = 0;
+        }
+        for (int i=0; i<numPoints; i++) {
+            final Slot slot = slots[i];
+            if (slot != null) {
+                pointsByElement[slot.lower][counts[slot.lower]++] = i;
+                if (slot.upper != slot.lower) pointsByElement[slot.upper][counts[slot.upper]++] = i;
+            }
+        }
+        /*
+         * Evaluate each element in parallel. A point uses at most two elements,
+         * so each value is written by a single task.
+         */
+        final double[][] lowerValues = new double[numPoints][];
+        final double[][] upperValues = new double[numPoints][];
+        try {
+            IntStream.range(0, elements.length).filter((int e) -> pointsByElement[e].length != 0).parallel().forEach((int e) -> {
+                final int[] indices = pointsByElement[e];
+                final double[][] values;
+                try {
+                    values = evaluate(slice(e), points, indices, numBands);
+                } catch (Exception exception) {
+                    throw new BackingStoreException(exception);
+                }
+                for (int k=0; k<indices.length; k++) {
+                    final int i = indices[k];
+                    if (slots[i].lower == e) lowerValues[i] = values[k];
+                    else upperValues[i] = values[k];
+                }
+            });
+        } catch (BackingStoreException exception) {
+            final Exception cause = exception.unwrapOrRethrow(Exception.class);
+            if (cause instanceof CannotEvaluateException cee) {
+                throw cee;
+            }
+            String message = cause.getLocalizedMessage();
+            if (message == null) {
+                message = Classes.getShortClassName(cause);
+            }
+            throw new CannotEvaluateException(message, cause);
+        }
+        /*
+         * Interpolate between lower and upper values, same rules than evaluate(...).
+         */
+        final double[][] results = new double[numPoints][];
+        for (int p=0; p<numPoints; p++) {
+            final Slot slot = slots[p];
+            final double[] dest;
+            if (slot == null) {
+                dest = new double[numBands];
+                Arrays.fill(dest, NaN);
+            } else if (slot.lower == slot.upper) {
+                dest = lowerValues[p];
+            } else {
+                dest = lowerValues[p];
+                final double[] upperBuffer = upperValues[p];
+                for (int i=0; i<upperBuffer.length; i++) {
+                    final double lower = dest[i];
+                    final double upper = upperBuffer[i];
+                    double value = lower + slot.ratio*(upper - lower);
+                    if (isNaN(value)) {
+                        if (!isNaN(lower)) {
+                            if (slot.inLowerRange) {
+                                value = lower;
+                            }
+                        } else if (!isNaN(upper)) {
+                            if (slot.inUpperRange) {
+                                value = upper;
+                            }
+                        }
+                    }
+                    dest[i] = value;
+                }
+            }
+            results[p] = dest;
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the given points on a single element coverage.
+     *
+     * @param  coverage The element coverage.
+     * @param  points   All points given to the batch evaluation.
+     * @param  indices  Indices of the points to evaluate on this coverage.
+     * @param  numBands Number of sample dimensions.
+     * @return Values for each point of {@code indices}, in the same order.
+     */
+    private double[][] evaluate(final GridCoverage coverage, final List<? extends DirectPosition> points,
+            final int[] indices, final int numBands)
+    {
+        final int dimension = coverage.getCoordinateReferenceSystem().getCoordinateSystem().getDimension();
+        final List<DirectPosition> reduced = new ArrayList<>(indices.length);
+        for (final int i : indices) {
+            DirectPosition coord = points.get(i);
+            if (dimension == zDimension) {
+                final GeneralDirectPosition position = new GeneralDirectPosition(zDimension);
+                for (int d=0; d<dimension; d++) {
+                    position.coordinates[d] = coord.getCoordinate(d);
+                }
+                coord = position;
+            }
+            reduced.add(coord);
+        }
+        if (coverage instanceof GridCoverageStack) {
+            return ((GridCoverageStack) coverage).evaluate(reduced);
+        }
+        /*
+         * Visit points row by row for tile locality.
+         */
+        final Integer[] order = new Integer[indices.length];
+        for (int k=0; k<order.length; k++) order[k] = k;
+        if (dimension >= 2) {
+            Arrays.sort(order, Comparator.comparingDouble((Integer k) -> reduced.get(k).getCoordinate(1))
+                                         .thenComparingDouble((Integer k) -> reduced.get(k).getCoordinate(0)));
+        }
+        final Evaluator evaluator = coverage.evaluator();
+        evaluator.setNullIfOutside(true);
+        final double[][] values = new double[indices.length][];
+        for (final int k : order) {
+            double[] value = evaluator.apply(reduced.get(k));
+            if (value == null) {
+                value = new double[numBands];
+                Arrays.fill(value, NaN);
+            } else {
+                value = value.clone();   // Evaluator may recycle its array.
+            }
+            values[k] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Returns the coverage of the element at the given index, loading it if it is not in the
+     * batch evaluation cache. Elements are loaded while holding the lock on this stack, since
+     * {@link Element} implementations are not required to be thread-safe.
+     */
+    private GridCoverage slice(final int index) throws Exception {
+        Cache<Integer,GridCoverage> cache = slices;
+        if (cache == null) {
+            synchronized (this) {
+                cache = slices;
+                if (cache == null) {
+                    slices = cache = new Cache<Integer,GridCoverage>(12, SLICE_CACHE_LIMIT, true) {
+                        @Override protected int cost(final GridCoverage coverage) {
+                            return sliceCost(coverage);
+                        }
+                    };
+                }
+            }
+        }
+        return cache.getOrCreate(index, () -> {
+            synchronized (this) {
+                final Element element = elements[index];
+                logLoading(Vocabulary.Keys.LoadingImage_1, new String[] {element.getName()});
+                return load(element);
+            }
+        });
+    }
+
+    /**
+     * Returns the cache cost of the given element coverage, in millions of sample values.
+     * Stacks load their own elements when needed, so they have the minimal cost.
+     */
+    private static int sliceCost(final GridCoverage coverage) {
+        if (coverage instanceof GridCoverageStack) {
+            return 1;
+        }
+        final GridExtent extent = coverage.getGridGeometry().getExtent();
+        double count = coverage.getSampleDimensions().size();
+        for (int i=extent.getDimension(); --i>=0;) {
+            count *= extent.getSize(i);
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, count / 1E6));
+    }
+
+    /**
+     * Finds the elements to use for the given <var>z</var> value, with the same rules than
+     * {@link #seek(double)} but without loading them.
+     *
+     * @param  z The z value.
+     * @param  interpolate Whether interpolations are enabled.
+     * @return The elements to use, or {@code null} if there is no data at this <var>z</var> value.
+     * @throws IOException if an error occurred while fetching element properties.
+     */
+    private Slot locate(final double z, final boolean interpolate) throws IOException {
+        final Number Z = Double.valueOf(z);
+        int index = Arrays.binarySearch(elements, Z, COMPARATOR);
+        if (index >= 0) {
+            return new Slot(index);
+        }
+        index = ~index; // Insertion point (note: ~ is NOT the minus sign).
+        if (index == elements.length) {
+            if (--index >= 0 && elements[index].getZRange().containsAny(Z)) {
+                return new Slot(index);
+            }
+            return null;
+        }
+        if (index == 0) {
+            return elements[index].getZRange().containsAny(Z) ? new Slot(index) : null;
+        }
+        final Element        lowerElement = elements[index-1];
+        final Element        upperElement = elements[index  ];
+        final NumberRange<?> lowerRange   = lowerElement.getZRange();
+        final NumberRange<?> upperRange   = upperElement.getZRange();
+        if (lowerRange.getMaxDouble() + lagTolerance >= upperRange.getMinDouble()) {
+            final double lowerZ = getZ(lowerElement);
+            final double upperZ = getZ(upperElement);
+            if (interpolate) {
+                return new Slot(index-1, index, (z - lowerZ) / (upperZ - lowerZ),
+                                contains(lowerRange, z), contains(upperRange, z));
+            }
+            return new Slot((Math.abs(upperZ-z) > Math.abs(z-lowerZ)) ? index-1 : index);
+        }
+        if (lowerRange.containsAny(Z)) {
+            return new Slot(index-1);
+        }
+        if (upperRange.containsAny(Z)) {
+            return new Slot(index);
+        }
+        return null; // Missing data.
+    }
+
+    /**
+     * Elements used for a <var>z</var> value in batch evaluation.
+     */
+    private static final class Slot {
+        /** Indices of lower and upper elements, identical if there is no interpolation. */
+        final int lower, upper;
+        /** Interpolation ratio from lower to upper values. */
+        final double ratio;
+        /** Whether the <var>z</var> value is in the lower and upper element ranges. */
+        final boolean inLowerRange, inUpperRange;
+
+        Slot(final int index) {
+            this(index, index, 0, true, true);
+        }
+
+        Slot(final int lower, final int upper, final double ratio, final boolean inLowerRange, final boolean inUpperRange) {
+            this.lower        = lower;
+            this.upper        = upper;
+            this.ratio        = ratio;
+            this.inLowerRange = inLowerRange;
+            this.inUpperRange = inUpperRange;
+        }
+    }
+
     /**
      * Returns the crs dimension index from where the <var>z</var> varies.
      * This information is mandatory.
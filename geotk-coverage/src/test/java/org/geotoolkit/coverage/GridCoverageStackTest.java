@@ -20,10 +20,15 @@ import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridCoverageBuilder;
 import org.geotoolkit.coverage.grid.GridCoverageStack;
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.coverage.grid.PixelTranslation;
+import org.apache.sis.geometry.GeneralDirectPosition;
 import org.apache.sis.referencing.internal.shared.GeodeticObjectBuilder;
 import org.apache.sis.referencing.CommonCRS;
 import org.apache.sis.coverage.grid.GridGeometry;
@@ -31,6 +36,7 @@ import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.referencing.operation.transform.DefaultMathTransformFactory;
 import static org.junit.Assert.*;
 import org.junit.Test;
+import org.opengis.geometry.DirectPosition;
 import org.opengis.metadata.spatial.DimensionNameType;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.apache.sis.coverage.grid.PixelInCell;
@@ -154,6 +160,61 @@ public class GridCoverageStackTest {
 
     }
 
+    /**
+     * Verify batch evaluation gives the same values than point evaluation,
+     * and NaN outside of the stack.
+     */
+    @Test
+    public void testBatchEvaluate() throws FactoryException, IOException, TransformException{
+
+        final CoordinateReferenceSystem horizontal = CommonCRS.WGS84.normalizedGeographic();
+        final CoordinateReferenceSystem vertical   = CommonCRS.Vertical.ELLIPSOIDAL.crs();
+        final CoordinateReferenceSystem crs        = new GeodeticObjectBuilder().addName("wgs84+ele")
+                                                                                .createCompoundCRS(horizontal, vertical);
+        final double[] zs = {10, 20, 50};
+        final List<GridCoverage> slices = new ArrayList<>();
+        for (int s = 0; s < zs.length; s++) {
+            final BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_USHORT_GRAY);
+            final WritableRaster raster = image.getRaster();
+            for (int y = 0; y < 30; y++) {
+                for (int x = 0; x < 40; x++) {
+                    raster.setSample(x, y, 0, x + 100 * y + 10000 * s);
+                }
+            }
+            slices.add(createSlice3D(image, zs[s], crs));
+        }
+        final GridCoverageStack stack = new GridCoverageStack(null, slices, 2);
+
+        final Random random = new Random(7);
+        final List<DirectPosition> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final GeneralDirectPosition point = new GeneralDirectPosition(crs);
+            point.setCoordinate(0, random.nextDouble() * 40);
+            point.setCoordinate(1, random.nextDouble() * 30);
+            point.setCoordinate(2, zs[random.nextInt(zs.length)] + random.nextDouble());
+            points.add(point);
+        }
+        final GeneralDirectPosition outside = new GeneralDirectPosition(crs);
+        outside.setCoordinate(0, 5);
+        outside.setCoordinate(1, 5);
+        outside.setCoordinate(2, 100);
+        points.add(outside);
+
+        final double[][] values = stack.evaluate(points);
+        assertEquals(points.size(), values.length);
+        for (int i = 0; i < points.size() - 1; i++) {
+            final DirectPosition point = points.get(i);
+            final int s = Arrays.binarySearch(zs, Math.floor(point.getCoordinate(2)));
+            final double expected = (int) point.getCoordinate(0) + 100 * (int) point.getCoordinate(1) + 10000 * s;
+            assertEquals(expected, values[i][0], DELTA);
+            assertArrayEquals(stack.evaluate(point, null), values[i], DELTA);
+        }
+        assertTrue(Double.isNaN(values[points.size() - 1][0]));
+
+        //second call uses cached slices
+        assertArrayEquals(values[0], stack.evaluate(points.subList(0, 1))[0], DELTA);
+    }
+
     private static GridCoverageStack createCube4D(int width, int height, CoordinateReferenceSystem crs)
             throws IOException, TransformException, FactoryException{
         final GridCoverageStack slice0 = createSubStack3D(width, height, 3, crs);
@@ -182,7 +243,12 @@ public class GridCoverageStackTest {
     }
 
     private static GridCoverage createSlice3D(int width, int height, double z, CoordinateReferenceSystem crs) throws FactoryException{
-        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        return createSlice3D(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), z, crs);
+    }
+
+    private static GridCoverage createSlice3D(BufferedImage image, double z, CoordinateReferenceSystem crs) throws FactoryException{
+        final int width = image.getWidth();
+        final int height = image.getHeight();
 
         final Matrix matrix = Matrices.createIdentity(4);
         matrix.setElement(2, 3, z);
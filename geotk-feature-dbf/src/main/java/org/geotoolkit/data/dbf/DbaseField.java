@@ -18,6 +18,7 @@
 package org.geotoolkit.data.dbf;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.Date;
@@ -138,6 +139,87 @@ abstract class DbaseField {
 
     public abstract Object read(CharBuffer charBuffer) throws IOException;
 
+    /**
+     * Read the field value straight from the record bytes, without decoding characters.
+     * Only plain ASCII numbers are handled, any other content must be decoded and read
+     * with {@link #read(CharBuffer)} which gives the same result.
+     *
+     * @param buffer record buffer
+     * @param position field position in the buffer
+     * @return field value or null if the bytes must be decoded
+     */
+    public Object read(final ByteBuffer buffer, final int position) {
+        return null;
+    }
+
+    /**
+     * Powers of ten which are exact in double precision.
+     */
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Parse a number in the form {@code [spaces][sign]digits[.digits]} from ASCII bytes.
+     *
+     * @param result {mantissa, fraction digits or -1 without decimal point, negative}, filled by this method
+     * @return true if the bytes are a number of at most 18 digits
+     */
+    private boolean parseNumber(final ByteBuffer buffer, int position, final long[] result) {
+        final int end = position + fieldLength;
+        //skip leading blanks as extractNumberString does
+        while (position < end && (buffer.get(position) & 0xFF) <= ' ') position++;
+        if (position == end) return false;
+        boolean negative = false;
+        final byte sign = buffer.get(position);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; position < end; position++) {
+            final byte b = buffer.get(position);
+            if (b >= '0' && b <= '9') {
+                if (++digits > 18) return false;
+                mantissa = mantissa * 10 + (b - '0');
+                if (fraction >= 0) fraction++;
+            } else if (b == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                //trailing characters, exponents or special values
+                return false;
+            }
+        }
+        if (digits == 0) return false;
+        result[0] = mantissa;
+        result[1] = fraction;
+        result[2] = negative ? 1 : 0;
+        return true;
+    }
+
+    /**
+     * @return parsed integer value, or null if the bytes are not a plain integer
+     */
+    protected final Long parseLong(final ByteBuffer buffer, final int position) {
+        final long[] number = new long[3];
+        if (!parseNumber(buffer, position, number) || number[1] >= 0) return null;
+        return (number[2] != 0) ? -number[0] : number[0];
+    }
+
+    /**
+     * @return parsed decimal value, or NaN if it can not be computed exactly
+     */
+    protected final double parseDouble(final ByteBuffer buffer, final int position) {
+        final long[] number = new long[3];
+        //mantissa and power of ten must be exact doubles for the division to be correctly rounded
+        if (!parseNumber(buffer, position, number) || number[0] >= (1L << 53) || number[1] >= POW10.length) return Double.NaN;
+        final double value = number[0] / POW10[(int) Math.max(number[1], 0)];
+        return (number[2] != 0) ? -value : value;
+    }
+
     public abstract String string(Object obj, DbaseFieldFormatter formatter) throws IOException;
 
 
@@ -276,6 +358,12 @@ abstract class DbaseField {
             }
         }
 
+        @Override
+        public Object read(final ByteBuffer buffer, final int position) {
+            final Long value = parseLong(buffer, position);
+            return (value != null && value == value.intValue()) ? (Object) value.intValue() : null;
+        }
+
         @Override
         public String string(final Object obj, final DbaseFieldFormatter formatter) throws IOException {
             return formatter.getFieldString(fieldLength, 0,(Number) (obj == null ? NULL_NUMBER : obj));
@@ -303,6 +391,11 @@ abstract class DbaseField {
             }
         }
 
+        @Override
+        public Object read(final ByteBuffer buffer, final int position) {
+            return parseLong(buffer, position);
+        }
+
         @Override
         public String string(final Object obj, final DbaseFieldFormatter formatter) throws IOException {
             return formatter.getFieldString(fieldLength, 0,(Number) (obj == null ? NULL_NUMBER : obj));
@@ -331,6 +424,12 @@ abstract class DbaseField {
             }
         }
 
+        @Override
+        public Object read(final ByteBuffer buffer, final int position) {
+            final double value = parseDouble(buffer, position);
+            return Double.isNaN(value) ? null : (Object) value;
+        }
+
         @Override
         public String string(final Object obj, final DbaseFieldFormatter formatter) throws IOException {
             return formatter.getFieldString(fieldLength, decimalCount,
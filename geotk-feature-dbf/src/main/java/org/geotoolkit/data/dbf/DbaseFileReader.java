@@ -72,8 +72,11 @@ public final class DbaseFileReader implements Closeable, Iterator{
     public final class Row {
 
         public Object read(final int column) throws IOException {
-            final int offset = header.getFieldOffset(column);
+            final int offset = fieldOffsets[column];
             final DbaseField field = fieldReaders[column];
+            //numbers are parsed from the bytes when possible, skipping the character decoding
+            final Object value = field.read(buffer, buffer.position() + offset);
+            if (value != null) return value;
             prepareFieldRead(field, offset);
             return field.read(charBuffer);
         }
@@ -85,12 +88,8 @@ public final class DbaseFileReader implements Closeable, Iterator{
                 throw new ArrayIndexOutOfBoundsException();
             }
 
-            int fieldOffset = 1; //1 to skip the delete flag
             for (int x = 0; x < fieldReaders.length; x++) {
-                final DbaseField field = fieldReaders[x];
-                prepareFieldRead(field, fieldOffset);
-                entry[x] = field.read(charBuffer);
-                fieldOffset += field.fieldLength;
+                entry[x] = read(x);
             }
 
             return entry;
@@ -104,6 +103,7 @@ public final class DbaseFileReader implements Closeable, Iterator{
     protected final CharBuffer charBuffer; //char buffer cache
     private final CharsetDecoder decoder;
     private final DbaseField[] fieldReaders;
+    private final int[] fieldOffsets;
     private int cnt = 0;
     private final Row row = new Row();
     private Row next = null;
@@ -156,8 +156,10 @@ public final class DbaseFileReader implements Closeable, Iterator{
 
         // Set up some buffers and lookups for efficiency
         fieldReaders = new DbaseField[header.getNumFields()];
+        fieldOffsets = new int[header.getNumFields()];
         for (int i = 0, ii = header.getNumFields(); i < ii; i++) {
             fieldReaders[i] = header.getField(i);
+            fieldOffsets[i] = header.getFieldOffset(i);
         }
 
         charBuffer = CharBuffer.allocate(header.getRecordLength() - 1);
@@ -0,0 +1,115 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.dbf;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test numbers parsed from the record bytes are the same as the ones read from characters.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class DbaseFieldTest {
+
+    private static final int LENGTH = 20;
+
+    private static final String[] VALUES = {
+        "5", "+5", "-5", "0", "-0", "+0", "007", "1.", ".5", "-.5", "+1.25", "-1.",
+        "2147483647", "2147483648", "-2147483648", "-2147483649",
+        "123456789012345678", "1234567890123456789", "-1234567890123456789",
+        "9007199254740993", "0.1", "3.14159265358979",
+        "", "*", "**********", "-", "+", ".", "1.2.3", "1e5", "NaN",
+        "5 ", "1.5   ", "-7  "
+    };
+
+    @Test
+    public void testIntegerField() throws Exception {
+        test(DbaseField.create("f", 'N', 0, LENGTH, 0, Integer.class));
+    }
+
+    @Test
+    public void testLongField() throws Exception {
+        test(DbaseField.create("f", 'N', 0, LENGTH, 0, Long.class));
+    }
+
+    @Test
+    public void testFloatingField() throws Exception {
+        test(DbaseField.create("f", 'F', 0, LENGTH, 5, Double.class));
+    }
+
+    /**
+     * Values are right aligned, blank filled, as written in dbf files. Trailing blanks are kept.
+     * The byte result, when there is one, must be equal to the character result.
+     */
+    private static void test(final DbaseField field) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(LENGTH + 3);
+        for (String value : VALUES) {
+            final StringBuilder sb = new StringBuilder(value);
+            while (sb.length() < LENGTH) sb.insert(0, ' ');
+            final String text = sb.toString();
+            //field is not at the buffer start
+            buffer.clear();
+            buffer.put((byte) '#').put((byte) '#').put(text.getBytes(StandardCharsets.US_ASCII)).put((byte) '#');
+
+            final Object expected = field.read(CharBuffer.wrap(text));
+            final Object actual = field.read(buffer, 2);
+            if (actual != null) {
+                assertEquals("'" + value + "'", expected, actual);
+                assertEquals("'" + value + "'", expected.getClass(), actual.getClass());
+            }
+        }
+
+        //all blanks or stars are never parsed from bytes
+        for (char c : new char[]{' ', '*'}) {
+            buffer.clear();
+            for (int i = 0; i < LENGTH; i++) buffer.put((byte) c);
+            assertNull(field.read(buffer, 0));
+        }
+    }
+
+    /**
+     * Common values must use the byte parsing.
+     */
+    @Test
+    public void testFastPath() throws Exception {
+        final DbaseField integer = DbaseField.create("f", 'N', 0, 6, 0, Integer.class);
+        assertEquals(5, integer.read(bytes("    +5"), 0));
+        assertEquals(0, integer.read(bytes("    -0"), 0));
+        assertNull(integer.read(bytes("    1."), 0));
+        assertNull(integer.read(bytes("   5  "), 0));
+
+        final DbaseField lng = DbaseField.create("f", 'N', 0, 19, 0, Long.class);
+        assertEquals(123456789012345678L, lng.read(bytes(" 123456789012345678"), 0));
+        //more than 18 digits are decoded as characters
+        assertNull(lng.read(bytes("1234567890123456789"), 0));
+
+        final DbaseField dbl = DbaseField.create("f", 'F', 0, 6, 2, Double.class);
+        assertEquals(1.0, dbl.read(bytes("    1."), 0));
+        assertEquals(0.5, dbl.read(bytes("    .5"), 0));
+        assertEquals(-0.0, dbl.read(bytes("    -0"), 0));
+        assertEquals(-12.25, dbl.read(bytes("-12.25"), 0));
+    }
+
+    private static ByteBuffer bytes(final String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
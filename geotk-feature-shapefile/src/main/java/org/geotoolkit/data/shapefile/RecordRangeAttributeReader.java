@@ -0,0 +1,86 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import org.apache.sis.storage.DataStoreException;
+import org.geotoolkit.data.shapefile.indexed.RecordNumberTracker;
+import org.geotoolkit.data.shapefile.lock.AccessManager;
+import org.geotoolkit.data.shapefile.shx.ShxReader;
+import org.opengis.feature.AttributeType;
+
+/**
+ * Attribute reader of a contiguous range of records.
+ * <p>
+ * Shapes are located with the shx offsets and the dbf reader is moved once to the first
+ * record of the range, then records are read sequentially. Several readers on distinct
+ * ranges of the same shapefile can be used concurrently, each one with its own
+ * {@link AccessManager}.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class RecordRangeAttributeReader extends ShapefileAttributeReader implements RecordNumberTracker {
+
+    private final ShxReader shx;
+    private final int end;
+    private int recno;
+
+    /**
+     * @param locker - to aquiere different readers and writers.
+     * @param atts - the attributes that we are going to read.
+     * @param read3D - for shp reader, read 3d coordinate or not.
+     * @param memoryMapped - for shp and dbf reader
+     * @param readDBF - true to open a dbf reader
+     * @param charset - for dbf reader
+     * @param start - first record, inclusive, starting at 0
+     * @param end - last record, exclusive
+     */
+    public RecordRangeAttributeReader(final AccessManager locker, final AttributeType[] atts, final boolean read3D,
+            final boolean memoryMapped, final boolean readDBF, final Charset charset, final int start, final int end)
+            throws IOException, DataStoreException {
+        super(locker, atts, read3D, memoryMapped, null, readDBF, charset, null);
+        this.shx = locker.getSHXReader(memoryMapped);
+        this.recno = start;
+        this.end = Math.min(end, shx.getRecordCount());
+        if (dbf != null && recno < this.end) {
+            //dbf records are numbered from 1
+            dbf.goTo(recno + 1);
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        return recno < end;
+    }
+
+    @Override
+    protected void nextShape() throws IOException {
+        shp.goTo(shx.getOffsetInBytes(recno));
+        super.nextShape();
+        recno++;
+    }
+
+    /**
+     * @return current record number, starting at 1
+     */
+    @Override
+    public int getRecordNumber() {
+        return recno;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.sis.storage.DataStoreException;
+import org.geotoolkit.storage.feature.FeatureReader;
+import org.geotoolkit.storage.feature.FeatureStoreRuntimeException;
+import org.opengis.feature.Feature;
+
+/**
+ * Spliterator over the features of a range of shapefile records.
+ * <p>
+ * The range is split in halves down to a minimum number of records, each part is read
+ * with its own reader. Readers hold a read lock on the shapefile which must be released
+ * by the thread which acquired it, so a reader is always opened and closed in the same
+ * method call : {@link #forEachRemaining(Consumer)} reads the whole remaining range,
+ * {@link #tryAdvance(Consumer)} reads a chunk of records in a buffer.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class RecordRangeSpliterator implements Spliterator<Feature> {
+
+    /**
+     * Creates a feature reader over a range of records.
+     */
+    @FunctionalInterface
+    interface ReaderFactory {
+        /**
+         * @param start first record, inclusive, starting at 0
+         * @param end last record, exclusive
+         * @return feature reader returning one feature per record
+         */
+        FeatureReader create(int start, int end) throws DataStoreException;
+    }
+
+    private final ReaderFactory factory;
+    private final int chunk;
+    private final ArrayDeque<Feature> buffer = new ArrayDeque<>();
+    private int start;
+    private final int end;
+
+    /**
+     * @param factory range reader factory
+     * @param start first record, inclusive, starting at 0
+     * @param end last record, exclusive
+     * @param chunk minimum number of records of a split, and number of records buffered by tryAdvance
+     */
+    RecordRangeSpliterator(final ReaderFactory factory, final int start, final int end, final int chunk) {
+        this.factory = factory;
+        this.start = start;
+        this.end = end;
+        this.chunk = chunk;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Feature> action) {
+        if (buffer.isEmpty()) {
+            if (start >= end) return false;
+            final int chunkEnd = Math.min(end, start + chunk);
+            read(start, chunkEnd, buffer::add);
+            start = chunkEnd;
+            if (buffer.isEmpty()) return false;
+        }
+        action.accept(buffer.poll());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super Feature> action) {
+        while (!buffer.isEmpty()) {
+            action.accept(buffer.poll());
+        }
+        if (start < end) {
+            final int s = start;
+            start = end;
+            read(s, end, action);
+        }
+    }
+
+    private void read(final int s, final int e, final Consumer<? super Feature> action) {
+        try (FeatureReader reader = factory.create(s, e)) {
+            while (reader.hasNext()) {
+                action.accept(reader.next());
+            }
+        } catch (DataStoreException ex) {
+            throw new FeatureStoreRuntimeException(ex);
+        }
+    }
+
+    @Override
+    public Spliterator<Feature> trySplit() {
+        if (!buffer.isEmpty() || end - start < 2 * chunk) return null;
+        final int mid = start + (end - start) / 2;
+        final RecordRangeSpliterator prefix = new RecordRangeSpliterator(factory, start, mid, chunk);
+        start = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (long) (end - start) + buffer.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
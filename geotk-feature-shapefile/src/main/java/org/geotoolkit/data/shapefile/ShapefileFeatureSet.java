@@ -0,0 +1,70 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureSet;
+import org.geotoolkit.storage.feature.DefaultFeatureResource;
+import org.geotoolkit.storage.feature.query.Query;
+import org.geotoolkit.storage.feature.query.QueryUtilities;
+import org.opengis.feature.Feature;
+import org.opengis.geometry.Envelope;
+
+/**
+ * Feature set of a shapefile, or of a query on a shapefile.
+ * Parallel streams are read by ranges of records, see {@link ShapefileFeatureStore#parallelFeatures(Query)}.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class ShapefileFeatureSet extends DefaultFeatureResource {
+
+    private final ShapefileFeatureStore store;
+    private final Query query;
+
+    ShapefileFeatureSet(final ShapefileFeatureStore store, final Query query) throws DataStoreException {
+        super(store, query);
+        this.store = store;
+        this.query = query;
+    }
+
+    @Override
+    public Optional<Envelope> getEnvelope() throws DataStoreException {
+        if (QueryUtilities.queryAll(query)) {
+            return Optional.ofNullable(store.getHeaderEnvelope());
+        }
+        return super.getEnvelope();
+    }
+
+    @Override
+    public FeatureSet subset(final org.apache.sis.storage.Query query) throws DataStoreException {
+        if (query instanceof Query) {
+            return new ShapefileFeatureSet(store, QueryUtilities.subQuery(this.query, (Query) query));
+        }
+        return super.subset(query);
+    }
+
+    @Override
+    public Stream<Feature> features(final boolean parallel) throws DataStoreException {
+        if (parallel) {
+            final Stream<Feature> stream = store.parallelFeatures(query);
+            if (stream != null) return stream;
+        }
+        return super.features(parallel);
+    }
+}
@@ -39,6 +39,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.sis.feature.Features;
 import org.apache.sis.feature.builder.AttributeRole;
 import org.apache.sis.feature.builder.AttributeTypeBuilder;
@@ -69,12 +71,12 @@ import org.geotoolkit.data.shapefile.shp.ShapefileReader;
 import org.geotoolkit.data.shapefile.shp.ShapefileWriter;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.feature.FeatureExt;
+import org.geotoolkit.feature.FeatureTypeExt;
 import org.geotoolkit.geometry.jts.JTSEnvelope2D;
 import org.geotoolkit.io.wkt.PrjFiles;
 import org.geotoolkit.nio.IOUtilities;
 import org.geotoolkit.storage.DataStores;
 import org.geotoolkit.storage.feature.AbstractFeatureStore;
-import org.geotoolkit.storage.feature.DefaultFeatureResource;
 import org.geotoolkit.storage.feature.FeatureReader;
 import org.geotoolkit.storage.feature.FeatureStoreRuntimeException;
 import org.geotoolkit.storage.feature.FeatureStreams;
@@ -283,12 +285,87 @@ public class ShapefileFeatureStore extends AbstractFeatureStore {
 
     @Override
     protected FeatureSet create(GenericName resourceName) throws DataStoreException {
-        return new DefaultFeatureResource(this, resourceName) {
-            @Override
-            public Optional<Envelope> getEnvelope() throws DataStoreException {
-                return Optional.ofNullable(getHeaderEnvelope());
+        return new ShapefileFeatureSet(this, new org.geotoolkit.storage.feature.query.Query(resourceName));
+    }
+
+    /**
+     * Create a parallel stream of the query features.
+     * <p>
+     * Records are split in ranges using the shx offsets, each range is read with its own
+     * readers. Only the dbf columns of the requested properties are decoded.
+     * Queries with a filter, sort, offset or limit are not supported.
+     * </p>
+     *
+     * @param query query on this store type
+     * @return parallel stream, or null if the query or the files do not allow parallel reading
+     * @throws DataStoreException If reading of source features fails.
+     */
+    protected Stream<Feature> parallelFeatures(final org.geotoolkit.storage.feature.query.Query query) throws DataStoreException {
+        final Filter selection = query.getSelection();
+        if ((selection != null && selection != Filter.include())
+                || query.getSortBy() != null
+                || query.getOffset() != 0
+                || query.getLimit().isPresent()
+                || !shpFiles.isLocal() || !shpFiles.exists(SHX)) {
+            return null;
+        }
+
+        final FeatureType baseType = getFeatureType();
+        final String typeName = baseType.getName().tip().toString();
+        final String[] propertyNames = query.getPropertyNames();
+        final FeatureType readType = (propertyNames == null) ? baseType : FeatureTypeExt.createSubType(baseType, propertyNames);
+        final Hints hints = query.getHints();
+
+        //read only the attributes used by the returned type, geometry is always read first
+        final List<AttributeType> atts = getAttributes(baseType, false);
+        boolean readDbf = false;
+        for (int i = atts.size() - 1; i > 0; i--) {
+            try {
+                readType.getProperty(atts.get(i).getName().toString());
+                readDbf = true;
+            } catch (PropertyNotFoundException ex) {
+                atts.remove(i);
+            }
+        }
+        final AttributeType[] descs = atts.toArray(new AttributeType[atts.size()]);
+        final boolean read3D = true;
+        final boolean dbf = readDbf;
+
+        final int count;
+        final AccessManager locker = shpFiles.createLocker();
+        try (Closeable disposeLocker = locker::disposeReaderAndWriters) {
+            count = locker.getSHXReader(useMemoryMappedBuffer).getRecordCount();
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        }
+
+        final RecordRangeSpliterator.ReaderFactory factory = (int start, int end) -> {
+            final AccessManager rangeLocker = shpFiles.createLocker();
+            final RecordRangeAttributeReader reader;
+            try {
+                reader = new RecordRangeAttributeReader(rangeLocker, descs, read3D,
+                        useMemoryMappedBuffer, dbf, dbfCharset, start, end);
+            } catch (IOException | DataStoreException ex) {
+                rangeLocker.disposeReaderAndWriters();
+                throw (ex instanceof DataStoreException) ? (DataStoreException) ex : new DataStoreException(ex);
             }
+            return ShapefileFeatureReader.create(reader, createFeatureIDReader(reader, typeName), readType, hints);
         };
+        return StreamSupport.stream(new RecordRangeSpliterator(factory, 0, count, 4096), true);
+    }
+
+    /**
+     * Create the feature id reader of a record range reader.
+     * Must be called before the first record is read.
+     *
+     * @param reader record range attribute reader
+     * @param typeName feature type name
+     * @return feature id reader
+     * @throws DataStoreException If the id reader could not be created.
+     */
+    protected FeatureIDReader createFeatureIDReader(final RecordRangeAttributeReader reader, final String typeName)
+            throws DataStoreException {
+        return new DefaultFeatureIDReader(typeName, reader.getRecordNumber());
     }
 
     /**
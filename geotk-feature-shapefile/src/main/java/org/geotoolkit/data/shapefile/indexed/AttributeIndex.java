@@ -0,0 +1,348 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.data.shapefile.indexed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.geotoolkit.data.dbf.DbaseFileHeader;
+import org.geotoolkit.data.dbf.DbaseFileReader;
+
+/**
+ * Sidecar index of a DBF column, mapping the column values to the shapefile record numbers.
+ * <p>
+ * The index is a static B+tree stored in a {@code <name>.<column>.aix} file next to the dbf :
+ * sorted leaf pages of (key,record) entries followed by a directory holding the offset and
+ * the first and last keys of each leaf. Only the directory is kept in memory, leaves are read
+ * from the file when a search range intersects them.
+ * </p>
+ * <p>
+ * Numeric columns are indexed as doubles, character columns as strings.
+ * Null, empty and NaN values are not indexed, literals of those values have no key
+ * and must be resolved with a full scan.
+ * Searches return candidates only, bounds are always inclusive and the query filter
+ * must still be evaluated on the returned records.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public final class AttributeIndex {
+
+    /**
+     * Attribute index file extension.
+     */
+    public static final String EXTENSION = "aix";
+
+    private static final int MAGIC = ('A' << 24) | ('I' << 16) | ('X' << 8) | '1';
+    private static final int LEAF_SIZE = 512;
+    private static final byte TYPE_NUMERIC = 0;
+    private static final byte TYPE_TEXT = 1;
+
+    private final Path path;
+    private final boolean numeric;
+    private final int count;
+    private final long[] leafOffsets;
+    private final int[] leafSizes;
+    private final Comparable[] leafFirstKeys;
+    private final Comparable[] leafLastKeys;
+
+    private AttributeIndex(final Path path, final boolean numeric, final int count, final long[] leafOffsets,
+            final int[] leafSizes, final Comparable[] leafFirstKeys, final Comparable[] leafLastKeys) {
+        this.path = path;
+        this.numeric = numeric;
+        this.count = count;
+        this.leafOffsets = leafOffsets;
+        this.leafSizes = leafSizes;
+        this.leafFirstKeys = leafFirstKeys;
+        this.leafLastKeys = leafLastKeys;
+    }
+
+    /**
+     * @return true if keys are numbers, false if they are strings
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * @return number of indexed records
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Convert a filter literal to an index key.
+     *
+     * @param value literal value
+     * @return index key, null if the value can not be searched in this index,
+     *         this includes empty strings and NaN which are not indexed
+     */
+    public Comparable toKey(final Object value) {
+        if (numeric) {
+            if (value instanceof Number) {
+                final double d = ((Number) value).doubleValue();
+                return Double.isNaN(d) ? null : d;
+            }
+        } else if (value instanceof CharSequence) {
+            final String s = value.toString();
+            return s.isEmpty() ? null : s;
+        }
+        return null;
+    }
+
+    /**
+     * Search records with a key in the given range.
+     *
+     * @param min inclusive lower bound, null for no bound
+     * @param max inclusive upper bound, null for no bound
+     * @return sorted record numbers, starting at 0
+     * @throws IOException if reading the index failed
+     */
+    public int[] search(final Comparable min, final Comparable max) throws IOException {
+        //first leaf which may contain the lower bound
+        int leaf = 0;
+        if (min != null) {
+            int lo = 0, hi = leafLastKeys.length;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (leafLastKeys[mid].compareTo(min) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            leaf = lo;
+        }
+
+        int[] records = new int[16];
+        int nb = 0;
+        if (leaf < leafOffsets.length && (max == null || leafFirstKeys[leaf].compareTo(max) <= 0)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                for (; leaf < leafOffsets.length; leaf++) {
+                    if (max != null && leafFirstKeys[leaf].compareTo(max) > 0) break;
+                    channel.position(leafOffsets[leaf]);
+                    final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                    for (int i = 0, n = leafSizes[leaf]; i < n; i++) {
+                        final Comparable key = readKey(in, numeric);
+                        final int recno = in.readInt();
+                        if ((min == null || key.compareTo(min) >= 0) && (max == null || key.compareTo(max) <= 0)) {
+                            if (nb == records.length) records = Arrays.copyOf(records, nb * 2);
+                            records[nb++] = recno;
+                        }
+                    }
+                }
+            }
+        }
+        records = Arrays.copyOf(records, nb);
+        Arrays.sort(records);
+        return records;
+    }
+
+    /**
+     * Open an existing index file.
+     *
+     * @param path index file
+     * @return attribute index
+     * @throws IOException if the file is not an attribute index or reading failed
+     */
+    public static AttributeIndex open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("File is not an attribute index : " + path);
+            }
+            final boolean numeric = in.readByte() == TYPE_NUMERIC;
+            final int count = in.readInt();
+            final int leafCount = in.readInt();
+            final long directoryOffset = in.readLong();
+
+            final long[] leafOffsets = new long[leafCount];
+            final int[] leafSizes = new int[leafCount];
+            final Comparable[] leafFirstKeys = new Comparable[leafCount];
+            final Comparable[] leafLastKeys = new Comparable[leafCount];
+            channel.position(directoryOffset);
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            for (int i = 0; i < leafCount; i++) {
+                leafOffsets[i] = in.readLong();
+                leafSizes[i] = in.readInt();
+                leafFirstKeys[i] = readKey(in, numeric);
+                leafLastKeys[i] = readKey(in, numeric);
+            }
+            return new AttributeIndex(path, numeric, count, leafOffsets, leafSizes, leafFirstKeys, leafLastKeys);
+        }
+    }
+
+    /**
+     * Build the index of a dbf column.
+     * The index is written in a temporary file first, then moved to the given path.
+     *
+     * @param dbf dbf reader, positioned on the first record, it is not closed
+     * @param column indexed column name
+     * @param path index file to create
+     * @throws IOException if the column does not exist, has an unsupported type or writing failed
+     */
+    public static void build(final DbaseFileReader dbf, final String column, final Path path) throws IOException {
+        final DbaseFileHeader header = dbf.getHeader();
+        int columnIndex = -1;
+        for (int i = 0, n = header.getNumFields(); i < n; i++) {
+            if (header.getFieldName(i).equals(column)) {
+                columnIndex = i;
+                break;
+            }
+        }
+        if (columnIndex < 0) {
+            throw new IOException("No column " + column + " in dbf file.");
+        }
+        final Class<?> valueClass = header.getFieldClass(columnIndex);
+        final boolean numeric;
+        if (Number.class.isAssignableFrom(valueClass)) {
+            numeric = true;
+        } else if (String.class.equals(valueClass)) {
+            numeric = false;
+        } else {
+            throw new IOException("Column " + column + " of type " + valueClass.getSimpleName() + " can not be indexed.");
+        }
+
+        //collect the entries, records are numbered in the same way as the shx index
+        final List<Comparable> keys = new ArrayList<>(header.getNumRecords());
+        int[] records = new int[header.getNumRecords()];
+        for (int recno = 0; dbf.hasNext(); recno++) {
+            final Object value = dbf.next().read(columnIndex);
+            final Comparable key;
+            if (numeric) {
+                key = (value instanceof Number && !Double.isNaN(((Number) value).doubleValue())) ?
+                        ((Number) value).doubleValue() : null;
+            } else {
+                key = (value != null && !value.toString().isEmpty()) ? value.toString() : null;
+            }
+            if (key == null) continue;
+            if (keys.size() == records.length) records = Arrays.copyOf(records, Math.max(16, records.length * 2));
+            records[keys.size()] = recno;
+            keys.add(key);
+        }
+
+        final int count = keys.size();
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        final int[] recs = records;
+        Arrays.sort(order, (Integer i1, Integer i2) -> {
+            final int c = keys.get(i1).compareTo(keys.get(i2));
+            return (c != 0) ? c : Integer.compare(recs[i1], recs[i2]);
+        });
+
+        final int leafCount = (count + LEAF_SIZE - 1) / LEAF_SIZE;
+        final long[] leafOffsets = new long[leafCount];
+        final Path tmp = path.resolveSibling(path.getFileName().toString() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(numeric ? TYPE_NUMERIC : TYPE_TEXT);
+            out.writeInt(count);
+            out.writeInt(leafCount);
+            //directory offset, rewritten once known
+            out.writeLong(0);
+
+            //leaves
+            for (int i = 0; i < count; i++) {
+                if (i % LEAF_SIZE == 0) leafOffsets[i / LEAF_SIZE] = out.size();
+                writeKey(out, keys.get(order[i]), numeric);
+                out.writeInt(recs[order[i]]);
+            }
+
+            //directory
+            final long directoryOffset = out.size();
+            for (int l = 0; l < leafCount; l++) {
+                final int first = l * LEAF_SIZE;
+                final int last = Math.min(count, first + LEAF_SIZE) - 1;
+                out.writeLong(leafOffsets[l]);
+                out.writeInt(last - first + 1);
+                writeKey(out, keys.get(order[first]), numeric);
+                writeKey(out, keys.get(order[last]), numeric);
+            }
+            out.flush();
+
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                final ByteBuffer buffer = ByteBuffer.allocate(8).putLong(directoryOffset);
+                buffer.flip();
+                channel.write(buffer, 4 + 1 + 4 + 4);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeKey(final DataOutputStream out, final Comparable key, final boolean numeric) throws IOException {
+        if (numeric) {
+            out.writeDouble((Double) key);
+        } else {
+            out.writeUTF((String) key);
+        }
+    }
+
+    private static Comparable readKey(final DataInputStream in, final boolean numeric) throws IOException {
+        return numeric ? (Comparable) in.readDouble() : in.readUTF();
+    }
+
+    /**
+     * @param a sorted record numbers
+     * @param b sorted record numbers
+     * @return sorted record numbers in both arrays
+     */
+    static int[] intersect(final int[] a, final int[] b) {
+        final int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * @param a sorted record numbers
+     * @param b sorted record numbers
+     * @return sorted record numbers in any of the arrays, without duplicates
+     */
+    static int[] union(final int[] a, final int[] b) {
+        final int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            final int v;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) v = a[i++];
+            else if (i >= a.length || b[j] < a[i]) v = b[j++];
+            else {
+                v = a[i++];
+                j++;
+            }
+            if (n == 0 || result[n - 1] != v) result[n++] = v;
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
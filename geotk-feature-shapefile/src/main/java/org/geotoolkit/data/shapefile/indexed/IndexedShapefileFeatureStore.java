@@ -17,6 +17,7 @@
  */
 package org.geotoolkit.data.shapefile.indexed;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -36,7 +37,10 @@ import org.apache.sis.referencing.CRS;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.Query;
 import org.apache.sis.storage.UnsupportedQueryException;
+import org.geotoolkit.data.dbf.DbaseFileReader;
+import org.geotoolkit.data.shapefile.DefaultFeatureIDReader;
 import org.geotoolkit.data.shapefile.FeatureIDReader;
+import org.geotoolkit.data.shapefile.RecordRangeAttributeReader;
 import org.geotoolkit.data.shapefile.ShapefileFeatureReader;
 import org.geotoolkit.data.shapefile.ShapefileFeatureStore;
 import org.geotoolkit.data.shapefile.ShapefileProvider;
@@ -74,9 +78,17 @@ import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.feature.MismatchedFeatureException;
 import org.opengis.feature.PropertyType;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.filter.BinaryComparisonOperator;
+import org.opengis.filter.ComparisonOperatorName;
+import org.opengis.filter.Expression;
 import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
 import org.opengis.filter.ResourceId;
 import org.opengis.filter.SpatialOperatorName;
+import org.opengis.filter.ValueReference;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.util.FactoryException;
 import org.opengis.util.GenericName;
@@ -104,6 +116,11 @@ public class IndexedShapefileFeatureStore extends ShapefileFeatureStore {
     final boolean useIndex;
     int maxDepth;
 
+    /**
+     * Opened attribute indexes by column name.
+     */
+    private final Map<String,AttributeIndex> attributeIndexes = new HashMap<>();
+
     /**
      * Creates a new instance of ShapefileDataStore.
      *
@@ -326,6 +343,22 @@ public class IndexedShapefileFeatureStore extends ShapefileFeatureStore {
         return ShapefileFeatureReader.create(r, fidReader, featureType, hints);
     }
 
+    /**
+     * Use the fix index ids when available, otherwise the record number starting at 0.
+     */
+    @Override
+    protected FeatureIDReader createFeatureIDReader(final RecordRangeAttributeReader reader, final String typeName)
+            throws DataStoreException {
+        try {
+            if (indexUseable(FIX)) {
+                return reader.getLocker().getFIXReader(reader);
+            }
+        } catch (IOException ex) {
+            throw new DataStoreException(ex);
+        }
+        return new DefaultFeatureIDReader(typeName, reader.getRecordNumber() - 1);
+    }
+
     private IndexedShapefileAttributeReader getAttributesReader(final List<? extends AttributeType> properties,
             final Filter filter, final boolean read3D, final double[] resample) throws DataStoreException{
 
@@ -368,6 +401,18 @@ public class IndexedShapefileFeatureStore extends ShapefileFeatureStore {
                     throw new DataStoreException("Error querying index: " + e.getMessage());
                 }
             }
+
+            if (filter != null) {
+                //restrict candidates with the attribute indexes
+                try {
+                    final int[] attRecs = queryAttributeIndexes(filter);
+                    if (attRecs != null) {
+                        goodRecs = intersect(locker, goodRecs, attRecs);
+                    }
+                } catch (IOException e) {
+                    throw new DataStoreException("Error querying attribute index: " + e.getMessage(), e);
+                }
+            }
         }
 
         final boolean readDBF = !(properties.size()==1 && Geometry.class.isAssignableFrom(properties.get(0).getValueClass()));
@@ -472,6 +517,212 @@ public class IndexedShapefileFeatureStore extends ShapefileFeatureStore {
         return records;
     }
 
+    /**
+     * Keep only the candidate records which are also in the attribute index results.
+     *
+     * @param locker access manager of the reader
+     * @param goodRecs spatial index candidates, null if all records are candidates
+     * @param attRecs sorted attribute index candidates, starting at 0
+     * @return candidates matching both indexes
+     */
+    private CloseableCollection<ShpData> intersect(final AccessManager locker,
+            final CloseableCollection<ShpData> goodRecs, final int[] attRecs) throws IOException {
+        final CloseableCollection<ShpData> records;
+        if (goodRecs != null) {
+            final BitSet selection = new BitSet();
+            for (int recno : attRecs) selection.set(recno);
+            records = new CloseableArrayList<>();
+            final Iterator<ShpData> ite = goodRecs.iterator();
+            try {
+                while (ite.hasNext()) {
+                    final ShpData data = ite.next();
+                    if (selection.get(data.v1 - 1)) records.add(data);
+                }
+            } finally {
+                goodRecs.closeIterator(ite);
+                goodRecs.close();
+            }
+        } else {
+            records = new CloseableArrayList<>(attRecs.length);
+            final ShxReader shx = locker.getSHXReader(useMemoryMappedBuffer);
+            try {
+                final IndexDataReader dr = new IndexDataReader(shx);
+                for (int recno : attRecs) {
+                    records.add(dr.read(recno));
+                }
+            } finally {
+                shx.close();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Search the attribute indexes for records which may match the filter.
+     * Comparison and between filters on indexed columns are resolved with the index,
+     * combined with and/or operators. In filters are expressed as a disjunction of
+     * equalities and are resolved as well.
+     *
+     * @param filter query filter
+     * @return sorted candidate record numbers starting at 0, null if the filter can not
+     *         be resolved by the indexes and all records are candidates
+     */
+    private int[] queryAttributeIndexes(final Filter<?> filter) throws IOException {
+        if (filter instanceof LogicalOperator) {
+            final LogicalOperator<?> logic = (LogicalOperator<?>) filter;
+            final LogicalOperatorName type = logic.getOperatorType();
+            if (type == LogicalOperatorName.AND) {
+                int[] result = null;
+                for (Filter<?> f : logic.getOperands()) {
+                    final int[] recs = queryAttributeIndexes(f);
+                    if (recs != null) {
+                        result = (result == null) ? recs : AttributeIndex.intersect(result, recs);
+                    }
+                }
+                return result;
+            } else if (type == LogicalOperatorName.OR) {
+                int[] result = new int[0];
+                for (Filter<?> f : logic.getOperands()) {
+                    final int[] recs = queryAttributeIndexes(f);
+                    if (recs == null) return null;
+                    result = AttributeIndex.union(result, recs);
+                }
+                return result;
+            }
+        } else if (filter instanceof BetweenComparisonOperator) {
+            final BetweenComparisonOperator<?> between = (BetweenComparisonOperator<?>) filter;
+            if (!(between.getLowerBoundary() instanceof Literal) || !(between.getUpperBoundary() instanceof Literal)) {
+                return null;
+            }
+            final AttributeIndex index = getAttributeIndex(between.getExpression());
+            if (index == null || !index.isNumeric()) return null;
+            final Comparable min = index.toKey(((Literal) between.getLowerBoundary()).getValue());
+            final Comparable max = index.toKey(((Literal) between.getUpperBoundary()).getValue());
+            if (min == null || max == null) return null;
+            return index.search(min, max);
+        } else if (filter instanceof BinaryComparisonOperator) {
+            final BinaryComparisonOperator<?> comparison = (BinaryComparisonOperator<?>) filter;
+            ComparisonOperatorName type = comparison.getOperatorType();
+            final Expression<?,?> property;
+            final Expression<?,?> literal;
+            if (comparison.getOperand1() instanceof ValueReference && comparison.getOperand2() instanceof Literal) {
+                property = comparison.getOperand1();
+                literal = comparison.getOperand2();
+            } else if (comparison.getOperand2() instanceof ValueReference && comparison.getOperand1() instanceof Literal) {
+                property = comparison.getOperand2();
+                literal = comparison.getOperand1();
+                //swap the comparison direction
+                if      (type == ComparisonOperatorName.PROPERTY_IS_GREATER_THAN)             type = ComparisonOperatorName.PROPERTY_IS_LESS_THAN;
+                else if (type == ComparisonOperatorName.PROPERTY_IS_GREATER_THAN_OR_EQUAL_TO) type = ComparisonOperatorName.PROPERTY_IS_LESS_THAN_OR_EQUAL_TO;
+                else if (type == ComparisonOperatorName.PROPERTY_IS_LESS_THAN)                type = ComparisonOperatorName.PROPERTY_IS_GREATER_THAN;
+                else if (type == ComparisonOperatorName.PROPERTY_IS_LESS_THAN_OR_EQUAL_TO)    type = ComparisonOperatorName.PROPERTY_IS_GREATER_THAN_OR_EQUAL_TO;
+            } else {
+                return null;
+            }
+            final AttributeIndex index = getAttributeIndex(property);
+            if (index == null) return null;
+            final Comparable key = index.toKey(((Literal) literal).getValue());
+            if (key == null) return null;
+
+            //bounds are inclusive, strict comparisons are applied by the query filter afterward
+            if (type == ComparisonOperatorName.PROPERTY_IS_EQUAL_TO) {
+                //strings are indexed with their case
+                if (!index.isNumeric() && !comparison.isMatchingCase()) return null;
+                return index.search(key, key);
+            } else if (index.isNumeric()) {
+                if (type == ComparisonOperatorName.PROPERTY_IS_GREATER_THAN
+                 || type == ComparisonOperatorName.PROPERTY_IS_GREATER_THAN_OR_EQUAL_TO) {
+                    return index.search(key, null);
+                } else if (type == ComparisonOperatorName.PROPERTY_IS_LESS_THAN
+                        || type == ComparisonOperatorName.PROPERTY_IS_LESS_THAN_OR_EQUAL_TO) {
+                    return index.search(null, key);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the attribute index of a filter property.
+     * An outdated index is rebuilt if the shapefile is writable, ignored otherwise.
+     *
+     * @param property filter expression
+     * @return attribute index, null if the expression is not a property or the column is not indexed
+     */
+    private AttributeIndex getAttributeIndex(final Expression<?,?> property) throws IOException {
+        if (!(property instanceof ValueReference)) return null;
+        final String column = ((ValueReference<?,?>) property).getXPath();
+        final Path indexPath = getAttributeIndexPath(column);
+        if (indexPath == null || !Files.exists(indexPath)) return null;
+
+        synchronized (attributeIndexes) {
+            final Path dbfPath = shpFiles.getPath(DBF);
+            if (Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(dbfPath)) < 0) {
+                attributeIndexes.remove(column);
+                if (!shpFiles.isWritable()) return null;
+                try {
+                    createAttributeIndex(column);
+                } catch (DataStoreException ex) {
+                    throw new IOException(ex.getMessage(), ex);
+                }
+            }
+            AttributeIndex index = attributeIndexes.get(column);
+            if (index == null) {
+                index = AttributeIndex.open(indexPath);
+                attributeIndexes.put(column, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @param column dbf column name
+     * @return path of the attribute index file, null if the shapefile is not a local file
+     */
+    private Path getAttributeIndexPath(final String column) {
+        final Path dbfPath;
+        try {
+            dbfPath = shpFiles.getPath(DBF);
+        } catch (RuntimeException ex) {
+            //not a file system resource
+            return null;
+        }
+        if (dbfPath == null) return null;
+        final String base = DBF.toBase(dbfPath.getFileName().toString());
+        if (base == null) return null;
+        return dbfPath.resolveSibling(base + '.' + column + '.' + AttributeIndex.EXTENSION);
+    }
+
+    /**
+     * Build or rebuild the attribute index of a dbf column.
+     * Once created, comparison filters on this column use the index to select
+     * the records to read instead of reading the whole dbf file.
+     * Numeric and character columns can be indexed.
+     *
+     * @param column dbf column name
+     * @throws DataStoreException if the shapefile is not writable or the column can not be indexed
+     */
+    public void createAttributeIndex(final String column) throws DataStoreException {
+        final Path indexPath = getAttributeIndexPath(column);
+        if (indexPath == null || !shpFiles.isWritable()) {
+            throw new DataStoreException("Attribute indexes can only be created on writable files.");
+        }
+        getLogger().fine("Creating attribute index " + indexPath);
+        final AccessManager locker = shpFiles.createLocker();
+        synchronized (attributeIndexes) {
+            try (Closeable disposeLocker = locker::disposeReaderAndWriters) {
+                final DbaseFileReader dbf = locker.getDBFReader(useMemoryMappedBuffer, dbfCharset);
+                if (dbf == null) {
+                    throw new DataStoreException("No dbf file for shapefile " + shpFiles.get(SHP));
+                }
+                AttributeIndex.build(dbf, column, indexPath);
+                attributeIndexes.remove(column);
+            } catch (IOException ex) {
+                throw new DataStoreException("Error creating attribute index: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
     /**
      * Returns true if the index for the given type exists and is useable.
      *
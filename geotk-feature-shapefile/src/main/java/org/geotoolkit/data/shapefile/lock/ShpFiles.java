@@ -303,6 +303,22 @@ public final class ShpFiles {
         }
     }
 
+    /**
+     * Determine if the shapefile can be accessed as a NIO Path, read-only or not.
+     *
+     * @return true if local, false if remote
+     */
+    public boolean isLocal() {
+        final URI uri = getURI(SHP);
+        if (uri == null) return false;
+        try {
+            Paths.get(uri);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     /**
      * Delete all the shapefile files.
      *
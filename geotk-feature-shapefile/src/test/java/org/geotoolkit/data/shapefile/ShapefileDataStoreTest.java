@@ -17,6 +17,7 @@
 package org.geotoolkit.data.shapefile;
 
 import java.io.File;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
@@ -29,10 +30,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.sis.feature.builder.AttributeRole;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.apache.sis.referencing.CRS;
 import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureSet;
 import org.geotoolkit.ShapeTestData;
 import org.geotoolkit.data.shapefile.shp.ShapefileHeader;
 import org.geotoolkit.feature.FeatureExt;
@@ -57,6 +64,7 @@ import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.opengis.feature.AttributeType;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.feature.PropertyType;
@@ -740,6 +748,95 @@ public class ShapefileDataStoreTest extends AbstractTestCaseSupport {
         tmpFile.delete();
     }
 
+    /**
+     * Parallel streams read records by ranges, result must be identical to the sequential read.
+     */
+    @Test
+    public void testParallelFeatures() throws Exception {
+        final File shpFile = copyShapefiles(STATE_POP);
+        final ShapefileFeatureStore s = new ShapefileFeatureStore(shpFile.toURI());
+        final FeatureSet all = (FeatureSet) s.findResource(s.getName().toString());
+
+        final List<Feature> expected = all.features(false).collect(Collectors.toList());
+        assertFeaturesEqual(expected, all.features(true).collect(Collectors.toList()));
+
+        final Query query = new Query(s.getName());
+        query.setProperties(new String[]{"STATE_NAME", "PERSONS", "LAND_KM"});
+        final FeatureSet subset = all.subset(query);
+        final List<Feature> projected = subset.features(false).collect(Collectors.toList());
+        assertFeaturesEqual(projected, subset.features(true).collect(Collectors.toList()));
+        assertFalse(projected.isEmpty());
+
+        //small ranges to force splitting
+        final FeatureType type = s.getFeatureType();
+        final AttributeType[] atts = s.getAttributes(type, false).toArray(new AttributeType[0]);
+        final String typeName = type.getName().tip().toString();
+        final RecordRangeSpliterator spliterator = new RecordRangeSpliterator((int start, int end) -> {
+            try {
+                final RecordRangeAttributeReader reader = new RecordRangeAttributeReader(s.shpFiles.createLocker(),
+                        atts, true, false, true, s.dbfCharset, start, end);
+                return ShapefileFeatureReader.create(reader, new DefaultFeatureIDReader(typeName, start), type, null);
+            } catch (IOException ex) {
+                throw new DataStoreException(ex);
+            }
+        }, 0, expected.size(), 5);
+        assertFeaturesEqual(expected, StreamSupport.stream(spliterator, true).collect(Collectors.toList()));
+    }
+
+    /**
+     * Parallel reading only requires local files and a shx file, not write access.
+     */
+    @Test
+    public void testParallelFeaturesReadOnly() throws Exception {
+        final File shpFile = copyShapefiles(STATE_POP);
+        final File directory = shpFile.getParentFile();
+        final String base = shpFile.getName().substring(0, shpFile.getName().length() - 4);
+        for (File file : directory.listFiles()) {
+            if (file.getName().startsWith(base)) {
+                assertTrue(file.setReadOnly());
+            }
+        }
+        try {
+            final ShapefileFeatureStore s = new ShapefileFeatureStore(shpFile.toURI());
+            final List<Feature> features;
+            try (Stream<Feature> stream = s.parallelFeatures(new Query(s.getName()))) {
+                assertNotNull(stream);
+                features = stream.collect(Collectors.toList());
+            }
+            final FeatureSet all = (FeatureSet) s.findResource(s.getName().toString());
+            assertFeaturesEqual(all.features(false).collect(Collectors.toList()), features);
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.setWritable(true);
+            }
+        }
+
+        //without shx records can not be located
+        final File noShx = copyShapefiles(STATE_POP);
+        final String noShxBase = noShx.getName().substring(0, noShx.getName().length() - 4);
+        for (File file : noShx.getParentFile().listFiles()) {
+            if (file.getName().equalsIgnoreCase(noShxBase + ".shx")) {
+                assertTrue(file.delete());
+            }
+        }
+        final ShapefileFeatureStore s = new ShapefileFeatureStore(noShx.toURI());
+        assertNull(s.parallelFeatures(new Query(s.getName())));
+    }
+
+    private static void assertFeaturesEqual(final List<Feature> expected, final List<Feature> result) {
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Feature exp = expected.get(i);
+            final Feature res = result.get(i);
+            for (PropertyType pt : exp.getType().getProperties(true)) {
+                if (pt instanceof AttributeType) {
+                    final String name = pt.getName().toString();
+                    assertEquals(name, exp.getPropertyValue(name), res.getPropertyValue(name));
+                }
+            }
+        }
+    }
+
     private ShapefileFeatureStore createDataStore(final File f) throws Exception {
         Collection<Feature> fc = createFeatureCollection();
         ShapefileFeatureStore sds = new ShapefileFeatureStore(f.toURI());
@@ -734,6 +734,92 @@ public class IndexedShapefileDataStoreTest extends AbstractTestCaseSupport {
         assertEquals(initialCount - 2, afterCount);
     }
 
+    /**
+     * Attribute indexes must return the same features as a full dbf scan.
+     */
+    @Test
+    public void testAttributeIndex() throws Exception {
+        final File shpFile = copyShapefiles(STATE_POP);
+        final ShapefileFeatureStore baseline = new ShapefileFeatureStore(shpFile.toURI());
+        final IndexedShapefileFeatureStore ds = new IndexedShapefileFeatureStore(shpFile.toURI(), false, true, IndexType.QIX, null);
+        ds.createAttributeIndex("PERSONS");
+        ds.createAttributeIndex("STATE_NAME");
+        assertTrue(sibling(shpFile, "PERSONS." + AttributeIndex.EXTENSION).exists());
+        assertTrue(sibling(shpFile, "STATE_NAME." + AttributeIndex.EXTENSION).exists());
+        try {
+            ds.createAttributeIndex("UNKNOWN");
+            fail("Unknown column should not be indexed");
+        } catch (DataStoreException ex) {
+            //ok
+        }
+
+        final FilterFactory ff = FilterUtilities.FF;
+        final String typeName = ds.getName().toString();
+        final Filter[] filters = new Filter[]{
+            ff.greater(ff.property("PERSONS"), ff.literal(5000000)),
+            ff.less(ff.literal(5000000), ff.property("PERSONS")),
+            ff.lessOrEqual(ff.property("PERSONS"), ff.literal(1000000.0)),
+            ff.between(ff.property("PERSONS"), ff.literal(1000000), ff.literal(4000000)),
+            ff.or(ff.equal(ff.property("STATE_NAME"), ff.literal("Illinois")),
+                  ff.equal(ff.property("STATE_NAME"), ff.literal("Texas"))),
+            ff.and(ff.greater(ff.property("PERSONS"), ff.literal(1000000)),
+                   ff.equal(ff.property("SUB_REGION"), ff.literal("Pacific"))),
+            ff.equal(ff.property("STATE_NAME"), ff.literal("Atlantis"))
+        };
+        for (Filter filter : filters) {
+            assertEquals(filter.toString(), count(baseline, typeName, filter), count(ds, typeName, filter));
+        }
+        assertEquals(2, count(ds, typeName, filters[4]));
+        assertEquals(0, count(ds, typeName, filters[6]));
+
+        //combined with the spatial index
+        final JTSEnvelope2D bounds = new JTSEnvelope2D(ds.getEnvelope(new Query(ds.getName())));
+        final String geometryName = FeatureExt.getDefaultGeometry(ds.getFeatureType()).getName().tip().toString();
+        final Filter combined = ff.and(
+                ff.bbox(ff.property(geometryName), new JTSEnvelope2D(new Envelope(
+                        bounds.getMinX(), (bounds.getMinX() + bounds.getMaxX()) / 2, bounds.getMinY(), bounds.getMaxY()), bounds.getCoordinateReferenceSystem())),
+                filters[0]);
+        assertEquals(count(baseline, typeName, combined), count(ds, typeName, combined));
+
+        ds.close();
+        baseline.close();
+        assertTrue(sibling(shpFile, "PERSONS." + AttributeIndex.EXTENSION).delete());
+        assertTrue(sibling(shpFile, "STATE_NAME." + AttributeIndex.EXTENSION).delete());
+    }
+
+    /**
+     * Blank dbf values are not indexed, searching them must fall back on a full scan.
+     */
+    @Test
+    public void testAttributeIndexBlankValues() throws Exception {
+        final Collection<Feature> features = createFeatureCollection();
+        int i = 0;
+        for (Feature feature : features) {
+            if (i++ % 3 == 0) feature.setPropertyValue("f", "");
+        }
+        final File shpFile = getTempFile();
+        shpFile.delete();
+        IndexedShapefileFeatureStore ds = new IndexedShapefileFeatureStore(shpFile.toURI());
+        writeFeatures(ds, features);
+        ds.close();
+
+        final ShapefileFeatureStore baseline = new ShapefileFeatureStore(shpFile.toURI());
+        ds = new IndexedShapefileFeatureStore(shpFile.toURI(), false, true, IndexType.QIX, null);
+        ds.createAttributeIndex("f");
+
+        final FilterFactory ff = FilterUtilities.FF;
+        final String typeName = ds.getName().toString();
+        final Filter blank = ff.equal(ff.property("f"), ff.literal(""));
+        assertEquals(7, count(baseline, typeName, blank));
+        assertEquals(7, count(ds, typeName, blank));
+        final Filter value = ff.equal(ff.property("f"), ff.literal("4"));
+        assertEquals(1, count(ds, typeName, value));
+
+        ds.close();
+        baseline.close();
+        assertTrue(sibling(shpFile, "f." + AttributeIndex.EXTENSION).delete());
+    }
+
     private int count(final FeatureStore ds, final String typeName, final Filter filter) throws Exception {
         FeatureReader reader;
         reader = ds.getFeatureReader(Query.filtered(typeName, filter));
@@ -18,9 +18,6 @@ package org.geotoolkit.feature.xml.jaxb.mapping;
 
 import java.util.HashMap;
 import java.util.Map;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
 import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 import javax.xml.stream.XMLStreamException;
@@ -32,18 +29,11 @@ import org.apache.sis.xml.MarshallerPool;
 import org.geotoolkit.feature.xml.GMLConvention;
 import org.geotoolkit.feature.xml.jaxb.JAXBFeatureTypeReader;
 import org.geotoolkit.feature.xml.jaxp.JAXPStreamFeatureReader;
+import org.geotoolkit.feature.xml.jaxp.StaxGeometryReader;
 import static org.geotoolkit.feature.xml.jaxp.JAXPStreamFeatureReader.BINDING_PACKAGE;
-import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.JTSGeometry;
-import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.aggregate.JTSMultiCurve;
-import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.geometry.JTSLineString;
-import org.geotoolkit.geometry.jts.JTS;
 import org.geotoolkit.geometry.jts.JTSMapping;
-import org.geotoolkit.gml.GeometrytoJTS;
-import org.geotoolkit.gml.xml.AbstractGeometry;
 import org.geotoolkit.gml.xml.GMLMarshallerPool;
 import org.geotoolkit.internal.jaxb.JTSWrapperMarshallerPool;
-import org.geotoolkit.internal.jaxb.LineStringPosListType;
-import org.geotoolkit.internal.jaxb.PolygonType;
 import org.geotoolkit.util.NamesExt;
 import org.geotoolkit.xsd.xml.v2001.Annotated;
 import org.geotoolkit.xsd.xml.v2001.ComplexType;
@@ -62,7 +52,6 @@ import org.opengis.feature.AttributeType;
 import org.opengis.feature.Feature;
 import org.opengis.feature.IdentifiedType;
 import org.opengis.feature.PropertyType;
-import org.opengis.util.FactoryException;
 import org.opengis.util.GenericName;
 
 /**
@@ -135,6 +124,7 @@ public class GeometryMapping implements XSDMapping {
     private final boolean longitudeFirst;
     private final MarshallerPool pool;
     private final boolean decorated;
+    private StaxGeometryReader geometryReader;
 
     public GeometryMapping(ComplexType xsdType, PropertyType propertyType, MarshallerPool pool, boolean longitudeFirst, boolean decorated) {
         this.xsdType = xsdType;
@@ -144,6 +134,21 @@ public class GeometryMapping implements XSDMapping {
         this.decorated = decorated;
     }
 
+    /**
+     * Create a mapping sharing the given geometry reader, pool and axis order are taken from the reader.
+     */
+    public GeometryMapping(ComplexType xsdType, PropertyType propertyType, StaxGeometryReader geometryReader, boolean decorated) {
+        this(xsdType, propertyType, geometryReader.getPool(), geometryReader.isLongitudeFirst(), decorated);
+        this.geometryReader = geometryReader;
+    }
+
+    private StaxGeometryReader getGeometryReader() {
+        if (geometryReader == null) {
+            geometryReader = new StaxGeometryReader(pool, longitudeFirst, true);
+        }
+        return geometryReader;
+    }
+
     @Override
     public IdentifiedType getType() {
         return propertyType;
@@ -197,48 +202,8 @@ public class GeometryMapping implements XSDMapping {
             event = reader.next();
         }
 
-        try {
-            Unmarshaller unmarshaller = pool.acquireUnmarshaller();
-            final Geometry jtsGeom;
-            final Object geometry = ((JAXBElement) unmarshaller.unmarshal(reader)).getValue();
-            if (geometry instanceof JTSGeometry) {
-                final JTSGeometry isoGeom = (JTSGeometry) geometry;
-                if (isoGeom instanceof JTSMultiCurve) {
-                    ((JTSMultiCurve)isoGeom).applyCRSonChild();
-                }
-                jtsGeom = isoGeom.getJTSGeometry();
-            } else if (geometry instanceof PolygonType) {
-                final PolygonType polygon = ((PolygonType)geometry);
-                jtsGeom = polygon.getJTSPolygon().getJTSGeometry();
-                if (polygon.getCoordinateReferenceSystem() != null) {
-                    JTS.setCRS(jtsGeom, polygon.getCoordinateReferenceSystem());
-                }
-            } else if (geometry instanceof LineStringPosListType) {
-                final JTSLineString line = ((LineStringPosListType)geometry).getJTSLineString();
-                jtsGeom = line.getJTSGeometry();
-                if (line.getCoordinateReferenceSystem() != null) {
-                    JTS.setCRS(jtsGeom, line.getCoordinateReferenceSystem());
-                }
-            } else if (geometry instanceof AbstractGeometry) {
-                try {
-                    jtsGeom = GeometrytoJTS.toJTS((AbstractGeometry) geometry, longitudeFirst, forceMultiPolygon);
-                } catch (FactoryException ex) {
-                    throw new XMLStreamException("Factory Exception while transforming GML object to JTS", ex);
-                }
-            } else {
-                throw new IllegalArgumentException("unexpected geometry type:" + geometry);
-            }
-            value = jtsGeom;
-            value = JTSMapping.convertType(jtsGeom, ((AttributeType) propertyType).getValueClass());
-
-            pool.recycle(unmarshaller);
-        } catch (JAXBException ex) {
-            String msg = ex.getMessage();
-            if (msg == null && ex.getLinkedException() != null) {
-                msg = ex.getLinkedException().getMessage();
-            }
-            throw new IllegalArgumentException("JAXB exception while reading the feature geometry: " + msg, ex);
-        }
+        final Geometry jtsGeom = getGeometryReader().read(reader, forceMultiPolygon);
+        value = JTSMapping.convertType(jtsGeom, ((AttributeType) propertyType).getValueClass());
 
         JAXPStreamFeatureReader.setValue(feature, propertyType, propName, null, value);
     }
@@ -95,6 +95,11 @@ public class JAXPStreamFeatureReader extends StaxStreamReader implements XmlFeat
     protected static final Logger LOGGER = Logger.getLogger("org.geotoolkit.feature.xml.jaxp");
     private Unmarshaller unmarshaller;
     public static final String LONGITUDE_FIRST = "longitudeFirst";
+    /**
+     * Boolean property, true by default. When enabled, linear GML geometries are decoded
+     * directly from the stream into JTS geometries, without building the JAXB object model.
+     */
+    public static final String DIRECT_GEOMETRY_DECODING = "directGeometryDecoding";
 
     /**
      * GML namespace for this class.
@@ -121,6 +126,9 @@ public class JAXPStreamFeatureReader extends StaxStreamReader implements XmlFeat
     //cleared after a read operation, used to resolve local href links
     private final Map<String,Object> index = new HashMap<>();
 
+    //reused for all geometry properties, recreated when reading properties change
+    private StaxGeometryReader geometryReader;
+
     public JAXPStreamFeatureReader() {
         this(new ArrayList<FeatureType>());
     }
@@ -743,7 +751,13 @@ public class JAXPStreamFeatureReader extends StaxStreamReader implements XmlFeat
             } else {
                 longitudeFirst = true;
             }
-            GeometryMapping mapping = new GeometryMapping(null, propertyType, getPool(), longitudeFirst, skipCurrent);
+            final boolean direct = !Boolean.FALSE.equals(getProperty(DIRECT_GEOMETRY_DECODING));
+            final MarshallerPool pool = getPool();
+            if (geometryReader == null || geometryReader.getPool() != pool
+                    || geometryReader.isLongitudeFirst() != longitudeFirst || geometryReader.isDirect() != direct) {
+                geometryReader = new StaxGeometryReader(pool, longitudeFirst, direct);
+            }
+            GeometryMapping mapping = new GeometryMapping(null, propertyType, geometryReader, skipCurrent);
             mapping.readValue(reader, propName, feature);
 
         } else if (propertyType instanceof FeatureAssociationRole) {
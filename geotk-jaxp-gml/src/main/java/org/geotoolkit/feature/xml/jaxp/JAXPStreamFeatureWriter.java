@@ -104,6 +104,17 @@ public class JAXPStreamFeatureWriter extends StaxStreamWriter implements XmlFeat
 
     private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
 
+    /**
+     * Boolean property, false by default. When enabled, geometries are written directly
+     * from the JTS coordinate sequences, without building and marshalling the JAXB object model.
+     */
+    public static final String DIRECT_GEOMETRY_ENCODING = "directGeometryEncoding";
+    /**
+     * Integer property, maximum number of fraction digits of written ordinates.
+     * Only used with {@link #DIRECT_GEOMETRY_ENCODING}, full precision if unset or negative.
+     */
+    public static final String COORDINATE_PRECISION = "coordinatePrecision";
+
     /**
      * The pool of marshallers used for marshalling geometries.
      */
@@ -136,6 +147,9 @@ public class JAXPStreamFeatureWriter extends StaxStreamWriter implements XmlFeat
     //automatic id increment for geometries id
     private int gidInc = 0;
 
+    //reused for all geometries, recreated when precision changes
+    private StaxGeometryWriter geometryWriter;
+
     public JAXPStreamFeatureWriter() {
         this("3.1.1", "1.1.0", null);
     }
@@ -770,7 +784,12 @@ public class JAXPStreamFeatureWriter extends StaxStreamWriter implements XmlFeat
                 final CoordinateReferenceSystem crs = FeatureExt.getCRS(typeA);
                 final JAXBElement element;
                 final MarshallerPool POOL;
-                if ("3.1.1".equals(gmlVersion)) {
+                if (Boolean.TRUE.equals(properties.get(DIRECT_GEOMETRY_ENCODING))) {
+                    final String gid = (id+"_g").replace(':', '_');
+                    gidInc = getGeometryWriter().write(writer, (org.locationtech.jts.geom.Geometry) valueA, crs, gid, gidInc);
+                    if (!descIsType) writer.writeEndElement();
+                    return;
+                } else if ("3.1.1".equals(gmlVersion)) {
                     final Geometry isoGeometry = JTSUtils.toISO((org.locationtech.jts.geom.Geometry) valueA, crs);
                     element = OBJECT_FACTORY.buildAnyGeometry(isoGeometry);
                     POOL = GML_31_POOL;
@@ -808,6 +827,15 @@ public class JAXPStreamFeatureWriter extends StaxStreamWriter implements XmlFeat
         }
     }
 
+    private StaxGeometryWriter getGeometryWriter() {
+        final Object precision = properties.get(COORDINATE_PRECISION);
+        final int fractionDigits = (precision instanceof Number) ? ((Number) precision).intValue() : -1;
+        if (geometryWriter == null || geometryWriter.getFractionDigits() != fractionDigits) {
+            geometryWriter = new StaxGeometryWriter(gmlVersion, fractionDigits);
+        }
+        return geometryWriter;
+    }
+
     /**
      *
      * @param inc auto increment value, ids must be unique
@@ -0,0 +1,825 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.feature.xml.jaxp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import static javax.xml.stream.XMLStreamConstants.*;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.sis.util.UnconvertibleObjectException;
+import org.apache.sis.xml.MarshallerPool;
+import org.geotoolkit.feature.xml.GMLConvention;
+import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.JTSGeometry;
+import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.aggregate.JTSMultiCurve;
+import org.geotoolkit.geometry.isoonjts.spatialschema.geometry.geometry.JTSLineString;
+import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.gml.GeometryTransformer;
+import org.geotoolkit.gml.GeometrytoJTS;
+import org.geotoolkit.gml.xml.AbstractGeometry;
+import org.geotoolkit.internal.jaxb.LineStringPosListType;
+import org.geotoolkit.internal.jaxb.PolygonType;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
+
+/**
+ * Decode GML 3.1.1 and 3.2.1 geometries from a StAX stream directly into JTS geometries.
+ * <p>
+ * Linear geometries (points, line strings, polygons, curves and surfaces made of linear
+ * segments, and their collections) are decoded without building the GML object model :
+ * {@code gml:posList}, {@code gml:pos} and {@code gml:coordinates} character data is
+ * parsed in place into packed coordinate sequences. Other geometries and curve segments
+ * are unmarshalled with JAXB and converted by {@link GeometrytoJTS}.
+ * </p>
+ * <p>
+ * Instances are not thread safe, they keep reusable buffers.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public final class StaxGeometryReader {
+
+    private static final GeometryFactory GF = JTS.getFactory();
+
+    /**
+     * Geometry elements decoded without JAXB.
+     */
+    private static final Set<String> DIRECT = new HashSet<>(Arrays.asList(
+            "Point", "LineString", "LinearRing", "Ring", "Polygon", "Curve", "Surface",
+            "MultiPoint", "MultiLineString", "MultiCurve", "MultiPolygon", "MultiSurface", "MultiGeometry"));
+
+    /**
+     * Exact powers of ten, used by the fast path of {@link #parseDouble(char[], int, int, char)}.
+     */
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i-1] * 10;
+        }
+    }
+
+    private final MarshallerPool pool;
+    private final boolean longitudeFirst;
+    private final boolean direct;
+
+    /**
+     * Parsed ordinates, shared by nested geometries : each one works above the size found on entry.
+     */
+    private final Ordinates ordinates = new Ordinates();
+
+    /**
+     * Set when JAXB left the reader positioned after the end of the element it consumed.
+     */
+    private boolean pending;
+
+    private String lastSrsName;
+    private CoordinateReferenceSystem lastCrs;
+
+    /**
+     * @param pool JAXB pool used for geometries which can not be decoded directly.
+     * @param longitudeFirst true to force longitude first axis order on decoded coordinate reference systems.
+     * @param direct false to decode all geometries with JAXB.
+     */
+    public StaxGeometryReader(final MarshallerPool pool, final boolean longitudeFirst, final boolean direct) {
+        this.pool = pool;
+        this.longitudeFirst = longitudeFirst;
+        this.direct = direct;
+    }
+
+    public MarshallerPool getPool() {
+        return pool;
+    }
+
+    public boolean isLongitudeFirst() {
+        return longitudeFirst;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Read the geometry starting at current element.
+     * Like JAXB unmarshalling, the reader is left positioned on the event following the geometry end element.
+     *
+     * @param reader stream positioned on a geometry start element.
+     * @param forceMultiPolygon true to return a polygon as a multi-polygon.
+     * @return decoded geometry, never null.
+     */
+    public Geometry read(final XMLStreamReader reader, final boolean forceMultiPolygon) throws XMLStreamException {
+        if (!direct || !GMLConvention.isGmlNamespace(reader.getNamespaceURI()) || !DIRECT.contains(reader.getLocalName())) {
+            return unmarshal(reader, forceMultiPolygon);
+        }
+        pending = false;
+        ordinates.size = 0;
+        Geometry geometry;
+        try {
+            geometry = readGeometry(reader, null, 0);
+        } catch (NumberFormatException ex) {
+            throw new XMLStreamException("Invalid coordinate value : " + ex.getMessage(), reader.getLocation(), ex);
+        } catch (UnconvertibleObjectException | IllegalArgumentException ex) {
+            throw new XMLStreamException(ex.getMessage(), reader.getLocation(), ex);
+        }
+        if (forceMultiPolygon && geometry instanceof Polygon) {
+            final MultiPolygon mp = GF.createMultiPolygon(new Polygon[]{(Polygon) geometry});
+            mp.setUserData(geometry.getUserData());
+            geometry = mp;
+        }
+        reader.next();
+        return geometry;
+    }
+
+    /**
+     * Read current geometry element, leaving the reader on its end element.
+     *
+     * @param srsName srsName inherited from enclosing geometries, or null.
+     * @param dimension srsDimension inherited from enclosing geometries, or 0.
+     */
+    private Geometry readGeometry(final XMLStreamReader reader, String srsName, int dimension) throws XMLStreamException {
+        final String localName = reader.getLocalName();
+        if (!DIRECT.contains(localName)) {
+            final Geometry geometry = unmarshal(reader, false);
+            pending = true;
+            if (srsName != null && geometry.getUserData() == null) {
+                JTS.setCRS(geometry, getCRS(srsName));
+            }
+            return geometry;
+        }
+        final String id = reader.getAttributeValue(reader.getNamespaceURI(), "id");
+        final String srs = reader.getAttributeValue(null, "srsName");
+        if (srs != null && !srs.isEmpty()) srsName = srs;
+        dimension = dimension(reader, dimension);
+
+        final Geometry geometry;
+        switch (localName) {
+            case "Point" : {
+                final CoordinateSequence cs = readPositions(reader, dimension);
+                geometry = (cs.size() == 0) ? GF.createPoint() : GF.createPoint(cs);
+                break;
+            }
+            case "LineString" : geometry = GF.createLineString(readPositions(reader, dimension)); break;
+            case "LinearRing" : geometry = GF.createLinearRing(readPositions(reader, dimension)); break;
+            case "Ring"       : geometry = readRing(reader, srsName, dimension); break;
+            case "Polygon"    : geometry = readPolygon(reader, srsName, dimension); break;
+            case "Curve"      : geometry = readCurve(reader, srsName, dimension); break;
+            case "Surface"    : geometry = GF.createMultiPolygon(readSurface(reader, srsName, dimension)); break;
+            default : {
+                final List<Geometry> members = new ArrayList<>();
+                while (nextChild(reader)) {
+                    if (reader.getLocalName().endsWith("Member") || reader.getLocalName().endsWith("Members")) {
+                        while (nextChild(reader)) {
+                            members.add(readGeometry(reader, srsName, dimension));
+                        }
+                    } else {
+                        skip(reader);
+                    }
+                }
+                geometry = toCollection(localName, members, reader);
+            }
+        }
+        if (srsName != null) {
+            JTS.setCRS(geometry, getCRS(srsName));
+        }
+        if (id != null && !id.isEmpty()) {
+            final Object userData = geometry.getUserData();
+            final Map values;
+            if (userData instanceof Map) {
+                values = (Map) userData;
+            } else {
+                values = new HashMap();
+                if (userData instanceof CoordinateReferenceSystem) {
+                    values.put(org.apache.sis.geometry.wrapper.jts.JTS.CRS_KEY, userData);
+                }
+            }
+            values.put("@id", id);
+            geometry.setUserData(values);
+        }
+        return geometry;
+    }
+
+    private static Geometry toCollection(final String localName, final List<Geometry> members, final XMLStreamReader reader)
+            throws XMLStreamException {
+        try {
+            switch (localName) {
+                case "MultiPoint" :
+                    return GF.createMultiPoint(members.toArray(new Point[members.size()]));
+                case "MultiLineString" :
+                case "MultiCurve" : {
+                    final List<LineString> lines = new ArrayList<>(members.size());
+                    for (Geometry member : members) {
+                        for (int i = 0, n = member.getNumGeometries(); i < n; i++) {
+                            lines.add((LineString) member.getGeometryN(i));
+                        }
+                    }
+                    return GF.createMultiLineString(lines.toArray(new LineString[lines.size()]));
+                }
+                case "MultiPolygon" :
+                case "MultiSurface" : {
+                    final List<Polygon> polygons = new ArrayList<>(members.size());
+                    for (Geometry member : members) {
+                        if (member instanceof MultiPolygon) {
+                            for (int i = 0, n = member.getNumGeometries(); i < n; i++) {
+                                polygons.add((Polygon) member.getGeometryN(i));
+                            }
+                        } else {
+                            polygons.add((Polygon) member);
+                        }
+                    }
+                    return GF.createMultiPolygon(polygons.toArray(new Polygon[polygons.size()]));
+                }
+                default :
+                    return GF.createGeometryCollection(members.toArray(new Geometry[members.size()]));
+            }
+        } catch (ArrayStoreException | ClassCastException ex) {
+            throw new XMLStreamException("Cannot create a " + localName + ", because some of its components have an unexpected type", reader.getLocation(), ex);
+        }
+    }
+
+    private Polygon readPolygon(final XMLStreamReader reader, final String srsName, final int dimension) throws XMLStreamException {
+        LinearRing shell = null;
+        final List<LinearRing> holes = new ArrayList<>();
+        while (nextChild(reader)) {
+            final String name = reader.getLocalName();
+            final boolean exterior = "exterior".equals(name) || "outerBoundaryIs".equals(name);
+            if (!exterior && !"interior".equals(name) && !"innerBoundaryIs".equals(name)) {
+                skip(reader);
+                continue;
+            }
+            while (nextChild(reader)) {
+                final Geometry ring = readGeometry(reader, srsName, dimension);
+                if (!(ring instanceof LinearRing)) {
+                    throw new XMLStreamException("Cannot create a polygon, because its " + name + " is not a ring", reader.getLocation());
+                }
+                if (exterior) shell = (LinearRing) ring;
+                else holes.add((LinearRing) ring);
+            }
+        }
+        if (shell == null) {
+            return GF.createPolygon();
+        }
+        return GF.createPolygon(shell, holes.toArray(new LinearRing[holes.size()]));
+    }
+
+    /**
+     * Read polygon patches of a surface.
+     */
+    private Polygon[] readSurface(final XMLStreamReader reader, final String srsName, final int dimension) throws XMLStreamException {
+        final List<Polygon> polygons = new ArrayList<>();
+        while (nextChild(reader)) {
+            if (!"patches".equals(reader.getLocalName())) {
+                skip(reader);
+                continue;
+            }
+            while (nextChild(reader)) {
+                if (!"PolygonPatch".equals(reader.getLocalName())) {
+                    throw new XMLStreamException("Only polygon patches are currently supported for surface types. Found: " + reader.getLocalName(), reader.getLocation());
+                }
+                final Polygon polygon = readPolygon(reader, srsName, dimension);
+                if (srsName != null) {
+                    JTS.setCRS(polygon, getCRS(srsName));
+                }
+                polygons.add(polygon);
+            }
+        }
+        return polygons.toArray(new Polygon[polygons.size()]);
+    }
+
+    /**
+     * Concatenate curve members, removing duplicated junction points, and close the ring.
+     */
+    private LinearRing readRing(final XMLStreamReader reader, final String srsName, final int dimension) throws XMLStreamException {
+        final Ordinates values = ordinates;
+        final int start = values.size;
+        int dim = 0;
+        while (nextChild(reader)) {
+            if (!"curveMember".equals(reader.getLocalName())) {
+                skip(reader);
+                continue;
+            }
+            while (nextChild(reader)) {
+                final Geometry curve = readGeometry(reader, srsName, dimension);
+                for (int i = 0, n = curve.getNumGeometries(); i < n; i++) {
+                    final CoordinateSequence cs = ((LineString) curve.getGeometryN(i)).getCoordinateSequence();
+                    if (dim == 0) dim = dimension(cs);
+                    values.append(cs, dim, start, true);
+                }
+            }
+        }
+        if (dim == 0) dim = 2;
+        final int n = values.size - start;
+        if (n > dim && (values.data[start] != values.data[values.size - dim]
+                     || values.data[start + 1] != values.data[values.size - dim + 1])) {
+            for (int i = 0; i < dim; i++) {
+                values.add(values.data[start + i]);
+            }
+        }
+        return GF.createLinearRing(toSequence(start, dim, reader));
+    }
+
+    /**
+     * Concatenate curve segments, non linear segments are decoded with JAXB.
+     */
+    private LineString readCurve(final XMLStreamReader reader, final String srsName, final int dimension) throws XMLStreamException {
+        final Ordinates values = ordinates;
+        final int start = values.size;
+        int dim = dimension;
+        while (nextChild(reader)) {
+            if (!"segments".equals(reader.getLocalName())) {
+                skip(reader);
+                continue;
+            }
+            while (nextChild(reader)) {
+                if ("LineStringSegment".equals(reader.getLocalName())) {
+                    dim = appendPositions(reader, dimension(reader, dim));
+                } else {
+                    final LineString segment = unmarshalSegment(reader, srsName, dim);
+                    final CoordinateSequence cs = segment.getCoordinateSequence();
+                    if (dim == 0) dim = dimension(cs);
+                    values.append(cs, dim, start, false);
+                }
+            }
+        }
+        return GF.createLineString(toSequence(start, (dim == 0) ? 2 : dim, reader));
+    }
+
+    /**
+     * Read positions of current element and build a packed coordinate sequence.
+     */
+    private CoordinateSequence readPositions(final XMLStreamReader reader, final int dimension) throws XMLStreamException {
+        final int start = ordinates.size;
+        final int dim = appendPositions(reader, dimension);
+        return toSequence(start, dim, reader);
+    }
+
+    /**
+     * Parse positions of current element children into {@link #ordinates}.
+     *
+     * @return dimension of parsed positions.
+     */
+    private int appendPositions(final XMLStreamReader reader, int dimension) throws XMLStreamException {
+        final Ordinates values = ordinates;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "posList" : {
+                    dimension = dimension(reader, dimension);
+                    values.begin(' ', '\0', '.');
+                    readText(reader);
+                    break;
+                }
+                case "pos" : {
+                    final int d = dimension(reader, dimension);
+                    final int before = values.size;
+                    values.begin(' ', '\0', '.');
+                    readText(reader);
+                    dimension = (d > 0) ? d : values.size - before;
+                    break;
+                }
+                case "coordinates" : {
+                    values.begin(attribute(reader, "cs", ','), attribute(reader, "ts", ' '), attribute(reader, "decimal", '.'));
+                    readText(reader);
+                    if (values.tupleSize > 1) {
+                        dimension = values.tupleSize;
+                    }
+                    break;
+                }
+                case "pointProperty" :
+                case "pointRep" : {
+                    while (nextChild(reader)) {
+                        if ("Point".equals(reader.getLocalName())) {
+                            dimension = appendPositions(reader, dimension(reader, dimension));
+                        } else {
+                            skip(reader);
+                        }
+                    }
+                    break;
+                }
+                default : skip(reader);
+            }
+        }
+        return (dimension > 0) ? dimension : 2;
+    }
+
+    /**
+     * Parse character data of current element until its end element.
+     */
+    private void readText(final XMLStreamReader reader) throws XMLStreamException {
+        for (;;) {
+            switch (reader.next()) {
+                case CHARACTERS :
+                case CDATA :
+                case SPACE : {
+                    ordinates.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                }
+                case END_ELEMENT : {
+                    ordinates.flush();
+                    return;
+                }
+                case START_ELEMENT : throw new XMLStreamException("Unexpected element in coordinates : " + reader.getLocalName(), reader.getLocation());
+                case END_DOCUMENT : throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+                default : break;
+            }
+        }
+    }
+
+    /**
+     * Build a coordinate sequence from ordinates parsed after {@code start}, then release them.
+     */
+    private CoordinateSequence toSequence(final int start, final int dimension, final XMLStreamReader reader) throws XMLStreamException {
+        final Ordinates values = ordinates;
+        if (dimension != 2 && dimension != 3) {
+            throw new XMLStreamException("Only 2D and 3D positions accepted, but received dimension: " + dimension, reader.getLocation());
+        }
+        final int n = values.size - start;
+        if (n % dimension != 0) {
+            throw new XMLStreamException("Number of ordinates " + n + " is not a multiple of dimension " + dimension, reader.getLocation());
+        }
+        final double[] packed = Arrays.copyOfRange(values.data, start, values.size);
+        values.size = start;
+        return new PackedCoordinateSequence.Double(packed, dimension, 0);
+    }
+
+    private static int dimension(final CoordinateSequence cs) {
+        if (cs instanceof PackedCoordinateSequence) {
+            return cs.getDimension();
+        }
+        return (cs.size() > 0 && !Double.isNaN(cs.getOrdinate(0, CoordinateSequence.Z))) ? 3 : 2;
+    }
+
+    private static int dimension(final XMLStreamReader reader, final int inherited) throws XMLStreamException {
+        final String value = reader.getAttributeValue(null, "srsDimension");
+        if (value == null || value.isEmpty()) {
+            return inherited;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new XMLStreamException("Invalid srsDimension : " + value, reader.getLocation(), ex);
+        }
+    }
+
+    private static char attribute(final XMLStreamReader reader, final String name, final char defaultValue) {
+        final String value = reader.getAttributeValue(null, name);
+        return (value == null || value.isEmpty()) ? defaultValue : value.charAt(0);
+    }
+
+    private CoordinateReferenceSystem getCRS(final String srsName) {
+        if (!srsName.equals(lastSrsName)) {
+            lastCrs = GeometryTransformer.getCRS(srsName, longitudeFirst);
+            lastSrsName = srsName;
+        }
+        return lastCrs;
+    }
+
+    /**
+     * Move to the next child start element, or to the end element of current element.
+     *
+     * @return true if positioned on a child start element.
+     */
+    private boolean nextChild(final XMLStreamReader reader) throws XMLStreamException {
+        int event;
+        if (pending) {
+            pending = false;
+            event = reader.getEventType();
+        } else {
+            event = reader.next();
+        }
+        for (;;) {
+            switch (event) {
+                case START_ELEMENT : return true;
+                case END_ELEMENT   : return false;
+                case END_DOCUMENT  : throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+                default : event = reader.next();
+            }
+        }
+    }
+
+    /**
+     * Skip current element, leaving the reader on its end element.
+     */
+    private void skip(final XMLStreamReader reader) throws XMLStreamException {
+        while (nextChild(reader)) {
+            skip(reader);
+        }
+    }
+
+    /**
+     * Decode a non linear curve segment with JAXB.
+     */
+    private LineString unmarshalSegment(final XMLStreamReader reader, final String srsName, final int dimension) throws XMLStreamException {
+        final Object segment = unmarshalValue(reader);
+        pending = true;
+        final AbstractGeometry curve;
+        if (segment instanceof org.geotoolkit.gml.xml.v321.AbstractCurveSegmentType) {
+            final org.geotoolkit.gml.xml.v321.CurveType c = new org.geotoolkit.gml.xml.v321.CurveType();
+            c.setSegments(new org.geotoolkit.gml.xml.v321.CurveSegmentArrayPropertyType(
+                    Collections.singletonList((org.geotoolkit.gml.xml.v321.AbstractCurveSegmentType) segment)));
+            c.setSrsName(srsName);
+            c.setSrsDimension(dimension > 0 ? dimension : null);
+            curve = c;
+        } else if (segment instanceof org.geotoolkit.gml.xml.v311.AbstractCurveSegmentType) {
+            final org.geotoolkit.gml.xml.v311.CurveType c = new org.geotoolkit.gml.xml.v311.CurveType(
+                    Collections.singletonList((org.geotoolkit.gml.xml.v311.AbstractCurveSegmentType) segment));
+            c.setSrsName(srsName);
+            c.setSrsDimension(dimension > 0 ? dimension : null);
+            curve = c;
+        } else {
+            throw new XMLStreamException("Unsupported curve segment : " + segment, reader.getLocation());
+        }
+        final Geometry line = toJTS(curve, false);
+        if (!(line instanceof LineString)) {
+            throw new XMLStreamException("Unsupported curve segment : " + segment, reader.getLocation());
+        }
+        return (LineString) line;
+    }
+
+    /**
+     * Decode current element with JAXB, the reader is left positioned after its end element.
+     */
+    private Geometry unmarshal(final XMLStreamReader reader, final boolean forceMultiPolygon) throws XMLStreamException {
+        final Object geometry = unmarshalValue(reader);
+        final Geometry jtsGeom;
+        if (geometry instanceof JTSGeometry) {
+            final JTSGeometry isoGeom = (JTSGeometry) geometry;
+            if (isoGeom instanceof JTSMultiCurve) {
+                ((JTSMultiCurve)isoGeom).applyCRSonChild();
+            }
+            jtsGeom = isoGeom.getJTSGeometry();
+        } else if (geometry instanceof PolygonType) {
+            final PolygonType polygon = ((PolygonType)geometry);
+            jtsGeom = polygon.getJTSPolygon().getJTSGeometry();
+            if (polygon.getCoordinateReferenceSystem() != null) {
+                JTS.setCRS(jtsGeom, polygon.getCoordinateReferenceSystem());
+            }
+        } else if (geometry instanceof LineStringPosListType) {
+            final JTSLineString line = ((LineStringPosListType)geometry).getJTSLineString();
+            jtsGeom = line.getJTSGeometry();
+            if (line.getCoordinateReferenceSystem() != null) {
+                JTS.setCRS(jtsGeom, line.getCoordinateReferenceSystem());
+            }
+        } else if (geometry instanceof AbstractGeometry) {
+            jtsGeom = toJTS((AbstractGeometry) geometry, forceMultiPolygon);
+        } else {
+            throw new IllegalArgumentException("unexpected geometry type:" + geometry);
+        }
+        return jtsGeom;
+    }
+
+    private Geometry toJTS(final AbstractGeometry geometry, final boolean forceMultiPolygon) throws XMLStreamException {
+        try {
+            return GeometrytoJTS.toJTS(geometry, longitudeFirst, forceMultiPolygon);
+        } catch (FactoryException ex) {
+            throw new XMLStreamException("Factory Exception while transforming GML object to JTS", ex);
+        }
+    }
+
+    private Object unmarshalValue(final XMLStreamReader reader) throws XMLStreamException {
+        try {
+            final Unmarshaller unmarshaller = pool.acquireUnmarshaller();
+            final Object value = unmarshaller.unmarshal(reader);
+            pool.recycle(unmarshaller);
+            return (value instanceof JAXBElement) ? ((JAXBElement) value).getValue() : value;
+        } catch (JAXBException ex) {
+            String msg = ex.getMessage();
+            if (msg == null && ex.getLinkedException() != null) {
+                msg = ex.getLinkedException().getMessage();
+            }
+            throw new IllegalArgumentException("JAXB exception while reading the feature geometry: " + msg, ex);
+        }
+    }
+
+    /**
+     * Parse a list of decimal values separated by commas or white spaces.
+     *
+     * @param text values to parse.
+     * @return parsed values, never null.
+     * @throws NumberFormatException if a value can not be parsed.
+     */
+    public static double[] parseDoubles(final CharSequence text) {
+        final Ordinates values = new Ordinates();
+        values.begin(',', '\0', '.');
+        final char[] chars = new char[Math.min(text.length(), 8192)];
+        for (int i = 0, n = text.length(); i < n; i += chars.length) {
+            final int length = Math.min(chars.length, n - i);
+            if (text instanceof String) {
+                ((String) text).getChars(i, i + length, chars, 0);
+            } else {
+                for (int j = 0; j < length; j++) chars[j] = text.charAt(i + j);
+            }
+            values.append(chars, 0, length);
+        }
+        values.flush();
+        return Arrays.copyOf(values.data, values.size);
+    }
+
+    /**
+     * Parse a decimal value, as defined by {@code xsd:double}, without creating a {@link String}
+     * when the value has at most 15 significant digits and a small exponent.
+     *
+     * @param chars characters holding the value.
+     * @param offset index of the first character.
+     * @param length number of characters.
+     * @param decimal decimal separator, usually {@code '.'}.
+     * @return parsed value.
+     * @throws NumberFormatException if the value can not be parsed.
+     */
+    public static double parseDouble(final char[] chars, final int offset, final int length, final char decimal) {
+        final int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i++] == '-';
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        for (; i < end; i++) {
+            final int d = chars[i] - '0';
+            if (d < 0 || d > 9) break;
+            any = true;
+            mantissa = mantissa * 10 + d;
+            if (mantissa != 0 && ++digits > 15) return parseSlow(chars, offset, length, decimal);
+        }
+        if (i < end && chars[i] == decimal) {
+            for (i++; i < end; i++) {
+                final int d = chars[i] - '0';
+                if (d < 0 || d > 9) break;
+                any = true;
+                mantissa = mantissa * 10 + d;
+                exponent--;
+                if (mantissa != 0 && ++digits > 15) return parseSlow(chars, offset, length, decimal);
+            }
+        }
+        if (any && i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i++] == '-';
+            }
+            int e = 0;
+            boolean anyExponent = false;
+            for (; i < end; i++) {
+                final int d = chars[i] - '0';
+                if (d < 0 || d > 9) break;
+                anyExponent = true;
+                if (e < 10000) e = e * 10 + d;
+            }
+            if (!anyExponent) return parseSlow(chars, offset, length, decimal);
+            exponent += negativeExponent ? -e : e;
+        }
+        if (!any || i != end) {
+            return parseSlow(chars, offset, length, decimal);
+        }
+        double value = mantissa;
+        if (mantissa != 0 && exponent != 0) {
+            if (exponent > 0 && exponent < POW10.length) {
+                value *= POW10[exponent];
+            } else if (exponent < 0 && -exponent < POW10.length) {
+                value /= POW10[-exponent];
+            } else {
+                return parseSlow(chars, offset, length, decimal);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(final char[] chars, final int offset, final int length, final char decimal) {
+        String text = new String(chars, offset, length);
+        if (decimal != '.') {
+            text = text.replace(decimal, '.');
+        }
+        switch (text) {
+            case "INF"  :
+            case "+INF" : return Double.POSITIVE_INFINITY;
+            case "-INF" : return Double.NEGATIVE_INFINITY;
+            default     : return Double.parseDouble(text);
+        }
+    }
+
+    /**
+     * Growable array of parsed ordinates, accepting character data split in several chunks.
+     */
+    private static final class Ordinates {
+
+        double[] data = new double[256];
+        int size;
+
+        /**
+         * Number of values in the first tuple, or 0 if no tuple separator was found.
+         */
+        int tupleSize;
+
+        private char[] token = new char[32];
+        private int length;
+        private char cs, ts, decimal;
+        private int start;
+        private boolean afterCs;
+
+        /**
+         * Prepare parsing of a new element content.
+         *
+         * @param cs separator between values of a tuple, white spaces are always separators.
+         * @param ts separator between tuples, or {@code '\0'} if positions are not grouped.
+         * @param decimal decimal separator.
+         */
+        void begin(final char cs, final char ts, final char decimal) {
+            this.cs = cs;
+            this.ts = ts;
+            this.decimal = decimal;
+            start = size;
+            tupleSize = 0;
+            length = 0;
+            afterCs = false;
+        }
+
+        void append(final char[] chars, final int offset, final int count) {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                final char c = chars[i];
+                if (c == cs) {
+                    flush();
+                    afterCs = true;
+                } else if (c <= ' ' || c == ts) {
+                    flush();
+                    if (ts != '\0' && tupleSize == 0 && !afterCs && size > start
+                            && (c == ts || Character.isWhitespace(ts))) {
+                        tupleSize = size - start;
+                    }
+                } else {
+                    if (length == token.length) {
+                        token = Arrays.copyOf(token, length * 2);
+                    }
+                    token[length++] = c;
+                    afterCs = false;
+                }
+            }
+        }
+
+        void flush() {
+            if (length > 0) {
+                add(parseDouble(token, 0, length, decimal));
+                length = 0;
+            }
+        }
+
+        void add(final double value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        /**
+         * Append coordinates of given sequence with given dimension.
+         *
+         * @param start index where current geometry ordinates begin.
+         * @param skipDuplicate true to skip the first coordinate if equals to the last appended one.
+         */
+        void append(final CoordinateSequence cs, final int dimension, final int start, final boolean skipDuplicate) {
+            int first = 0;
+            if (skipDuplicate && size - start >= dimension && cs.size() > 0
+                    && data[size - dimension] == cs.getOrdinate(0, 0)
+                    && data[size - dimension + 1] == cs.getOrdinate(0, 1)) {
+                first = 1;
+            }
+            for (int i = first, n = cs.size(); i < n; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    add(cs.getOrdinate(i, j));
+                }
+            }
+        }
+    }
+}
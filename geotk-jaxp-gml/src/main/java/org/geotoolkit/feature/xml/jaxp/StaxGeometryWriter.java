@@ -0,0 +1,382 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.feature.xml.jaxp;
+
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.sis.referencing.IdentifiedObjects;
+import org.geotoolkit.geometry.jts.JTS;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
+
+/**
+ * Write JTS geometries as GML 3.1.1 or 3.2.1 directly in a StAX stream.
+ * <p>
+ * The produced elements follow the structure of the JAXB marshalling of {@link org.geotoolkit.gml.JTStoGeometry}
+ * results, but coordinates are formatted from the {@link CoordinateSequence} into a reused character buffer,
+ * without building the GML object model.
+ * </p>
+ * <p>
+ * Instances are not thread safe, they keep a reusable buffer.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public final class StaxGeometryWriter {
+
+    /**
+     * Exact powers of ten, used for rounding to a fixed number of fraction digits.
+     */
+    private static final double[] POW10 = new double[16];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i-1] * 10;
+        }
+    }
+
+    /**
+     * Values above this limit are not rounded by the fast path, their integer part would lose precision.
+     */
+    private static final double MAX_SCALED = 1E15;
+
+    private final String gmlVersion;
+    private final String gmlNamespace;
+    private final boolean gml32;
+    private final int fractionDigits;
+
+    private final char[] buffer = new char[4096];
+    private int length;
+
+    private CoordinateReferenceSystem lastCrs;
+    private String lastSrsName;
+
+    private String idPrefix;
+    private int idIndex;
+    private boolean declareNamespace;
+
+    /**
+     * @param gmlVersion "3.1.1" or "3.2.1".
+     * @param fractionDigits maximum number of fraction digits written for each ordinate,
+     *        or a negative value for the shortest representation which can be parsed back to the same value.
+     */
+    public StaxGeometryWriter(final String gmlVersion, final int fractionDigits) {
+        if ("3.2.1".equals(gmlVersion)) {
+            gmlNamespace = "http://www.opengis.net/gml/3.2";
+            gml32 = true;
+        } else if ("3.1.1".equals(gmlVersion)) {
+            gmlNamespace = "http://www.opengis.net/gml";
+            gml32 = false;
+        } else {
+            throw new IllegalArgumentException("Unexpected GML version:" + gmlVersion);
+        }
+        if (fractionDigits >= POW10.length) {
+            throw new IllegalArgumentException("Fraction digits must be lower than " + POW10.length + ", found " + fractionDigits);
+        }
+        this.gmlVersion = gmlVersion;
+        this.fractionDigits = fractionDigits;
+    }
+
+    public String getGmlVersion() {
+        return gmlVersion;
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    /**
+     * Write given geometry.
+     *
+     * @param writer output stream.
+     * @param geometry geometry to write.
+     * @param crs geometry coordinate reference system, if null the one declared on the geometry is used.
+     * @param idPrefix prefix of generated gml:id attributes, ignored for GML 3.1.1.
+     *        Identifiers found in the geometry user data are preserved.
+     * @param idIndex index of the first generated identifier.
+     * @return index of the next identifier to generate.
+     */
+    public int write(final XMLStreamWriter writer, final Geometry geometry, CoordinateReferenceSystem crs,
+            final String idPrefix, final int idIndex) throws XMLStreamException {
+        if (crs == null) {
+            try {
+                crs = JTS.findCoordinateReferenceSystem(geometry);
+            } catch (FactoryException ex) {
+                throw new XMLStreamException("Cannot read the geometry coordinate reference system", ex);
+            }
+        }
+        this.idPrefix = gml32 ? idPrefix : null;
+        this.idIndex = idIndex;
+        final String srsName = getSrsName(crs);
+        final int dimension = (crs != null) ? crs.getCoordinateSystem().getDimension() : dimension(geometry);
+
+        String prefix = writer.getPrefix(gmlNamespace);
+        declareNamespace = (prefix == null || !gmlNamespace.equals(writer.getNamespaceContext().getNamespaceURI(prefix)));
+        if (declareNamespace) prefix = "gml";
+        writeGeometry(writer, prefix, geometry, srsName, dimension, true);
+        return this.idIndex;
+    }
+
+    /**
+     * Write a geometry element, srsName and srsDimension are written only on the root element.
+     */
+    private void writeGeometry(final XMLStreamWriter writer, final String prefix, final Geometry geometry,
+            final String srsName, final int dimension, final boolean root) throws XMLStreamException {
+        if (geometry instanceof Point) {
+            startGeometry(writer, prefix, "Point", geometry, srsName, dimension, root);
+            if (!geometry.isEmpty()) {
+                writer.writeStartElement(prefix, "pos", gmlNamespace);
+                writeCoordinates(writer, ((Point) geometry).getCoordinateSequence(), dimension);
+                writer.writeEndElement();
+            }
+        } else if (geometry instanceof LinearRing) {
+            startGeometry(writer, prefix, "LinearRing", geometry, srsName, dimension, root);
+            writePosList(writer, prefix, ((LinearRing) geometry).getCoordinateSequence(), dimension);
+        } else if (geometry instanceof LineString) {
+            startGeometry(writer, prefix, "LineString", geometry, srsName, dimension, root);
+            writePosList(writer, prefix, ((LineString) geometry).getCoordinateSequence(), dimension);
+        } else if (geometry instanceof Polygon) {
+            final Polygon polygon = (Polygon) geometry;
+            startGeometry(writer, prefix, "Polygon", geometry, srsName, dimension, root);
+            if (!polygon.isEmpty()) {
+                writeRing(writer, prefix, "exterior", polygon.getExteriorRing(), dimension);
+                for (int i = 0, n = polygon.getNumInteriorRing(); i < n; i++) {
+                    writeRing(writer, prefix, "interior", polygon.getInteriorRingN(i), dimension);
+                }
+            }
+        } else if (geometry instanceof MultiPoint) {
+            writeCollection(writer, prefix, "MultiPoint", "pointMember", geometry, srsName, dimension, root);
+        } else if (geometry instanceof MultiLineString) {
+            if (gml32) {
+                writeCollection(writer, prefix, "MultiCurve", "curveMember", geometry, srsName, dimension, root);
+            } else {
+                writeCollection(writer, prefix, "MultiLineString", "lineStringMember", geometry, srsName, dimension, root);
+            }
+        } else if (geometry instanceof MultiPolygon) {
+            if (gml32) {
+                writeCollection(writer, prefix, "MultiSurface", "surfaceMember", geometry, srsName, dimension, root);
+            } else {
+                writeCollection(writer, prefix, "MultiPolygon", "polygonMember", geometry, srsName, dimension, root);
+            }
+        } else if (geometry instanceof GeometryCollection) {
+            writeCollection(writer, prefix, "MultiGeometry", "geometryMember", geometry, srsName, dimension, root);
+        } else {
+            throw new IllegalArgumentException("Unsupported geometry type : " + geometry);
+        }
+        writer.writeEndElement();
+    }
+
+    private void startGeometry(final XMLStreamWriter writer, final String prefix, final String localName,
+            final Geometry geometry, final String srsName, final int dimension, final boolean root) throws XMLStreamException {
+        writer.writeStartElement(prefix, localName, gmlNamespace);
+        if (declareNamespace) {
+            writer.writeNamespace(prefix, gmlNamespace);
+            declareNamespace = false;
+        }
+        if (idPrefix != null) {
+            String id = null;
+            final Object userData = geometry.getUserData();
+            if (userData instanceof Map) {
+                final Object candidate = ((Map) userData).get("@id");
+                if (candidate instanceof String && !((String) candidate).isEmpty()) {
+                    id = (String) candidate;
+                }
+            }
+            if (id == null) {
+                id = idPrefix + (idIndex++);
+            }
+            writer.writeAttribute(prefix, gmlNamespace, "id", id);
+        }
+        if (root) {
+            if (srsName != null) {
+                writer.writeAttribute("srsName", srsName);
+            }
+            writer.writeAttribute("srsDimension", Integer.toString(dimension));
+        }
+    }
+
+    private void writeCollection(final XMLStreamWriter writer, final String prefix, final String localName, final String memberName,
+            final Geometry geometry, final String srsName, final int dimension, final boolean root) throws XMLStreamException {
+        startGeometry(writer, prefix, localName, geometry, srsName, dimension, root);
+        for (int i = 0, n = geometry.getNumGeometries(); i < n; i++) {
+            writer.writeStartElement(prefix, memberName, gmlNamespace);
+            writeGeometry(writer, prefix, geometry.getGeometryN(i), srsName, dimension, false);
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeRing(final XMLStreamWriter writer, final String prefix, final String boundary,
+            final LineString ring, final int dimension) throws XMLStreamException {
+        writer.writeStartElement(prefix, boundary, gmlNamespace);
+        writer.writeStartElement(prefix, "LinearRing", gmlNamespace);
+        writePosList(writer, prefix, ring.getCoordinateSequence(), dimension);
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private void writePosList(final XMLStreamWriter writer, final String prefix,
+            final CoordinateSequence cs, final int dimension) throws XMLStreamException {
+        writer.writeStartElement(prefix, "posList", gmlNamespace);
+        writeCoordinates(writer, cs, dimension);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Format all ordinates of the sequence, separated by spaces.
+     */
+    private void writeCoordinates(final XMLStreamWriter writer, final CoordinateSequence cs, final int dimension) throws XMLStreamException {
+        final int dim = Math.min(dimension, 3);
+        length = 0;
+        for (int i = 0, n = cs.size(); i < n; i++) {
+            for (int d = 0; d < dim; d++) {
+                if (length > buffer.length - 64) {
+                    writer.writeCharacters(buffer, 0, length);
+                    length = 0;
+                }
+                if (i != 0 || d != 0) {
+                    buffer[length++] = ' ';
+                }
+                final double value = (d == 0) ? cs.getX(i) : (d == 1) ? cs.getY(i) : cs.getZ(i);
+                length = format(value, fractionDigits, buffer, length);
+            }
+        }
+        if (length > 0) {
+            writer.writeCharacters(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    private String getSrsName(final CoordinateReferenceSystem crs) throws XMLStreamException {
+        if (crs == null) {
+            return null;
+        }
+        if (crs != lastCrs) {
+            String srsName;
+            try {
+                srsName = IdentifiedObjects.lookupURN(crs, null);
+            } catch (FactoryException ex) {
+                throw new XMLStreamException("Cannot find the coordinate reference system identifier", ex);
+            }
+            if (srsName == null) {
+                srsName = IdentifiedObjects.getIdentifierOrName(crs);
+            }
+            lastSrsName = srsName;
+            lastCrs = crs;
+        }
+        return lastSrsName;
+    }
+
+    private static int dimension(final Geometry geometry) {
+        final Geometry first = (geometry.getNumGeometries() > 0) ? geometry.getGeometryN(0) : geometry;
+        if (first instanceof Point) {
+            return ((Point) first).getCoordinateSequence().hasZ() && !Double.isNaN(first.getCoordinate().getZ()) ? 3 : 2;
+        } else if (first instanceof LineString) {
+            final CoordinateSequence cs = ((LineString) first).getCoordinateSequence();
+            return cs.size() > 0 && cs.hasZ() && !Double.isNaN(cs.getZ(0)) ? 3 : 2;
+        } else if (first instanceof Polygon) {
+            return dimension(((Polygon) first).getExteriorRing());
+        }
+        return 2;
+    }
+
+    /**
+     * Format a value as a {@code xsd:double}.
+     *
+     * @param value value to format.
+     * @param fractionDigits maximum number of fraction digits, or a negative value for full precision.
+     * @return formatted value.
+     */
+    public static String format(final double value, final int fractionDigits) {
+        final char[] chars = new char[64];
+        return new String(chars, 0, format(value, fractionDigits, chars, 0));
+    }
+
+    /**
+     * Format a value in given array, which must have at least 64 free characters.
+     *
+     * @return position after the last written character.
+     */
+    private static int format(final double value, final int fractionDigits, final char[] dest, int pos) {
+        if (Double.isNaN(value)) {
+            return copy("NaN", dest, pos);
+        } else if (Double.isInfinite(value)) {
+            return copy(value > 0 ? "INF" : "-INF", dest, pos);
+        }
+        final double abs = Math.abs(value);
+        if (fractionDigits >= 0) {
+            final double scaled = abs * POW10[fractionDigits];
+            if (scaled < MAX_SCALED) {
+                final long units = Math.round(scaled);
+                final long unit  = (long) POW10[fractionDigits];
+                if (value < 0 && units != 0) {
+                    dest[pos++] = '-';
+                }
+                pos = appendLong(units / unit, dest, pos);
+                long fraction = units % unit;
+                if (fraction != 0) {
+                    dest[pos++] = '.';
+                    for (int i = pos + fractionDigits - 1; i >= pos; i--) {
+                        dest[i] = (char) ('0' + fraction % 10);
+                        fraction /= 10;
+                    }
+                    pos += fractionDigits;
+                    while (dest[pos - 1] == '0') pos--;
+                }
+                return pos;
+            }
+        } else if (abs < MAX_SCALED && value == (long) value) {
+            if (value < 0) {
+                dest[pos++] = '-';
+            }
+            pos = appendLong((long) abs, dest, pos);
+            dest[pos++] = '.';
+            dest[pos++] = '0';
+            return pos;
+        }
+        return copy(Double.toString(value), dest, pos);
+    }
+
+    private static int appendLong(long value, final char[] dest, int pos) {
+        if (value == 0) {
+            dest[pos++] = '0';
+            return pos;
+        }
+        int end = pos;
+        for (long v = value; v != 0; v /= 10) end++;
+        for (int i = end - 1; value != 0; i--) {
+            dest[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int copy(final String text, final char[] dest, final int pos) {
+        text.getChars(0, text.length(), dest, pos);
+        return pos + text.length();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.feature.xml;
+
+import java.io.StringReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.geotoolkit.feature.xml.jaxp.StaxGeometryReader;
+import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.gml.xml.GMLMarshallerPool;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compare direct decoding of GML geometries with JAXB decoding.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class StaxGeometryReaderTest {
+
+    private static final String GML32 = "xmlns:gml=\"http://www.opengis.net/gml/3.2\"";
+    private static final String GML31 = "xmlns:gml=\"http://www.opengis.net/gml\"";
+
+    private final XMLInputFactory factory = XMLInputFactory.newInstance();
+    private final StaxGeometryReader direct = new StaxGeometryReader(GMLMarshallerPool.getInstance(), true, true);
+    private final StaxGeometryReader jaxb   = new StaxGeometryReader(GMLMarshallerPool.getInstance(), true, false);
+
+    @Test
+    public void pointTest() throws XMLStreamException {
+        final Geometry geom = compare("<gml:Point " + GML32 + " gml:id=\"p1\" srsName=\"EPSG:4326\"><gml:pos>2.5 -1E2</gml:pos></gml:Point>");
+        assertTrue(geom instanceof Point);
+        assertEquals(2.5, geom.getCoordinate().x, 0);
+        assertEquals(-100, geom.getCoordinate().y, 0);
+        assertNotNull(JTS.findCoordinateReferenceSystem(geom));
+    }
+
+    @Test
+    public void lineStringTest() throws XMLStreamException {
+        compare("<gml:LineString " + GML32 + " gml:id=\"l1\" srsName=\"EPSG:4326\"><gml:posList srsDimension=\"2\">"
+                + "0 0\n 10.125 0.000001 20 -3.5e-3   7 8</gml:posList></gml:LineString>");
+        final Geometry geom = compare("<gml:LineString " + GML32 + " gml:id=\"l2\" srsName=\"EPSG:4979\" srsDimension=\"3\"><gml:posList>"
+                + "1 2 3 4 5 6</gml:posList></gml:LineString>");
+        assertEquals(6, geom.getCoordinates()[1].getZ(), 0);
+    }
+
+    @Test
+    public void coordinatesTest() throws XMLStreamException {
+        final Geometry geom = compare("<gml:LineString " + GML31 + " srsName=\"EPSG:4326\"><gml:coordinates>"
+                + "1,2 3,4 5.5,6</gml:coordinates></gml:LineString>");
+        assertEquals(3, geom.getNumPoints());
+        assertEquals(5.5, geom.getCoordinates()[2].x, 0);
+    }
+
+    @Test
+    public void polygonTest() throws XMLStreamException {
+        compare("<gml:Polygon " + GML32 + " gml:id=\"pl1\" srsName=\"EPSG:3857\">"
+                + "<gml:exterior><gml:LinearRing><gml:posList>0 0 10 0 10 10 0 10 0 0</gml:posList></gml:LinearRing></gml:exterior>"
+                + "<gml:interior><gml:LinearRing><gml:posList>2 2 3 2 3 3 2 2</gml:posList></gml:LinearRing></gml:interior>"
+                + "<gml:interior><gml:LinearRing><gml:posList>5 5 6 5 6 6 5 5</gml:posList></gml:LinearRing></gml:interior>"
+                + "</gml:Polygon>");
+        final Geometry geom = read(direct, "<gml:Polygon " + GML32 + " gml:id=\"pl2\">"
+                + "<gml:exterior><gml:LinearRing><gml:posList>0 0 1 0 1 1 0 0</gml:posList></gml:LinearRing></gml:exterior>"
+                + "</gml:Polygon>", true);
+        assertTrue(geom instanceof MultiPolygon);
+    }
+
+    @Test
+    public void multiSurfaceTest() throws XMLStreamException {
+        compare("<gml:MultiSurface " + GML32 + " gml:id=\"ms1\" srsName=\"EPSG:4326\">"
+                + "<gml:surfaceMember><gml:Polygon gml:id=\"pl3\"><gml:exterior><gml:LinearRing>"
+                + "<gml:posList>0 0 10 0 10 10 0 0</gml:posList></gml:LinearRing></gml:exterior></gml:Polygon></gml:surfaceMember>"
+                + "<gml:surfaceMember><gml:Polygon gml:id=\"pl4\"><gml:exterior><gml:LinearRing>"
+                + "<gml:posList>20 20 30 20 30 30 20 20</gml:posList></gml:LinearRing></gml:exterior></gml:Polygon></gml:surfaceMember>"
+                + "</gml:MultiSurface>");
+    }
+
+    @Test
+    public void curveTest() throws XMLStreamException {
+        compare("<gml:Curve " + GML32 + " gml:id=\"c1\" srsName=\"EPSG:4326\"><gml:segments>"
+                + "<gml:LineStringSegment><gml:posList>0 0 1 1 2 0</gml:posList></gml:LineStringSegment>"
+                + "</gml:segments></gml:Curve>");
+    }
+
+    @Test
+    public void parseDoubleTest() {
+        final String[] values = {"0", "-0", "1", "+1.5", "3.141592653589793", "1.7976931348623157E308",
+                "4.9E-324", "123456789012345678", "0.1", "1e22", "1e23", ".5", "5.", "-2.5E-3", "INF", "-INF", "NaN"};
+        for (String value : values) {
+            final double expected = "INF".equals(value) ? Double.POSITIVE_INFINITY
+                                  : "-INF".equals(value) ? Double.NEGATIVE_INFINITY : Double.parseDouble(value);
+            final char[] chars = (" " + value + " ").toCharArray();
+            assertEquals(value, Double.doubleToLongBits(expected),
+                    Double.doubleToLongBits(StaxGeometryReader.parseDouble(chars, 1, value.length(), '.')));
+        }
+        assertArrayEquals(new double[]{1, 2.5, -3, 4}, StaxGeometryReader.parseDoubles(" 1, 2.5,-3\n4 "), 0);
+        try {
+            StaxGeometryReader.parseDouble("1.2.3".toCharArray(), 0, 5, '.');
+            fail("Invalid number should not be parsed");
+        } catch (NumberFormatException ex) {
+            //ok
+        }
+    }
+
+    /**
+     * Decode given geometry with both readers and check results are identical.
+     */
+    private Geometry compare(final String xml) throws XMLStreamException {
+        final Geometry expected = read(jaxb, xml, false);
+        final Geometry geom = read(direct, xml, false);
+        assertEquals(expected.getClass(), geom.getClass());
+        assertTrue(geom + " != " + expected, expected.equalsExact(geom));
+        assertEquals(JTS.findCoordinateReferenceSystem(expected), JTS.findCoordinateReferenceSystem(geom));
+        return geom;
+    }
+
+    private Geometry read(final StaxGeometryReader geometryReader, final String xml, final boolean forceMultiPolygon) throws XMLStreamException {
+        final XMLStreamReader reader = factory.createXMLStreamReader(new StringReader("<root>" + xml + "<next/></root>"));
+        try {
+            reader.nextTag();
+            reader.nextTag();
+            final Geometry geom = geometryReader.read(reader, forceMultiPolygon);
+            //-- both readers must leave the stream after the geometry end --//
+            while (!reader.isStartElement()) reader.next();
+            assertEquals("next", reader.getLocalName());
+            return geom;
+        } finally {
+            reader.close();
+        }
+    }
+}
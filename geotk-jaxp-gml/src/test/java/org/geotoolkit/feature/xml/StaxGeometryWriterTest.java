@@ -0,0 +1,132 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.feature.xml;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.sis.referencing.CommonCRS;
+import org.geotoolkit.feature.xml.jaxp.StaxGeometryReader;
+import org.geotoolkit.feature.xml.jaxp.StaxGeometryWriter;
+import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.gml.xml.GMLMarshallerPool;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test direct writing of JTS geometries, results are read back with JAXB.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class StaxGeometryWriterTest {
+
+    private static final GeometryFactory GF = JTS.getFactory();
+
+    private final StaxGeometryReader jaxb = new StaxGeometryReader(GMLMarshallerPool.getInstance(), true, false);
+
+    @Test
+    public void roundTripTest() throws XMLStreamException {
+        final Polygon polygon = polygon(0);
+        final Geometry[] geometries = {
+            GF.createPoint(new Coordinate(-12.5, 3E-7)),
+            GF.createLineString(new Coordinate[]{new Coordinate(0, 0), new Coordinate(1.0/3, 2), new Coordinate(1E20, -4)}),
+            polygon,
+            GF.createMultiPolygon(new Polygon[]{polygon, polygon(100)}),
+            GF.createMultiPoint(new Coordinate[]{new Coordinate(1, 2), new Coordinate(3, 4)}),
+            GF.createMultiLineString(new org.locationtech.jts.geom.LineString[]{
+                GF.createLineString(new Coordinate[]{new Coordinate(0, 0), new Coordinate(1, 1)}),
+                GF.createLineString(new Coordinate[]{new Coordinate(5, 5), new Coordinate(6, 7)})})
+        };
+        for (String version : new String[]{"3.1.1", "3.2.1"}) {
+            final StaxGeometryWriter writer = new StaxGeometryWriter(version, -1);
+            for (Geometry geometry : geometries) {
+                JTS.setCRS(geometry, CommonCRS.defaultGeographic());
+                final String xml = write(writer, geometry);
+                final Geometry result = read(xml);
+                assertTrue(version + " : " + xml, geometry.equalsExact(result));
+            }
+        }
+    }
+
+    @Test
+    public void idTest() throws XMLStreamException {
+        final StaxGeometryWriter writer = new StaxGeometryWriter("3.2.1", -1);
+        final Geometry geometry = GF.createMultiPolygon(new Polygon[]{polygon(0), polygon(100)});
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter stream = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        assertEquals(3, writer.write(stream, geometry, CommonCRS.defaultGeographic(), "f1_g", 0));
+        stream.close();
+        final String xml = out.toString();
+        assertTrue(xml, xml.contains("gml:id=\"f1_g0\"") && xml.contains("gml:id=\"f1_g2\""));
+        assertTrue(xml, xml.contains("srsDimension=\"2\""));
+    }
+
+    @Test
+    public void precisionTest() throws XMLStreamException {
+        assertEquals("1.0",     StaxGeometryWriter.format(1, -1));
+        assertEquals("-0.125",  StaxGeometryWriter.format(-0.125, -1));
+        assertEquals(Double.toString(Math.PI), StaxGeometryWriter.format(Math.PI, -1));
+        assertEquals("3.1416",  StaxGeometryWriter.format(Math.PI, 4));
+        assertEquals("-2.5",    StaxGeometryWriter.format(-2.50004, 3));
+        assertEquals("0.001",   StaxGeometryWriter.format(0.00099, 3));
+        assertEquals("0",       StaxGeometryWriter.format(-0.0001, 2));
+        assertEquals("12",      StaxGeometryWriter.format(11.6, 0));
+        assertEquals("1.0E20",  StaxGeometryWriter.format(1E20, 2));
+        assertEquals("INF",     StaxGeometryWriter.format(Double.POSITIVE_INFINITY, 2));
+        assertEquals("NaN",     StaxGeometryWriter.format(Double.NaN, -1));
+
+        final Geometry line = GF.createLineString(new Coordinate[]{new Coordinate(1.23456, 2), new Coordinate(-0.00049, 7.77777)});
+        final String xml = write(new StaxGeometryWriter("3.2.1", 3), line);
+        assertTrue(xml, xml.contains(">1.235 2 0 7.778<"));
+    }
+
+    private static Polygon polygon(final double offset) {
+        final LinearRing shell = GF.createLinearRing(new Coordinate[]{new Coordinate(offset, 0),
+            new Coordinate(offset + 10, 0), new Coordinate(offset + 10, 10), new Coordinate(offset, 0)});
+        final LinearRing hole = GF.createLinearRing(new Coordinate[]{new Coordinate(offset + 6, 2),
+            new Coordinate(offset + 8, 2), new Coordinate(offset + 8, 4), new Coordinate(offset + 6, 2)});
+        return GF.createPolygon(shell, new LinearRing[]{hole});
+    }
+
+    private static String write(final StaxGeometryWriter writer, final Geometry geometry) throws XMLStreamException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter stream = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        writer.write(stream, geometry, null, "g", 0);
+        stream.close();
+        return out.toString();
+    }
+
+    private Geometry read(final String xml) throws XMLStreamException {
+        final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        try {
+            reader.nextTag();
+            return jaxb.read(reader, false);
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -209,6 +209,22 @@ public class XmlFeatureTest {
         DomCompare.compare(expResult, result);
     }
 
+    @Test
+    public void testWriteSimpleFeatureDirectGeometry() throws JAXBException, IOException, XMLStreamException,
+            DataStoreException {
+        final File temp = File.createTempFile("gml", ".xml");
+        temp.deleteOnExit();
+        final JAXPStreamFeatureWriter writer = new JAXPStreamFeatureWriter();
+        writer.getProperties().put(JAXPStreamFeatureWriter.DIRECT_GEOMETRY_ENCODING, true);
+        writer.write(simpleFeatureFull, temp);
+        writer.dispose();
+
+        final XmlFeatureReader reader = new JAXPStreamFeatureReader(simpleTypeFull);
+        final Object obj = reader.read(temp);
+        reader.dispose();
+        assertEquals(simpleFeatureFull, obj);
+    }
+
     @Test
     public void testWriteSimpleFeature321() throws JAXBException, IOException, XMLStreamException,
             DataStoreException, ParserConfigurationException, SAXException{
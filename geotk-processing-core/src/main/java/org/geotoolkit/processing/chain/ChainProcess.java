@@ -18,9 +18,18 @@ package org.geotoolkit.processing.chain;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.sis.cql.CQL;
@@ -34,17 +43,18 @@ import org.geotoolkit.filter.function.groovy.GroovyFunctionFactory;
 import org.geotoolkit.filter.function.javascript.JavaScriptFunctionFactory;
 import org.geotoolkit.process.Process;
 import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.process.ProcessEvent;
 import org.geotoolkit.process.ProcessException;
 import org.geotoolkit.process.ProcessFinder;
+import org.geotoolkit.process.ProcessListener;
 import org.geotoolkit.processing.AbstractProcess;
-import org.geotoolkit.processing.AbstractProcessDescriptor;
-import org.geotoolkit.processing.ForwardProcessListener;
 import org.geotoolkit.processing.chain.model.Chain;
 import org.geotoolkit.processing.chain.model.Constant;
 import org.geotoolkit.processing.chain.model.DataLink;
 import org.geotoolkit.processing.chain.model.Element;
 import org.geotoolkit.processing.chain.model.ElementCondition;
 import org.geotoolkit.processing.chain.model.ElementProcess;
+import org.geotoolkit.processing.chain.model.FlowLink;
 import org.opengis.filter.Filter;
 import org.opengis.filter.FilterFactory;
 import org.opengis.filter.Expression;
@@ -52,6 +62,7 @@ import org.opengis.parameter.GeneralParameterValue;
 import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.parameter.ParameterValue;
 import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.util.InternationalString;
 import org.opengis.util.NoSuchIdentifierException;
 
 /**
@@ -63,7 +74,12 @@ public class ChainProcess extends AbstractProcess {
 
     protected static final Logger LOGGER = Logger.getLogger("org.geotoolkit.processing.chain");
 
-    private Process currentProcess;
+    /**
+     * Sub processes currently running.
+     */
+    private final Set<Process> running = ConcurrentHashMap.newKeySet();
+
+    private final Object pauseLock = new Object();
 
 
     public ChainProcess(final ChainProcessDescriptor desc, final ParameterValueGroup input) {
@@ -80,19 +96,18 @@ public class ChainProcess extends AbstractProcess {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Chain elements are executed as soon as all their parents in the flow graph are completed,
+     * independent elements run concurrently on the {@linkplain ChainProcessDescriptor#getExecutor() executor}.
+     * Sub-process results are reused from the {@linkplain ChainProcessDescriptor#getResultCache() result cache}
+     * if one is defined.
+     * </p>
      */
     @Override
     protected void execute() throws ProcessException {
 
         final Chain model = getDescriptor().getModel();
-
-        // processing progress
-        final float workLoadPart = 100 / model.getElements().size();
-        float currentProgress = 0;
-        int i = 1;
-
         final Collection<FlowNode> nodes = Flow.createFlow(model);
-        List<List<FlowNode>> ranked = Flow.sortByRank(nodes);
 
         //prepare all parameters for each process step
         final Map<Integer, ParameterValueGroup> configs = new HashMap<>();
@@ -133,116 +148,356 @@ public class ChainProcess extends AbstractProcess {
             }
         }
 
-        // Will contain all the versions of processes used
-        final StringBuilder processVersion = new StringBuilder();
-
-        //run processes in order
-        for (int j = 0; j < ranked.size(); j++) {
-            final List<FlowNode> rank = ranked.get(j);
-            currentProgress = (i - 1) * workLoadPart;
+        //copy input params in children nodes
+        copyResults(model, Integer.MIN_VALUE, inputParameters, configs);
 
+        //largest number of processes which may run at the same time
+        int width = 1;
+        int nbProcess = 0;
+        for (List<FlowNode> rank : Flow.sortByRank(nodes)) {
+            int n = 0;
             for (FlowNode node : rank) {
-                final Object obj = node.getObject();
-                if (obj == ElementProcess.BEGIN) {
-                    //copy input params in children nodes
-                    for(DataLink link : model.getInputLinks(Integer.MIN_VALUE)){
-                        List<ParameterValue> values = getValues(inputParameters, link.getSourceCode());
-                        boolean first = true;
-                        for (ParameterValue paramValue : values) {
-                            if (first) {
-                                final Object value = paramValue.getValue();
-                                setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
-                                first = false;
-                            } else {
-                                final Object value = paramValue.getValue();
-                                final ParameterDescriptor desc = (ParameterDescriptor) configs.get(link.getTargetId()).getDescriptor().descriptor(link.getTargetCode());
-                                final ParameterValue newParam = new DefaultParameterValue(desc);
-                                setValue(value, newParam);
-                                configs.get(link.getTargetId()).values().add(newParam);
-                            }
-                        }
-                    }
-                } else if (obj == ElementProcess.END) {
-                    // do nothing
+                if (node != null && node.getObject() instanceof ElementProcess
+                        && node.getObject() != ElementProcess.BEGIN && node.getObject() != ElementProcess.END) {
+                    n++;
+                }
+            }
+            width = Math.max(width, n);
+            nbProcess += n;
+        }
+
+        Executor executor = getDescriptor().getExecutor();
+        ExecutorService pool = null;
+        if (executor == null) {
+            final int nbThread = Math.min(width, Runtime.getRuntime().availableProcessors());
+            if (nbThread > 1) {
+                final String name = descriptor.getIdentifier().getCode();
+                pool = Executors.newFixedThreadPool(nbThread, (Runnable r) -> {
+                    final Thread thread = new Thread(r, "Chain " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor = pool;
+            } else {
+                executor = Runnable::run;
+            }
+        }
+
+        try {
+            new Execution(model, nodes, configs, executor, 100f / Math.max(1, nbProcess)).run();
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Result of a sub-process execution.
+     */
+    private static final class Completion {
+        final FlowNode node;
+        final ParameterValueGroup result;
+        final Throwable error;
+
+        Completion(FlowNode node, ParameterValueGroup result, Throwable error) {
+            this.node = node;
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    /**
+     * State of a chain execution.
+     * All graph and configuration updates are made by the thread calling {@link #run()},
+     * sub-processes only report their results through the completion queue.
+     */
+    private final class Execution {
+
+        private final Chain model;
+        private final Map<Integer, ParameterValueGroup> configs;
+        private final Executor executor;
+        private final float workLoadPart;
+        private final ChainResultCache cache;
+
+        /** Number of parents not completed yet for each node. */
+        private final Map<FlowNode,Integer> remaining = new HashMap<>();
+        /** Nodes with at least one executed parent through an active flow link. */
+        private final Set<FlowNode> live = new HashSet<>();
+        private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+        private int inflight = 0;
+
+        /** Sum of sub-processes progress, from 0 to 1 each. */
+        private float progressSum = 0f;
+
+        private FlowNode begin;
+        private final List<FlowNode> roots = new ArrayList<>();
+
+        Execution(Chain model, Collection<FlowNode> nodes, Map<Integer, ParameterValueGroup> configs,
+                Executor executor, float workLoadPart) {
+            this.model = model;
+            this.configs = configs;
+            this.executor = executor;
+            this.workLoadPart = workLoadPart;
+            this.cache = getDescriptor().getResultCache();
+
+            for (FlowNode node : nodes) {
+                if (!(node.getObject() instanceof Element)) continue;
+                remaining.putIfAbsent(node, 0);
+                for (FlowNode child : node.getChildren()) {
+                    remaining.merge(child, 1, Integer::sum);
+                }
+                if (node.getObject() == ElementProcess.BEGIN) {
+                    begin = node;
+                }
+            }
+            for (Map.Entry<FlowNode,Integer> entry : remaining.entrySet()) {
+                if (entry.getValue() == 0 && entry.getKey() != begin) {
+                    roots.add(entry.getKey());
+                }
+            }
+        }
+
+        void run() throws ProcessException {
+            for (FlowNode root : roots) {
+                live.add(root);
+                start(root);
+            }
+            if (begin != null) {
+                completed(begin, Collections.emptySet(), true);
+            }
 
-                } else if(obj instanceof ElementProcess) {
-                    // handle process cancel
+            while (inflight > 0) {
+                final Completion completion;
+                try {
+                    completion = completions.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dismissRunning();
+                    throw new ProcessException("Interrupted while waiting for sub processes.", ChainProcess.this, ex);
+                }
+                inflight--;
+
+                if (completion.error != null) {
+                    dismissRunning();
+                    final Throwable error = completion.error;
+                    if (error instanceof ProcessException) throw (ProcessException) error;
+                    if (error instanceof RuntimeException) throw (RuntimeException) error;
+                    throw new ProcessException(error.getMessage(), ChainProcess.this, error);
+                }
+                // a dismissed sub process returns normally
+                if (isDimissed()) {
+                    dismissRunning();
                     stopIfDismissed();
-                    // handle process pause
-                    if (isPaused()) {
-                        fireProcessPaused(descriptor.getIdentifier().getCode() + " paused", currentProgress);
-                        while (isPaused()) {
-                            try {
-                                Thread.sleep(1000);
-                            } catch (InterruptedException ex) {
-                                LOGGER.log(Level.WARNING, "Interruption while process is in pause", ex);
-                            }
-                        }
-                        fireProcessResumed(descriptor.getIdentifier().getCode() + " resumed", currentProgress);
-                    }
+                }
 
-                    //execute process
-                    final ElementProcess element = (ElementProcess) obj;
-                    final ParameterValueGroup config = configs.get(element.getId());
-                    final ProcessDescriptor pdesc;
-                    try {
-                        pdesc = getProcessDescriptor(element);
-                    } catch (NoSuchIdentifierException ex) {
-                        throw new ProcessException("Sub process not found", this, ex);
-                    }
-                    currentProcess = pdesc.createProcess(config);
-                    currentProcess.addListener(new ForwardProcessListener(this, currentProgress, workLoadPart));
-                    if (currentProcess instanceof AbstractProcess) {
-                        ((AbstractProcess)currentProcess).setJobId(jobId);
-                    }
+                final ElementProcess element = (ElementProcess) completion.node.getObject();
+                copyResults(model, element.getId(), completion.result, configs);
+                completed(completion.node, Collections.emptySet(), true);
+            }
+        }
 
-                    final String processId = pdesc.getIdentifier().getCode();
-                    // Fill process version with values coming from the current process.
-                    if (processVersion.length() > 0) {
-                        processVersion.append(", ");
-                    }
-                    processVersion.append(processId).append(" ");
-                    if (currentProcess.getDescriptor() instanceof AbstractProcessDescriptor) {
-                        processVersion.append(((AbstractProcessDescriptor) currentProcess.getDescriptor()).getVersion());
+        /**
+         * Propagate the completion of a node to its children.
+         *
+         * @param executed false if the node was skipped
+         * @param inactive flow links not followed
+         */
+        private void completed(FlowNode node, Set<FlowLink> inactive, boolean executed) throws ProcessException {
+            final List<FlowNode> children = node.getChildren();
+            final List<FlowLink> links = node.getLinks();
+            for (int i = 0, n = children.size(); i < n; i++) {
+                final FlowNode child = children.get(i);
+                if (executed && !inactive.contains(links.get(i))) {
+                    live.add(child);
+                }
+                final int count = remaining.merge(child, -1, Integer::sum);
+                if (count == 0) {
+                    if (live.contains(child)) {
+                        start(child);
                     } else {
-                        processVersion.append("1.0");
+                        //all parents were skipped or their links are inactive
+                        completed(child, Collections.emptySet(), false);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Execute a node, processes are submitted to the executor,
+         * other elements are handled immediately.
+         */
+        private void start(FlowNode node) throws ProcessException {
+            final Object obj = node.getObject();
+            if (obj == ElementProcess.END) {
+                // do nothing
+
+            } else if (obj instanceof ElementProcess) {
+                // handle process cancel
+                stopIfDismissed();
+                // handle process pause
+                waitIfPaused(progressSum * workLoadPart);
+
+                final ElementProcess element = (ElementProcess) obj;
+                final ParameterValueGroup config = configs.get(element.getId());
+                final ProcessDescriptor pdesc;
+                try {
+                    pdesc = getProcessDescriptor(element);
+                } catch (NoSuchIdentifierException ex) {
+                    throw new ProcessException("Sub process not found", ChainProcess.this, ex);
+                }
+
+                final ChainResultCache.Key key = (cache != null) ? ChainResultCache.createKey(pdesc, config) : null;
+                if (key != null) {
+                    final ParameterValueGroup cached = cache.get(key);
+                    if (cached != null) {
+                        LOGGER.log(Level.FINE, "Reuse cached result of {0}", key);
+                        progress(new float[1], 1f, pdesc.getIdentifier().getCode() + " : Cached");
+                        inflight++;
+                        completions.add(new Completion(node, cached, null));
+                        return;
                     }
+                }
 
-                    final ParameterValueGroup result = currentProcess.call();
-                    //fireProgressing(pdesc.getIdentifier().getCode() + " completed", i * part, false);
-                    i++;
-
-                    //set result in children
-                    for (DataLink link : model.getInputLinks(element.getId())) {
-                        final List<ParameterValue> values = getValues(result, link.getSourceCode());
-                        boolean first = true;
-                        for (ParameterValue paramValue : values) {
-                            if (first) {
-                                final Object value = paramValue.getValue();
-                                setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
-                                first = false;
-                            } else {
-                                final Object value = paramValue.getValue();
-                                final ParameterDescriptor desc = (ParameterDescriptor) configs.get(link.getTargetId()).getDescriptor().descriptor(link.getTargetCode());
-                                final ParameterValue newParam = new DefaultParameterValue(desc);
-                                setValue(value, newParam);
-                                configs.get(link.getTargetId()).values().add(newParam);
-                            }
+                final Process process = pdesc.createProcess(config);
+                process.addListener(new SubProcessListener());
+                if (process instanceof AbstractProcess) {
+                    ((AbstractProcess) process).setJobId(jobId);
+                }
+                running.add(process);
+                inflight++;
+                executor.execute(() -> {
+                    try {
+                        final ParameterValueGroup result = process.call();
+                        if (key != null) {
+                            cache.put(key, result);
                         }
+                        completions.add(new Completion(node, result, null));
+                    } catch (Throwable ex) {
+                        completions.add(new Completion(node, null, ex));
+                    } finally {
+                        running.remove(process);
                     }
-                } else if (obj instanceof ElementCondition) {
-                    final ElementCondition condition = (ElementCondition) obj;
-                    final Boolean result = executeConditionalElement(condition, configs.get(condition.getId()));
+                });
 
-                    final Chain updateModel = new Chain(model);
-                    if (result) {
-                        updateModel.getFlowLinks().removeAll(condition.getFailed());
-                    } else {
-                        updateModel.getFlowLinks().removeAll(condition.getSuccess());
+            } else if (obj instanceof ElementCondition) {
+                final ElementCondition condition = (ElementCondition) obj;
+                final Boolean result = executeConditionalElement(condition, configs.get(condition.getId()));
+                final Set<FlowLink> inactive = new HashSet<>(result ? condition.getFailed() : condition.getSuccess());
+                completed(node, inactive, true);
+
+            } else {
+                completed(node, Collections.emptySet(), true);
+            }
+        }
+
+        /**
+         * Update the aggregated progress of the chain.
+         *
+         * @param state progress of the sub-process, from 0 to 1
+         */
+        private synchronized void progress(float[] state, float value, String message) {
+            progressSum += value - state[0];
+            state[0] = value;
+            fireProgressing(message, Math.min(100f, progressSum * workLoadPart), false);
+        }
+
+        /**
+         * Forward sub-process events as a fraction of the chain progress.
+         */
+        private final class SubProcessListener implements ProcessListener {
+
+            private final float[] state = new float[1];
+
+            @Override
+            public void started(ProcessEvent event) {
+                progress(state, 0f, getProcessName(event) + " : Start");
+            }
+
+            @Override
+            public void progressing(ProcessEvent event) {
+                final float value = event.getProgress();
+                if (!Float.isNaN(value)) {
+                    progress(state, Math.max(0f, Math.min(1f, value / 100f)),
+                            getProcessName(event) + " : " + event.getTask());
+                }
+            }
+
+            @Override
+            public void completed(ProcessEvent event) {
+                progress(state, 1f, getProcessName(event) + " : Completed");
+            }
+
+            @Override
+            public void dismissed(ProcessEvent event) {}
+
+            @Override
+            public void paused(ProcessEvent event) {}
+
+            @Override
+            public void resumed(ProcessEvent event) {}
+
+            @Override
+            public void failed(ProcessEvent event) {}
+
+            private String getProcessName(ProcessEvent event) {
+                final ProcessDescriptor desc = event.getSource().getDescriptor();
+                final InternationalString name = desc.getDisplayName();
+                return name != null ? name.toString() : desc.getIdentifier().getCode();
+            }
+        }
+    }
+
+    /**
+     * Copy the output values of an element in its children configurations.
+     */
+    private void copyResults(final Chain model, final int sourceId, final ParameterValueGroup result,
+            final Map<Integer, ParameterValueGroup> configs) {
+        for (DataLink link : model.getInputLinks(sourceId)) {
+            final List<ParameterValue> values = getValues(result, link.getSourceCode());
+            boolean first = true;
+            for (ParameterValue paramValue : values) {
+                if (first) {
+                    final Object value = paramValue.getValue();
+                    setValue(value, configs.get(link.getTargetId()).parameter(link.getTargetCode()));
+                    first = false;
+                } else {
+                    final Object value = paramValue.getValue();
+                    final ParameterDescriptor desc = (ParameterDescriptor) configs.get(link.getTargetId()).getDescriptor().descriptor(link.getTargetCode());
+                    final ParameterValue newParam = new DefaultParameterValue(desc);
+                    setValue(value, newParam);
+                    configs.get(link.getTargetId()).values().add(newParam);
+                }
+            }
+        }
+    }
+
+    /**
+     * Block until the process is resumed or dismissed.
+     */
+    private void waitIfPaused(final float currentProgress) throws ProcessException {
+        if (isPaused()) {
+            fireProcessPaused(descriptor.getIdentifier().getCode() + " paused", currentProgress);
+            synchronized (pauseLock) {
+                while (isPaused() && !isDimissed()) {
+                    try {
+                        pauseLock.wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new ProcessException("Interruption while process is in pause", this, ex);
                     }
-                    ranked = Flow.sortByRank(Flow.createFlow(updateModel));
                 }
             }
+            stopIfDismissed();
+            fireProcessResumed(descriptor.getIdentifier().getCode() + " resumed", currentProgress);
+        }
+    }
+
+    private void dismissRunning() {
+        for (Process process : running) {
+            if (process instanceof AbstractProcess) {
+                ((AbstractProcess) process).dismissProcess();
+            }
         }
     }
 
@@ -320,8 +575,17 @@ public class ChainProcess extends AbstractProcess {
     @Override
     public void dismissProcess() {
         super.dismissProcess();
-        if (currentProcess instanceof AbstractProcess) {
-            ((AbstractProcess)currentProcess).dismissProcess();
+        dismissRunning();
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void resumeProcess() {
+        super.resumeProcess();
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
         }
     }
 
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import org.apache.sis.metadata.iso.DefaultIdentifier;
 import org.apache.sis.metadata.iso.citation.DefaultCitation;
 import org.apache.sis.metadata.iso.identification.DefaultServiceIdentification;
@@ -68,6 +69,8 @@ public class ChainProcessDescriptor extends AbstractProcessDescriptor{
 
     private final Collection<? extends ProcessingRegistry> factories;
     private final Chain model;
+    private volatile Executor executor;
+    private volatile ChainResultCache resultCache;
 
     /**
      * Create a process descriptor with default registry.
@@ -105,6 +108,41 @@ public class ChainProcessDescriptor extends AbstractProcessDescriptor{
         return model;
     }
 
+    /**
+     * Executor used to run independent chain elements concurrently.
+     * If null, each execution creates a temporary thread pool sized after the
+     * largest number of independent elements and the available processors.
+     *
+     * @return executor, may be null
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor executor used to run chain elements, null for a temporary pool per execution
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Memoization cache of sub-process results, shared by all executions of this chain.
+     * Sub-processes with identical inputs are not executed again if their result is in the cache.
+     *
+     * @return result cache, null if memoization is disabled
+     */
+    public ChainResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @param resultCache result cache, null to disable memoization
+     */
+    public void setResultCache(final ChainResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     /**
      * Context in which this process is executed.
      *
@@ -0,0 +1,248 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.chain;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.processing.AbstractProcessDescriptor;
+import org.opengis.parameter.GeneralParameterValue;
+import org.opengis.parameter.ParameterValue;
+import org.opengis.parameter.ParameterValueGroup;
+
+/**
+ * Memoization cache of sub-process results for {@link ChainProcess}.
+ * <p>
+ * Results are keyed by the process identifier, the process version and a digest
+ * of the input parameters. Parameter values of simple types (numbers, strings, dates,
+ * enumerations and arrays of those) are digested by content. Local files, given as
+ * paths, files or file URIs and URLs, are digested by name, size and modification time
+ * so a rewritten file is not served a stale result. Any other value, remote URIs and URLs
+ * included, is compared by identity. Since cached results are returned as-is, the outputs
+ * of a memoized sub-process are the same instances on each run, which makes the
+ * identity comparison of downstream inputs stable too.
+ * </p>
+ * <p>
+ * The cache holds at most a fixed number of entries, the least recently used are evicted first.
+ * Cached output parameters must not be modified.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class ChainResultCache {
+
+    private final Map<Key,ParameterValueGroup> results;
+
+    /**
+     * @param maxEntries maximum number of results kept in the cache.
+     */
+    public ChainResultCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive : " + maxEntries);
+        }
+        results = new LinkedHashMap<Key,ParameterValueGroup>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key,ParameterValueGroup> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Key of a process execution.
+     * Values without a content digest are kept and compared by identity.
+     */
+    public static final class Key {
+        private final String digest;
+        private final List<Object> identities;
+
+        private Key(final String digest, final List<Object> identities) {
+            this.digest = digest;
+            this.identities = identities;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = digest.hashCode();
+            for (Object o : identities) {
+                hash = 31 * hash + System.identityHashCode(o);
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            if (!digest.equals(other.digest) || identities.size() != other.identities.size()) return false;
+            for (int i = 0, n = identities.size(); i < n; i++) {
+                if (identities.get(i) != other.identities.get(i)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return digest;
+        }
+    }
+
+    /**
+     * Compute the cache key of a process execution.
+     *
+     * @param desc process descriptor
+     * @param inputs process input parameters
+     * @return cache key
+     */
+    public static Key createKey(final ProcessDescriptor desc, final ParameterValueGroup inputs) {
+        final String version = (desc instanceof AbstractProcessDescriptor) ?
+                ((AbstractProcessDescriptor) desc).getVersion() : "1.0";
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            //should never happen, SHA-256 is mandatory on all platforms
+            throw new IllegalStateException(ex);
+        }
+        final List<Object> identities = new ArrayList<>();
+        update(digest, inputs, identities);
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(desc.getIdentifier().getCodeSpace()).append(':').append(desc.getIdentifier().getCode())
+          .append(':').append(version).append(':');
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return new Key(sb.toString(), identities);
+    }
+
+    private static void update(final MessageDigest digest, final ParameterValueGroup group, final List<Object> identities) {
+        for (GeneralParameterValue param : group.values()) {
+            digest.update(param.getDescriptor().getName().getCode().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            if (param instanceof ParameterValueGroup) {
+                digest.update((byte) '{');
+                update(digest, (ParameterValueGroup) param, identities);
+                digest.update((byte) '}');
+            } else if (param instanceof ParameterValue) {
+                digest.update(valueToString(((ParameterValue) param).getValue(), identities).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) ';');
+        }
+    }
+
+    private static String valueToString(final Object value, final List<Object> identities) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof Number || value instanceof CharSequence || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof Date
+                || value instanceof TemporalAccessor) {
+            return value.getClass().getName() + '[' + value + ']';
+        } else if (value instanceof URI || value instanceof URL || value instanceof Path || value instanceof File) {
+            final Path path = toLocalPath(value);
+            if (path == null) {
+                identities.add(value);
+                return value.getClass().getName() + "@#" + (identities.size() - 1);
+            }
+            String state;
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                state = attributes.size() + "," + attributes.lastModifiedTime().toMillis();
+            } catch (IOException ex) {
+                //file does not exist or can not be read, its creation must change the key
+                state = "unreadable";
+            }
+            return value.getClass().getName() + '[' + value + ';' + state + ']';
+        } else if (value instanceof Object[]) {
+            final StringBuilder sb = new StringBuilder("[");
+            for (Object o : (Object[]) value) {
+                sb.append(valueToString(o, identities)).append(',');
+            }
+            return sb.append(']').toString();
+        } else if (value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()) {
+            return value.getClass().getName() + Arrays.deepToString(new Object[]{value});
+        } else {
+            identities.add(value);
+            return value.getClass().getName() + "@#" + (identities.size() - 1);
+        }
+    }
+
+    /**
+     * @return path of a local file, or null for a remote resource
+     */
+    private static Path toLocalPath(final Object value) {
+        if (value instanceof Path) {
+            return (Path) value;
+        } else if (value instanceof File) {
+            return ((File) value).toPath();
+        }
+        try {
+            final URI uri = (value instanceof URL) ? ((URL) value).toURI() : (URI) value;
+            return "file".equalsIgnoreCase(uri.getScheme()) ? Paths.get(uri) : null;
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param key cache key created with {@link #createKey(ProcessDescriptor, ParameterValueGroup)}
+     * @return cached output parameters, or null if none
+     */
+    public synchronized ParameterValueGroup get(final Key key) {
+        return results.get(key);
+    }
+
+    /**
+     * @param key cache key created with {@link #createKey(ProcessDescriptor, ParameterValueGroup)}
+     * @param outputs output parameters of the process
+     */
+    public synchronized void put(final Key key, final ParameterValueGroup outputs) {
+        results.put(key, outputs);
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public synchronized void clear() {
+        results.clear();
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+}
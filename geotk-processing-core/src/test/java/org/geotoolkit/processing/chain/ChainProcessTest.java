@@ -19,6 +19,8 @@ package org.geotoolkit.processing.chain;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,12 +28,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import jakarta.xml.bind.JAXBException;
 import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.parameter.ParameterBuilder;
 import org.apache.sis.referencing.CRS;
 import org.geotoolkit.process.ProcessDescriptor;
 import org.geotoolkit.process.Process;
+import org.geotoolkit.process.ProcessEvent;
 import org.geotoolkit.process.ProcessException;
+import org.geotoolkit.processing.ProcessListenerAdapter;
 import org.geotoolkit.processing.chain.model.Chain;
 import org.geotoolkit.processing.chain.model.ElementProcess;
 import org.geotoolkit.processing.chain.model.Constant;
@@ -45,6 +52,8 @@ import org.geotoolkit.processing.chain.model.StringList;
 import org.geotoolkit.processing.chain.model.StringMap;
 import org.geotoolkit.processing.chain.model.StringMapList;
 import org.opengis.geometry.Envelope;
+import org.opengis.parameter.ParameterDescriptor;
+import org.opengis.parameter.ParameterDescriptorGroup;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.util.FactoryException;
 
@@ -152,6 +161,22 @@ public class ChainProcessTest {
         return chain;
     }
 
+    private Chain createParallelChain(){
+        //produce a chain with 4 independent processes
+        final Chain chain = new Chain("parallelChain");
+        int id = 1;
+        final Parameter a = chain.addInputParameter("a", Double.class, "title", "desc",1,1,null);
+        for (int i = 0; i < 4; i++) {
+            final Parameter r = chain.addOutputParameter("r"+i, Double.class, "title", "desc",1,1,null);
+            final ElementProcess sleep = chain.addProcessElement(id++, "demo", "sleep");
+            chain.addFlowLink(BEGIN.getId(), sleep.getId());
+            chain.addFlowLink(sleep.getId(), END.getId());
+            chain.addDataLink(BEGIN.getId(), a.getCode(), sleep.getId(), "value");
+            chain.addDataLink(sleep.getId(), "result", END.getId(), r.getCode());
+        }
+        return chain;
+    }
+
     @Test
     public void testSimpleChain() throws ProcessException{
 
@@ -307,6 +332,99 @@ public class ChainProcessTest {
 
     }
 
+    @Test
+    public void testParallelChain() throws ProcessException{
+        final ChainProcessDescriptor desc = new ChainProcessDescriptor(createParallelChain(),
+                MockProcessRegistry.IDENTIFICATION, Collections.singleton(new MockProcessRegistry()));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        desc.setExecutor(executor);
+        try {
+            MockSleepDescriptor.MAX_RUNNING.set(0);
+            final ParameterValueGroup input = desc.getInputDescriptor().createValue();
+            input.parameter("a").setValue(7d);
+
+            final List<Float> progress = new ArrayList<>();
+            final Process process = desc.createProcess(input);
+            process.addListener(new ProcessListenerAdapter() {
+                @Override
+                public void progressing(ProcessEvent event) {
+                    synchronized (progress) {
+                        progress.add(event.getProgress());
+                    }
+                }
+            });
+            final ParameterValueGroup result = process.call();
+            for (int i = 0; i < 4; i++) {
+                assertEquals(7d, result.parameter("r"+i).doubleValue(), 0.0);
+            }
+            assertTrue("independent processes should run concurrently", MockSleepDescriptor.MAX_RUNNING.get() > 1);
+            assertEquals(100f, Collections.max(progress), 0.001f);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testResultCache() throws ProcessException{
+        final ChainProcessDescriptor desc = new ChainProcessDescriptor(createParallelChain(),
+                MockProcessRegistry.IDENTIFICATION, Collections.singleton(new MockProcessRegistry()));
+        final ChainResultCache cache = new ChainResultCache(100);
+        desc.setResultCache(cache);
+
+        final int before = MockSleepDescriptor.EXECUTIONS.get();
+        ParameterValueGroup input = desc.getInputDescriptor().createValue();
+        input.parameter("a").setValue(3d);
+        ParameterValueGroup result = desc.createProcess(input).call();
+        assertEquals(3d, result.parameter("r0").doubleValue(), 0.0);
+        //all processes have the same inputs, depending on scheduling some may reuse the first result
+        final int executed = MockSleepDescriptor.EXECUTIONS.get();
+        assertTrue(executed > before && executed <= before + 4);
+        assertEquals(1, cache.size());
+
+        //same inputs, results are reused
+        input = desc.getInputDescriptor().createValue();
+        input.parameter("a").setValue(3d);
+        result = desc.createProcess(input).call();
+        assertEquals(3d, result.parameter("r3").doubleValue(), 0.0);
+        assertEquals(executed, MockSleepDescriptor.EXECUTIONS.get());
+
+        //different inputs
+        input = desc.getInputDescriptor().createValue();
+        input.parameter("a").setValue(5d);
+        result = desc.createProcess(input).call();
+        assertEquals(5d, result.parameter("r1").doubleValue(), 0.0);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testResultCacheKeyFiles() throws Exception {
+        final ParameterBuilder builder = new ParameterBuilder();
+        final ParameterDescriptor<Object> fileDesc = builder.addName("file").create(Object.class, null);
+        final ParameterDescriptorGroup inputDesc = builder.addName("in").createGroup(fileDesc);
+        final ParameterValueGroup input = inputDesc.createValue();
+
+        final File file = File.createTempFile("chain", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[]{1});
+        for (Object value : new Object[]{file, file.toPath(), file.toURI(), file.toURI().toURL()}) {
+            input.parameter("file").setValue(value);
+            final ChainResultCache.Key before = ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input);
+            assertEquals(before, ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input));
+            //rewritten file
+            Files.write(file.toPath(), new byte[]{1, 2});
+            assertNotEquals(before, ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input));
+            Files.write(file.toPath(), new byte[]{1});
+        }
+
+        //remote resources are compared by identity
+        final URI remote = new URI("http://localhost/data.tif");
+        input.parameter("file").setValue(remote);
+        final ChainResultCache.Key key = ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input);
+        assertEquals(key, ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input));
+        input.parameter("file").setValue(new URI("http://localhost/data.tif"));
+        assertNotEquals(key, ChainResultCache.createKey(MockAddDescriptor.INSTANCE, input));
+    }
+
     @Test
     public void testXmlRW() throws ProcessException, JAXBException, IOException {
 
@@ -47,7 +47,8 @@ public class MockProcessRegistry extends AbstractProcessingRegistry {
         super(MockAddDescriptor.INSTANCE,
               MockDivideDescriptor.INSTANCE,
               MockMultiplyDescriptor.INSTANCE,
-                MockEnvelopeDescriptor.INSTANCE);
+                MockEnvelopeDescriptor.INSTANCE,
+              MockSleepDescriptor.INSTANCE);
     }
 
     @Override
@@ -0,0 +1,92 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.chain;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.sis.parameter.ParameterBuilder;
+import org.geotoolkit.processing.AbstractProcess;
+import org.geotoolkit.processing.AbstractProcessDescriptor;
+import org.geotoolkit.process.Process;
+import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.process.ProcessException;
+import org.apache.sis.util.SimpleInternationalString;
+import org.opengis.parameter.ParameterDescriptor;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.parameter.ParameterValueGroup;
+
+/**
+ * Return its input after a delay, counting executions and concurrent executions.
+ */
+public class MockSleepDescriptor extends AbstractProcessDescriptor{
+
+    public static final String NAME = "sleep";
+
+    public static final AtomicInteger EXECUTIONS = new AtomicInteger();
+    public static final AtomicInteger RUNNING = new AtomicInteger();
+    public static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    public static final ParameterDescriptor<Double> VALUE = new ParameterBuilder()
+            .addName("value")
+            .setRequired(true)
+            .create(Double.class, null);
+    public static final ParameterDescriptorGroup INPUT_DESC = new ParameterBuilder()
+            .addName("InputParameters")
+            .createGroup(VALUE);
+
+    public static final ParameterDescriptor<Double> RESULT_NUMBER = new ParameterBuilder()
+            .addName("result")
+            .setRequired(true)
+            .create(Double.class, null);
+    public static final ParameterDescriptorGroup OUTPUT_DESC = new ParameterBuilder()
+            .addName("OutputParameters")
+            .createGroup(RESULT_NUMBER);
+
+    /** Instance */
+    public static final ProcessDescriptor INSTANCE = new MockSleepDescriptor();
+
+    private MockSleepDescriptor() {
+        super(NAME, MockProcessRegistry.IDENTIFICATION,
+                new SimpleInternationalString(""),INPUT_DESC, OUTPUT_DESC);
+    }
+
+    @Override
+    public Process createProcess(final ParameterValueGroup input) {
+        return new SleepProcess(this, input);
+    }
+
+    public class SleepProcess extends AbstractProcess {
+
+        public SleepProcess(final ProcessDescriptor descriptor, final ParameterValueGroup input) {
+            super(descriptor, input);
+        }
+
+        @Override
+        protected void execute() throws ProcessException {
+            EXECUTIONS.incrementAndGet();
+            MAX_RUNNING.accumulateAndGet(RUNNING.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                throw new ProcessException(ex.getMessage(), this, ex);
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+            outputParameters.parameter(RESULT_NUMBER.getName().getCode()).setValue(inputParameters.getValue(VALUE));
+        }
+    }
+
+}
@@ -72,6 +72,7 @@ public class GeotkProcessingRegistry extends AbstractProcessingRegistry {
                 org.geotoolkit.processing.coverage.math.sum.CoverageSumWithValueDescriptor.INSTANCE,
                 org.geotoolkit.processing.coverage.math.substract.CoverageSubstractDescriptor.INSTANCE,
                 org.geotoolkit.processing.coverage.math.substract.CoverageSubstractWithValueDescriptor.INSTANCE,
+                org.geotoolkit.processing.coverage.math.expression.CoverageExpressionDescriptor.INSTANCE,
                 org.geotoolkit.processing.coverage.regridding.CoverageSwathRegridderDescriptor.INSTANCE,
                 //script
                 org.geotoolkit.processing.script.ScriptProcess.Descriptor.INSTANCE,
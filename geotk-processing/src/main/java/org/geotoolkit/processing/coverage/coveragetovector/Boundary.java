@@ -45,6 +45,9 @@ public class Boundary {
     private final LinkedList<LinkedList<Coordinate>> floatings = new LinkedList<LinkedList<Coordinate>>();
     public final NumberRange range;
 
+    //boundary this one has been merged in, null if still in use
+    Boundary mergedInto;
+
     public Boundary(final NumberRange range){
         this.range = range;
     }
@@ -321,6 +324,7 @@ public class Boundary {
 
         candidate.floatings.clear();
         candidate.holes.clear();
+        candidate.mergedInto = this;
 
         //System.err.println("M > after : " + toString());
         //checkValidity();
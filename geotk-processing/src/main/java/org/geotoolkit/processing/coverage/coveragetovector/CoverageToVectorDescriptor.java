@@ -24,6 +24,7 @@ import org.geotoolkit.process.Process;
 import org.geotoolkit.process.ProcessDescriptor;
 import org.apache.sis.measure.NumberRange;
 import org.apache.sis.parameter.ParameterBuilder;
+import org.apache.sis.storage.WritableFeatureSet;
 import org.apache.sis.util.SimpleInternationalString;
 import org.geotoolkit.processing.GeotkProcessingRegistry;
 import org.opengis.parameter.ParameterDescriptor;
@@ -67,8 +68,27 @@ public final class CoverageToVectorDescriptor extends AbstractProcessDescriptor
             .setRequired(false)
             .create(Integer.class,0);
 
+    /**
+     * Optional - traced tile size, if defined tiles are processed in parallel
+     */
+    public static final ParameterDescriptor<Integer> TILE_SIZE = new ParameterBuilder()
+            .addName("tileSize")
+            .setRemarks("Width and height of tiles processed in parallel. If not defined the coverage is processed in a single pass.")
+            .setRequired(false)
+            .createBounded(1, Integer.MAX_VALUE, null);
+
+    /**
+     * Optional - feature set receiving polygons
+     */
+    public static final ParameterDescriptor<WritableFeatureSet> FEATURE_SET = new ParameterBuilder()
+            .addName("featureSet")
+            .setRemarks("Feature set receiving polygons as they are finished, geometries output is empty if defined. "
+                    + "Feature type shall be compatible with CoverageToVectorProcess.createFeatureType.")
+            .setRequired(false)
+            .create(WritableFeatureSet.class,null);
+
     public static final ParameterDescriptorGroup INPUT_DESC =
-            new ParameterBuilder().addName(NAME+"InputParameters").createGroup(COVERAGE,RANGES,BAND);
+            new ParameterBuilder().addName(NAME+"InputParameters").createGroup(COVERAGE,RANGES,BAND,TILE_SIZE,FEATURE_SET);
 
     /**
      * Mandatory - Result of vectorisation
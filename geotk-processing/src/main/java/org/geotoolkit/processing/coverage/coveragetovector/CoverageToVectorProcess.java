@@ -16,28 +16,33 @@
  */
 package org.geotoolkit.processing.coverage.coveragetovector;
 
-import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import javax.media.jai.iterator.RectIter;
-import javax.media.jai.iterator.RectIterFactory;
+import java.util.function.Consumer;
 import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.feature.builder.AttributeRole;
+import org.apache.sis.feature.builder.AttributeTypeBuilder;
+import org.apache.sis.feature.builder.FeatureTypeBuilder;
+import org.apache.sis.feature.internal.shared.AttributeConvention;
 import org.apache.sis.measure.NumberRange;
 import org.apache.sis.parameter.Parameters;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.WritableFeatureSet;
 import org.apache.sis.util.ArgumentChecks;
-import org.geotoolkit.geometry.jts.JTS;
+import org.apache.sis.util.collection.BackingStoreException;
 import org.geotoolkit.process.ProcessException;
 import org.geotoolkit.processing.AbstractProcess;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Polygon;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
 import org.opengis.parameter.ParameterValueGroup;
 import org.apache.sis.coverage.grid.PixelInCell;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 
@@ -50,19 +55,10 @@ import org.opengis.referencing.operation.TransformException;
  */
 public class CoverageToVectorProcess extends AbstractProcess {
 
-    private static final GeometryFactory GF = JTS.getFactory();
-    private static final int LAST_LINE = 0;
-    private static final int CURRENT_LINE = 1;
-
-    //last line cache boundary
-    private final Map<NumberRange, List<Polygon>> polygons = new HashMap<NumberRange, List<Polygon>>();
-
-    //buffer[0] holds last line buffer
-    //buffer[1] holds current line buffer
-    private Boundary[][] buffers;
-
-    //current pixel block
-    private final Block block = new Block();
+    /**
+     * Number of features written at once in the output feature set.
+     */
+    private static final int BATCH_SIZE = 200;
 
     CoverageToVectorProcess(final ParameterValueGroup input) {
         super(CoverageToVectorDescriptor.INSTANCE,input);
@@ -101,98 +97,39 @@ public class CoverageToVectorProcess extends AbstractProcess {
             throws IOException, TransformException {
         coverage = coverage.forConvertedValues(true);
 
-        //add a range for Nan values.
-        NumberRange NaNRange = new NaNRange();
-        polygons.put(NaNRange, new ArrayList<>());
-
-        for (final NumberRange range : ranges) {
-            polygons.put(range, new ArrayList<>());
-        }
-
         final RenderedImage image = coverage.render(null);
-        final RectIter iter = RectIterFactory.create(image, null);
         /*
          This algorithm create polygons which follow the contour of each pixel.
          The 0,0 coordinate will match the pixel corner.
         */
         final MathTransform gridToCRS = coverage.getGridGeometry().getGridToCRS(PixelInCell.CELL_CORNER);
-        final Point gridPosition = new Point(0, 0);
-
-        buffers = new Boundary[2][image.getWidth()];
-
-        int bandNum = -1;
-        iter.startBands();
-        if (!iter.finishedBands()) {
-
-            //iteration over bands
-            do {
-                bandNum++;
-                //System.err.println("bande " + bandNum);
-
-                if (bandNum == band) {
-                    //iteration over lines
-                    iter.startLines();
-                    if (!iter.finishedLines()) {
-                        do {
-
-                            //System.err.println("ligne " + gridPosition.y);
-                            //iteration over pixels
-                            iter.startPixels();
-                            if (!iter.finishedPixels()) {
-                                do {
-                                    //----------------------------------------------
-                                    final double value = iter.getSampleDouble();
-                                    append(gridPosition, value);
-                                    //----------------------------------------------
-
-                                    gridPosition.x += 1;
-                                } while (!iter.nextPixelDone());
-                            }
-
-                            //insert last geometry
-                            constructBlock();
 
-                            //flip buffers, reuse old buffer line.
-                            Boundary[] oldLine = buffers[LAST_LINE];
-                            buffers[LAST_LINE] = buffers[CURRENT_LINE];
-                            buffers[CURRENT_LINE] = oldLine;
-//                            final Set<Boundary> boundaries = new HashSet<Boundary>();
-//                            //System.err.println("--------------------------------------------------------------------------------------------");
-//                            for(int i=0; i< buffers[LAST_LINE].length; i++) {
-//                                //System.err.println("> " + i + " " + block.y +" " + buffers[LAST_LINE][i].toString());
-//                                boundaries.add(buffers[LAST_LINE][i]);
-//                            }
-
-                            block.reset();
-
-                            gridPosition.x = 0;
-                            gridPosition.y += 1;
-                        } while (!iter.nextLineDone());
-                    }
-
-                    //we have finish the requested band, close all geometries
-                    for(int i=0;i<buffers[LAST_LINE].length;i++) {
-                        Polygon poly = buffers[LAST_LINE][i].link(
-                                new Coordinate(i, gridPosition.y),
-                                new Coordinate(i+1, gridPosition.y)
-                                );
-                        if(poly != null) {
-                            polygons.get(buffers[LAST_LINE][i].range).add(poly);
-                        }
-                    }
-
-                }
-
-                gridPosition.x = 0;
-                gridPosition.y = 0;
-            } while (!iter.nextBandDone());
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final RegionTracer tracer = new RegionTracer(ranges, width, height, false);
+        final double[] line = new double[width];
+
+        //read the image by strips of tiles
+        for (int y = 0; y < height;) {
+            final int stripHeight = Math.min(image.getTileHeight(), height - y);
+            final Raster strip = image.getData(new Rectangle(image.getMinX(), image.getMinY() + y, width, stripHeight));
+            for (int j = 0; j < stripHeight; j++) {
+                strip.getSamples(image.getMinX(), image.getMinY() + y + j, width, 1, band, line);
+                tracer.line(line);
+            }
+            y += stripHeight;
         }
+        tracer.finish();
 
         final List<Geometry> polygones = new ArrayList<Geometry>();
         for (int i=0; i<ranges.length; i++) {
             final NumberRange range = ranges[i];
-            for(Polygon poly : polygons.get(range)) {
-                polygones.add(org.apache.sis.geometry.wrapper.jts.JTS.transform(poly, gridToCRS));
+            for(Polygon poly : tracer.polygons()) {
+                if (poly.getUserData() == range) {
+                    final Geometry geom = org.apache.sis.geometry.wrapper.jts.JTS.transform(poly, gridToCRS);
+                    geom.setUserData(range);
+                    polygones.add(geom);
+                }
             }
             //we dont merge them in a single polygon to avoid to complexe geometries
         }
@@ -200,229 +137,44 @@ public class CoverageToVectorProcess extends AbstractProcess {
         return polygones.toArray(new Polygon[polygones.size()]);
     }
 
-    private void append(final Point point, Number value) {
-        //System.err.println("POINT["+point+"] value = " + value);
-
-        //special case for NaN or null
-        //todo
-        final NumberRange valueRange;
-        if (value == null || Double.isNaN(value.doubleValue())) {
-            valueRange = new NaNRange();
-        } else {
-            valueRange = polygons.keySet().stream()
-                    .filter(range -> range.containsAny(value))
-                    .findAny()
-                    .orElseThrow(() -> new IllegalArgumentException("Value not in any range :" + value));
-        }
-
-        if (valueRange.equals(block.range)) {
-            //last pixel was in the same range
-            block.endX = point.x;
-            return;
-        } else if (block.range != null) {
-            //last pixel was in a different range, save it's geometry
-            constructBlock();
-        }
-
-        //start a pixel serie
-        block.range = valueRange;
-        block.startX = point.x;
-        block.endX = point.x;
-        block.y = point.y;
-    }
-
-    private void constructBlock() {
-
-        //System.err.println("BLOCK ["+block.startX+","+block.endX+"]");
-
-        if(block.y == 0) {
-            //first line, the buffer is empty, must fill it
-            final Boundary boundary = new Boundary(block.range);
-            boundary.start(block.startX, block.endX+1, block.y);
-
-            for(int i=block.startX; i<=block.endX; i++) {
-                buffers[CURRENT_LINE][i] = boundary;
-            }
-        }else{
-            Boundary currentBoundary = null;
-
-            //first pass to close unfriendly blocks ----------------------------
-            for(int i=block.startX; i<=block.endX;) {
-                final Boundary candidate = buffers[LAST_LINE][i];
-                final int[] candidateExtent = findExtent(i);
-
-                //do not treat same blockes here
-                if(candidate.range != block.range) {
-                    //System.err.println("A different block extent : "+ candidateExtent[0] + " " + candidateExtent[1]);
-                    //System.err.println("before :" + candidate.toString());
-
-                    if(candidateExtent[0] >= block.startX && candidateExtent[1] <= block.endX) {
-                        //block overlaps completly candidate
-                        final Polygon poly = candidate.link(
-                                new Coordinate(candidateExtent[0], block.y),
-                                new Coordinate(candidateExtent[1]+1, block.y)
-                                );
-                        if(poly != null) polygons.get(candidate.range).add(poly);
-                    }else{
-                        final Polygon poly = candidate.link(
-                                new Coordinate( (block.startX<candidateExtent[0]) ? candidateExtent[0]: block.startX, block.y),
-                                new Coordinate( (block.endX>candidateExtent[1]) ? candidateExtent[1]+1: block.endX+1, block.y)
-                                );
-                        if(poly != null) polygons.get(candidate.range).add(poly);
-                    }
-
-                    //System.err.println("after :" + candidate.toString());
-                }
-
-                i = candidateExtent[1]+1;
-            }
-
-            //second pass to fuse with friendly blocks -------------------------
-
-            //we first merge the last line boundary if needed
-            int firstAnchor = Integer.MAX_VALUE;
-            int lastAnchor = Integer.MIN_VALUE;
-
-            for(int i=block.startX; i<=block.endX; ) {
-                final Boundary candidate = buffers[LAST_LINE][i];
-                final int[] candidateExtent = findExtent(i);
-
-                //do not treat different blocks here
-                if(candidate.range == block.range) {
-                    //System.err.println("A firnet block extent : "+ candidateExtent[0] + " " + candidateExtent[1]);
-//                    //System.err.println("before :" + candidate.toString());
-
-                    if(currentBoundary == null) {
-                        //set the current boundary, will expend this one
-                        currentBoundary = candidate;
-                    }else if(currentBoundary != null) {
-                        if(currentBoundary != candidate) {
-                            //those two blocks doesnt belong to the same boundaries, we must merge them
-                            currentBoundary.merge(candidate);
-                        }
-                        currentBoundary.link(
-                            new Coordinate(lastAnchor, block.y),
-                            new Coordinate(candidateExtent[0], block.y)
-                            );
-
-                        replaceInLastLigne(candidate, currentBoundary);
-                        //System.out.println("Merging : " + currentBoundary.toString());
-                    }
-
-                    if(candidateExtent[0] < firstAnchor) {
-                        firstAnchor = candidateExtent[0];
-                    }
-                    lastAnchor = candidateExtent[1]+1;
-                }
-
-                i = candidateExtent[1]+1;
-            }
-
-            if(currentBoundary != null) {
-                //System.err.println("before :" + currentBoundary.toString());
-            }
-
-            if(currentBoundary == null) {
-                //no previous friendly boundary to link with
-                //make a new one
-                currentBoundary = new Boundary(block.range);
-                currentBoundary.start(block.startX, block.endX+1, block.y);
-            }else{
-                if(firstAnchor < block.startX) {
-                    //the previous block has created a floating sequence to this end
-                    firstAnchor = block.startX;
-                }
-
-                //add the coordinates
-                //System.err.println("> first anchor : " +firstAnchor + " lastAnchor : " +lastAnchor);
-                if(firstAnchor == block.startX) {
-                    currentBoundary.add(
-                        new Coordinate(firstAnchor, block.y),
-                        new Coordinate(block.startX, block.y+1)
-                        );
-                }else{
-                    currentBoundary.add(
-                        new Coordinate(firstAnchor, block.y),
-                        new Coordinate(block.startX, block.y)
-                        );
-                    currentBoundary.add(
-                        new Coordinate(block.startX, block.y),
-                        new Coordinate(block.startX, block.y+1)
-                        );
-                }
-
-                if(block.endX+1 >= lastAnchor) {
-                    if(lastAnchor == block.endX+1) {
-                        currentBoundary.add(
-                            new Coordinate(lastAnchor, block.y),
-                            new Coordinate(block.endX+1, block.y+1)
-                            );
-                    }else{
-                        //System.err.println("0 add :" + currentBoundary.toString());
-                        currentBoundary.add(
-                            new Coordinate(lastAnchor, block.y),
-                            new Coordinate(block.endX+1, block.y)
-                            );
-                        //System.err.println("1 add:" + currentBoundary.toString());
-                        currentBoundary.add(
-                            new Coordinate(block.endX+1, block.y),
-                            new Coordinate(block.endX+1, block.y+1)
-                            );
-                        //System.err.println("after add:" + currentBoundary.toString());
-                    }
-                }else{
-                    currentBoundary.addFloating(
-                            new Coordinate(block.endX+1, block.y),
-                            new Coordinate(block.endX+1, block.y+1)
-                            );
-                }
-
-                //System.err.println(currentBoundary.toString());
-
-            }
-
-            //System.err.println("after :" + currentBoundary.toString());
-
-            //fill in the current line -----------------------------------------
-
-            for(int i=block.startX; i<=block.endX; i++) {
-                if(currentBoundary.isEmpty()) {
-                    throw new IllegalArgumentException("An empty boundary inserted ? not possible.");
-                }
-
-                buffers[CURRENT_LINE][i] = currentBoundary;
-            }
-
-        }
-
-    }
-
-    private void replaceInLastLigne(final Boundary old, final Boundary newone) {
-        for(int i=0,n=buffers[LAST_LINE].length; i<n; i++) {
-            if(buffers[LAST_LINE][i] == old) {
-                buffers[LAST_LINE][i] = newone;
-            }
-
-            if(buffers[CURRENT_LINE][i] == old) {
-                buffers[CURRENT_LINE][i] = newone;
-            }
-        }
+    /**
+     * Extract polygons tile by tile, tiles are processed in parallel.
+     * Polygons are given to the consumer as soon as they are finished, so only a tile row
+     * and the unfinished polygons are kept in memory.
+     * Polygons order differs from {@link #toPolygon(GridCoverage, NumberRange[], int)},
+     * and regions of NaN values are not returned.
+     *
+     * @param coverage coverage to process
+     * @param ranges data value ranges
+     * @param band coverage band to process
+     * @param tileSize width and height of the traced tiles
+     * @param sink receives polygons, with their range as user data, called from the current thread only
+     */
+    public void toPolygon(GridCoverage coverage, final NumberRange[] ranges, final int band,
+            final int tileSize, final Consumer<? super Geometry> sink) throws TransformException {
+        ArgumentChecks.ensureStrictlyPositive("tileSize", tileSize);
+        coverage = coverage.forConvertedValues(true);
+        final RenderedImage image = coverage.render(null);
+        final MathTransform gridToCRS = coverage.getGridGeometry().getGridToCRS(PixelInCell.CELL_CORNER);
+        new TiledRegionTracer(image, band, ranges, tileSize, tileSize, gridToCRS).trace(sink);
     }
 
-
-    private int[] findExtent(final int index) {
-        final int[] extent = new int[]{index,index};
-        final Boundary bnd = buffers[LAST_LINE][index];
-
-        while(extent[0] > 0 && buffers[LAST_LINE][ extent[0]-1 ] == bnd) {
-            extent[0]--;
-        }
-
-        while(extent[1] < buffers[LAST_LINE].length-1 && buffers[LAST_LINE][ extent[1]+1 ] == bnd) {
-            extent[1]++;
-        }
-
-        return extent;
+    /**
+     * Creates a feature type for the polygons written in a feature set.
+     *
+     * @param name feature type name
+     * @param crs geometry coordinate reference system, may be null
+     * @return feature type with a polygon and the range minimum and maximum values
+     */
+    public static FeatureType createFeatureType(final String name, final CoordinateReferenceSystem crs) {
+        final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
+        ftb.setName(name);
+        final AttributeTypeBuilder<Polygon> geomAttribute = ftb.addAttribute(Polygon.class).setName(AttributeConvention.GEOMETRY_PROPERTY);
+        if (crs != null) geomAttribute.setCRS(crs);
+        geomAttribute.addRole(AttributeRole.DEFAULT_GEOMETRY);
+        ftb.addAttribute(Double.class).setName("min");
+        ftb.addAttribute(Double.class).setName("max");
+        return ftb.build();
     }
 
     @Override
@@ -435,32 +187,75 @@ public class CoverageToVectorProcess extends AbstractProcess {
         if(band == null) {
             band = 0;
         }
+        final Integer tileSize = inputParameters.getValue(CoverageToVectorDescriptor.TILE_SIZE);
+        final WritableFeatureSet output = inputParameters.getValue(CoverageToVectorDescriptor.FEATURE_SET);
 
         Geometry[] result = null;
         try {
-            result = toPolygon(coverage, ranges, 0);
-        } catch (IOException ex) {
-            throw new ProcessException(ex.getMessage(), this, ex);
-        } catch (TransformException ex) {
+            if (output != null) {
+                final FeatureWriter writer = new FeatureWriter(output);
+                if (tileSize != null) {
+                    toPolygon(coverage, ranges, band, tileSize, writer);
+                } else {
+                    for (Geometry geom : toPolygon(coverage, ranges, band)) {
+                        writer.accept(geom);
+                    }
+                }
+                writer.flush();
+                result = new Geometry[0];
+            } else if (tileSize != null) {
+                final List<Geometry> geometries = new ArrayList<>();
+                toPolygon(coverage, ranges, band, tileSize, geometries::add);
+                result = geometries.toArray(new Geometry[geometries.size()]);
+            } else {
+                result = toPolygon(coverage, ranges, band);
+            }
+        } catch (IOException | TransformException | DataStoreException ex) {
             throw new ProcessException(ex.getMessage(), this, ex);
+        } catch (BackingStoreException ex) {
+            final Throwable cause = ex.getCause();
+            throw new ProcessException(cause.getMessage(), this, cause);
         }
 
-        //avoid memory use
-        buffers = null;
-        polygons.clear();
-
         outputParameters.getOrCreate(CoverageToVectorDescriptor.GEOMETRIES).setValue(result);
     }
 
-    private static class NaNRange extends NumberRange{
+    /**
+     * Writes polygons in a feature set by batches.
+     */
+    private static final class FeatureWriter implements Consumer<Geometry> {
+
+        private final WritableFeatureSet output;
+        private final FeatureType type;
+        private final List<Feature> batch = new ArrayList<>(BATCH_SIZE);
 
-        public NaNRange() {
-            super(Double.class, 0d, true, 0d, true);
+        FeatureWriter(final WritableFeatureSet output) throws DataStoreException {
+            this.output = output;
+            this.type = output.getType();
         }
 
         @Override
-        public boolean contains(final Comparable number) throws IllegalArgumentException {
-            return Double.isNaN(((Number) number).doubleValue());
+        public void accept(final Geometry geom) {
+            final NumberRange range = (NumberRange) geom.getUserData();
+            final Feature feature = type.newInstance();
+            feature.setPropertyValue(AttributeConvention.GEOMETRY, geom);
+            feature.setPropertyValue("min", range.getMinDouble());
+            feature.setPropertyValue("max", range.getMaxDouble());
+            batch.add(feature);
+            if (batch.size() >= BATCH_SIZE) {
+                try {
+                    flush();
+                } catch (DataStoreException ex) {
+                    throw new BackingStoreException(ex);
+                }
+            }
+        }
+
+        void flush() throws DataStoreException {
+            if (!batch.isEmpty()) {
+                output.add(batch.iterator());
+                batch.clear();
+            }
         }
     }
 
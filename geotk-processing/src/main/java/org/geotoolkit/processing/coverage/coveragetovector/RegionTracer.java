@@ -0,0 +1,404 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.coveragetovector;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.sis.measure.NumberRange;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Traces the boundaries of pixel regions, line by line, in an area of an image.
+ * Pixels are regrouped when they are 4-connected and their values are in the same range.
+ * <p>
+ * Polygons coordinates are pixel corners, relative to the area upper-left corner.
+ * Each polygon has its {@link NumberRange} as user data, polygons of NaN values are
+ * produced too, with the {@link #NAN} range.
+ * <p>
+ * Optionally the region of each pixel on the area borders is recorded, this allows
+ * to merge regions of adjacent areas.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class RegionTracer {
+
+    /**
+     * Range of NaN values.
+     */
+    static final NumberRange NAN = new NaNRange();
+
+    private static final int LAST_LINE = 0;
+    private static final int CURRENT_LINE = 1;
+
+    private final NumberRange[] ranges;
+    private final int width;
+
+    //buffer[0] holds last line buffer
+    //buffer[1] holds current line buffer
+    private Boundary[][] buffers;
+
+    //current pixel block
+    private final Block block = new Block();
+
+    //current line
+    private int y;
+
+    //finished polygons, index of the polygon of each boundary
+    private final List<Polygon> polygons = new ArrayList<>();
+    private final Map<Boundary,Integer> polygonOf = new IdentityHashMap<>();
+
+    //regions on the area borders, null if not recorded
+    private final Boundary[] top, bottom, left, right;
+
+    /**
+     * @param ranges ranges to regroup, values shall be in one of them or NaN
+     * @param width area width
+     * @param height area height, used only if borders are recorded
+     * @param borders whether to record the region of border pixels
+     */
+    RegionTracer(final NumberRange[] ranges, final int width, final int height, final boolean borders) {
+        this.ranges = ranges;
+        this.width = width;
+        buffers = new Boundary[2][width];
+        if (borders) {
+            top = new Boundary[width];
+            bottom = new Boundary[width];
+            left = new Boundary[height];
+            right = new Boundary[height];
+        } else {
+            top = bottom = left = right = null;
+        }
+    }
+
+    /**
+     * Appends the next line of the area.
+     *
+     * @param values line values, length must be the area width
+     */
+    void line(final double[] values) {
+        for (int x = 0; x < width; x++) {
+            append(x, values[x]);
+        }
+
+        //insert last geometry
+        constructBlock();
+
+        if (top != null) {
+            if (y == 0) System.arraycopy(buffers[CURRENT_LINE], 0, top, 0, width);
+            left[y] = buffers[CURRENT_LINE][0];
+            right[y] = buffers[CURRENT_LINE][width-1];
+        }
+
+        //flip buffers, reuse old buffer line.
+        Boundary[] oldLine = buffers[LAST_LINE];
+        buffers[LAST_LINE] = buffers[CURRENT_LINE];
+        buffers[CURRENT_LINE] = oldLine;
+
+        block.reset();
+        y++;
+    }
+
+    /**
+     * Closes all geometries, must be called after the last line.
+     */
+    void finish() {
+        if (bottom != null) {
+            System.arraycopy(buffers[LAST_LINE], 0, bottom, 0, width);
+        }
+        for (int i=0;i<width;i++) {
+            Polygon poly = buffers[LAST_LINE][i].link(
+                    new Coordinate(i, y),
+                    new Coordinate(i+1, y)
+                    );
+            if (poly != null) {
+                emit(buffers[LAST_LINE][i], poly);
+            }
+        }
+        buffers = null;
+    }
+
+    /**
+     * Returns the polygons, in the order they were finished.
+     */
+    List<Polygon> polygons() {
+        return polygons;
+    }
+
+    /**
+     * Returns the polygon indices of the first line pixels.
+     */
+    int[] top() {
+        return indices(top);
+    }
+
+    /**
+     * Returns the polygon indices of the last line pixels.
+     */
+    int[] bottom() {
+        return indices(bottom);
+    }
+
+    /**
+     * Returns the polygon indices of the first column pixels.
+     */
+    int[] left() {
+        return indices(left);
+    }
+
+    /**
+     * Returns the polygon indices of the last column pixels.
+     */
+    int[] right() {
+        return indices(right);
+    }
+
+    private int[] indices(final Boundary[] boundaries) {
+        final int[] indices = new int[boundaries.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = polygonOf.get(root(boundaries[i]));
+        }
+        return indices;
+    }
+
+    private static Boundary root(Boundary boundary) {
+        while (boundary.mergedInto != null) {
+            boundary = boundary.mergedInto;
+        }
+        return boundary;
+    }
+
+    private void emit(final Boundary boundary, final Polygon polygon) {
+        polygonOf.put(root(boundary), polygons.size());
+        polygons.add(polygon);
+    }
+
+    private NumberRange classify(final double value) {
+        if (Double.isNaN(value)) {
+            return NAN;
+        }
+        for (final NumberRange range : ranges) {
+            if (range.containsAny(value)) {
+                return range;
+            }
+        }
+        throw new IllegalArgumentException("Value not in any range :" + value);
+    }
+
+    private void append(final int x, final double value) {
+        final NumberRange valueRange = classify(value);
+
+        if (valueRange == block.range) {
+            //last pixel was in the same range
+            block.endX = x;
+            return;
+        } else if (block.range != null) {
+            //last pixel was in a different range, save it's geometry
+            constructBlock();
+        }
+
+        //start a pixel serie
+        block.range = valueRange;
+        block.startX = x;
+        block.endX = x;
+        block.y = y;
+    }
+
+    private void constructBlock() {
+
+        if(block.y == 0) {
+            //first line, the buffer is empty, must fill it
+            final Boundary boundary = new Boundary(block.range);
+            boundary.start(block.startX, block.endX+1, block.y);
+
+            for(int i=block.startX; i<=block.endX; i++) {
+                buffers[CURRENT_LINE][i] = boundary;
+            }
+        }else{
+            Boundary currentBoundary = null;
+
+            //first pass to close unfriendly blocks ----------------------------
+            for(int i=block.startX; i<=block.endX;) {
+                final Boundary candidate = buffers[LAST_LINE][i];
+                final int[] candidateExtent = findExtent(i);
+
+                //do not treat same blockes here
+                if(candidate.range != block.range) {
+                    if(candidateExtent[0] >= block.startX && candidateExtent[1] <= block.endX) {
+                        //block overlaps completly candidate
+                        final Polygon poly = candidate.link(
+                                new Coordinate(candidateExtent[0], block.y),
+                                new Coordinate(candidateExtent[1]+1, block.y)
+                                );
+                        if(poly != null) emit(candidate, poly);
+                    }else{
+                        final Polygon poly = candidate.link(
+                                new Coordinate( (block.startX<candidateExtent[0]) ? candidateExtent[0]: block.startX, block.y),
+                                new Coordinate( (block.endX>candidateExtent[1]) ? candidateExtent[1]+1: block.endX+1, block.y)
+                                );
+                        if(poly != null) emit(candidate, poly);
+                    }
+                }
+
+                i = candidateExtent[1]+1;
+            }
+
+            //second pass to fuse with friendly blocks -------------------------
+
+            //we first merge the last line boundary if needed
+            int firstAnchor = Integer.MAX_VALUE;
+            int lastAnchor = Integer.MIN_VALUE;
+
+            for(int i=block.startX; i<=block.endX; ) {
+                final Boundary candidate = buffers[LAST_LINE][i];
+                final int[] candidateExtent = findExtent(i);
+
+                //do not treat different blocks here
+                if(candidate.range == block.range) {
+                    if(currentBoundary == null) {
+                        //set the current boundary, will expend this one
+                        currentBoundary = candidate;
+                    }else{
+                        if(currentBoundary != candidate) {
+                            //those two blocks doesnt belong to the same boundaries, we must merge them
+                            currentBoundary.merge(candidate);
+                        }
+                        currentBoundary.link(
+                            new Coordinate(lastAnchor, block.y),
+                            new Coordinate(candidateExtent[0], block.y)
+                            );
+
+                        replaceInLastLigne(candidate, currentBoundary);
+                    }
+
+                    if(candidateExtent[0] < firstAnchor) {
+                        firstAnchor = candidateExtent[0];
+                    }
+                    lastAnchor = candidateExtent[1]+1;
+                }
+
+                i = candidateExtent[1]+1;
+            }
+
+            if(currentBoundary == null) {
+                //no previous friendly boundary to link with
+                //make a new one
+                currentBoundary = new Boundary(block.range);
+                currentBoundary.start(block.startX, block.endX+1, block.y);
+            }else{
+                if(firstAnchor < block.startX) {
+                    //the previous block has created a floating sequence to this end
+                    firstAnchor = block.startX;
+                }
+
+                //add the coordinates
+                if(firstAnchor == block.startX) {
+                    currentBoundary.add(
+                        new Coordinate(firstAnchor, block.y),
+                        new Coordinate(block.startX, block.y+1)
+                        );
+                }else{
+                    currentBoundary.add(
+                        new Coordinate(firstAnchor, block.y),
+                        new Coordinate(block.startX, block.y)
+                        );
+                    currentBoundary.add(
+                        new Coordinate(block.startX, block.y),
+                        new Coordinate(block.startX, block.y+1)
+                        );
+                }
+
+                if(block.endX+1 >= lastAnchor) {
+                    if(lastAnchor == block.endX+1) {
+                        currentBoundary.add(
+                            new Coordinate(lastAnchor, block.y),
+                            new Coordinate(block.endX+1, block.y+1)
+                            );
+                    }else{
+                        currentBoundary.add(
+                            new Coordinate(lastAnchor, block.y),
+                            new Coordinate(block.endX+1, block.y)
+                            );
+                        currentBoundary.add(
+                            new Coordinate(block.endX+1, block.y),
+                            new Coordinate(block.endX+1, block.y+1)
+                            );
+                    }
+                }else{
+                    currentBoundary.addFloating(
+                            new Coordinate(block.endX+1, block.y),
+                            new Coordinate(block.endX+1, block.y+1)
+                            );
+                }
+            }
+
+            //fill in the current line -----------------------------------------
+
+            for(int i=block.startX; i<=block.endX; i++) {
+                if(currentBoundary.isEmpty()) {
+                    throw new IllegalArgumentException("An empty boundary inserted ? not possible.");
+                }
+
+                buffers[CURRENT_LINE][i] = currentBoundary;
+            }
+
+        }
+
+    }
+
+    private void replaceInLastLigne(final Boundary old, final Boundary newone) {
+        for(int i=0,n=buffers[LAST_LINE].length; i<n; i++) {
+            if(buffers[LAST_LINE][i] == old) {
+                buffers[LAST_LINE][i] = newone;
+            }
+
+            if(buffers[CURRENT_LINE][i] == old) {
+                buffers[CURRENT_LINE][i] = newone;
+            }
+        }
+    }
+
+
+    private int[] findExtent(final int index) {
+        final int[] extent = new int[]{index,index};
+        final Boundary bnd = buffers[LAST_LINE][index];
+
+        while(extent[0] > 0 && buffers[LAST_LINE][ extent[0]-1 ] == bnd) {
+            extent[0]--;
+        }
+
+        while(extent[1] < buffers[LAST_LINE].length-1 && buffers[LAST_LINE][ extent[1]+1 ] == bnd) {
+            extent[1]++;
+        }
+
+        return extent;
+    }
+
+    private static class NaNRange extends NumberRange{
+
+        public NaNRange() {
+            super(Double.class, 0d, true, 0d, true);
+        }
+
+        @Override
+        public boolean contains(final Comparable number) throws IllegalArgumentException {
+            return Double.isNaN(((Number) number).doubleValue());
+        }
+    }
+}
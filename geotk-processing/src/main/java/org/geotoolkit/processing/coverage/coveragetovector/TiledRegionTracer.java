@@ -0,0 +1,306 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.coveragetovector;
+
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.apache.sis.measure.NumberRange;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.AffineTransformation;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Traces region boundaries tile by tile.
+ * <p>
+ * Tiles of a tile row are traced in parallel with a {@link RegionTracer} each. Polygons of
+ * adjacent tiles are then regrouped with a union-find on the pixels on both sides of each
+ * tile seam: two polygons are in the same region if they have the same range and share
+ * a seam edge. A region is finished when none of its polygons touches the bottom of the
+ * current tile row, its polygons are then merged and sent to the consumer.
+ * <p>
+ * Only the current tile row and the unfinished regions are in memory.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class TiledRegionTracer {
+
+    private final RenderedImage image;
+    private final int band;
+    private final NumberRange[] ranges;
+    private final int tileWidth, tileHeight;
+    private final MathTransform gridToCRS;
+
+    /**
+     * @param image image to vectorize
+     * @param band band to vectorize
+     * @param ranges ranges to regroup, values shall be in one of them or NaN
+     * @param tileWidth traced tile width, unrelated to the image tiling
+     * @param tileHeight traced tile height, unrelated to the image tiling
+     * @param gridToCRS transform from pixel corner to output coordinates
+     */
+    TiledRegionTracer(final RenderedImage image, final int band, final NumberRange[] ranges,
+            final int tileWidth, final int tileHeight, final MathTransform gridToCRS) {
+        this.image = image;
+        this.band = band;
+        this.ranges = ranges;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.gridToCRS = gridToCRS;
+    }
+
+    /**
+     * Traces all regions. Polygons of NaN values are not sent.
+     *
+     * @param sink receives the region polygons as soon as they are finished, with their range as user data.
+     *        It is called from the current thread only.
+     */
+    void trace(final Consumer<? super Geometry> sink) throws TransformException {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int numCols = (width + tileWidth - 1) / tileWidth;
+        final int numRows = (height + tileHeight - 1) / tileHeight;
+
+        //unfinished regions, and their index for each pixel of the last traced line
+        List<Region> open = new ArrayList<>();
+        int[] above = null;
+
+        for (int row = 0; row < numRows; row++) {
+            final int y0 = row * tileHeight;
+            final int th = Math.min(tileHeight, height - y0);
+            final Tile[] tiles = new Tile[numCols];
+            IntStream.range(0, numCols).parallel().forEach((int col) -> {
+                final int x0 = col * tileWidth;
+                tiles[col] = traceTile(x0, y0, Math.min(tileWidth, width - x0), th);
+            });
+
+            //node ids : open regions first, then polygons of each tile
+            final int[] base = new int[numCols + 1];
+            base[0] = open.size();
+            for (int col = 0; col < numCols; col++) {
+                base[col + 1] = base[col] + tiles[col].polygons.size();
+            }
+            final UnionFind uf = new UnionFind(base[numCols]);
+
+            //seams between tiles of this row
+            for (int col = 1; col < numCols; col++) {
+                final Tile l = tiles[col - 1];
+                final Tile r = tiles[col];
+                for (int j = 0; j < th; j++) {
+                    final int a = l.right[j];
+                    final int b = r.left[j];
+                    if (l.range(a) != RegionTracer.NAN && l.range(a) == r.range(b)) {
+                        uf.union(base[col - 1] + a, base[col] + b);
+                    }
+                }
+            }
+            //seam with the previous row
+            if (above != null) {
+                for (int col = 0; col < numCols; col++) {
+                    final Tile t = tiles[col];
+                    final int x0 = col * tileWidth;
+                    for (int i = 0; i < t.top.length; i++) {
+                        final int a = above[x0 + i];
+                        if (a >= 0 && open.get(a).range == t.range(t.top[i])) {
+                            uf.union(a, base[col] + t.top[i]);
+                        }
+                    }
+                }
+            }
+
+            //regions touching the bottom of this row are not finished
+            final boolean last = (row == numRows - 1);
+            final boolean[] touching = new boolean[uf.size()];
+            if (!last) {
+                for (int col = 0; col < numCols; col++) {
+                    for (final int p : tiles[col].bottom) {
+                        touching[uf.find(base[col] + p)] = true;
+                    }
+                }
+            }
+
+            //collect regions in node order
+            final Region[] regions = new Region[uf.size()];
+            final List<Region> next = new ArrayList<>();
+            final List<Region> finished = new ArrayList<>();
+            for (int n = 0; n < regions.length; n++) {
+                final int root = uf.find(n);
+                Region region = regions[root];
+                if (region == null) {
+                    if (n < base[0]) {
+                        region = open.get(n);
+                    } else {
+                        final int col = tileOf(base, n);
+                        region = new Region(tiles[col].range(n - base[col]));
+                    }
+                    regions[root] = region;
+                    if (region.range != RegionTracer.NAN) {
+                        if (touching[root]) {
+                            region.index = next.size();
+                            next.add(region);
+                        } else {
+                            finished.add(region);
+                        }
+                    }
+                } else if (n < base[0]) {
+                    region.polygons.addAll(open.get(n).polygons);
+                }
+                if (n >= base[0]) {
+                    final int col = tileOf(base, n);
+                    final Polygon polygon = tiles[col].polygons.get(n - base[col]);
+                    if (polygon.getUserData() != RegionTracer.NAN) {
+                        region.polygons.add(polygon);
+                    }
+                }
+            }
+
+            if (!last) {
+                above = new int[width];
+                for (int col = 0; col < numCols; col++) {
+                    final Tile t = tiles[col];
+                    for (int i = 0; i < t.bottom.length; i++) {
+                        final Region region = regions[uf.find(base[col] + t.bottom[i])];
+                        above[col * tileWidth + i] = (region.range != RegionTracer.NAN) ? region.index : -1;
+                    }
+                }
+            }
+            open = next;
+
+            //merge polygons of finished regions
+            final List<List<Geometry>> results;
+            try {
+                results = finished.parallelStream().map(Region::finish).toList();
+            } catch (BackingStoreException e) {
+                throw e.unwrapOrRethrow(TransformException.class);
+            }
+            for (final List<Geometry> result : results) {
+                result.forEach(sink);
+            }
+        }
+    }
+
+    private static int tileOf(final int[] base, final int node) {
+        int col = Arrays.binarySearch(base, node);
+        if (col < 0) {
+            return -col - 2;
+        }
+        //skip tiles without polygons
+        while (base[col + 1] == node) col++;
+        return col;
+    }
+
+    private Tile traceTile(final int x0, final int y0, final int tw, final int th) {
+        final int minX = image.getMinX() + x0;
+        final int minY = image.getMinY() + y0;
+        final Raster raster = image.getData(new Rectangle(minX, minY, tw, th));
+        final RegionTracer tracer = new RegionTracer(ranges, tw, th, true);
+        final double[] line = new double[tw];
+        for (int j = 0; j < th; j++) {
+            raster.getSamples(minX, minY + j, tw, 1, band, line);
+            tracer.line(line);
+        }
+        tracer.finish();
+
+        final List<Polygon> polygons = tracer.polygons();
+        if (x0 != 0 || y0 != 0) {
+            final AffineTransformation translate = AffineTransformation.translationInstance(x0, y0);
+            for (int i = 0, n = polygons.size(); i < n; i++) {
+                final Polygon polygon = polygons.get(i);
+                final Geometry moved = translate.transform(polygon);
+                moved.setUserData(polygon.getUserData());
+                polygons.set(i, (Polygon) moved);
+            }
+        }
+        return new Tile(polygons, tracer.top(), tracer.bottom(), tracer.left(), tracer.right());
+    }
+
+    /**
+     * Polygons of one tile, with polygon indices of the border pixels.
+     */
+    private record Tile(List<Polygon> polygons, int[] top, int[] bottom, int[] left, int[] right) {
+        NumberRange range(final int polygon) {
+            return (NumberRange) polygons.get(polygon).getUserData();
+        }
+    }
+
+    /**
+     * Polygons of a region, possibly spread over several tiles.
+     */
+    private final class Region {
+        final NumberRange range;
+        final List<Geometry> polygons = new ArrayList<>();
+        //index in the unfinished regions list
+        int index;
+
+        Region(final NumberRange range) {
+            this.range = range;
+        }
+
+        List<Geometry> finish() {
+            final Geometry merged = (polygons.size() == 1) ? polygons.get(0) : UnaryUnionOp.union(polygons);
+            final List<Geometry> result = new ArrayList<>(merged.getNumGeometries());
+            try {
+                for (int i = 0, n = merged.getNumGeometries(); i < n; i++) {
+                    final Geometry geom = org.apache.sis.geometry.wrapper.jts.JTS.transform(merged.getGeometryN(i), gridToCRS);
+                    geom.setUserData(range);
+                    result.add(geom);
+                }
+            } catch (TransformException ex) {
+                throw new BackingStoreException(ex);
+            }
+            return result;
+        }
+    }
+
+    private static final class UnionFind {
+        private final int[] parent;
+
+        UnionFind(final int size) {
+            parent = new int[size];
+            for (int i = 0; i < size; i++) parent[i] = i;
+        }
+
+        int size() {
+            return parent.length;
+        }
+
+        int find(int n) {
+            while (parent[n] != n) {
+                parent[n] = parent[parent[n]];
+                n = parent[n];
+            }
+            return n;
+        }
+
+        void union(final int a, final int b) {
+            final int ra = find(a);
+            final int rb = find(b);
+            //keep the smallest node as root, open regions are kept first
+            if (ra < rb) parent[rb] = ra;
+            else if (rb < ra) parent[ra] = rb;
+        }
+    }
+}
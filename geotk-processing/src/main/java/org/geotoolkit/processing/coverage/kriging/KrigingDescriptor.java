@@ -69,6 +69,16 @@ public final class KrigingDescriptor extends AbstractProcessDescriptor{
             .setRequired(false)
             .create(Dimension.class,null);
 
+    /**
+     * Optional - number of nearest points used for each block of the grid.
+     * If not set, all points are used for each cell.
+     */
+    public static final ParameterDescriptor<Integer> IN_NEIGHBOURS = new ParameterBuilder()
+            .addName("neighbours")
+            .setRemarks("Number of nearest points used to interpolate each block of the grid, all points are used if not set")
+            .setRequired(false)
+            .createBounded(1, Integer.MAX_VALUE, null);
+
     /**
      * Mandatory - Coverage crs
      */
@@ -81,7 +91,7 @@ public final class KrigingDescriptor extends AbstractProcessDescriptor{
 
     public static final ParameterDescriptorGroup INPUT_DESC =
             new ParameterBuilder().addName(NAME+"InputParameters").createGroup(
-                IN_POINTS, IN_CRS, IN_STEP, IN_DIMENSION);
+                IN_POINTS, IN_CRS, IN_STEP, IN_DIMENSION, IN_NEIGHBOURS);
 
     /**
      * Output coverage.
@@ -40,7 +40,6 @@ import org.geotoolkit.storage.feature.FeatureStoreUtilities;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
-import org.opengis.coverage.grid.SequenceType;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
 import org.opengis.geometry.DirectPosition;
@@ -66,6 +65,7 @@ public class KrigingProcess extends AbstractProcess {
         double step                         = inputParameters.getValue(IN_STEP);
         final DirectPosition[] coords       = inputParameters.getValue(IN_POINTS);
         final Dimension maxDim              = inputParameters.getValue(IN_DIMENSION);
+        final Integer neighbours            = inputParameters.getValue(IN_NEIGHBOURS);
 
         //calculate the envelope
         double minx = Double.POSITIVE_INFINITY;
@@ -114,6 +114,9 @@ public class KrigingProcess extends AbstractProcess {
             // metres to some approximation of angles of longitude/latitude.
             ob.setScaleFactor(1. / (60*1852)); // Use standard length of nautical mile.
         }
+        if (neighbours != null) {
+            ob.setNeighbourCount(neighbours);
+        }
 
 //        double[] computed;
 //        try {
@@ -126,18 +129,17 @@ public class KrigingProcess extends AbstractProcess {
 //        final double[] cx = ob.getXs();
 //        final double[] cy = ob.getYs();
         ob.setInputs(x, y, z);
-        RenderedImage renderedImage = ob.createImage();
-        final int outLength = ob.getOutputLength();
-        final int rIWidth = renderedImage.getWidth();
-        final int rIHeight = renderedImage.getHeight();
+        //values are row-major, in moving neighbourhood mode blocks of cells are computed in parallel
+        final double[] cz;
+        try {
+            cz = ob.interpolate((double[]) null);
+        } catch (IllegalArgumentException ex) {
+            throw new ProcessException(ex.getMessage(), this, ex);
+        }
+        final int rIWidth = dim.width;
+        final int rIHeight = dim.height;
         final double[] cx = new double[rIWidth];
         final double[] cy = new double[rIHeight];
-        final double[] cz = new double[outLength];
-        final PixelIterator it = new PixelIterator.Builder().setIteratorOrder(SequenceType.LINEAR).create(renderedImage);
-        int comp = 0;
-        while (it.next()) {
-            cz[comp++] = it.getSampleDouble(0);
-        }
         final double x0 = Math.min(cx[0], cx[cx.length-1]);
         final double y0 = Math.min(cy[0], cy[cy.length-1]);
         final double spanX = Math.abs((x[x.length-1]-x[0])/rIWidth);
@@ -166,7 +168,7 @@ public class KrigingProcess extends AbstractProcess {
         outputParameters.getOrCreate(OUT_COVERAGE).setValue(coverage);
 
         //test
-        renderedImage = coverage.render(null);
+        final RenderedImage renderedImage = coverage.render(null);
 
         //create the isolines //////////////////////////////////////////////////
         if (step <= 0) {
@@ -0,0 +1,200 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import java.util.Objects;
+import static org.apache.sis.util.ArgumentChecks.ensurePositive;
+
+/**
+ * Arithmetic expression over coverage bands, evaluated by {@link CoverageExpressionProcess}.
+ * Expressions are immutable trees built from {@linkplain #band bands} and {@linkplain #constant constants},
+ * for example a normalized difference index is written:
+ *
+ * {@snippet lang="java" :
+ *     BandExpression nir = BandExpression.band(0, 3);
+ *     BandExpression red = BandExpression.band(0, 2);
+ *     BandExpression ndvi = nir.subtract(red).divide(nir.add(red));
+ *     }
+ *
+ * Evaluation follows the IEEE rules on {@code double} values, NaN values are propagated.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public abstract class BandExpression {
+
+    static final byte ADD = 0, SUBTRACT = 1, MULTIPLY = 2, DIVIDE = 3;
+
+    private static final char[] SYMBOLS = {'+', '-', '*', '/'};
+
+    BandExpression() {
+    }
+
+    /**
+     * Creates a reference to a coverage band.
+     *
+     * @param coverage index of the coverage in the process input array.
+     * @param band index of the band in the coverage.
+     * @return expression returning the band converted values.
+     */
+    public static BandExpression band(final int coverage, final int band) {
+        ensurePositive("coverage", coverage);
+        ensurePositive("band", band);
+        return new Band(coverage, band);
+    }
+
+    /**
+     * Creates a constant value.
+     *
+     * @param value constant value.
+     * @return expression returning the given value for all pixels.
+     */
+    public static BandExpression constant(final double value) {
+        return new Constant(value);
+    }
+
+    public BandExpression add(final BandExpression other) {
+        return new Operation(ADD, this, other);
+    }
+
+    public BandExpression subtract(final BandExpression other) {
+        return new Operation(SUBTRACT, this, other);
+    }
+
+    public BandExpression multiply(final BandExpression other) {
+        return new Operation(MULTIPLY, this, other);
+    }
+
+    public BandExpression divide(final BandExpression other) {
+        return new Operation(DIVIDE, this, other);
+    }
+
+    /**
+     * Returns the highest coverage index used in this expression, or -1 if none.
+     */
+    abstract int maxCoverage();
+
+    /**
+     * Appends this expression in postfix order.
+     */
+    abstract void compile(ExpressionProgram.Builder builder);
+
+    static final class Band extends BandExpression {
+        final int coverage, band;
+
+        Band(final int coverage, final int band) {
+            this.coverage = coverage;
+            this.band = band;
+        }
+
+        @Override
+        int maxCoverage() {
+            return coverage;
+        }
+
+        @Override
+        void compile(final ExpressionProgram.Builder builder) {
+            builder.band(coverage, band);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Band other && other.coverage == coverage && other.band == band;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * coverage + band;
+        }
+
+        @Override
+        public String toString() {
+            return "$" + coverage + "[" + band + "]";
+        }
+    }
+
+    static final class Constant extends BandExpression {
+        final double value;
+
+        Constant(final double value) {
+            this.value = value;
+        }
+
+        @Override
+        int maxCoverage() {
+            return -1;
+        }
+
+        @Override
+        void compile(final ExpressionProgram.Builder builder) {
+            builder.constant(value);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Constant other && Double.doubleToLongBits(other.value) == Double.doubleToLongBits(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    static final class Operation extends BandExpression {
+        final byte operator;
+        final BandExpression left, right;
+
+        Operation(final byte operator, final BandExpression left, final BandExpression right) {
+            this.operator = operator;
+            this.left = Objects.requireNonNull(left);
+            this.right = Objects.requireNonNull(right);
+        }
+
+        @Override
+        int maxCoverage() {
+            return Math.max(left.maxCoverage(), right.maxCoverage());
+        }
+
+        @Override
+        void compile(final ExpressionProgram.Builder builder) {
+            left.compile(builder);
+            right.compile(builder);
+            builder.operation(operator);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Operation other && other.operator == operator
+                    && other.left.equals(left) && other.right.equals(right);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operator, left, right);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + SYMBOLS[operator] + " " + right + ")";
+        }
+    }
+}
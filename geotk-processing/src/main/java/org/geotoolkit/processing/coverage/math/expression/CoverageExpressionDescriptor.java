@@ -0,0 +1,109 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.parameter.ParameterBuilder;
+import org.apache.sis.util.SimpleInternationalString;
+import org.geotoolkit.process.Process;
+import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.processing.AbstractProcessDescriptor;
+import org.geotoolkit.processing.GeotkProcessingRegistry;
+import org.opengis.parameter.ParameterDescriptor;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.util.InternationalString;
+
+/**
+ * Evaluates an arithmetic expression over bands of several coverages in a single pass.
+ * The result coverage is computed tile by tile when rendered, without intermediate coverages.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class CoverageExpressionDescriptor extends AbstractProcessDescriptor {
+
+    public static final String NAME = "coverage:math:expression";
+    public static final InternationalString ABSTRACT = new SimpleInternationalString("Evaluate an arithmetic expression over bands of several coverages");
+
+    public static final String IN_COVERAGES_NAME = "coverages";
+    private static final String IN_COVERAGES_REMARKS = "Coverages referenced by the expression band indices";
+
+    /**
+     * Mandatory - Coverages.
+     */
+    public static final ParameterDescriptor<GridCoverage[]> IN_COVERAGES = new ParameterBuilder()
+            .addName(IN_COVERAGES_NAME)
+            .setRemarks(IN_COVERAGES_REMARKS)
+            .setRequired(true)
+            .create(GridCoverage[].class,null);
+
+    public static final String IN_EXPRESSION_NAME = "expression";
+    private static final String IN_EXPRESSION_REMARKS = "Expression over coverage bands converted values";
+
+    /**
+     * Mandatory - Expression.
+     */
+    public static final ParameterDescriptor<BandExpression> IN_EXPRESSION = new ParameterBuilder()
+            .addName(IN_EXPRESSION_NAME)
+            .setRemarks(IN_EXPRESSION_REMARKS)
+            .setRequired(true)
+            .create(BandExpression.class,null);
+
+    public static final String IN_GRID_GEOMETRY_NAME = "gridGeometry";
+    private static final String IN_GRID_GEOMETRY_REMARKS = "Result grid geometry, first coverage grid geometry if not defined";
+
+    /**
+     * Optional - Result grid geometry.
+     */
+    public static final ParameterDescriptor<GridGeometry> IN_GRID_GEOMETRY = new ParameterBuilder()
+            .addName(IN_GRID_GEOMETRY_NAME)
+            .setRemarks(IN_GRID_GEOMETRY_REMARKS)
+            .setRequired(false)
+            .create(GridGeometry.class,null);
+
+    public static final ParameterDescriptorGroup INPUT_DESC = new ParameterBuilder().addName("InputParameters").setRequired(true)
+            .createGroup(IN_COVERAGES, IN_EXPRESSION, IN_GRID_GEOMETRY);
+
+    public static final String OUT_COVERAGE_NAME = "result";
+    private static final String OUT_COVERAGE_REMARKS = "Result as a coverage";
+
+    /**
+     * Mandatory - Resulting coverage.
+     */
+    public static final ParameterDescriptor<GridCoverage> OUT_COVERAGE = new ParameterBuilder()
+            .addName(OUT_COVERAGE_NAME)
+            .setRemarks(OUT_COVERAGE_REMARKS)
+            .setRequired(true)
+            .create(GridCoverage.class,null);
+
+    public static final ParameterDescriptorGroup OUTPUT_DESC = new ParameterBuilder()
+            .addName("OutputParameters").createGroup(OUT_COVERAGE);
+
+
+    public static final ProcessDescriptor INSTANCE = new CoverageExpressionDescriptor();
+
+    public CoverageExpressionDescriptor() {
+        super(NAME, GeotkProcessingRegistry.IDENTIFICATION, ABSTRACT,
+                INPUT_DESC, OUTPUT_DESC);
+    }
+
+    @Override
+    public Process createProcess(ParameterValueGroup input) {
+        return new CoverageExpressionProcess(this, input);
+    }
+}
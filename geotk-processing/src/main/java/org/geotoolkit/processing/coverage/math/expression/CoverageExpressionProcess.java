@@ -0,0 +1,137 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import java.awt.Rectangle;
+import java.awt.image.RenderedImage;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridCoverageProcessor;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.util.Utilities;
+import org.geotoolkit.coverage.grid.GridGeometryIterator;
+import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.process.ProcessException;
+import org.geotoolkit.processing.AbstractProcess;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.operation.TransformException;
+
+import static org.geotoolkit.processing.coverage.math.expression.CoverageExpressionDescriptor.IN_COVERAGES;
+import static org.geotoolkit.processing.coverage.math.expression.CoverageExpressionDescriptor.IN_EXPRESSION;
+import static org.geotoolkit.processing.coverage.math.expression.CoverageExpressionDescriptor.IN_GRID_GEOMETRY;
+import static org.geotoolkit.processing.coverage.math.expression.CoverageExpressionDescriptor.OUT_COVERAGE;
+
+/**
+ * Evaluates a {@link BandExpression} on converted values of the input coverages.
+ * <p>
+ * Coverages which are not on the result grid are resampled once, then the result image
+ * is computed tile by tile when requested, each tile in a single pass over its sources.
+ * If the result grid has more than two dimensions, the first two-dimensional slice is used.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class CoverageExpressionProcess extends AbstractProcess {
+
+    public CoverageExpressionProcess(final ProcessDescriptor desc, final ParameterValueGroup parameter) {
+        super(desc, parameter);
+    }
+
+    @Override
+    protected void execute() throws ProcessException {
+        final GridCoverage[] coverages = inputParameters.getValue(IN_COVERAGES);
+        final BandExpression expression = inputParameters.getValue(IN_EXPRESSION);
+        GridGeometry target = inputParameters.getValue(IN_GRID_GEOMETRY);
+
+        if (coverages.length == 0)
+            throw new ProcessException("No input coverage", this);
+        if (expression.maxCoverage() >= coverages.length)
+            throw new ProcessException("Expression uses coverage " + expression.maxCoverage()
+                    + " but only " + coverages.length + " coverages are given", this);
+
+        if (target == null) {
+            target = coverages[0].getGridGeometry();
+        }
+        if (target.getDimension() > 2) {
+            final GridGeometryIterator sliceIt = new GridGeometryIterator(target);
+            if (!sliceIt.hasNext())
+                throw new ProcessException("Result grid geometry is empty", this);
+            target = sliceIt.next();
+        }
+
+        final ExpressionProgram program = ExpressionProgram.compile(expression);
+        for (int s = 0; s < program.bands.length; s++) {
+            final int numBands = coverages[program.coverages[s]].getSampleDimensions().size();
+            if (program.bands[s] >= numBands)
+                throw new ProcessException("Expression uses band " + program.bands[s] + " of coverage "
+                        + program.coverages[s] + " which has only " + numBands + " bands", this);
+        }
+
+        //align all coverages on the result grid once
+        final GridExtent extent = target.getExtent();
+        final int width = Math.toIntExact(extent.getSize(0));
+        final int height = Math.toIntExact(extent.getSize(1));
+        final Rectangle area = new Rectangle(width, height);
+        final GridCoverageProcessor processor = new GridCoverageProcessor();
+        final RenderedImage[] images = new RenderedImage[coverages.length];
+        for (int i = 0; i < coverages.length; i++) {
+            GridCoverage coverage = coverages[i].forConvertedValues(true);
+            if (!isAligned(coverage.getGridGeometry(), target)) {
+                try {
+                    coverage = processor.resample(coverage, target);
+                } catch (TransformException ex) {
+                    throw new ProcessException(ex.getMessage(), this, ex);
+                }
+            }
+            /*
+             * The rendered image may be larger than the requested extent, its pixel (0,0)
+             * is the extent low corner and its origin may be negative.
+             */
+            images[i] = coverage.render(extent);
+            final Rectangle bounds = new Rectangle(images[i].getMinX(), images[i].getMinY(),
+                                                   images[i].getWidth(), images[i].getHeight());
+            if (!bounds.contains(area))
+                throw new ProcessException("Coverage " + i + " image does not cover the result grid", this, null);
+        }
+
+        final GridCoverageBuilder gcb = new GridCoverageBuilder();
+        gcb.setValues(new ExpressionImage(images, program, width, height));
+        gcb.setDomain(target);
+        outputParameters.getOrCreate(OUT_COVERAGE).setValue(gcb.build());
+    }
+
+    /**
+     * Returns {@code true} if the target grid is a subset of the source grid.
+     */
+    private static boolean isAligned(final GridGeometry source, final GridGeometry target) {
+        if (source.equals(target)) return true;
+        final int flags = GridGeometry.CRS | GridGeometry.GRID_TO_CRS | GridGeometry.EXTENT;
+        if (!source.isDefined(flags) || !target.isDefined(flags)) return false;
+        if (!Utilities.equalsIgnoreMetadata(source.getCoordinateReferenceSystem(), target.getCoordinateReferenceSystem())
+                || !source.getGridToCRS(PixelInCell.CELL_CENTER).equals(target.getGridToCRS(PixelInCell.CELL_CENTER))) {
+            return false;
+        }
+        final GridExtent se = source.getExtent();
+        final GridExtent te = target.getExtent();
+        for (int i = 0; i < te.getDimension(); i++) {
+            if (te.getLow(i) < se.getLow(i) || te.getHigh(i) > se.getHigh(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import org.apache.sis.image.ComputedImage;
+import org.apache.sis.image.ImageLayout;
+
+/**
+ * Single band {@code float} image of an expression result, tiles are computed when first needed.
+ * <p>
+ * Each tile reads only its own area of the source images, once per source image. No intermediate
+ * image is created, temporary arrays have the tile size. Tiles are independent and can be computed
+ * concurrently, for example with {@code ImageProcessor.prefetch}.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class ExpressionImage extends ComputedImage {
+
+    private static final ColorModel COLOR_MODEL = new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_GRAY), false, false, Transparency.OPAQUE, DataBuffer.TYPE_FLOAT);
+
+    private final RenderedImage[] images;
+    private final ExpressionProgram program;
+    private final int width, height;
+
+    /**
+     * @param images source images, pixel (0,0) of this image is pixel (0,0) of each source,
+     *        sources may extend beyond this image in any direction.
+     * @param program expression to evaluate, band slots refer to the {@code images} indices.
+     * @param width image width
+     * @param height image height
+     */
+    ExpressionImage(final RenderedImage[] images, final ExpressionProgram program, final int width, final int height) {
+        super(createSampleModel(width, height), images);
+        this.images = images;
+        this.program = program;
+        this.width = width;
+        this.height = height;
+    }
+
+    private static BandedSampleModel createSampleModel(final int width, final int height) {
+        final Dimension tileSize = ImageLayout.DEFAULT.suggestTileSize(width, height);
+        return new BandedSampleModel(DataBuffer.TYPE_FLOAT, tileSize.width, tileSize.height, 1);
+    }
+
+    @Override
+    public ColorModel getColorModel() {
+        return COLOR_MODEL;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    protected Raster computeTile(final int tileX, final int tileY, final WritableRaster previous) {
+        final int x0 = tileX * getTileWidth();
+        final int y0 = tileY * getTileHeight();
+        final int tw = Math.min(getTileWidth(), width - x0);
+        final int th = Math.min(getTileHeight(), height - y0);
+        final int length = tw * th;
+        final WritableRaster tile = (previous != null) ? previous
+                : Raster.createWritableRaster(getSampleModel(), new Point(x0, y0));
+
+        //read each source once, then extract the bands used by the expression
+        final Raster[] rasters = new Raster[images.length];
+        final double[][] samples = new double[program.bands.length][];
+        for (int s = 0; s < samples.length; s++) {
+            final int c = program.coverages[s];
+            if (rasters[c] == null) {
+                rasters[c] = images[c].getData(new Rectangle(x0, y0, tw, th));
+            }
+            samples[s] = rasters[c].getSamples(x0, y0, tw, th, program.bands[s], new double[length]);
+        }
+
+        final double[] result = new double[length];
+        program.evaluate(samples, length, result);
+        tile.setSamples(x0, y0, tw, th, 0, result);
+        return tile;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.geotoolkit.processing.coverage.math.expression.BandExpression.ADD;
+import static org.geotoolkit.processing.coverage.math.expression.BandExpression.DIVIDE;
+import static org.geotoolkit.processing.coverage.math.expression.BandExpression.MULTIPLY;
+import static org.geotoolkit.processing.coverage.math.expression.BandExpression.SUBTRACT;
+
+/**
+ * {@link BandExpression} compiled in postfix order, evaluated on whole arrays of samples.
+ * <p>
+ * Each band used by the expression is read once per tile, whatever the number of times it
+ * appears in the expression. Operations are simple loops over {@code double[]} arrays which
+ * HotSpot compiles to SIMD instructions. Operations with a constant operand do not expand the
+ * constant to an array, and operations on two constants are folded at compile time.
+ * <p>
+ * Programs are immutable, evaluation can be done concurrently.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class ExpressionProgram {
+
+    private static final byte PUSH_BAND = 4, PUSH_CONSTANT = 5;
+
+    /**
+     * Distinct bands used by the expression, as (coverage, band) pairs.
+     */
+    final int[] coverages, bands;
+
+    private final byte[] codes;
+
+    /**
+     * Band slot for {@link #PUSH_BAND}, index in {@link #constants} for {@link #PUSH_CONSTANT}.
+     */
+    private final int[] arguments;
+
+    private final double[] constants;
+
+    /**
+     * Maximal stack depth.
+     */
+    private final int depth;
+
+    private ExpressionProgram(final Builder builder) {
+        final int n = builder.codes.size();
+        codes = new byte[n];
+        arguments = new int[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = builder.codes.get(i);
+            arguments[i] = builder.arguments.get(i);
+        }
+        constants = builder.constants.stream().mapToDouble(Double::doubleValue).toArray();
+        coverages = builder.bands.stream().mapToInt(BandSlot::coverage).toArray();
+        bands = builder.bands.stream().mapToInt(BandSlot::band).toArray();
+        depth = builder.maxDepth;
+    }
+
+    static ExpressionProgram compile(final BandExpression expression) {
+        final Builder builder = new Builder();
+        expression.compile(builder);
+        return new ExpressionProgram(builder);
+    }
+
+    /**
+     * Evaluates the expression.
+     *
+     * @param  samples values of each band slot, arrays are not modified.
+     * @param  length number of values to compute.
+     * @param  result where to store the result, length must be at least {@code length}.
+     */
+    void evaluate(final double[][] samples, final int length, final double[] result) {
+        final double[][] arrays = new double[depth][];
+        final double[] scalars = new double[depth];
+        final boolean[] owned = new boolean[depth];
+        final ArrayDeque<double[]> free = new ArrayDeque<>();
+        free.push(result);
+        int top = -1;
+        for (int i = 0; i < codes.length; i++) {
+            final byte code = codes[i];
+            switch (code) {
+                case PUSH_BAND: {
+                    arrays[++top] = samples[arguments[i]];
+                    owned[top] = false;
+                    break;
+                }
+                case PUSH_CONSTANT: {
+                    arrays[++top] = null;
+                    scalars[top] = constants[arguments[i]];
+                    owned[top] = false;
+                    break;
+                }
+                default: {
+                    final int l = top - 1;
+                    final double[] a = arrays[l];
+                    final double[] b = arrays[top];
+                    double[] r;
+                    if (owned[l]) {
+                        r = a;
+                        if (owned[top]) free.push(b);
+                    } else if (owned[top]) {
+                        r = b;
+                    } else {
+                        r = free.isEmpty() ? new double[length] : free.pop();
+                    }
+                    if (a == null) {
+                        // constants are folded at compile time, b is an array
+                        apply(code, scalars[l], b, r, length);
+                    } else if (b == null) {
+                        apply(code, a, scalars[top], r, length);
+                    } else {
+                        apply(code, a, b, r, length);
+                    }
+                    arrays[l] = r;
+                    owned[l] = true;
+                    top = l;
+                    break;
+                }
+            }
+        }
+        final double[] a = arrays[0];
+        if (a == null) {
+            Arrays.fill(result, 0, length, scalars[0]);
+        } else if (a != result) {
+            System.arraycopy(a, 0, result, 0, length);
+        }
+    }
+
+    private static void apply(final byte op, final double[] a, final double[] b, final double[] r, final int n) {
+        switch (op) {
+            case ADD:      for (int i = 0; i < n; i++) r[i] = a[i] + b[i]; break;
+            case SUBTRACT: for (int i = 0; i < n; i++) r[i] = a[i] - b[i]; break;
+            case MULTIPLY: for (int i = 0; i < n; i++) r[i] = a[i] * b[i]; break;
+            case DIVIDE:   for (int i = 0; i < n; i++) r[i] = a[i] / b[i]; break;
+            default: throw new AssertionError(op);
+        }
+    }
+
+    private static void apply(final byte op, final double[] a, final double b, final double[] r, final int n) {
+        switch (op) {
+            case ADD:      for (int i = 0; i < n; i++) r[i] = a[i] + b; break;
+            case SUBTRACT: for (int i = 0; i < n; i++) r[i] = a[i] - b; break;
+            case MULTIPLY: for (int i = 0; i < n; i++) r[i] = a[i] * b; break;
+            case DIVIDE:   for (int i = 0; i < n; i++) r[i] = a[i] / b; break;
+            default: throw new AssertionError(op);
+        }
+    }
+
+    private static void apply(final byte op, final double a, final double[] b, final double[] r, final int n) {
+        switch (op) {
+            case ADD:      for (int i = 0; i < n; i++) r[i] = a + b[i]; break;
+            case SUBTRACT: for (int i = 0; i < n; i++) r[i] = a - b[i]; break;
+            case MULTIPLY: for (int i = 0; i < n; i++) r[i] = a * b[i]; break;
+            case DIVIDE:   for (int i = 0; i < n; i++) r[i] = a / b[i]; break;
+            default: throw new AssertionError(op);
+        }
+    }
+
+    private static double apply(final byte op, final double a, final double b) {
+        switch (op) {
+            case ADD:      return a + b;
+            case SUBTRACT: return a - b;
+            case MULTIPLY: return a * b;
+            case DIVIDE:   return a / b;
+            default: throw new AssertionError(op);
+        }
+    }
+
+    private record BandSlot(int coverage, int band) {
+    }
+
+    /**
+     * Receives the expression nodes in postfix order.
+     */
+    static final class Builder {
+        private final List<Byte> codes = new ArrayList<>();
+        private final List<Integer> arguments = new ArrayList<>();
+        private final List<Double> constants = new ArrayList<>();
+        private final List<BandSlot> bands = new ArrayList<>();
+        private int currentDepth, maxDepth;
+
+        private Builder() {
+        }
+
+        void band(final int coverage, final int band) {
+            final BandSlot b = new BandSlot(coverage, band);
+            int slot = bands.indexOf(b);
+            if (slot < 0) {
+                slot = bands.size();
+                bands.add(b);
+            }
+            push(PUSH_BAND, slot);
+        }
+
+        void constant(final double value) {
+            constants.add(value);
+            push(PUSH_CONSTANT, constants.size() - 1);
+        }
+
+        void operation(final byte operator) {
+            final int last = codes.size() - 1;
+            if (codes.get(last) == PUSH_CONSTANT && codes.get(last - 1) == PUSH_CONSTANT) {
+                final double b = constants.get(arguments.get(last));
+                final double a = constants.get(arguments.get(last - 1));
+                for (int i = 0; i < 2; i++) {
+                    codes.remove(codes.size() - 1);
+                    arguments.remove(arguments.size() - 1);
+                    constants.remove(constants.size() - 1);
+                }
+                currentDepth -= 2;
+                constant(apply(operator, a, b));
+            } else {
+                codes.add(operator);
+                arguments.add(-1);
+                currentDepth--;
+            }
+        }
+
+        private void push(final byte code, final int argument) {
+            codes.add(code);
+            arguments.add(argument);
+            maxDepth = Math.max(maxDepth, ++currentDepth);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.shadedrelief;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import org.apache.sis.geometries.math.Maths;
+import org.apache.sis.geometries.math.Vector3D;
+import org.apache.sis.image.ComputedImage;
+import org.apache.sis.image.ImageLayout;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.MathTransform1D;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Shaded relief image, tiles are computed when first needed.
+ * <p>
+ * Each tile reads only its own area of the base and elevation images, plus one row and
+ * column of elevation on the bottom and right side. Tiles are independent and can be
+ * computed concurrently, for example with {@code ImageProcessor.prefetch}.
+ * </p>
+ * <p>
+ * Cell corner coordinates are interpolated from the tile corners, the exact transform is
+ * used when this linear approximation is too far from the transform at the tile center.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class ShadedReliefImage extends ComputedImage {
+
+    /**
+     * Maximum linearization error at tile center, relative to the pixel size.
+     */
+    private static final double TOLERANCE = 0.05;
+
+    private static final ColorModel COLOR_MODEL = ColorModel.getRGBdefault();
+
+    private final RenderedImage baseImage;
+    private final RenderedImage elevation;
+    private final MathTransform1D eleConv;
+    private final MathTransform gridToMercator;
+    private final int minX, minY, width, height;
+    /**
+     * Translation from this image pixel to the elevation image pixel.
+     */
+    private final int eleOffsetX, eleOffsetY;
+    /**
+     * Translation from this image pixel to grid coordinates.
+     */
+    private final long gridOffsetX, gridOffsetY;
+
+    private final Vector3D.Float lightDirection = new Vector3D.Float(1, 1, 1);
+
+    /**
+     * @param baseImage image to shade, with the same size as elevation image
+     * @param elevation elevation image, with converted values
+     * @param eleConv elevation to metres conversion
+     * @param gridToMercator grid cell corner to Mercator transform
+     * @param gridLowX grid coordinate of base image first column
+     * @param gridLowY grid coordinate of base image first row
+     */
+    ShadedReliefImage(final RenderedImage baseImage, final RenderedImage elevation, final MathTransform1D eleConv,
+            final MathTransform gridToMercator, final long gridLowX, final long gridLowY) {
+        super(createSampleModel(baseImage), baseImage, elevation);
+        this.baseImage = baseImage;
+        this.elevation = elevation;
+        this.eleConv = eleConv;
+        this.gridToMercator = gridToMercator;
+        this.minX = baseImage.getMinX();
+        this.minY = baseImage.getMinY();
+        this.width = baseImage.getWidth();
+        this.height = baseImage.getHeight();
+        this.eleOffsetX = elevation.getMinX() - minX;
+        this.eleOffsetY = elevation.getMinY() - minY;
+        this.gridOffsetX = gridLowX - minX;
+        this.gridOffsetY = gridLowY - minY;
+        lightDirection.normalize();
+    }
+
+    private static SampleModel createSampleModel(final RenderedImage baseImage) {
+        final Dimension tileSize = ImageLayout.DEFAULT.suggestTileSize(baseImage.getWidth(), baseImage.getHeight());
+        return COLOR_MODEL.createCompatibleSampleModel(tileSize.width, tileSize.height);
+    }
+
+    @Override
+    public ColorModel getColorModel() {
+        return COLOR_MODEL;
+    }
+
+    @Override
+    public int getMinX() {
+        return minX;
+    }
+
+    @Override
+    public int getMinY() {
+        return minY;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    protected Raster computeTile(final int tileX, final int tileY, final WritableRaster previous) throws TransformException {
+        final int x0 = minX + tileX * getTileWidth();
+        final int y0 = minY + tileY * getTileHeight();
+        final int tw = Math.min(getTileWidth(), minX + width - x0);
+        final int th = Math.min(getTileHeight(), minY + height - y0);
+        final WritableRaster tile = (previous != null) ? previous
+                : Raster.createWritableRaster(getSampleModel(), new Point(x0, y0));
+
+        //elevations on cell corners, last row and column are repeated on image border
+        final int cw = tw + 1;
+        final int ch = th + 1;
+        final int lastX = minX + width - 1;
+        final int lastY = minY + height - 1;
+        final int ex1 = Math.min(x0 + tw, lastX);
+        final int ey1 = Math.min(y0 + th, lastY);
+        final Raster eleRaster = elevation.getData(new Rectangle(x0 + eleOffsetX, y0 + eleOffsetY, ex1 - x0 + 1, ey1 - y0 + 1));
+        final float[] ele = new float[cw * ch];
+        for (int j = 0, k = 0; j < ch; j++) {
+            final int y = Math.min(y0 + j, ey1) + eleOffsetY;
+            for (int i = 0; i < cw; i++, k++) {
+                final int x = Math.min(x0 + i, ex1) + eleOffsetX;
+                ele[k] = (float) eleConv.transform(eleRaster.getSampleFloat(x, y, 0));
+            }
+        }
+
+        final float[] coords = cornerCoordinates(x0 + gridOffsetX, y0 + gridOffsetY, cw, ch);
+        final Raster baseRaster = baseImage.getData(new Rectangle(x0, y0, tw, th));
+        final ColorModel cm = baseImage.getColorModel();
+
+        //loop on each pixel, create 2 triangles and calculate shaded color
+        final int[] pixels = new int[tw * th];
+        final float[] fa = new float[3];
+        final float[] fb = new float[3];
+        final float[] fc = new float[3];
+        final float[] fd = new float[3];
+        final Vector3D.Float v1 = new Vector3D.Float();
+        final Vector3D.Float v2 = new Vector3D.Float();
+        final Vector3D.Float v3 = new Vector3D.Float();
+        final Vector3D.Float n1 = new Vector3D.Float();
+        final Vector3D.Float n2 = new Vector3D.Float();
+        final Vector3D.Float n = new Vector3D.Float();
+        Object pixel = null;
+        for (int y = 0, p = 0; y < th; y++) {
+            for (int x = 0; x < tw; x++, p++) {
+                //get 4 corner coordinates
+                final int a = y * cw + x;
+                final int c = a + cw;
+                fa[0]=coords[a*2];       fa[1]=coords[a*2+1];     fa[2]=ele[a];
+                fb[0]=coords[a*2+2];     fb[1]=coords[a*2+3];     fb[2]=ele[a+1];
+                fc[0]=coords[c*2];       fc[1]=coords[c*2+1];     fc[2]=ele[c];
+                fd[0]=coords[c*2+2];     fd[1]=coords[c*2+3];     fd[2]=ele[c+1];
+
+                boolean flipx = (fa[0] > fb[0]);
+                boolean flipy = (fa[1] < fc[1]);
+                boolean invert = (flipx || flipy) && !(flipx && flipy);
+
+                //calculate average normal of the triangles
+                v1.x = fa[0]; v1.y = fa[1]; v1.z = fa[2];
+                v2.x = fb[0]; v2.y = fb[1]; v2.z = fb[2];
+                v3.x = fc[0]; v3.y = fc[1]; v3.z = fc[2];
+
+                n1.set(Maths.calculateNormal(v1, v3, v2));
+
+                v1.x = fb[0]; v1.y = fb[1]; v1.z = fb[2];
+                v2.x = fc[0]; v2.y = fc[1]; v2.z = fc[2];
+                v3.x = fd[0]; v3.y = fd[1]; v3.z = fd[2];
+
+                n2.set(Maths.calculateNormal(v1, v2, v3));
+                n.set(n1);
+                n.add(n2);
+                n.normalize();
+
+                if (invert) {
+                    n.scale(-1f);
+                }
+
+                pixel = baseRaster.getDataElements(x0 + x, y0 + y, pixel);
+                final int argb = cm.getRGB(pixel);
+                float cr = (float)((argb>>16) & 0xFF) / 255f;
+                float cg = (float)((argb>>8) & 0xFF) / 255f;
+                float cb = (float)((argb>>0) & 0xFF) / 255f;
+                float ca = (float)((argb>>24) & 0xFF) / 255f;
+                float ratio = 1f;
+
+                //if we have an NaN in the normal we skip shading for this cell
+                //the elevation model has a hole in the grid
+                if (!Float.isNaN(n.x) && !Float.isNaN(n.y) && !Float.isNaN(n.z)) {
+                    //calculate shaded color
+                    ratio = (float) Math.max(lightDirection.dot(n),0.0f);
+                    //next line is to indensify average colors, lights darken flat areas so we compensate a little
+                    ratio = ratio + (float) (Math.sin(ratio*Math.PI)*0.20);
+                }
+
+                pixels[p] = ShadedRelief.toARGB(cr*ratio, cg*ratio, cb*ratio, ca);
+            }
+        }
+        tile.setDataElements(x0, y0, tw, th, pixels);
+        return tile;
+    }
+
+    /**
+     * Compute Mercator coordinates of cell corners, relative to the first corner.
+     * Coordinates are interpolated between the four corners of the area if the
+     * transform is close enough to linear, otherwise each corner is transformed.
+     *
+     * @param gx grid coordinate of first corner
+     * @param gy grid coordinate of first corner
+     * @param cw number of corners on x axis
+     * @param ch number of corners on y axis
+     * @return interleaved x,y coordinates, row by row
+     */
+    private float[] cornerCoordinates(final long gx, final long gy, final int cw, final int ch) throws TransformException {
+        final int w = cw - 1;
+        final int h = ch - 1;
+        final double[] corners = new double[]{
+            gx,     gy,
+            gx + w, gy,
+            gx,     gy + h,
+            gx + w, gy + h,
+            gx + w / 2.0, gy + h / 2.0
+        };
+        gridToMercator.transform(corners, 0, corners, 0, 5);
+        final double ox = corners[0];
+        final double oy = corners[1];
+        final float[] coords = new float[cw * ch * 2];
+
+        //check linearization error at area center
+        final double cx = (corners[0] + corners[2] + corners[4] + corners[6]) / 4;
+        final double cy = (corners[1] + corners[3] + corners[5] + corners[7]) / 4;
+        final double pixelSize = Math.min(
+                Math.hypot(corners[2] - corners[0], corners[3] - corners[1]) / w,
+                Math.hypot(corners[4] - corners[0], corners[5] - corners[1]) / h);
+        final double error = Math.hypot(corners[8] - cx, corners[9] - cy);
+
+        if (error <= pixelSize * TOLERANCE) {
+            for (int j = 0, k = 0; j < ch; j++) {
+                final double ty = (double) j / h;
+                final double lx = corners[0] + (corners[4] - corners[0]) * ty;
+                final double ly = corners[1] + (corners[5] - corners[1]) * ty;
+                final double rx = corners[2] + (corners[6] - corners[2]) * ty;
+                final double ry = corners[3] + (corners[7] - corners[3]) * ty;
+                for (int i = 0; i < cw; i++) {
+                    final double tx = (double) i / w;
+                    coords[k++] = (float) (lx + (rx - lx) * tx - ox);
+                    coords[k++] = (float) (ly + (ry - ly) * tx - oy);
+                }
+            }
+        } else {
+            final double[] grid = new double[cw * ch * 2];
+            for (int j = 0, k = 0; j < ch; j++) {
+                for (int i = 0; i < cw; i++) {
+                    grid[k++] = gx + i;
+                    grid[k++] = gy + j;
+                }
+            }
+            gridToMercator.transform(grid, 0, grid, 0, cw * ch);
+            for (int k = 0; k < grid.length; k += 2) {
+                coords[k]   = (float) (grid[k]   - ox);
+                coords[k+1] = (float) (grid[k+1] - oy);
+            }
+        }
+        return coords;
+    }
+}
@@ -211,4 +211,21 @@ public class ComputeVolumeBuilder {
         org.geotoolkit.process.Process volumeProcess = volumeDescriptor.createProcess(volumeInput);
         return ((Double) volumeProcess.call().parameter(ComputeVolumeDescriptor.OUTPUT_VOLUME_NAME).getValue());
     }
+
+    /**
+     * Return volume of each given area, computed from all previously setted attributs except area.<br/>
+     * DEM is read once for all areas, and each DEM tile is read once, whatever the number of areas crossing it.<br/>
+     * Each volume is the one {@link #getVolume()} returns for the area.
+     *
+     * @param areas {@link Geometry geometries} which represente areas on DEM where compute volume.
+     * @return volume of each area, in the same order.
+     * @throws ProcessException
+     */
+    public double[] getVolumes(final Geometry... areas) throws ProcessException {
+        ArgumentChecks.ensureNonNull("areas", areas);
+        for (int i = 0; i < areas.length; i++) {
+            ArgumentChecks.ensureNonNullElement("areas", i, areas[i]);
+        }
+        return new TiledVolumeCalculator(gcReader, geomCRS, bandIndex, groundAltitude, zCeiling, null).compute(areas);
+    }
 }
@@ -0,0 +1,439 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.volume;
+
+import java.awt.Rectangle;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.measure.UnitConverter;
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.geometry.Envelope2D;
+import org.apache.sis.image.PixelIterator;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.image.interpolation.Interpolation;
+import org.geotoolkit.image.interpolation.InterpolationCase;
+import org.geotoolkit.image.interpolation.ResampleBorderComportement;
+import org.geotoolkit.process.DismissProcessException;
+import org.geotoolkit.process.ProcessException;
+import org.geotoolkit.processing.AbstractProcess;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.opengis.coverage.grid.SequenceType;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Computes volumes of several areas over the same DEM, tile by tile.
+ * <p>
+ * The DEM is read once for the envelope of all areas, plus a margin for interpolation,
+ * then only image tiles intersecting at least one area are requested. Each tile is processed
+ * in parallel : every pixel is divided in {@code 1/PIXELSTEP²} samples, for every area crossing
+ * the tile a mask of the samples strictly inside the area is filled by scanlines (even-odd rule,
+ * holes included), and interpolated heights of masked samples are summed with Kahan compensation.
+ * Tile sums are then added in tile order, so results do not depend on thread scheduling.
+ * </p>
+ * <p>
+ * Sampling, interpolation and sample areas are the ones of the original point by point
+ * computation, an area has the same volume alone or within a batch. Area edges are transformed
+ * to the coverage CRS by their vertices.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class TiledVolumeCalculator {
+
+    /**
+     * Number of samples per pixel along each grid axis.
+     */
+    private static final int SAMPLES = (int) Math.round(1 / ComputeVolumeProcess.PIXELSTEP);
+
+    /**
+     * Pixels read around tiles and areas, larger than half the bicubic interpolation window
+     * so that interpolation is only clipped by the coverage borders.
+     */
+    private static final int MARGIN = 3;
+
+    private final GridCoverageResource resource;
+    private final CoordinateReferenceSystem geomCRS;
+    private final int bandIndex;
+    private final double zGroundCeiling;
+    private final double zMaxCeiling;
+    private final AbstractProcess process;
+
+    /**
+     * @param resource elevation model
+     * @param geomCRS areas crs, if {@code null} it is searched in each geometry, then coverage crs is used
+     * @param bandIndex elevation band
+     * @param zGroundCeiling geometry altitude
+     * @param zMaxCeiling maximum ceiling
+     * @param process calling process checked for dismissal between tiles, can be null
+     */
+    TiledVolumeCalculator(final GridCoverageResource resource, final CoordinateReferenceSystem geomCRS,
+            final int bandIndex, final double zGroundCeiling, final double zMaxCeiling, final AbstractProcess process) {
+        this.resource = resource;
+        this.geomCRS = geomCRS;
+        this.bandIndex = bandIndex;
+        this.zGroundCeiling = zGroundCeiling;
+        this.zMaxCeiling = zMaxCeiling;
+        this.process = process;
+    }
+
+    /**
+     * Computes the volume of each area.
+     *
+     * @param areas polygons or multi-polygons
+     * @return volume in m³ for each area, in the same order
+     */
+    double[] compute(final Geometry[] areas) throws ProcessException {
+        final double[] volumes = new double[areas.length];
+        if (zGroundCeiling == zMaxCeiling || areas.length == 0) {
+            return volumes;
+        }
+        try {
+            final GridGeometry covGridGeom = resource.getGridGeometry();
+            final CoordinateReferenceSystem covCrs = covGridGeom.getCoordinateReferenceSystem();
+
+            //-- rings in coverage crs, and envelope of all areas
+            final List<List<double[]>> rings = new ArrayList<>(areas.length);
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (final Geometry area : areas) {
+                CoordinateReferenceSystem crs = geomCRS;
+                if (crs == null) crs = JTS.findCoordinateReferenceSystem(area);
+                if (crs == null) crs = covCrs;
+                final MathTransform geomToCov = CRS.findOperation(crs, covCrs, null).getMathTransform();
+                final List<double[]> areaRings = rings(area);
+                for (final double[] ring : areaRings) {
+                    geomToCov.transform(ring, 0, ring, 0, ring.length / 2);
+                    for (int i = 0; i < ring.length; i += 2) {
+                        minX = Math.min(minX, ring[i]);
+                        maxX = Math.max(maxX, ring[i]);
+                        minY = Math.min(minY, ring[i+1]);
+                        maxY = Math.max(maxY, ring[i+1]);
+                    }
+                }
+                rings.add(areaRings);
+            }
+            if (!(minX <= maxX && minY <= maxY)) {
+                return volumes;
+            }
+
+            //-- next read only interest area.
+            final Envelope2D env = new Envelope2D(covCrs, minX, minY, maxX - minX, maxY - minY);
+            final GridCoverage dem = resource.read(covGridGeom.derive().margin(MARGIN, MARGIN).subgrid(env).build()).forConvertedValues(true);
+            final SampleDimension gsd = dem.getSampleDimensions().get(bandIndex);
+            final UnitConverter hconverter = ComputeVolumeProcess.heightConverter(gsd);
+            final GridGeometry gg2d = dem.getGridGeometry();
+            final GridExtent extent = gg2d.getExtent();
+            final int[] subSpace = extent.getSubspaceDimensions(2);
+            final long gWidth = extent.getSize(subSpace[0]);
+            final long gHeight = extent.getSize(subSpace[1]);
+
+            //-- adapt interpolation in function of grid extend
+            final InterpolationCase interpolation;
+            if (gWidth < 1 || gHeight < 1) {
+                return volumes;
+            } else if (gWidth < 2 || gHeight < 2) {
+                interpolation = InterpolationCase.NEIGHBOR;
+            } else if (gWidth < 4 || gHeight < 4) {
+                interpolation = InterpolationCase.BILINEAR;
+            } else {
+                interpolation = InterpolationCase.BICUBIC;
+            }
+            final RenderedImage image = dem.render(null);
+
+            //-- image coordinates to coverage crs, image min corresponds to extent low
+            final MathTransform imageToCrs = MathTransforms.concatenate(
+                    MathTransforms.translation(extent.getLow(subSpace[0]) - image.getMinX(), extent.getLow(subSpace[1]) - image.getMinY()),
+                    gg2d.getGridToCRS(PixelInCell.CELL_CORNER));
+            final MathTransform crsToImage = imageToCrs.inverse();
+            if (ComputeVolumeProcess.createAreaCalculator(ComputeVolumeProcess.PIXELSTEP, covCrs, imageToCrs, gg2d) == null) {
+                throw new ProcessException("Coordinate reference system configuration not supported. CRS should be instance of geographic crs or has a cartesian coordinate system.", process, null);
+            }
+
+            final Rectangle bounds = new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+            final Mask[] masks = new Mask[areas.length];
+            for (int i = 0; i < areas.length; i++) {
+                for (final double[] ring : rings.get(i)) {
+                    crsToImage.transform(ring, 0, ring, 0, ring.length / 2);
+                }
+                masks[i] = new Mask(rings.get(i), bounds);
+            }
+
+            //-- tiles intersecting at least one area, with the intersecting areas
+            final List<Rectangle> tiles = new ArrayList<>();
+            final List<int[]> tileAreas = new ArrayList<>();
+            final int[] candidates = new int[areas.length];
+            final int tileW = image.getTileWidth();
+            final int tileH = image.getTileHeight();
+            for (int ty = image.getMinTileY(), ny = ty + image.getNumYTiles(); ty < ny; ty++) {
+                for (int tx = image.getMinTileX(), nx = tx + image.getNumXTiles(); tx < nx; tx++) {
+                    final Rectangle tile = new Rectangle(image.getTileGridXOffset() + tx * tileW,
+                                                         image.getTileGridYOffset() + ty * tileH, tileW, tileH)
+                                                         .intersection(bounds);
+                    int n = 0;
+                    for (int i = 0; i < masks.length; i++) {
+                        if (masks[i].intersects(tile)) candidates[n++] = i;
+                    }
+                    if (n != 0) {
+                        tiles.add(tile);
+                        tileAreas.add(Arrays.copyOf(candidates, n));
+                    }
+                }
+            }
+
+            final double[][] partials = new double[tiles.size()][];
+            try {
+                IntStream.range(0, tiles.size()).parallel().forEach((int t) -> {
+                    try {
+                        partials[t] = computeTile(image, bounds, tiles.get(t), tileAreas.get(t), masks, interpolation,
+                                hconverter, ComputeVolumeProcess.createAreaCalculator(ComputeVolumeProcess.PIXELSTEP, covCrs, imageToCrs, gg2d));
+                    } catch (Exception ex) {
+                        throw new BackingStoreException(ex);
+                    }
+                });
+            } catch (BackingStoreException ex) {
+                throw ex.unwrapOrRethrow(Exception.class);
+            }
+
+            //-- add tile sums in tile order
+            final double[] compensations = new double[areas.length];
+            for (int t = 0; t < partials.length; t++) {
+                final int[] indices = tileAreas.get(t);
+                for (int k = 0; k < indices.length; k++) {
+                    final int i = indices[k];
+                    final double y = partials[t][k] - compensations[i];
+                    final double s = volumes[i] + y;
+                    compensations[i] = (s - volumes[i]) - y;
+                    volumes[i] = s;
+                }
+            }
+            return volumes;
+        } catch (ProcessException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new ProcessException(ex.getMessage(), process, ex);
+        }
+    }
+
+    /**
+     * Computes the volume of each given area inside one tile.
+     *
+     * @return volume for each area index of {@code indices}.
+     */
+    private double[] computeTile(final RenderedImage image, final Rectangle bounds, final Rectangle tile, final int[] indices,
+            final Mask[] masks, final InterpolationCase interpolation, final UnitConverter hconverter,
+            final ComputeVolumeProcess.StepPixelAreaCalculator calculator) throws ProcessException, TransformException {
+        if (process != null && process.isDimissed()) {
+            throw new DismissProcessException("Process has been dismissed.", process);
+        }
+        final Rectangle region = new Rectangle(tile.x - MARGIN, tile.y - MARGIN, tile.width + 2 * MARGIN, tile.height + 2 * MARGIN)
+                .intersection(bounds);
+        final Interpolation interpol = Interpolation.create(new PixelIterator.Builder().setIteratorOrder(SequenceType.LINEAR)
+                .setRegionOfInterest(region).create(image), interpolation, 0, ResampleBorderComportement.EXTRAPOLATION, null);
+
+        final boolean positiveSens = zGroundCeiling < zMaxCeiling;
+        final double maxHeight = Math.abs(zMaxCeiling - zGroundCeiling);
+        final int width = tile.width * SAMPLES;
+        final boolean[] mask = new boolean[width * tile.height * SAMPLES];
+        //-- heights and areas of samples, computed once when areas overlap
+        final double[] volumes = new double[mask.length];
+        final boolean[] computed = new boolean[mask.length];
+        final double[] pixPoint = new double[2];
+        final double[] result = new double[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            final Rectangle span = masks[indices[k]].fill(tile, mask);
+            if (span == null) continue;
+            double sum = 0, c = 0;
+            for (int r = span.y, maxR = span.y + span.height; r < maxR; r++) {
+                for (int p = r * width + span.x, end = p + span.width; p < end; p++) {
+                    if (!mask[p]) continue;
+                    //-- clear while reading, the mask is blank again for the next area
+                    mask[p] = false;
+                    if (!computed[p]) {
+                        computed[p] = true;
+                        pixPoint[0] = tile.x + (p % width + 0.5) / SAMPLES;
+                        pixPoint[1] = tile.y + (p / width + 0.5) / SAMPLES;
+                        //-- interpolation coordinates are relative to pixel centers
+                        final double h = hconverter.convert(interpol.interpolate(pixPoint[0] - 0.5, pixPoint[1] - 0.5, bandIndex));
+                        //-- Verify that h value found is in appropriate interval, NaN are excluded.
+                        if ((positiveSens && h > zGroundCeiling) || (!positiveSens && h < zGroundCeiling)) {
+                            volumes[p] = Math.min(Math.abs(h - zGroundCeiling), maxHeight) * calculator.computeStepPixelArea(pixPoint);
+                        }
+                    }
+                    final double y = volumes[p] - c;
+                    final double s = sum + y;
+                    c = (s - sum) - y;
+                    sum = s;
+                }
+            }
+            result[k] = sum;
+        }
+        return result;
+    }
+
+    /**
+     * Returns exterior and interior rings of all polygons, as (x,y) arrays.
+     */
+    private static List<double[]> rings(final Geometry geometry) {
+        final List<double[]> rings = new ArrayList<>();
+        for (int i = 0, n = geometry.getNumGeometries(); i < n; i++) {
+            final Geometry part = geometry.getGeometryN(i);
+            if (part instanceof Polygon polygon) {
+                rings.add(coordinates(polygon.getExteriorRing()));
+                for (int r = 0, nr = polygon.getNumInteriorRing(); r < nr; r++) {
+                    rings.add(coordinates(polygon.getInteriorRingN(r)));
+                }
+            } else if (part != geometry) {
+                rings.addAll(rings(part));
+            }
+        }
+        return rings;
+    }
+
+    private static double[] coordinates(final LinearRing ring) {
+        final Coordinate[] coords = ring.getCoordinates();
+        final double[] array = new double[coords.length * 2];
+        for (int i = 0; i < coords.length; i++) {
+            array[i*2]   = coords[i].x;
+            array[i*2+1] = coords[i].y;
+        }
+        return array;
+    }
+
+    /**
+     * Area edges in image coordinates, rasterized by scanlines.
+     */
+    private static final class Mask {
+
+        /**
+         * Non horizontal edges, as (x0,y0,x1,y1) quadruplets.
+         */
+        private final double[] edges;
+        private final int numEdges;
+
+        /**
+         * Pixels which may have samples inside the area, clipped to image bounds.
+         */
+        private final Rectangle bounds;
+
+        Mask(final List<double[]> rings, final Rectangle imageBounds) {
+            int size = 0;
+            for (final double[] ring : rings) size += ring.length;
+            final double[] edges = new double[size * 2];
+            int n = 0;
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (final double[] ring : rings) {
+                for (int i = 2; i < ring.length; i += 2) {
+                    final double x0 = ring[i-2], y0 = ring[i-1], x1 = ring[i], y1 = ring[i+1];
+                    minX = Math.min(minX, x1);
+                    maxX = Math.max(maxX, x1);
+                    minY = Math.min(minY, y1);
+                    maxY = Math.max(maxY, y1);
+                    if (y0 != y1) {
+                        edges[n++] = x0;
+                        edges[n++] = y0;
+                        edges[n++] = x1;
+                        edges[n++] = y1;
+                    }
+                }
+            }
+            this.edges = edges;
+            this.numEdges = n / 4;
+            if (n == 0) {
+                bounds = new Rectangle();
+            } else {
+                final int x = (int) Math.floor(minX);
+                final int y = (int) Math.floor(minY);
+                bounds = new Rectangle(x, y, (int) Math.ceil(maxX) - x, (int) Math.ceil(maxY) - y).intersection(imageBounds);
+            }
+        }
+
+        boolean intersects(final Rectangle tile) {
+            return !bounds.isEmpty() && bounds.intersects(tile);
+        }
+
+        /**
+         * Fills the mask of samples strictly inside the area.
+         * Only samples inside the area are set, the caller must clear them after use.
+         *
+         * @param tile tile bounds in image coordinates
+         * @param mask tile samples mask, row major, all {@code false} on entry
+         * @return columns and rows of the samples set, or {@code null} if no sample is inside the area
+         */
+        Rectangle fill(final Rectangle tile, final boolean[] mask) {
+            final int minY = Math.max(tile.y, bounds.y);
+            final int maxY = Math.min(tile.y + tile.height, bounds.y + bounds.height);
+
+            //-- edges crossing tile rows
+            final double[] local = new double[numEdges * 4];
+            int n = 0;
+            for (int e = 0; e < numEdges * 4; e += 4) {
+                final double y0 = edges[e+1], y1 = edges[e+3];
+                if (Math.max(y0, y1) >= minY && Math.min(y0, y1) <= maxY) {
+                    System.arraycopy(edges, e, local, n, 4);
+                    n += 4;
+                }
+            }
+
+            final double[] crossings = new double[n / 4];
+            final int width = tile.width * SAMPLES;
+            int minCol = width, maxCol = -1, minRow = -1, maxRow = -1;
+            for (int r = (minY - tile.y) * SAMPLES, maxR = (maxY - tile.y) * SAMPLES; r < maxR; r++) {
+                final double yc = tile.y + (r + 0.5) / SAMPLES;
+                int nc = 0;
+                for (int e = 0; e < n; e += 4) {
+                    final double x0 = local[e], y0 = local[e+1], x1 = local[e+2], y1 = local[e+3];
+                    //-- half open test, a vertex on the scanline is counted once
+                    if ((y0 <= yc) != (y1 <= yc)) {
+                        crossings[nc++] = x0 + (yc - y0) * (x1 - x0) / (y1 - y0);
+                    }
+                }
+                Arrays.sort(crossings, 0, nc);
+                final int offset = r * width;
+                for (int k = 1; k < nc; k += 2) {
+                    //-- samples in ]start, end[, sample i is at x = tile.x + (i + 0.5) / SAMPLES
+                    final int from = Math.max(0, (int) Math.floor((crossings[k-1] - tile.x) * SAMPLES - 0.5) + 1);
+                    final int to = Math.min(width, (int) Math.ceil((crossings[k] - tile.x) * SAMPLES - 0.5));
+                    if (from < to) {
+                        Arrays.fill(mask, offset + from, offset + to, true);
+                        minCol = Math.min(minCol, from);
+                        maxCol = Math.max(maxCol, to);
+                        if (minRow < 0) minRow = r;
+                        maxRow = r;
+                    }
+                }
+            }
+            return (minRow < 0) ? null : new Rectangle(minCol, minRow, maxCol - minCol, maxRow - minRow + 1);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.geotoolkit.processing.regridding;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed resampling of one swath geometry onto a regular lat/lon grid.
+ * <p>
+ * Neighbour indices and weights only depend on source and target coordinates,
+ * they are searched once in the KD-tree and stored in compressed sparse row form,
+ * one block per target row so the number of neighbours of the whole grid is not
+ * limited by array sizes. Each variable is then resampled with a sparse
+ * matrix-vector product, giving the same result as {@link SphericalKDTree#resampleNearest}
+ * or {@link SphericalKDTree#resampleGauss}.
+ * <p>
+ * Plan construction is done in parallel over target rows.
+ */
+final class RegriddingPlan {
+
+    /**
+     * Target grid size.
+     */
+    private final int ny, nx;
+
+    /**
+     * Neighbours of each target row.
+     */
+    private final Row[] rows;
+
+    /**
+     * True for Gaussian weighted plans, false for nearest neighbour plans.
+     */
+    private final boolean weighted;
+
+    private RegriddingPlan(int ny, int nx, Row[] rows, boolean weighted) {
+        this.ny = ny;
+        this.nx = nx;
+        this.rows = rows;
+        this.weighted = weighted;
+        for (Row row : rows) row.trim(weighted);
+    }
+
+    /**
+     * Create a nearest neighbour plan.
+     *
+     * @param tree              source points
+     * @param targetLats        target grid latitudes, one per row (degrees)
+     * @param targetLons        target grid longitudes, one per column (degrees)
+     * @param radiusOfInfluence maximum distance in metres
+     */
+    static RegriddingPlan nearest(SphericalKDTree tree, float[] targetLats, float[] targetLons,
+                                  double radiusOfInfluence) {
+        final double maxDistSq = SphericalKDTree.chordDistanceSq(radiusOfInfluence);
+        final Row[] rows = computeRows(targetLats, targetLons, (row, qx, qy, qz) -> {
+            int idx = tree.findNearest(qx, qy, qz, maxDistSq);
+            if (idx >= 0) row.add(idx, 1f);
+            row.endPixel();
+        });
+        return new RegriddingPlan(targetLats.length, targetLons.length, rows, false);
+    }
+
+    /**
+     * Create a Gaussian weighted plan, all source points within radius are used.
+     *
+     * @param tree              source points
+     * @param targetLats        target grid latitudes, one per row (degrees)
+     * @param targetLons        target grid longitudes, one per column (degrees)
+     * @param radiusOfInfluence maximum distance in metres
+     * @param sigma             Gaussian sigma in metres
+     */
+    static RegriddingPlan gauss(SphericalKDTree tree, float[] targetLats, float[] targetLons,
+                                double radiusOfInfluence, double sigma) {
+        final double maxDistSq = SphericalKDTree.chordDistanceSq(radiusOfInfluence);
+        final double twoSigmaSq = 2.0 * SphericalKDTree.chordDistanceSq(sigma);
+        final Row[] rows = computeRows(targetLats, targetLons, (row, qx, qy, qz) -> {
+            final int start = row.size;
+            tree.collectNeighbours(qx, qy, qz, maxDistSq, (idx, distSq) -> row.add(idx, (float) distSq));
+            // weights are relative to the closest neighbour, they are normalized
+            // when applied and this avoids float underflow with small sigma
+            double minDistSq = Double.POSITIVE_INFINITY;
+            for (int k = start; k < row.size; k++) minDistSq = Math.min(minDistSq, row.weights[k]);
+            for (int k = start; k < row.size; k++) {
+                row.weights[k] = (float) Math.exp(-(row.weights[k] - minDistSq) / twoSigmaSq);
+            }
+            row.endPixel();
+        });
+        return new RegriddingPlan(targetLats.length, targetLons.length, rows, true);
+    }
+
+    /**
+     * Resample source values on the target grid.
+     *
+     * @param srcData source data, NaN values are treated as missing
+     * @return resampled values, row by row, NaN where no source is found
+     */
+    float[] apply(float[] srcData) {
+        final float[] result = new float[Math.multiplyExact(ny, nx)];
+        for (int j = 0; j < ny; j++) {
+            final Row row = rows[j];
+            final int[] offsets = row.offsets;
+            final int[] sources = row.sources;
+            final float[] weights = row.weights;
+            final int base = j * nx;
+            if (!weighted) {
+                for (int i = 0; i < nx; i++) {
+                    result[base + i] = offsets[i] < offsets[i + 1] ? srcData[sources[offsets[i]]] : Float.NaN;
+                }
+            } else {
+                for (int i = 0; i < nx; i++) {
+                    double sum = 0, weightSum = 0;
+                    for (int k = offsets[i], end = offsets[i + 1]; k < end; k++) {
+                        float v = srcData[sources[k]];
+                        if (!Float.isNaN(v)) {
+                            sum += weights[k] * v;
+                            weightSum += weights[k];
+                        }
+                    }
+                    result[base + i] = weightSum > 0 ? (float) (sum / weightSum) : Float.NaN;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of stored neighbours.
+     */
+    long size() {
+        long size = 0;
+        for (Row row : rows) size += row.size;
+        return size;
+    }
+
+    // ---------------------------------------------------------------
+    // Parallel construction
+    // ---------------------------------------------------------------
+
+    @FunctionalInterface
+    private interface PixelSearch {
+        void search(Row row, double qx, double qy, double qz);
+    }
+
+    private static Row[] computeRows(float[] targetLats, float[] targetLons, PixelSearch search) {
+        final int nx = targetLons.length;
+        final double[] cosLon = new double[nx];
+        final double[] sinLon = new double[nx];
+        for (int i = 0; i < nx; i++) {
+            double lon = Math.toRadians(targetLons[i]);
+            cosLon[i] = Math.cos(lon);
+            sinLon[i] = Math.sin(lon);
+        }
+        final Row[] rows = new Row[targetLats.length];
+        IntStream.range(0, rows.length).parallel().forEach(j -> {
+            final double lat = Math.toRadians(targetLats[j]);
+            final double cosLat = Math.cos(lat);
+            final double qz = Math.sin(lat);
+            final Row row = new Row(nx);
+            for (int i = 0; i < nx; i++) {
+                search.search(row, cosLat * cosLon[i], cosLat * sinLon[i], qz);
+            }
+            rows[j] = row;
+        });
+        return rows;
+    }
+
+    /**
+     * Neighbours of one target row, growing buffers.
+     * Neighbours of pixel {@code i} are in range {@code [offsets[i], offsets[i+1])}.
+     */
+    private static final class Row {
+        final int[] offsets;
+        int[] sources = new int[16];
+        float[] weights = new float[16];
+        int size;
+        private int pixel, pixelStart;
+
+        Row(int nx) {
+            offsets = new int[nx + 1];
+        }
+
+        void add(int idx, float weight) {
+            if (size == sources.length) {
+                final int capacity = (int) Math.min(size * 2L, Integer.MAX_VALUE - 8);
+                if (capacity == size) {
+                    throw new ArithmeticException("Too many neighbours in a target row");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = idx;
+            weights[size++] = weight;
+        }
+
+        void endPixel() {
+            offsets[pixel++] = pixelStart;
+            pixelStart = size;
+        }
+
+        /**
+         * Close the last pixel range and release unused buffer space.
+         */
+        void trim(boolean weighted) {
+            offsets[pixel] = size;
+            sources = Arrays.copyOf(sources, size);
+            weights = weighted ? Arrays.copyOf(weights, size) : null;
+        }
+    }
+}
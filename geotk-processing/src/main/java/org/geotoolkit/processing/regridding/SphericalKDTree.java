@@ -70,6 +70,16 @@ public class SphericalKDTree {
         buildTree(0, size, 0, 0);
     }
 
+    /**
+     * Convert a distance on Earth surface to a squared chord length on the unit sphere.
+     *
+     * @param metres great-circle distance in metres
+     */
+    static double chordDistanceSq(double metres) {
+        // chord length^2 = 2 - 2*cos(angle)
+        return 2.0 - 2.0 * Math.cos(metres / EARTH_RADIUS_M);
+    }
+
     /**
      * Resample nearest neighbour.
      *
@@ -182,18 +192,29 @@ public class SphericalKDTree {
     // KD-tree query: nearest neighbour
     // ---------------------------------------------------------------
 
-    private double bestDistSq;
-    private int bestIndex;
+    /**
+     * Nearest neighbour search state, one instance per query.
+     */
+    private static final class Nearest {
+        double distSq;
+        int index = -1;
+    }
 
-    private int findNearest(double qx, double qy, double qz, double maxDistSq) {
-        bestDistSq = maxDistSq;
-        bestIndex = -1;
-        searchNearest(0, 0, size, 0, qx, qy, qz);
-        return bestIndex;
+    /**
+     * Find the nearest source point within given chord distance.
+     * This method does not modify the tree and can be called concurrently.
+     *
+     * @return source point index, or -1 if none is close enough
+     */
+    int findNearest(double qx, double qy, double qz, double maxDistSq) {
+        final Nearest nearest = new Nearest();
+        nearest.distSq = maxDistSq;
+        searchNearest(0, 0, size, 0, qx, qy, qz, nearest);
+        return nearest.index;
     }
 
     private void searchNearest(int nodeIdx, int lo, int hi, int depth,
-                               double qx, double qy, double qz) {
+                               double qx, double qy, double qz, Nearest nearest) {
         if (lo >= hi || nodeIdx >= treeSize) return;
 
         int mid = (lo + hi) / 2;
@@ -204,9 +225,9 @@ public class SphericalKDTree {
         double dz = zs[idx] - qz;
         double distSq = dx * dx + dy * dy + dz * dz;
 
-        if (distSq < bestDistSq) {
-            bestDistSq = distSq;
-            bestIndex = idx;
+        if (distSq < nearest.distSq) {
+            nearest.distSq = distSq;
+            nearest.index = idx;
         }
 
         int dim = depth % 3;
@@ -224,11 +245,65 @@ public class SphericalKDTree {
             secondLo = lo; secondHi = mid;
         }
 
-        searchNearest(nodeIdx * 2 + (diff <= 0 ? 1 : 2), firstLo, firstHi, depth + 1, qx, qy, qz);
+        searchNearest(nodeIdx * 2 + (diff <= 0 ? 1 : 2), firstLo, firstHi, depth + 1, qx, qy, qz, nearest);
 
         // Check if we need to search the other subtree
-        if (diff * diff < bestDistSq) {
-            searchNearest(nodeIdx * 2 + (diff <= 0 ? 2 : 1), secondLo, secondHi, depth + 1, qx, qy, qz);
+        if (diff * diff < nearest.distSq) {
+            searchNearest(nodeIdx * 2 + (diff <= 0 ? 2 : 1), secondLo, secondHi, depth + 1, qx, qy, qz, nearest);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Radius search: collect all neighbours, used by RegriddingPlan
+    // ---------------------------------------------------------------
+
+    /**
+     * Receives source points found by {@link #collectNeighbours}.
+     */
+    @FunctionalInterface
+    interface NeighbourCollector {
+        void add(int index, double distSq);
+    }
+
+    /**
+     * Collect all source points within given chord distance, in the same order
+     * as the Gaussian resampling visits them.
+     * This method does not modify the tree and can be called concurrently.
+     */
+    void collectNeighbours(double qx, double qy, double qz, double maxDistSq, NeighbourCollector collector) {
+        searchWithin(0, size, 0, qx, qy, qz, maxDistSq, collector);
+    }
+
+    private void searchWithin(int lo, int hi, int depth,
+                              double qx, double qy, double qz,
+                              double maxDistSq, NeighbourCollector collector) {
+        if (lo >= hi) return;
+
+        int mid = (lo + hi) / 2;
+        int idx = indices[mid];
+
+        double dx = xs[idx] - qx;
+        double dy = ys[idx] - qy;
+        double dz = zs[idx] - qz;
+        double distSq = dx * dx + dy * dy + dz * dz;
+
+        if (distSq < maxDistSq) {
+            collector.add(idx, distSq);
+        }
+
+        int dim = depth % 3;
+        double diff = getQueryCoord(qx, qy, qz, dim) - getCoord(idx, dim);
+
+        if (diff <= 0) {
+            searchWithin(lo, mid, depth + 1, qx, qy, qz, maxDistSq, collector);
+            if (diff * diff < maxDistSq) {
+                searchWithin(mid + 1, hi, depth + 1, qx, qy, qz, maxDistSq, collector);
+            }
+        } else {
+            searchWithin(mid + 1, hi, depth + 1, qx, qy, qz, maxDistSq, collector);
+            if (diff * diff < maxDistSq) {
+                searchWithin(lo, mid, depth + 1, qx, qy, qz, maxDistSq, collector);
+            }
         }
     }
 
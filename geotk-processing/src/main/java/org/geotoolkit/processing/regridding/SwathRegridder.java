@@ -107,17 +107,7 @@ public class SwathRegridder {
         LOGGER.info(String.format("Resampling: %s%n", method));
         LOGGER.info(String.format("Keep time: %s%n", keepTime));
 
-        // 5. Flatten target grid for KDTree queries
-        float[] flatTargetLats = new float[ny * nx];
-        float[] flatTargetLons = new float[ny * nx];
-        for (int j = 0; j < ny; j++) {
-            for (int i = 0; i < nx; i++) {
-                flatTargetLats[j * nx + i] = targetLats[j];
-                flatTargetLons[j * nx + i] = targetLons[i];
-            }
-        }
-
-        // 6. Compute lon reorder index (for antimeridian)
+        // 5. Compute lon reorder index (for antimeridian)
         float[] outputLons = Arrays.copyOf(targetLons, nx);
         int[] sortIdx = null;
         if (crossesAm && "[-180, 180]".equals(outputLonConvention)) {
@@ -144,8 +134,8 @@ public class SwathRegridder {
             float[][] bestQuality = initFill(ny, nx, -1f);
 
             for (Path file : files) {
-                regridSingleTile(file, crossesAm, flatTargetLats, flatTargetLons,
-                        ny, nx, vars, merged, bestQuality);
+                regridSingleTile(file, crossesAm, targetLats, targetLons,
+                        vars, merged, bestQuality);
                 progressCount++;
                 LOGGER.info(String.format("Regridding tiles [%d/%d]: %s", progressCount, files.size(), file.getFileName().toString()));
             }
@@ -175,57 +165,59 @@ public class SwathRegridder {
                 LOGGER.info(String.format("  %s : %s%n", entry.getKey(), label));
             }
 
-            // Allocate 3D: [time][var] -> float[ny][nx]
-            Map<String, float[][][]> allData = new LinkedHashMap<>();
-            for (String v : vars) allData.put(v, new float[nTimes][][]);
-            float[][][] allQuality = new float[nTimes][][];
-
+            // Time steps are written as soon as they are computed,
+            // only one time step is kept in memory
             int progressCount = 0;
 
             int tIdx = 0;
-            for (var entry : groups.entrySet()) {
-                List<Path> tileFiles = entry.getValue();
+            try (NetcdfFormatWriter writer = createNetcdf3D(outputPath, timestamps, targetLats, outputLons,
+                    vars, crossesAm, files)) {
+                for (var entry : groups.entrySet()) {
+                    List<Path> tileFiles = entry.getValue();
 
-                if (tileFiles.size() > 1) {
-                    LOGGER.info(String.format("  %s: fusing %d tiles%n", entry.getKey(), tileFiles.size()));
-                } else {
-                    LOGGER.info(String.format("  %s: regridding 1 tile%n", entry.getKey()));
-                }
+                    if (tileFiles.size() > 1) {
+                        LOGGER.info(String.format("  %s: fusing %d tiles%n", entry.getKey(), tileFiles.size()));
+                    } else {
+                        LOGGER.info(String.format("  %s: regridding 1 tile%n", entry.getKey()));
+                    }
 
-                // Regrid this group
-                Map<String, float[][]> merged = new LinkedHashMap<>();
-                for (String v : vars) merged.put(v, initNaN(ny, nx));
-                float[][] bestQuality = initFill(ny, nx, -1f);
+                    // Regrid this group
+                    Map<String, float[][]> merged = new LinkedHashMap<>();
+                    for (String v : vars) merged.put(v, initNaN(ny, nx));
+                    float[][] bestQuality = initFill(ny, nx, -1f);
 
-                for (Path file : tileFiles) {
-                    regridSingleTile(file, crossesAm, flatTargetLats, flatTargetLons,
-                            ny, nx, vars, merged, bestQuality);
-                    progressCount++;
-                    LOGGER.info(String.format("Regridding tiles [%d/%d]: %s", progressCount, files.size(), file.getFileName().toString()));
-                }
+                    for (Path file : tileFiles) {
+                        regridSingleTile(file, crossesAm, targetLats, targetLons,
+                                vars, merged, bestQuality);
+                        progressCount++;
+                        LOGGER.info(String.format("Regridding tiles [%d/%d]: %s", progressCount, files.size(), file.getFileName().toString()));
+                    }
 
-                // Apply lon reorder
-                if (sortIdx != null) {
-                    for (String v : vars) reorderColumns(merged.get(v), sortIdx, ny, nx);
-                    reorderColumns(bestQuality, sortIdx, ny, nx);
-                }
+                    // Apply lon reorder
+                    if (sortIdx != null) {
+                        for (String v : vars) reorderColumns(merged.get(v), sortIdx, ny, nx);
+                        reorderColumns(bestQuality, sortIdx, ny, nx);
+                    }
 
-                // Store in 3D arrays
-                for (String v : vars) {
-                    allData.get(v)[tIdx] = merged.get(v);
-                }
-                // Replace -1 with NaN for quality
-                for (int j = 0; j < ny; j++) {
-                    for (int i = 0; i < nx; i++) {
-                        if (bestQuality[j][i] < 0) bestQuality[j][i] = Float.NaN;
+                    // Replace -1 with NaN for quality
+                    for (int j = 0; j < ny; j++) {
+                        for (int i = 0; i < nx; i++) {
+                            if (bestQuality[j][i] < 0) bestQuality[j][i] = Float.NaN;
+                        }
+                    }
+
+                    // Write this time step
+                    int[] origin = new int[]{tIdx, 0, 0};
+                    int[] shape = new int[]{1, ny, nx};
+                    for (String v : vars) {
+                        writer.write(v, origin, Array.factory(DataType.FLOAT, shape, flatten(merged.get(v), ny, nx)));
                     }
+                    writer.write("mosaic_quality_level", origin,
+                            Array.factory(DataType.FLOAT, shape, flatten(bestQuality, ny, nx)));
+                    tIdx++;
                 }
-                allQuality[tIdx] = bestQuality;
-                tIdx++;
             }
-
-            writeNetcdf3D(outputPath, timestamps, targetLats, outputLons,
-                    vars, allData, allQuality, crossesAm, files);
+            LOGGER.info(String.format("Saved: %s (time steps: %d)%n", outputPath, nTimes));
         }
     }
 
@@ -234,10 +226,12 @@ public class SwathRegridder {
     // ---------------------------------------------------------------
 
     private void regridSingleTile(Path file, boolean crossesAm,
-                                  float[] flatTargetLats, float[] flatTargetLons,
-                                  int ny, int nx, List<String> vars,
+                                  float[] targetLats, float[] targetLons,
+                                  List<String> vars,
                                   Map<String, float[][]> merged,
                                   float[][] bestQuality) throws IOException {
+        int ny = targetLats.length;
+        int nx = targetLons.length;
 
         try (NetcdfFile nc = NetcdfFiles.open(file.toString())) {
             float[] srcLats = readFlatFloat(nc, "lat");
@@ -249,19 +243,29 @@ public class SwathRegridder {
                 }
             }
 
+            // Neighbours only depend on the swath geometry,
+            // search them once and reuse them for all variables
             SphericalKDTree kdTree = new SphericalKDTree(srcLats, srcLons);
-
             boolean hasQuality = nc.findVariable("quality_level") != null;
+            // quality is always resampled with the nearest neighbour
+            RegriddingPlan nearestPlan = (method != ResampleMethod.GAUSS || hasQuality)
+                    ? RegriddingPlan.nearest(kdTree, targetLats, targetLons, radiusOfInfluence)
+                    : null;
+            RegriddingPlan plan = (method == ResampleMethod.GAUSS)
+                    ? RegriddingPlan.gauss(kdTree, targetLats, targetLons, radiusOfInfluence, sigma)
+                    : nearestPlan;
+
+            float[] qlRaw = null;
             float[] qlResampled;
             if (hasQuality) {
-                float[] qlSrc = readFlatFloat(nc, "quality_level");
+                qlRaw = readFlatFloat(nc, "quality_level");
+                float[] qlSrc = qlRaw.clone();
                 if (minQualityLevel > 0) {
                     for (int i = 0; i < qlSrc.length; i++) {
                         if (qlSrc[i] < minQualityLevel) qlSrc[i] = Float.NaN;
                     }
                 }
-                qlResampled = kdTree.resampleNearest(qlSrc, flatTargetLats, flatTargetLons,
-                        radiusOfInfluence);
+                qlResampled = nearestPlan.apply(qlSrc);
             } else {
                 qlResampled = new float[ny * nx];
                 Arrays.fill(qlResampled, 1f);
@@ -271,20 +275,12 @@ public class SwathRegridder {
                 float[] srcData = readFlatFloat(nc, var);
 
                 if (hasQuality && minQualityLevel > 0) {
-                    float[] qlRaw = readFlatFloat(nc, "quality_level");
                     for (int i = 0; i < srcData.length; i++) {
                         if (qlRaw[i] < minQualityLevel) srcData[i] = Float.NaN;
                     }
                 }
 
-                float[] resampled;
-                if (method == ResampleMethod.GAUSS) {
-                    resampled = kdTree.resampleGauss(srcData, flatTargetLats, flatTargetLons,
-                            radiusOfInfluence, sigma);
-                } else {
-                    resampled = kdTree.resampleNearest(srcData, flatTargetLats, flatTargetLons,
-                            radiusOfInfluence);
-                }
+                float[] resampled = plan.apply(srcData);
 
                 float[][] grid = merged.get(var);
                 for (int j = 0; j < ny; j++) {
@@ -452,11 +448,14 @@ public class SwathRegridder {
     // NetCDF writing: 3D (with time)
     // ---------------------------------------------------------------
 
-    private void writeNetcdf3D(Path path, List<Instant> timestamps,
-                               float[] lats, float[] lons,
-                               List<String> vars, Map<String, float[][][]> data,
-                               float[][][] quality, boolean crossesAm,
-                               List<Path> sourceFiles) throws Exception {
+    /**
+     * Create the output file and write the coordinate variables,
+     * data variables are written by the caller one time step at a time.
+     */
+    private NetcdfFormatWriter createNetcdf3D(Path path, List<Instant> timestamps,
+                                              float[] lats, float[] lons,
+                                              List<String> vars, boolean crossesAm,
+                                              List<Path> sourceFiles) throws Exception {
         int nTimes = timestamps.size();
         int ny = lats.length;
         int nx = lons.length;
@@ -498,21 +497,16 @@ public class SwathRegridder {
         addGlobalAttributes(builder, crossesAm, sourceFiles);
         builder.addAttribute(new Attribute("time_steps", nTimes));
 
-        try (NetcdfFormatWriter writer = builder.build()) {
+        NetcdfFormatWriter writer = builder.build();
+        try {
             writer.write("time", Array.factory(DataType.DOUBLE, new int[]{nTimes}, timeValues));
             writer.write("lat", Array.factory(DataType.FLOAT, new int[]{ny}, lats));
             writer.write("lon", Array.factory(DataType.FLOAT, new int[]{nx}, lons));
-
-            for (String var : vars) {
-                float[] flat3d = flatten3D(data.get(var), nTimes, ny, nx);
-                writer.write(var, Array.factory(DataType.FLOAT, new int[]{nTimes, ny, nx}, flat3d));
-            }
-
-            float[] qFlat = flatten3D(quality, nTimes, ny, nx);
-            writer.write("mosaic_quality_level",
-                    Array.factory(DataType.FLOAT, new int[]{nTimes, ny, nx}, qFlat));
+        } catch (Exception ex) {
+            writer.close();
+            throw ex;
         }
-        LOGGER.info(String.format("Saved: %s (time steps: %d)%n", path, nTimes));
+        return writer;
     }
 
     private void addGlobalAttributes(NetcdfFormatWriter.Builder builder,
@@ -641,16 +635,6 @@ public class SwathRegridder {
         return flat;
     }
 
-    private static float[] flatten3D(float[][][] grid, int nt, int ny, int nx) {
-        float[] flat = new float[nt * ny * nx];
-        for (int t = 0; t < nt; t++) {
-            for (int j = 0; j < ny; j++) {
-                System.arraycopy(grid[t][j], 0, flat, (t * ny + j) * nx, nx);
-            }
-        }
-        return flat;
-    }
-
     private static void reorderColumns(float[][] grid, int[] sortIdx, int ny, int nx) {
         for (int j = 0; j < ny; j++) {
             float[] newRow = new float[nx];
@@ -66,5 +66,32 @@ public interface MeteoDataset {
             this.current = current;
             this.wind = wind;
         }
+
+        /**
+         * Evaluates current and wind for a batch of locations. Can be called concurrently on distinct ranges.
+         *
+         * @see UVSource.Snapshot#evaluate(double[], double[], int, int, double[], double[])
+         */
+        void evaluate(final double[] x, final double[] y, final int from, final int to, final Samples target) {
+            current.evaluate(x, y, from, to, target.currentU, target.currentV);
+            wind.evaluate(x, y, from, to, target.windU, target.windV);
+        }
+    }
+
+    /**
+     * Current and wind vectors evaluated for a batch of locations.
+     */
+    public static class Samples {
+        final double[] currentU;
+        final double[] currentV;
+        final double[] windU;
+        final double[] windV;
+
+        public Samples(final int capacity) {
+            currentU = new double[capacity];
+            currentV = new double[capacity];
+            windU = new double[capacity];
+            windV = new double[capacity];
+        }
     }
 }
@@ -0,0 +1,399 @@
+/*
+ *     (C) 2026, Geomatys
+ */
+package org.geotoolkit.processing.science.drift.v2;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.geotoolkit.processing.science.drift.Weight;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Drifting particles, stored as primitive arrays: positions in grid model CRS, positions in grid and probabilities.
+ *
+ * Each drift step splits particles in chunks processed in parallel. A chunk samples current and wind for all its
+ * particles at once, moves them and accumulates their trajectories in a probability grid. Grids of all chunks are
+ * then merged by a parallel reduction. Each chunk uses its own random generator, split from the engine one before
+ * chunks are dispatched, so a seeded engine gives the same results whatever the scheduling.
+ *
+ * Not thread safe: steps must be executed one after the other.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+final class ParticleEngine {
+
+    /**
+     * Number of particles processed by a single task.
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    final GridModel grid;
+    final int maxPts;
+
+    private final SplittableRandom random;
+
+    /**
+     * Particle positions in grid model CRS.
+     */
+    private double[] x, y;
+    /**
+     * Particle positions in grid, valid only if {@link #gridValid} is true.
+     */
+    private double[] gridX, gridY;
+    private boolean gridValid;
+    /**
+     * Particle probabilities.
+     */
+    private double[] weights;
+    private int count;
+
+    ParticleEngine(final GridModel grid, final int maxPts) {
+        this(grid, maxPts, new SplittableRandom());
+    }
+
+    ParticleEngine(final GridModel grid, final int maxPts, final SplittableRandom random) {
+        ArgumentChecks.ensureStrictlyPositive("Maximum number of points", maxPts);
+        this.grid = grid;
+        this.maxPts = maxPts;
+        this.random = random;
+        final int initialPts = Math.min(maxPts, 256);
+        x = new double[initialPts];
+        y = new double[initialPts];
+        weights = new double[initialPts];
+        gridX = new double[0];
+        gridY = new double[0];
+    }
+
+    /**
+     * @return Number of particles.
+     */
+    int size() {
+        return count;
+    }
+
+    double getX(final int i) {
+        return x[i];
+    }
+
+    double getY(final int i) {
+        return y[i];
+    }
+
+    double getWeight(final int i) {
+        return weights[i];
+    }
+
+    /**
+     * Adds a particle.
+     *
+     * @param px Position in grid model CRS.
+     * @param py Position in grid model CRS.
+     * @param weight Particle probability.
+     */
+    void add(final double px, final double py, final double weight) {
+        if (count >= maxPts) {
+            throw new IllegalStateException("Cannot add a particle, because it would exceed expected maximum: " + maxPts);
+        }
+        if (count == x.length) {
+            final int newLength = Math.min(maxPts, Math.multiplyExact(count, 2));
+            x = Arrays.copyOf(x, newLength);
+            y = Arrays.copyOf(y, newLength);
+            weights = Arrays.copyOf(weights, newLength);
+        }
+        x[count] = px;
+        y[count] = py;
+        weights[count++] = weight;
+        gridValid = false;
+    }
+
+    /**
+     * Keeps only the most probable particles.
+     *
+     * @param maxAllowedPoints Maximum number of particles to keep.
+     */
+    void removeLeastProbable(final int maxAllowedPoints) {
+        if (count <= maxAllowedPoints) return;
+        final double[] sorted = Arrays.copyOf(weights, count);
+        Arrays.sort(sorted);
+        final double threshold = sorted[count - maxAllowedPoints];
+        int ties = maxAllowedPoints;
+        for (int i = count - maxAllowedPoints; i < count; i++) {
+            if (sorted[i] > threshold) ties--;
+        }
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            final double w = weights[i];
+            if (w > threshold || (w == threshold && ties-- > 0)) {
+                move(i, n++);
+            }
+        }
+        count = n;
+    }
+
+    private void move(final int from, final int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        weights[to] = weights[from];
+        if (gridValid) {
+            gridX[to] = gridX[from];
+            gridY[to] = gridY[from];
+        }
+    }
+
+    /**
+     * Moves all particles of one time step. Each particle is replaced by one child per weight, particles without
+     * current data are removed.
+     *
+     * @param uv Current and wind for this step.
+     * @param drifts Weights to apply on current and wind to create children particles.
+     * @param seconds Time step duration.
+     * @return Probability changes in output grid, or null if no particle can move anymore, or if no trajectory
+     * crosses output grid.
+     * @throws TransformException If particle positions cannot be projected on output grid.
+     */
+    double[] advance(final MeteoDataset.Snapshot uv, final Weight[] drifts, final double seconds) throws TransformException {
+        if (count == 0) return null;
+        if (!gridValid) {
+            toGrid(x, y, 0, count, gridX = new double[count], gridY = new double[count]);
+            gridValid = true;
+        }
+
+        final int nbChildren = Math.multiplyExact(count, drifts.length);
+        final Step step = new Step(uv, drifts, seconds, nbChildren);
+        final int nbChunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final SplittableRandom[] randoms = new SplittableRandom[nbChunks];
+        for (int i = 0; i < nbChunks; i++) {
+            randoms[i] = random.split();
+        }
+
+        final Accumulator result;
+        try {
+            result = IntStream.range(0, nbChunks).parallel().collect(
+                    () -> new Accumulator(grid.width * grid.height),
+                    (acc, chunk) -> step.advance(chunk, randoms[chunk], acc),
+                    Accumulator::merge);
+        } catch (BackingStoreException e) {
+            throw e.unwrapOrRethrow(TransformException.class);
+        }
+
+        // Replace particles by their children, removing those which could not move.
+        int n = 0;
+        for (int i = 0; i < nbChildren; i++) {
+            if (!Double.isNaN(step.weights[i])) {
+                step.x[n] = step.x[i];
+                step.y[n] = step.y[i];
+                step.gridX[n] = step.gridX[i];
+                step.gridY[n] = step.gridY[i];
+                step.weights[n++] = step.weights[i];
+            }
+        }
+        x = step.x;
+        y = step.y;
+        gridX = step.gridX;
+        gridY = step.gridY;
+        weights = step.weights;
+        count = n;
+
+        if (n == 0 || result.numOnGrid < 1) return null;
+
+        // Average probability by number of evaluated points
+        final double[] probabilityChanges = result.grid;
+        for (int i = 0 ; i < probabilityChanges.length ; i++) probabilityChanges[i] /= result.numOnGrid;
+        return probabilityChanges;
+    }
+
+    private void toGrid(final double[] xs, final double[] ys, final int from, final int to,
+            final double[] gxs, final double[] gys) throws TransformException
+    {
+        final int n = to - from;
+        final double[] points = new double[n * 2];
+        for (int i = 0, j = from; j < to; j++) {
+            points[i++] = xs[j];
+            points[i++] = ys[j];
+        }
+        grid.crs2grid.transform(points, 0, points, 0, n);
+        for (int i = 0, j = from; j < to; j++) {
+            gxs[j] = points[i++];
+            gys[j] = points[i++];
+        }
+    }
+
+    /**
+     * Children of a drift step. Child {@code k} of particle {@code i} is stored at index {@code i * nbWeights + k},
+     * its weight is NaN if the particle could not move.
+     */
+    private final class Step {
+        final MeteoDataset.Snapshot uv;
+        final Weight[] drifts;
+        final double seconds;
+        final double[] x, y, gridX, gridY, weights;
+
+        Step(final MeteoDataset.Snapshot uv, final Weight[] drifts, final double seconds, final int nbChildren) {
+            this.uv = uv;
+            this.drifts = drifts;
+            this.seconds = seconds;
+            x = new double[nbChildren];
+            y = new double[nbChildren];
+            gridX = new double[nbChildren];
+            gridY = new double[nbChildren];
+            weights = new double[nbChildren];
+        }
+
+        void advance(final int chunk, final SplittableRandom random, final Accumulator acc) {
+            final double[] px = ParticleEngine.this.x;
+            final double[] py = ParticleEngine.this.y;
+            final double[] pw = ParticleEngine.this.weights;
+            final int from = chunk * CHUNK_SIZE;
+            final int to = Math.min(count, from + CHUNK_SIZE);
+            final int nw = drifts.length;
+            final MeteoDataset.Samples samples = new MeteoDataset.Samples(to - from);
+            uv.evaluate(px, py, from, to, samples);
+
+            for (int i = from; i < to; i++) {
+                final int s = i - from;
+                final double cu = samples.currentU[s];
+                final double cv = samples.currentV[s];
+                if (Double.isNaN(cu) || Double.isNaN(cv)) {
+                    // No more data on current point. All we can do is evince it from processing, hoping that other
+                    // points are still in the game.
+                    Arrays.fill(weights, i * nw, (i + 1) * nw, Double.NaN);
+                    continue;
+                }
+                double wu = samples.windU[s];
+                double wv = samples.windV[s];
+                if (Double.isNaN(wu) || Double.isNaN(wv)) {
+                    // TODO : should we just ignore wind here ?
+                    wu = random.nextDouble() - 0.5;
+                    wv = random.nextDouble() - 0.5;
+                }
+                for (int k = 0; k < nw; k++) {
+                    final Weight w = drifts[k];
+                    final int c = i * nw + k;
+                    x[c] = px[i] + (wu * w.wind + cu * w.current) * seconds;
+                    y[c] = py[i] + (wv * w.wind + cv * w.current) * seconds;
+                    weights[c] = pw[i] * w.probability;
+                }
+            }
+
+            final int cFrom = from * nw;
+            final int cTo = to * nw;
+            try {
+                toGrid(x, y, cFrom, cTo, gridX, gridY);
+            } catch (TransformException e) {
+                throw new BackingStoreException(e);
+            }
+            for (int c = cFrom; c < cTo; c++) {
+                if (!Double.isNaN(weights[c])) {
+                    final int parent = c / nw;
+                    acc.numOnGrid += acc.trace(ParticleEngine.this.gridX[parent], ParticleEngine.this.gridY[parent],
+                            gridX[c], gridY[c], weights[c], grid.width, grid.height);
+                }
+            }
+        }
+    }
+
+    /**
+     * Probabilities accumulated by a set of chunks.
+     */
+    private static final class Accumulator {
+        final double[] grid;
+        long numOnGrid;
+
+        Accumulator(final int size) {
+            grid = new double[size];
+        }
+
+        void merge(final Accumulator other) {
+            for (int i = 0; i < grid.length; i++) {
+                grid[i] += other.grid[i];
+            }
+            numOnGrid += other.numOnGrid;
+        }
+
+        /**
+         * Distributes the probability of a move over the cells crossed by the segment from start to end,
+         * proportionally to the segment length in each cell.
+         *
+         * @return Number of cells on grid which have been updated.
+         */
+        int trace(final double xStart, final double yStart, final double x1, final double y1,
+                final double weight, final int width, final int height)
+        {
+            int numOnGrid = 0;
+            double xi = xStart;
+            double yi = yStart;
+            double Δxi = Double.NaN;
+            double Δyi = Double.NaN;
+            boolean isValid;        // is (xi,yi) on (x₀,y₀)-(x₁,y₁) line and inside (x₀, y₀, x₀+1, y₀+1) cell?
+            do {
+                int gx = (int) xi;
+                int gy = (int) yi;
+                final double x0 = xi;
+                final double y0 = yi;
+                final double Δx = x1 - x0;
+                final double Δy = y1 - y0;
+                isValid = (Δx > 0) ?  ((xi = Math.floor(x0) + 1) <  x1)
+                        : (Δx < 0) && ((xi = Math.ceil (x0) - 1) >= x1);
+                if (isValid) {
+                    Δxi = xi - x0;
+                    Δyi = Δy * (Δxi / Δx);
+                    yi  = Δyi + y0;
+                    final double f = Math.floor(y0);
+                    final double e = yi - f;
+                    if (f != y0) {
+                        isValid = (e >= 0 && e <= 1);
+                    } else {
+                        isValid = (e >= -1 && e <= 1);
+                        if (isValid && e < 0) gy--;
+                    }
+                    if (isValid && Δxi == -1) gx--;
+                }
+                if (!isValid) {     // if we do not intersect vertical grid line, maybe we intersect horizontal one.
+                    isValid = (Δy > 0) ?  ((yi = Math.floor(y0) + 1) <  y1)
+                            : (Δy < 0) && ((yi = Math.ceil (y0) - 1) >= y1);
+                    if (isValid) {
+                        Δyi = yi - y0;
+                        Δxi = Δx * (Δyi / Δy);
+                        xi  = Δxi + x0;
+                        final double f = Math.floor(x0);
+                        final double e = xi - f;
+                        if (f != x0) {
+                            assert (e >= 0 && e <= 1) : e;
+                        } else {
+                            assert (e >= -1 && e <= 1) : e;
+                            if (e < 0) gx--;
+                        }
+                        if (Δyi == -1) gy--;
+                    }
+                }
+                if (!isValid) {     // if no intersection with horizontal or vertical line, line is fully inside cell.
+                    Δxi = Δx;
+                    Δyi = Δy;
+                    gx = (int) x1;
+                    gy = (int) y1;
+                }
+
+                final double xOrigin = Math.abs(x1 - xStart);
+                final double yOrigin = Math.abs(y1 - yStart);
+
+                // Note : we've removed norm computing, as compared vectors are colinear. We just need to make a
+                // ratio over any dimension.
+                final double ratio;
+                if (xOrigin == 0 && yOrigin == 0) {
+                    ratio = 1;
+                } else {
+                    ratio = (xOrigin < yOrigin)? Math.abs(Δyi/yOrigin) : Math.abs(Δxi/xOrigin);
+                }
+                final double p = ((ratio < 1e-12) ? 1 : ratio) * weight;
+                if (gx >= 0 && gx < width && gy >= 0 && gy < height) {
+                    grid[((height - 1) - gy) * width + gx] += p;
+                    numOnGrid++;
+                }
+            } while (isValid);
+            return numOnGrid;
+        }
+    }
+}
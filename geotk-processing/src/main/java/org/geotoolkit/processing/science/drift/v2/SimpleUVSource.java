@@ -334,6 +334,49 @@ class SimpleUVSource implements UVSource {
             else
                 return Optional.empty();
         }
+
+        /**
+         * Converts all locations at once, then reads pixels with local buffers so that distinct ranges
+         * can be evaluated concurrently.
+         */
+        @Override
+        public void evaluate(final double[] x, final double[] y, final int from, final int to, final double[] u, final double[] v) {
+            final int n = to - from;
+            final double[] points = new double[n * 2];
+            for (int i = 0, j = from; j < to; j++) {
+                points[i++] = x[j];
+                points[i++] = y[j];
+            }
+            try {
+                pointConverter.transform(points, 0, points, 0, n);
+            } catch (TransformException e) {
+                throw new BackingStoreException("Cannot project input points", e);
+            }
+
+            final double[] pixel = new double[buffer.length];
+            final int width = slice.getWidth();
+            final int height = slice.getHeight();
+            for (int i = 0; i < n; i++) {
+                u[i] = Double.NaN;
+                v[i] = Double.NaN;
+                // TODO: interpolation. Here we only pick nearest neighbor;
+                final double px = Math.floor(points[i * 2] + 0.5);
+                final double py = Math.floor(points[i * 2 + 1] + 0.5);
+                if (!(px >= 0 && py >= 0 && px < width && py < height)) {
+                    continue;
+                }
+                slice.getPixel((int) px, (int) py, pixel);
+                try {
+                    native2geophysic.transform(pixel);
+                } catch (TransformException ex) {
+                    throw new BackingStoreException("Cannot transform pixel values from native to geophysic", ex);
+                }
+                if (Double.isFinite(pixel[0]) && Double.isFinite(pixel[1])) {
+                    u[i] = pixel[0];
+                    v[i] = pixel[1];
+                }
+            }
+        }
     }
 
     @FunctionalInterface
@@ -71,5 +71,34 @@ public interface UVSource {
 
     public static interface Snapshot {
         Optional<Vector2D.Double> evaluate(final Point2D.Double location);
+
+        /**
+         * Evaluates vectors for a batch of locations, expressed in the same system than
+         * {@link #evaluate(java.awt.geom.Point2D.Double) }. Components of the vector at location {@code i} are
+         * stored in {@code u[i - from]} and {@code v[i - from]}, or NaN if no data is available.
+         *
+         * This method may be called concurrently on distinct ranges. Default implementation evaluates points one
+         * by one while holding a lock on this snapshot, implementors should override it with a thread-safe batch
+         * access.
+         *
+         * @param x Location abscissas.
+         * @param y Location ordinates.
+         * @param from Index of the first location to evaluate, inclusive.
+         * @param to Index of the last location to evaluate, exclusive.
+         * @param u Where to store eastward components, at least {@code to - from} long.
+         * @param v Where to store northward components, at least {@code to - from} long.
+         */
+        default void evaluate(final double[] x, final double[] y, final int from, final int to, final double[] u, final double[] v) {
+            final Point2D.Double location = new Point2D.Double();
+            synchronized (this) {
+                for (int i = from; i < to; i++) {
+                    location.x = x[i];
+                    location.y = y[i];
+                    final Optional<Vector2D.Double> value = evaluate(location);
+                    u[i - from] = value.isPresent() ? value.get().x : Double.NaN;
+                    v[i - from] = value.isPresent() ? value.get().y : Double.NaN;
+                }
+            }
+        }
     }
 }
@@ -26,6 +26,7 @@ import org.opengis.geometry.Envelope;
 import org.opengis.parameter.ParameterValueGroup;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -87,14 +88,12 @@ public abstract class AbstractStacClientProcess<T> extends AbstractProcess {
                 final List<Item> items = client.searchItems(stacUrl, collection, bbox, temporalExtent);
                 LOGGER.info("Found " + items.size() + " items.");
 
-                for (final Item item : items) {
-                    processItem(client, item, results);
-                }
+                processItems(client, items, results);
             } else if (client.isItem(stacUrl)) {
                 // stacUrl is an individual Item
                 Item item = client.loadItem(stacUrl);
                 if (item != null) {
-                    processItem(client, item, results);
+                    processItems(client, Collections.singletonList(item), results);
                 }
             } else {
                 throw new ProcessException("Error during parsing Stac URL, " +
@@ -117,6 +116,22 @@ public abstract class AbstractStacClientProcess<T> extends AbstractProcess {
      */
     protected abstract void validateParameters() throws ProcessException;
 
+    /**
+     * Process all STAC Items found by the search. The default implementation calls
+     * {@link #processItem(StacClient, Item, List)} sequentially for each item,
+     * subclasses may override it to process items concurrently.
+     *
+     * @param client  the STAC client
+     * @param items   the STAC items to process
+     * @param results the accumulating list of results, in items order
+     * @throws Exception if an error occurs
+     */
+    protected void processItems(StacClient client, List<Item> items, List<T> results) throws Exception {
+        for (final Item item : items) {
+            processItem(client, item, results);
+        }
+    }
+
     /**
      * Process a single STAC Item (e.g., getting its URI or downloading it) and append
      * the outcome to the results list.
@@ -153,11 +153,57 @@ public class StacClientItemsDownloadingDescriptor extends AbstractProcessDescrip
             .setRequired(false)
             .create(String.class, null);
 
+    /**
+     * Name for the PARALLEL_DOWNLOADS parameter.
+     */
+    public static final String PARALLEL_DOWNLOADS_NAME = "parallel_downloads";
+    private static final String PARALLEL_DOWNLOADS_REMARKS = "Maximum number of simultaneous HTTP transfers.";
+
+    /**
+     * PARALLEL_DOWNLOADS parameter descriptor.
+     */
+    public static final ParameterDescriptor<Integer> PARALLEL_DOWNLOADS = new ParameterBuilder()
+            .addName(PARALLEL_DOWNLOADS_NAME)
+            .setRemarks(PARALLEL_DOWNLOADS_REMARKS)
+            .setRequired(false)
+            .createBounded(1, 64, 4);
+
+    /**
+     * Name for the SEGMENTS_PER_FILE parameter.
+     */
+    public static final String SEGMENTS_PER_FILE_NAME = "segments_per_file";
+    private static final String SEGMENTS_PER_FILE_REMARKS = "Maximum number of byte range segments downloaded in parallel for a single large file.";
+
+    /**
+     * SEGMENTS_PER_FILE parameter descriptor.
+     */
+    public static final ParameterDescriptor<Integer> SEGMENTS_PER_FILE = new ParameterBuilder()
+            .addName(SEGMENTS_PER_FILE_NAME)
+            .setRemarks(SEGMENTS_PER_FILE_REMARKS)
+            .setRequired(false)
+            .createBounded(1, 16, 4);
+
+    /**
+     * Name for the VERIFY_CHECKSUM parameter.
+     */
+    public static final String VERIFY_CHECKSUM_NAME = "verify_checksum";
+    private static final String VERIFY_CHECKSUM_REMARKS = "Verify downloaded files against the asset file:checksum property when available.";
+
+    /**
+     * VERIFY_CHECKSUM parameter descriptor.
+     */
+    public static final ParameterDescriptor<Boolean> VERIFY_CHECKSUM = new ParameterBuilder()
+            .addName(VERIFY_CHECKSUM_NAME)
+            .setRemarks(VERIFY_CHECKSUM_REMARKS)
+            .setRequired(false)
+            .create(Boolean.class, Boolean.TRUE);
+
     /**
      * Input parameters group.
      */
     public static final ParameterDescriptorGroup INPUT_DESC = new ParameterBuilder().addName("InputParameters").setRequired(true)
-            .createGroup(STAC_URL, COLLECTION, SPATIAL_EXTENT, TEMPORAL_EXTENT, BANDS, OUTPUT_DIRECTORY, EXTRACTOR_CLASS);
+            .createGroup(STAC_URL, COLLECTION, SPATIAL_EXTENT, TEMPORAL_EXTENT, BANDS, OUTPUT_DIRECTORY, EXTRACTOR_CLASS,
+                    PARALLEL_DOWNLOADS, SEGMENTS_PER_FILE, VERIFY_CHECKSUM);
 
     /**
      * Name for the OUTPUT parameter.
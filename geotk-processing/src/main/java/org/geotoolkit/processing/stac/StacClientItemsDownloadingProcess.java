@@ -19,17 +19,26 @@ package org.geotoolkit.processing.stac;
 import org.geotoolkit.process.ProcessDescriptor;
 import org.geotoolkit.process.ProcessException;
 import org.geotoolkit.stac.client.StacClient;
+import org.geotoolkit.stac.client.StacDownloader;
 import org.geotoolkit.stac.dto.Item;
 import org.opengis.parameter.ParameterValueGroup;
 
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 import static org.geotoolkit.processing.stac.StacClientItemsDownloadingDescriptor.OUTPUT;
 import static org.geotoolkit.processing.stac.StacClientItemsDownloadingDescriptor.OUTPUT_DIRECTORY;
+import static org.geotoolkit.processing.stac.StacClientItemsDownloadingDescriptor.PARALLEL_DOWNLOADS;
+import static org.geotoolkit.processing.stac.StacClientItemsDownloadingDescriptor.SEGMENTS_PER_FILE;
+import static org.geotoolkit.processing.stac.StacClientItemsDownloadingDescriptor.VERIFY_CHECKSUM;
 
 /**
  * Execution class for the STAC Client Downloading Process.
@@ -73,15 +82,50 @@ public class StacClientItemsDownloadingProcess extends AbstractStacClientProcess
 
     @Override
     protected void processItem(StacClient client, Item item, List<Path> results) throws Exception {
+        processItems(client, Collections.singletonList(item), results);
+    }
+
+    /**
+     * Download the items assets concurrently. Results are stored in items order.
+     * If the process is dismissed or a download fails, running transfers are stopped
+     * and partial files are kept to be resumed by a later execution.
+     */
+    @Override
+    protected void processItems(StacClient client, List<Item> items, List<Path> results) throws Exception {
         final Path outputDirectory = inputParameters.getValue(OUTPUT_DIRECTORY);
-        final URI downloadURI = client.getDownloadURI(item);
+        final Integer parallel = inputParameters.getValue(PARALLEL_DOWNLOADS);
+        final Integer segments = inputParameters.getValue(SEGMENTS_PER_FILE);
+        final Boolean verify = inputParameters.getValue(VERIFY_CHECKSUM);
 
-        if (downloadURI != null) {
-            LOGGER.fine("Downloading " + downloadURI);
-            final Path downloadedFile = client.downloadFile(downloadURI, outputDirectory);
-            results.add(downloadedFile);
-        } else {
-            LOGGER.warning("No download URI found for item: " + item.getId());
+        try (StacDownloader downloader = new StacDownloader(client.getHttpClient(),
+                parallel != null ? parallel : 4, segments != null ? segments : 4)) {
+
+            final List<CompletableFuture<Path>> downloads = new ArrayList<>(items.size());
+            for (final Item item : items) {
+                final URI downloadURI = client.getDownloadURI(item);
+                if (downloadURI != null) {
+                    LOGGER.fine("Downloading " + downloadURI);
+                    final String checksum = Boolean.FALSE.equals(verify) ? null : StacDownloader.getChecksum(item, downloadURI);
+                    downloads.add(downloader.submit(downloadURI, outputDirectory, checksum));
+                } else {
+                    LOGGER.warning("No download URI found for item: " + item.getId());
+                }
+            }
+
+            for (int i = 0, n = downloads.size(); i < n; i++) {
+                stopIfDismissed();
+                final Path downloadedFile;
+                try {
+                    downloadedFile = downloads.get(i).get();
+                } catch (ExecutionException ex) {
+                    final Throwable cause = StacDownloader.getCause(ex);
+                    throw (cause instanceof Exception) ? (Exception) cause : ex;
+                }
+                results.add(downloadedFile);
+                fireProgressing(String.format(Locale.ROOT, "Downloaded %d/%d files, %.1f MB at %.2f MB/s",
+                        i + 1, n, downloader.getTransferredBytes() / 1e6, downloader.getThroughput() / 1e6),
+                        (i + 1) * 100f / n, false);
+            }
         }
     }
 
@@ -32,6 +32,7 @@ import org.geotoolkit.processing.AbstractProcess;
 import org.geotoolkit.processing.vector.VectorDescriptor;
 import org.geotoolkit.processing.vector.VectorProcessUtils;
 import org.geotoolkit.storage.feature.query.Query;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.opengis.feature.Feature;
 import org.opengis.feature.PropertyType;
@@ -87,6 +88,7 @@ public class NearestProcess extends AbstractProcess {
         if (geomCrs == null) {
             geomCrs = FeatureExt.getCRS(original.getType());
         }
+        final Envelope geomEnv = geom.getEnvelopeInternal();
         double dist = Double.POSITIVE_INFINITY;
         final Collection<Filter<Object>> listID = new ArrayList<>();
         try (final Stream<Feature> stream = original.features(false)) {
@@ -100,6 +102,8 @@ public class NearestProcess extends AbstractProcess {
 
                         //re-project feature geometry into input geometry CRS
                         featureGeom = VectorProcessUtils.repojectGeometry(geomCrs, featureGeomCRS, featureGeom);
+                        //envelope distance is a lower bound, skip exact computation when it can not compete
+                        if (geomEnv.distance(featureGeom.getEnvelopeInternal()) > dist) continue;
                         final double computedDist = geom.distance(featureGeom);
                         if (computedDist < dist) {
                             listID.clear();
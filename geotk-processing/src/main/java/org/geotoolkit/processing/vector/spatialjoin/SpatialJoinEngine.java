@@ -0,0 +1,466 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.vector.spatialjoin;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.sis.feature.Features;
+import org.apache.sis.feature.internal.shared.AttributeConvention;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.geotoolkit.feature.FeatureExt;
+import org.geotoolkit.geometry.jts.JTS;
+import org.geotoolkit.processing.vector.VectorProcessUtils;
+import org.geotoolkit.storage.feature.FeatureStoreUtilities;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.AbstractNode;
+import org.locationtech.jts.index.strtree.Boundable;
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
+import org.opengis.feature.PropertyType;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.FactoryException;
+
+/**
+ * Indexed implementation of the spatial join.
+ * Instead of querying the whole source collection for each target feature, an STR tree
+ * is built on one side and the other side is streamed in partitions, the features of a
+ * partition being processed concurrently. Only the indexed side is kept in memory.
+ * <ul>
+ *   <li>With the intersect method, the smaller side is indexed. When the target is the larger
+ *       side, result features are emitted partition by partition. Otherwise all source
+ *       features are offered to the target index before the results are emitted.</li>
+ *   <li>With the nearest method, the source side is always indexed and the target side streamed.</li>
+ * </ul>
+ * <p>
+ * Matching rules are the same as {@link SpatialJoinProcess#join(Feature, FeatureType, FeatureSet, boolean)} :
+ * all geometry attributes of both types are used. A source feature matches with any of its geometries,
+ * with the intersect method the source feature having the biggest intersection area is kept,
+ * with the nearest method the closest source feature is kept. In both cases, ties are resolved
+ * by keeping the first source feature in iteration order. Target geometry attributes are matched
+ * in declaration order, the search stops at the first one without match and the result is joined
+ * with the match of the last matched attribute. Geometry attributes are taken from the feature set
+ * type, attributes only declared by feature sub-types are ignored.
+ * </p>
+ *
+ * @module
+ */
+final class SpatialJoinEngine {
+
+    /**
+     * Number of features processed by a single task.
+     */
+    private static final int PARTITION_SIZE = 1024;
+
+    /**
+     * Node capacity of the STR trees.
+     */
+    private static final int NODE_CAPACITY = 16;
+
+    private final FeatureSet sourceFC;
+    private final FeatureSet targetFC;
+    private final FeatureType newType;
+    private final boolean intersect;
+
+    /**
+     * @param sourceFC the source FeatureCollection, features from which attributes are copied
+     * @param targetFC the target FeatureCollection, one result feature is created for each of them
+     * @param newType the concatenated FeatureType
+     * @param intersect the used method. True -> Intersect, False -> Nearest
+     */
+    SpatialJoinEngine(final FeatureSet sourceFC, final FeatureSet targetFC,
+            final FeatureType newType, final boolean intersect) {
+        this.sourceFC = sourceFC;
+        this.targetFC = targetFC;
+        this.newType = newType;
+        this.intersect = intersect;
+    }
+
+    /**
+     * Compute the join. Result features are returned in target iteration order.
+     *
+     * @param parallel true to process the features of a partition concurrently
+     * @return joined features
+     */
+    Stream<Feature> join(final boolean parallel) throws DataStoreException {
+        final GeometryReader targetReader = new GeometryReader(targetFC.getType(), null);
+        final GeometryReader sourceReader = new GeometryReader(sourceFC.getType(), targetReader.crs);
+        if (intersect && FeatureStoreUtilities.getCount(targetFC) < FeatureStoreUtilities.getCount(sourceFC)) {
+            return joinByTargetIndex(sourceReader, targetReader, parallel);
+        }
+
+        final Side source = new Side(sourceFC, sourceReader);
+        final Stream<Partition> partitions = partitions(targetFC.features(false));
+        return partitions.flatMap((Partition partition) -> {
+            Stream<Feature> stream = partition.features.stream();
+            if (parallel) stream = stream.parallel();
+            return stream.map((Feature target) -> {
+                Feature match = null;
+                for (Geometry targetGeom : targetReader.read(target)) {
+                    final int idx = (targetGeom == null) ? -1 :
+                            (intersect ? source.intersection(targetGeom) : source.nearest(targetGeom));
+                    if (idx < 0) break;
+                    match = source.features.get(idx);
+                }
+                return join(target, match);
+            }).collect(Collectors.toList()).stream();
+        });
+    }
+
+    /**
+     * Intersect method when the target side is the smallest : targets are indexed,
+     * each source geometry is prepared and offered to the targets it intersects.
+     * The best match of each target geometry is updated atomically since several
+     * source features may compete for the same target.
+     */
+    private Stream<Feature> joinByTargetIndex(final GeometryReader sourceReader, final GeometryReader targetReader,
+            final boolean parallel) throws DataStoreException {
+        final Side target = new Side(targetFC, targetReader);
+        final AtomicReferenceArray<Match> best = new AtomicReferenceArray<>(target.geometries.length);
+        try (Stream<Partition> partitions = partitions(sourceFC.features(false))) {
+            partitions.forEach((Partition partition) -> {
+                IntStream indices = IntStream.range(0, partition.features.size());
+                if (parallel) indices = indices.parallel();
+                indices.forEach((int i) -> {
+                    final Feature sourceFeature = partition.features.get(i);
+                    for (Geometry sourceGeom : sourceReader.read(sourceFeature)) {
+                        if (sourceGeom == null) continue;
+                        final PreparedGeometry prepared = PreparedGeometryFactory.prepare(sourceGeom);
+                        for (Object candidate : target.index.query(sourceGeom.getEnvelopeInternal())) {
+                            final int t = (Integer) candidate;
+                            final Geometry targetGeom = target.geometries[t];
+                            if (!prepared.intersects(targetGeom)) continue;
+                            final Match match = new Match(partition.start + i, sourceFeature,
+                                    targetGeom.intersection(sourceGeom).getArea());
+                            Match current;
+                            do {
+                                current = best.get(t);
+                                if (current != null && !match.isBetterThan(current)) break;
+                            } while (!best.compareAndSet(t, current, match));
+                        }
+                    }
+                });
+            });
+        } catch (BackingStoreException ex) {
+            throw ex.unwrapOrRethrow(DataStoreException.class);
+        }
+
+        final List<Feature> result = new ArrayList<>(target.features.size());
+        for (int f = 0, n = target.features.size(); f < n; f++) {
+            Feature match = null;
+            for (int k = 0; k < target.nbGeometries; k++) {
+                final Match m = best.get(f * target.nbGeometries + k);
+                if (m == null) break;
+                match = m.feature;
+            }
+            result.add(join(target.features.get(f), match));
+        }
+        return result.stream();
+    }
+
+    /**
+     * Create the result feature of a target.
+     *
+     * @param target target feature
+     * @param match matching source feature, null if none
+     */
+    private Feature join(final Feature target, final Feature match) {
+        return (match == null) ? SpatialJoinProcess.copyTarget(target, newType)
+                               : SpatialJoinProcess.copyAttributes(target, match, newType);
+    }
+
+    /**
+     * Search the source geometry closest to the given geometry.
+     *
+     * @return index of the nearest source geometry, or -1 if the index is empty
+     */
+    private static int nearest(final STRtree index, final Geometry[] geometries, final Geometry geom) {
+        final Envelope env = geom.getEnvelopeInternal();
+        final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(index.getRoot(), 0.0));
+        double dist = Double.POSITIVE_INFINITY;
+        int nearest = -1;
+        Candidate candidate;
+        while ((candidate = queue.poll()) != null && candidate.distance <= dist) {
+            if (candidate.boundable instanceof ItemBoundable) {
+                final int idx = (Integer) ((ItemBoundable) candidate.boundable).getItem();
+                if (candidate.distance < dist || idx < nearest) {
+                    dist = candidate.distance;
+                    nearest = idx;
+                }
+            } else {
+                for (Object child : ((AbstractNode) candidate.boundable).getChildBoundables()) {
+                    final Boundable b = (Boundable) child;
+                    final double d;
+                    if (b instanceof ItemBoundable) {
+                        d = geom.distance(geometries[(Integer) ((ItemBoundable) b).getItem()]);
+                    } else {
+                        d = env.distance((Envelope) b.getBounds());
+                    }
+                    if (d <= dist) {
+                        queue.add(new Candidate(b, d));
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Split a feature stream in consecutive partitions, features are read when a partition is requested.
+     * Closing the returned stream closes the feature stream.
+     */
+    private static Stream<Partition> partitions(final Stream<Feature> features) {
+        final Iterator<Feature> ite = features.iterator();
+        final Iterator<Partition> partitions = new Iterator<Partition>() {
+            private int start;
+
+            @Override
+            public boolean hasNext() {
+                return ite.hasNext();
+            }
+
+            @Override
+            public Partition next() {
+                if (!ite.hasNext()) throw new NoSuchElementException();
+                final List<Feature> list = new ArrayList<>(PARTITION_SIZE);
+                while (list.size() < PARTITION_SIZE && ite.hasNext()) {
+                    list.add(ite.next());
+                }
+                final Partition partition = new Partition(start, list);
+                start += list.size();
+                return partition;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(partitions,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(features::close);
+    }
+
+    /**
+     * Consecutive features of a stream.
+     */
+    private static final class Partition {
+
+        /**
+         * Index of the first feature in the stream.
+         */
+        private final int start;
+        private final List<Feature> features;
+
+        Partition(final int start, final List<Feature> features) {
+            this.start = start;
+            this.features = features;
+        }
+    }
+
+    /**
+     * Read the geometry attributes of a feature type, in declaration order.
+     * Links are skipped since they point to an attribute already read.
+     */
+    private static final class GeometryReader {
+
+        private final String[] names;
+        private final CoordinateReferenceSystem[] crss;
+        private final CoordinateReferenceSystem crs;
+
+        /**
+         * @param type feature type
+         * @param crs wanted geometry crs, null to keep the feature type crs
+         */
+        GeometryReader(final FeatureType type, final CoordinateReferenceSystem crs) {
+            final List<PropertyType> properties = new ArrayList<>();
+            for (PropertyType property : type.getProperties(true)) {
+                if (AttributeConvention.isGeometryAttribute(property) && !Features.getLinkTarget(property).isPresent()) {
+                    properties.add(property);
+                }
+            }
+            names = new String[properties.size()];
+            crss = new CoordinateReferenceSystem[names.length];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = properties.get(i).getName().toString();
+                crss[i] = FeatureExt.getCRS(properties.get(i));
+            }
+            this.crs = (crs != null) ? crs : FeatureExt.getCRS(type);
+        }
+
+        /**
+         * Read the geometries of a feature, reprojected in the reader crs.
+         *
+         * @return one geometry per attribute, null for null or empty geometries
+         * @throws BackingStoreException if a geometry can not be reprojected
+         */
+        Geometry[] read(final Feature feature) {
+            final Geometry[] geometries = new Geometry[names.length];
+            try {
+                for (int i = 0; i < names.length; i++) {
+                    Geometry geom = (Geometry) feature.getPropertyValue(names[i]);
+                    if (geom == null || geom.isEmpty()) continue;
+                    if (crs != null) {
+                        CoordinateReferenceSystem geomCrs = JTS.findCoordinateReferenceSystem(geom);
+                        if (geomCrs == null) geomCrs = crss[i];
+                        if (geomCrs != null) {
+                            geom = VectorProcessUtils.repojectGeometry(crs, geomCrs, geom);
+                        }
+                    }
+                    geometries[i] = geom;
+                }
+            } catch (FactoryException | TransformException ex) {
+                throw new BackingStoreException(ex);
+            }
+            return geometries;
+        }
+    }
+
+    /**
+     * Indexed side of the join, features and their geometries are kept in memory.
+     * Geometry {@code k} of feature {@code f} is stored at {@code f * nbGeometries + k}.
+     */
+    private static final class Side {
+
+        private final List<Feature> features = new ArrayList<>();
+        private final int nbGeometries;
+        private final Geometry[] geometries;
+        private final STRtree index = new STRtree(NODE_CAPACITY);
+
+        /**
+         * @param fs features to load
+         * @param reader geometry reader of the feature set type
+         */
+        Side(final FeatureSet fs, final GeometryReader reader) throws DataStoreException {
+            nbGeometries = reader.names.length;
+            final List<Geometry> geoms = new ArrayList<>();
+            try (Stream<Feature> stream = fs.features(false)) {
+                final Iterator<Feature> ite = stream.iterator();
+                while (ite.hasNext()) {
+                    final Feature feature = ite.next();
+                    features.add(feature);
+                    for (Geometry geom : reader.read(feature)) {
+                        if (geom != null) {
+                            index.insert(geom.getEnvelopeInternal(), geoms.size());
+                        }
+                        geoms.add(geom);
+                    }
+                }
+            } catch (BackingStoreException ex) {
+                throw ex.unwrapOrRethrow(DataStoreException.class);
+            }
+            geometries = geoms.toArray(new Geometry[geoms.size()]);
+            //build now, the tree is then queried concurrently
+            index.build();
+        }
+
+        /**
+         * Search the feature having the biggest intersection area with the given geometry.
+         *
+         * @return feature index, or -1 if no feature intersects the geometry
+         */
+        int intersection(final Geometry geom) {
+            final PreparedGeometry prepared = PreparedGeometryFactory.prepare(geom);
+            final List<Integer> found = new ArrayList<>();
+            boolean several = false;
+            for (Object candidate : index.query(geom.getEnvelopeInternal())) {
+                final int idx = (Integer) candidate;
+                if (prepared.intersects(geometries[idx])) {
+                    several |= !found.isEmpty() && found.get(0) / nbGeometries != idx / nbGeometries;
+                    found.add(idx);
+                }
+            }
+            if (found.isEmpty()) {
+                return -1;
+            } else if (!several) {
+                return found.get(0) / nbGeometries;
+            }
+            double area = -1;
+            int match = -1;
+            for (int idx : found) {
+                final int f = idx / nbGeometries;
+                final double computeArea = geom.intersection(geometries[idx]).getArea();
+                if (computeArea > area || (computeArea == area && f < match)) {
+                    area = computeArea;
+                    match = f;
+                }
+            }
+            return match;
+        }
+
+        /**
+         * Search the feature closest to the given geometry.
+         *
+         * @return feature index, or -1 if there is no geometry
+         */
+        int nearest(final Geometry geom) {
+            final int idx = SpatialJoinEngine.nearest(index, geometries, geom);
+            return (idx < 0) ? -1 : idx / nbGeometries;
+        }
+    }
+
+    /**
+     * Intersection candidate of a target geometry.
+     */
+    private static final class Match {
+
+        private final int index;
+        private final Feature feature;
+        private final double area;
+
+        Match(final int index, final Feature feature, final double area) {
+            this.index = index;
+            this.feature = feature;
+            this.area = area;
+        }
+
+        boolean isBetterThan(final Match other) {
+            return area > other.area || (area == other.area && index < other.index);
+        }
+    }
+
+    /**
+     * Tree node or item waiting in the nearest neighbour queue.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final Boundable boundable;
+        private final double distance;
+
+        Candidate(final Boundable boundable, final double distance) {
+            this.boundable = boundable;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(final Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+}
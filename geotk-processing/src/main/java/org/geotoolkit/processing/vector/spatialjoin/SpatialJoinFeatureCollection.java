@@ -60,18 +60,11 @@ public class SpatialJoinFeatureCollection extends AbstractFeatureSet {
     }
 
     /**
-     *  {@inheritDoc }
+     * Join all target features at once using an {@link SpatialJoinEngine}.
+     * Both collections are read a single time, whatever the number of target features.
      */
-    private Feature modify(final Feature original) {
-        try {
-            return SpatialJoinProcess.join(original, newFeatureType, sourceFC, method);
-        } catch (DataStoreException ex) {
-            throw new RuntimeException(ex.getMessage(), ex);
-        }
-    }
-
     @Override
     public Stream<Feature> features(boolean parallel) throws DataStoreException {
-        return targetFC.features(parallel).map(this::modify);
+        return new SpatialJoinEngine(sourceFC, targetFC, newFeatureType, method).join(parallel);
     }
 }
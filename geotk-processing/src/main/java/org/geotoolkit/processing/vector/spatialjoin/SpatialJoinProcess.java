@@ -102,16 +102,7 @@ public class SpatialJoinProcess extends AbstractProcess {
     static Feature join(final Feature target, final FeatureType newType,
             final FeatureSet sourceFC, final boolean method) throws DataStoreException {
 
-        Feature resultFeature = newType.newInstance();
-        FeatureExt.setId(resultFeature, FeatureExt.getId(target));
-
-        //copy target Feature
-        for (final PropertyType targetProperty : target.getType().getProperties(true)) {
-            if(targetProperty instanceof AttributeType && !AttributeConvention.contains(targetProperty.getName())){
-                final String name = targetProperty.getName().toString();
-                resultFeature.setPropertyValue(name, target.getPropertyValue(name));
-            }
-        }
+        Feature resultFeature = copyTarget(target, newType);
 
         ProcessDescriptor desc;
         org.geotoolkit.process.Process proc;
@@ -178,6 +169,28 @@ public class SpatialJoinProcess extends AbstractProcess {
         return resultFeature;
     }
 
+    /**
+     * Create a Feature of the concatenated type with only the target attributes set.
+     * This is the result of the join when no source Feature match the target.
+     *
+     * @param target targetFeature
+     * @param newType concatenated FeatureType
+     * @return the resulting Feature
+     */
+    static Feature copyTarget(final Feature target, final FeatureType newType) {
+        final Feature resultFeature = newType.newInstance();
+        FeatureExt.setId(resultFeature, FeatureExt.getId(target));
+
+        //copy target Feature
+        for (final PropertyType targetProperty : target.getType().getProperties(true)) {
+            if(targetProperty instanceof AttributeType && !AttributeConvention.contains(targetProperty.getName())){
+                final String name = targetProperty.getName().toString();
+                resultFeature.setPropertyValue(name, target.getPropertyValue(name));
+            }
+        }
+        return resultFeature;
+    }
+
     /**
      * This function copy attributes from source to target Feature except geometry descriptor.
      * The copied attributes name will be "attributeName_sourceFeatureTypeName".
@@ -0,0 +1,97 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.coveragetovector;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.measure.NumberRange;
+import org.apache.sis.referencing.CommonCRS;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class CoverageToVectorTest {
+
+    private static final NumberRange[] RANGES = {
+        NumberRange.create(0, true, 0, true),
+        NumberRange.create(1, true, 1, true),
+        NumberRange.create(2, true, 2, true)
+    };
+
+    /**
+     * Regions crossing tile seams must be merged, tiled result must be the same as the single pass result.
+     */
+    @Test
+    public void tiledSameAsSinglePass() throws Exception {
+        final BufferedImage image = new BufferedImage(61, 47, BufferedImage.TYPE_BYTE_GRAY);
+        final WritableRaster raster = image.getRaster();
+        final Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int value = (x / 5 + y / 7) % 3;
+                if (random.nextInt(20) == 0) value = random.nextInt(3);
+                raster.setSample(x, y, 0, value);
+            }
+        }
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, 0, 61);
+        env.setRange(1, 0, 47);
+        final GridCoverageBuilder gcb = new GridCoverageBuilder();
+        gcb.setValues(image);
+        gcb.setDomain(env);
+        final GridCoverage coverage = gcb.build();
+
+        final CoverageToVectorProcess process = new CoverageToVectorProcess(coverage, RANGES, 0);
+        final Geometry[] expected = process.toPolygon(coverage, RANGES, 0);
+        for (int tileSize : new int[] {1, 8, 16, 100}) {
+            final List<Geometry> result = new ArrayList<>();
+            process.toPolygon(coverage, RANGES, 0, tileSize, result::add);
+            assertEquals(expected.length, result.size());
+            final Geometry[] sorted = result.toArray(Geometry[]::new);
+            sort(sorted);
+            sort(expected);
+            for (int i = 0; i < expected.length; i++) {
+                assertSame(expected[i].getUserData(), sorted[i].getUserData());
+                assertEquals(expected[i].getArea(), sorted[i].getArea(), 1e-9);
+                assertEquals(expected[i].getEnvelopeInternal(), sorted[i].getEnvelopeInternal());
+            }
+        }
+    }
+
+    private static void sort(final Geometry[] geometries) {
+        Arrays.sort(geometries, Comparator.comparingDouble((Geometry g) -> g.getEnvelopeInternal().getMinX())
+                .thenComparingDouble(g -> g.getEnvelopeInternal().getMinY())
+                .thenComparingDouble(g -> g.getEnvelopeInternal().getMaxX())
+                .thenComparingDouble(g -> g.getEnvelopeInternal().getMaxY())
+                .thenComparingDouble(Geometry::getArea)
+                .thenComparingInt(g -> Arrays.asList(RANGES).indexOf(g.getUserData())));
+    }
+}
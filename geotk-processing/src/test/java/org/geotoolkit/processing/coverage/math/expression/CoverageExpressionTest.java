@@ -0,0 +1,225 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.math.expression;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.geotoolkit.image.BufferedImages;
+import org.geotoolkit.process.Process;
+import org.geotoolkit.process.ProcessDescriptor;
+import org.geotoolkit.process.ProcessFinder;
+import org.geotoolkit.processing.GeotkProcessingRegistry;
+import org.junit.Test;
+import org.opengis.parameter.ParameterValueGroup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class CoverageExpressionTest {
+
+    private static final int WIDTH = 700, HEIGHT = 500;
+
+    /**
+     * Normalized difference of two bands from different coverages, with constants.
+     */
+    @Test
+    public void normalizedDifference() throws Exception {
+        final ProcessDescriptor desc = ProcessFinder.getProcessDescriptor(GeotkProcessingRegistry.NAME, CoverageExpressionDescriptor.NAME);
+        assertNotNull(desc);
+
+        final GridCoverage cov1 = create(0);
+        final GridCoverage cov2 = create(1000);
+        final BandExpression nir = BandExpression.band(1, 1);
+        final BandExpression red = BandExpression.band(0, 0);
+        final BandExpression scale = BandExpression.constant(2).multiply(BandExpression.constant(0.5));
+        final BandExpression expression = nir.subtract(red).divide(nir.add(red)).multiply(scale);
+
+        final ParameterValueGroup params = desc.getInputDescriptor().createValue();
+        params.parameter(CoverageExpressionDescriptor.IN_COVERAGES_NAME).setValue(new GridCoverage[]{cov1, cov2});
+        params.parameter(CoverageExpressionDescriptor.IN_EXPRESSION_NAME).setValue(expression);
+
+        final Process process = desc.createProcess(params);
+        final ParameterValueGroup result = process.call();
+        final GridCoverage coverage = (GridCoverage) result.parameter(CoverageExpressionDescriptor.OUT_COVERAGE_NAME).getValue();
+        assertNotNull(coverage);
+        assertEquals(cov1.getGridGeometry(), coverage.getGridGeometry());
+
+        final RenderedImage image = coverage.render(null);
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        assertTrue(image.getNumXTiles() * image.getNumYTiles() > 1);
+
+        final Raster raster = image.getData();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                final double a = value(1000, x, y, 1);
+                final double b = value(0, x, y, 0);
+                assertEquals((a - b) / (a + b), raster.getSampleDouble(x, y, 0), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * Result grid is an offset subset of the coverage grid, coverage is not resampled.
+     */
+    @Test
+    public void subsetGrid() throws Exception {
+        final GridCoverage cov = create(0, 0);
+        final GridGeometry source = cov.getGridGeometry();
+        final GridGeometry target = new GridGeometry(new GridExtent(null, new long[]{100, 50}, new long[]{299, 149}, true),
+                PixelInCell.CELL_CENTER, source.getGridToCRS(PixelInCell.CELL_CENTER), source.getCoordinateReferenceSystem());
+
+        final BandExpression expression = BandExpression.band(0, 1).subtract(BandExpression.band(0, 0));
+        final GridCoverage coverage = execute(new GridCoverage[]{cov}, expression, target);
+        assertEquals(target, coverage.getGridGeometry());
+
+        final RenderedImage image = coverage.render(null);
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+        final Raster raster = image.getData();
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 200; x++) {
+                final double expected = value(0, x + 100, y + 50, 1) - value(0, x + 100, y + 50, 0);
+                assertEquals(expected, raster.getSampleDouble(image.getMinX() + x, image.getMinY() + y, 0), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * Second coverage is on a grid shifted by 100 cells, it is resampled on the result grid.
+     */
+    @Test
+    public void resampledGrid() throws Exception {
+        final GridCoverage cov1 = create(0, 0);
+        final GridCoverage cov2 = create(1000, -10);
+        final BandExpression expression = BandExpression.band(1, 1).subtract(BandExpression.band(0, 0));
+        final GridCoverage coverage = execute(new GridCoverage[]{cov1, cov2}, expression, null);
+        assertEquals(cov1.getGridGeometry(), coverage.getGridGeometry());
+
+        final RenderedImage image = coverage.render(null);
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        final Raster raster = image.getData();
+        for (int y = 0; y < HEIGHT; y++) {
+            //cells beyond x=600 are outside of the second coverage
+            for (int x = 0; x < WIDTH - 100; x++) {
+                final double expected = value(1000, x + 100, y, 1) - value(0, x, y, 0);
+                assertEquals(expected, raster.getSampleDouble(image.getMinX() + x, image.getMinY() + y, 0), 1e-3);
+            }
+        }
+    }
+
+    /**
+     * Compiled program with repeated bands, constants on both sides and a single band expression.
+     */
+    @Test
+    public void program() {
+        final int n = 10;
+        final double[][] samples = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            samples[0][i] = i;
+            samples[1][i] = 2 * i + 1;
+        }
+        final double[] result = new double[n];
+
+        final BandExpression a = BandExpression.band(0, 0);
+        final BandExpression b = BandExpression.band(0, 1);
+        final BandExpression c = BandExpression.constant(3);
+        ExpressionProgram program = ExpressionProgram.compile(c.subtract(a).multiply(a.add(b)).divide(b.multiply(c).add(c)));
+        assertEquals(2, program.bands.length);
+        assertEquals(0, program.bands[0]);
+        assertEquals(1, program.bands[1]);
+        program.evaluate(samples, n, result);
+        for (int i = 0; i < n; i++) {
+            final double va = samples[0][i];
+            final double vb = samples[1][i];
+            assertEquals((3 - va) * (va + vb) / (vb * 3 + 3), result[i], 1e-12);
+        }
+
+        program = ExpressionProgram.compile(b);
+        assertEquals(1, program.bands.length);
+        program.evaluate(new double[][]{samples[1]}, n, result);
+        for (int i = 0; i < n; i++) {
+            // source samples are not modified
+            assertEquals(i, samples[0][i], 0);
+            assertEquals(2 * i + 1, samples[1][i], 0);
+            assertEquals(samples[1][i], result[i], 0);
+        }
+
+        program = ExpressionProgram.compile(c.add(BandExpression.constant(1)));
+        assertEquals(0, program.bands.length);
+        program.evaluate(samples, n, result);
+        for (int i = 0; i < n; i++) {
+            assertEquals(4, result[i], 0);
+        }
+    }
+
+    private static double value(final int offset, final int x, final int y, final int band) {
+        return offset + 1 + x + y * 3 + band * 7;
+    }
+
+    private static GridCoverage execute(final GridCoverage[] coverages, final BandExpression expression,
+            final GridGeometry grid) throws Exception {
+        final ProcessDescriptor desc = ProcessFinder.getProcessDescriptor(GeotkProcessingRegistry.NAME, CoverageExpressionDescriptor.NAME);
+        final ParameterValueGroup params = desc.getInputDescriptor().createValue();
+        params.parameter(CoverageExpressionDescriptor.IN_COVERAGES_NAME).setValue(coverages);
+        params.parameter(CoverageExpressionDescriptor.IN_EXPRESSION_NAME).setValue(expression);
+        params.parameter(CoverageExpressionDescriptor.IN_GRID_GEOMETRY_NAME).setValue(grid);
+        final ParameterValueGroup result = desc.createProcess(params).call();
+        return (GridCoverage) result.parameter(CoverageExpressionDescriptor.OUT_COVERAGE_NAME).getValue();
+    }
+
+    private static GridCoverage create(final int offset) {
+        return create(offset, 0);
+    }
+
+    /**
+     * Create a coverage with cells of 0.1°, starting at the given longitude.
+     */
+    private static GridCoverage create(final int offset, final double minX) {
+        final BufferedImage image = BufferedImages.createImage(WIDTH, HEIGHT, 2, DataBuffer.TYPE_FLOAT);
+        final WritableRaster raster = image.getRaster();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                raster.setSample(x, y, 0, value(offset, x, y, 0));
+                raster.setSample(x, y, 1, value(offset, x, y, 1));
+            }
+        }
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, minX, minX + 70);
+        env.setRange(1, 0, 50);
+        final GridCoverageBuilder gcb = new GridCoverageBuilder();
+        gcb.setValues(image);
+        gcb.setDomain(env);
+        return gcb.build();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.processing.coverage.shadedrelief;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.geotoolkit.image.BufferedImages;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform1D;
+
+/**
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class ShadedReliefTest {
+
+    /**
+     * A constant slope must produce the same shading on all pixels, whatever the tile.
+     * Last row and column have no neighbour and are excluded.
+     */
+    @Test
+    public void slopeTest() throws Exception {
+        final int width = 1200;
+        final int height = 700;
+        final CoordinateReferenceSystem crs = CRS.forCode("EPSG:3395");
+        final GeneralEnvelope env = new GeneralEnvelope(crs);
+        env.setRange(0, 0, width);
+        env.setRange(1, 0, height);
+
+        final BufferedImage base = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                base.setRGB(x, y, 0xFF808080);
+            }
+        }
+        final BufferedImage ele = BufferedImages.createImage(width, height, 1, DataBuffer.TYPE_FLOAT);
+        final WritableRaster eleRaster = ele.getRaster();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                eleRaster.setSample(x, y, 0, x * 0.5f);
+            }
+        }
+
+        GridCoverageBuilder gcb = new GridCoverageBuilder();
+        gcb.setValues(base);
+        gcb.setDomain(env);
+        final GridCoverage coverage = gcb.build();
+        gcb = new GridCoverageBuilder();
+        gcb.setValues(ele);
+        gcb.setDomain(env);
+        final GridCoverage elevation = gcb.build();
+
+        final ShadedRelief process = new ShadedRelief(coverage, elevation, (MathTransform1D) MathTransforms.identity(1));
+        final GridCoverage result = process.call().getValue(ShadedReliefDescriptor.OUTCOVERAGE);
+        final RenderedImage image = result.render(null);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+
+        final Raster raster = image.getData();
+        final Object expected = raster.getDataElements(0, 0, null);
+        final int rgb = image.getColorModel().getRGB(expected);
+        assertNotEquals(0xFF808080, rgb);
+        for (int y = 0; y < height - 1; y++) {
+            for (int x = 0; x < width - 1; x++) {
+                assertEquals("Pixel (" + x + "," + y + ")", rgb, image.getColorModel().getRGB(raster.getDataElements(x, y, null)));
+            }
+        }
+    }
+}
@@ -17,7 +17,9 @@
 package org.geotoolkit.processing.coverage.volume;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
 import java.awt.image.WritableRenderedImage;
 import java.util.List;
 import java.util.concurrent.CancellationException;
@@ -28,10 +30,12 @@ import org.apache.sis.coverage.grid.GridGeometry;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.image.PixelIterator;
 import org.apache.sis.image.WritablePixelIterator;
+import org.apache.sis.image.internal.shared.WritableTiledImage;
 import org.apache.sis.storage.AbstractGridCoverageResource;
 import org.apache.sis.referencing.CommonCRS;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.util.iso.Names;
+import org.geotoolkit.image.BufferedImages;
 import org.geotoolkit.process.ProcessException;
 import org.geotoolkit.referencing.crs.PredefinedCRS;
 import static org.junit.Assert.*;
@@ -39,6 +43,8 @@ import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
 import org.opengis.coverage.grid.SequenceType;
 import org.opengis.geometry.Envelope;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -107,6 +113,63 @@ public class ComputeVolumeProcessTest {
                 /* geometry coords -> */ 1, 1, 1, 6, 6, 6, 6, 1, 1, 1);
     }
 
+    /**
+     * Test batch volume computing over a tiled DEM, areas crossing tile borders,
+     * with hole and with several parts.
+     */
+    @Test
+    public void testBatchTiled() throws Exception {
+        final int tileSize = 20;
+        final BufferedImage tile = BufferedImages.createImage(tileSize, tileSize, 1, DataBuffer.TYPE_FLOAT);
+        final WritableRaster[] rasters = new WritableRaster[6];
+        for (int ty = 0; ty < 2; ty++) {
+            for (int tx = 0; tx < 3; tx++) {
+                final WritableRaster raster = tile.getRaster().createCompatibleWritableRaster()
+                        .createWritableTranslatedChild(tx * tileSize, ty * tileSize);
+                for (int y = raster.getMinY(); y < raster.getMinY() + tileSize; y++) {
+                    for (int x = raster.getMinX(); x < raster.getMinX() + tileSize; x++) {
+                        raster.setSample(x, y, 0, (x * 3 + y * 5) % 11);
+                    }
+                }
+                rasters[ty * 3 + tx] = raster;
+            }
+        }
+        final WritableTiledImage img = new WritableTiledImage(null, tile.getColorModel(), 3 * tileSize, 2 * tileSize, 0, 0, rasters);
+        final GeneralEnvelope env = new GeneralEnvelope(CARTESIAN_CRS);
+        env.setEnvelope(0, 0, 3 * tileSize, 2 * tileSize);
+        final TestResource gcrTest = new TestResource(img, env);
+
+        final Geometry[] areas = new Geometry[] {
+            getGeometry(5.3, 4.2, 5.3, 31.7, 47.6, 31.7, 47.6, 4.2, 5.3, 4.2),
+            getGeometry(2.1, 2.2, 30.4, 37.9, 57.8, 3.3, 2.1, 2.2),
+            GF.createPolygon(GF.createLinearRing(getGeometry(10.1, 10.1, 10.1, 30.1, 30.1, 30.1, 30.1, 10.1, 10.1, 10.1).getCoordinates()),
+                    new LinearRing[]{GF.createLinearRing(getGeometry(15.1, 15.1, 25.1, 15.1, 25.1, 25.1, 15.1, 25.1, 15.1, 15.1).getCoordinates())}),
+            GF.createMultiPolygon(new Polygon[]{
+                (Polygon) getGeometry(1.2, 1.2, 1.2, 3.8, 3.8, 3.8, 3.8, 1.2, 1.2, 1.2),
+                (Polygon) getGeometry(50.4, 30.4, 50.4, 39.6, 59.6, 39.6, 59.6, 30.4, 50.4, 30.4)})
+        };
+
+        final ComputeVolumeBuilder cvb = new ComputeVolumeBuilder(gcrTest, areas[0], 4);
+        cvb.setGeometryAltitude(1);
+        final double[] volumes = cvb.getVolumes(areas);
+        assertEquals(areas.length, volumes.length);
+
+        // same volume as the area alone, DEM read and tiles differ.
+        for (int i = 0; i < areas.length; i++) {
+            cvb.setAnotherArea(areas[i]);
+            final double expected = cvb.getVolume();
+            assertTrue(expected > 0);
+            assertEquals(expected, volumes[i], expected * 1e-9);
+        }
+
+        // hole and parts, the polygon with a hole has the volume of the outer ring minus the hole.
+        final Geometry outer = getGeometry(10.1, 10.1, 10.1, 30.1, 30.1, 30.1, 30.1, 10.1, 10.1, 10.1);
+        final Geometry hole = getGeometry(15.1, 15.1, 25.1, 15.1, 25.1, 25.1, 15.1, 25.1, 15.1, 15.1);
+        final double[] parts = cvb.getVolumes(outer, hole, areas[3].getGeometryN(0), areas[3].getGeometryN(1));
+        assertEquals(parts[0] - parts[1], volumes[2], parts[0] * 1e-9);
+        assertEquals(parts[2] + parts[3], volumes[3], volumes[3] * 1e-9);
+    }
+
     /**
      * Test process comportement with image filled by value 1.
      *
@@ -0,0 +1,84 @@
+package org.geotoolkit.processing.regridding;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RegriddingPlan}, results must match {@link SphericalKDTree} resampling.
+ */
+public class RegriddingPlanTest {
+
+    private static final int NY = 40, NX = 60;
+
+    /**
+     * Curvilinear swath, slightly rotated, with a few missing values.
+     */
+    private final float[] srcLats = new float[NY * NX];
+    private final float[] srcLons = new float[NY * NX];
+    private final float[] srcData = new float[NY * NX];
+    private final float[] targetLats = new float[30];
+    private final float[] targetLons = new float[45];
+    private final float[] flatLats = new float[targetLats.length * targetLons.length];
+    private final float[] flatLons = new float[targetLats.length * targetLons.length];
+
+    public RegriddingPlanTest() {
+        final Random random = new Random(42);
+        for (int j = 0; j < NY; j++) {
+            for (int i = 0; i < NX; i++) {
+                int idx = j * NX + i;
+                srcLats[idx] = 40f + j * 0.05f + i * 0.005f;
+                srcLons[idx] = 10f + i * 0.05f - j * 0.01f;
+                srcData[idx] = random.nextInt(10) == 0 ? Float.NaN : random.nextFloat() * 30f;
+            }
+        }
+        for (int j = 0; j < targetLats.length; j++) targetLats[j] = 40f + j * 0.07f;
+        for (int i = 0; i < targetLons.length; i++) targetLons[i] = 9.8f + i * 0.07f;
+        for (int j = 0; j < targetLats.length; j++) {
+            for (int i = 0; i < targetLons.length; i++) {
+                flatLats[j * targetLons.length + i] = targetLats[j];
+                flatLons[j * targetLons.length + i] = targetLons[i];
+            }
+        }
+    }
+
+    @Test
+    public void testNearest() {
+        final SphericalKDTree tree = new SphericalKDTree(srcLats, srcLons);
+        final float[] expected = tree.resampleNearest(srcData, flatLats, flatLons, 5000);
+        final RegriddingPlan plan = RegriddingPlan.nearest(tree, targetLats, targetLons, 5000);
+        final float[] result = plan.apply(srcData);
+        assertEquals(expected.length, result.length);
+        int found = 0;
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], result[i], 0f);
+            if (!Float.isNaN(result[i])) found++;
+        }
+        // some target pixels are outside of the swath
+        assertTrue(found > 0 && found < expected.length);
+        assertTrue(plan.size() <= expected.length);
+    }
+
+    @Test
+    public void testGauss() {
+        final SphericalKDTree tree = new SphericalKDTree(srcLats, srcLons);
+        final float[] expected = tree.resampleGauss(srcData, flatLats, flatLons, 12000, 5000);
+        final RegriddingPlan plan = RegriddingPlan.gauss(tree, targetLats, targetLons, 12000, 5000);
+        final float[] result = plan.apply(srcData);
+        assertEquals(expected.length, result.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], result[i], 1e-4f);
+        }
+
+        // same plan, other variable
+        final float[] other = new float[srcData.length];
+        for (int i = 0; i < other.length; i++) other[i] = srcData[i] * 2f - 5f;
+        final float[] expectedOther = tree.resampleGauss(other, flatLats, flatLons, 12000, 5000);
+        final float[] resultOther = plan.apply(other);
+        for (int i = 0; i < expectedOther.length; i++) {
+            assertEquals(expectedOther[i], resultOther[i], 1e-4f);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *     (C) 2026, Geomatys
+ */
+package org.geotoolkit.processing.science.drift.v2;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.PixelInCell;
+import org.apache.sis.geometries.math.Vector2D;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.referencing.internal.shared.AffineTransform2D;
+import org.geotoolkit.processing.science.drift.Weight;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class ParticleEngineTest {
+
+    /**
+     * Eastward current of 1 unit per second where x &lt; 50, no data elsewhere.
+     */
+    private static final UVSource.Snapshot CURRENT = location -> location.x < 50
+            ? Optional.of(new Vector2D.Double(1, 0)) : Optional.empty();
+
+    /**
+     * No wind data, a random noise is used instead.
+     */
+    private static final UVSource.Snapshot NO_WIND = location -> Optional.empty();
+
+    private static final MeteoDataset.Snapshot UV = new MeteoDataset.Snapshot(CURRENT, NO_WIND);
+
+    /**
+     * 100x100 grid of unit cells, centered on (0,0), y axis going north.
+     */
+    private static GridModel createGrid() throws Exception {
+        return new GridModel(new GridGeometry(new GridExtent(100, 100), PixelInCell.CELL_CENTER,
+                new AffineTransform2D(1, 0, 0, -1, -49.5, 49.5), CommonCRS.defaultGeographic()));
+    }
+
+    @Test
+    public void advance() throws Exception {
+        final GridModel grid = createGrid();
+        final ParticleEngine engine = new ParticleEngine(grid, 100);
+        engine.add(0, 0, 1);
+        final Weight[] weights = {new Weight(1, 0, 0.25), new Weight(2, 0, 0.75)};
+
+        final double[] proba = engine.advance(UV, weights, 3);
+        assertNotNull(proba);
+        assertEquals(2, engine.size());
+        assertEquals(3, engine.getX(0), 1e-9);
+        assertEquals(6, engine.getX(1), 1e-9);
+        assertEquals(0, engine.getY(0), 1e-9);
+        assertEquals(0.25, engine.getWeight(0), 1e-9);
+        assertEquals(0.75, engine.getWeight(1), 1e-9);
+
+        // Only the cells crossed eastward from the origin receive a probability.
+        final int row = 50 * grid.width;
+        double sum = 0;
+        for (int i = 0; i < proba.length; i++) {
+            if (proba[i] != 0) {
+                assertTrue(i >= row + 49 && i <= row + 55);
+                sum += proba[i];
+            }
+        }
+        assertTrue(sum > 0);
+
+        // Particles leaving current data are removed.
+        engine.add(60, 0, 1);
+        engine.advance(UV, weights, 3);
+        assertEquals(4, engine.size());
+        for (int i = 0; i < engine.size(); i++) {
+            assertTrue(engine.getX(i) < 50);
+        }
+    }
+
+    @Test
+    public void noMoreData() throws Exception {
+        final ParticleEngine engine = new ParticleEngine(createGrid(), 10);
+        engine.add(60, 0, 1);
+        assertNull(engine.advance(UV, new Weight[]{new Weight(1, 1, 1)}, 1));
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void removeLeastProbable() throws Exception {
+        final ParticleEngine engine = new ParticleEngine(createGrid(), 10);
+        final double[] weights = {0.3, 0.1, 0.5, 0.1, 0.2, 0.5};
+        for (int i = 0; i < weights.length; i++) {
+            engine.add(i, i, weights[i]);
+        }
+        engine.removeLeastProbable(3);
+        assertEquals(3, engine.size());
+        assertEquals(0.3, engine.getWeight(0), 0);
+        assertEquals(0.5, engine.getWeight(1), 0);
+        assertEquals(0.5, engine.getWeight(2), 0);
+        assertEquals(5, engine.getX(2), 0);
+    }
+
+    /**
+     * Many particles are split in chunks with their own random generators.
+     * A seeded engine shall give the same results whatever the thread scheduling.
+     */
+    @Test
+    public void parallelChunks() throws Exception {
+        final GridModel grid = createGrid();
+        final Weight[] weights = {new Weight(0.5, 0.5, 0.5), new Weight(0.8, 0.2, 0.5)};
+        final double[][] results = new double[2][];
+        for (int r = 0; r < results.length; r++) {
+            final ParticleEngine engine = new ParticleEngine(grid, 30000, new SplittableRandom(42));
+            for (int i = 0; i < 10000; i++) {
+                engine.add(-40 + (i % 80), -40 + (i / 125), 1);
+            }
+            for (int step = 0; step < 3; step++) {
+                engine.removeLeastProbable(10000);
+                results[r] = engine.advance(UV, weights, 1);
+                assertNotNull(results[r]);
+            }
+        }
+        assertArrayEquals(results[0], results[1], 1e-12);
+    }
+}
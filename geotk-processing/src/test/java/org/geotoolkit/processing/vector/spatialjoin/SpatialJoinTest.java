@@ -16,6 +16,12 @@
  */
 package org.geotoolkit.processing.vector.spatialjoin;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.sis.feature.builder.AttributeRole;
 import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.apache.sis.feature.internal.shared.AttributeConvention;
@@ -28,6 +34,7 @@ import org.geotoolkit.processing.GeotkProcessingRegistry;
 import org.geotoolkit.processing.vector.AbstractProcessTest;
 import org.geotoolkit.storage.feature.FeatureCollection;
 import org.geotoolkit.storage.feature.FeatureStoreUtilities;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
@@ -136,6 +143,107 @@ public class SpatialJoinTest extends AbstractProcessTest {
         compare(expectedList, featureListOut);
     }
 
+    /**
+     * Test the indexed join engine gives the same results as the feature by feature join,
+     * with the index built on either side.
+     */
+    @Test
+    public void testIndexedJoinMatchesScan() throws Exception {
+        final Random random = new Random(42);
+        for (boolean intersect : new boolean[]{true, false}) {
+            //index on the source side
+            compareWithScan(buildRandomList(createSimpleType2(), "source", 60, random),
+                            buildRandomList(createSimpleType1(), "target", 400, random), intersect);
+            //index on the target side
+            compareWithScan(buildRandomList(createSimpleType2(), "source", 400, random),
+                            buildRandomList(createSimpleType1(), "target", 60, random), intersect);
+        }
+    }
+
+    /**
+     * Test the indexed join engine reads all geometry attributes like the feature by feature join,
+     * with target partitions split on a partition boundary.
+     */
+    @Test
+    public void testIndexedJoinMultipleGeometries() throws Exception {
+        final Random random = new Random(7);
+        for (boolean intersect : new boolean[]{true, false}) {
+            compareWithScan(buildRandomList(createMultiGeometryType("SJ_Type2"), "source", 60, random),
+                            buildRandomList(createMultiGeometryType("SJ_Type1"), "target", 1100, random), intersect);
+            compareWithScan(buildRandomList(createMultiGeometryType("SJ_Type2"), "source", 400, random),
+                            buildRandomList(createMultiGeometryType("SJ_Type1"), "target", 60, random), intersect);
+        }
+    }
+
+    private static void compareWithScan(final FeatureSet source, final FeatureSet target, final boolean intersect) throws Exception {
+        final FeatureType newType = SpatialJoinProcess.concatType(target.getType(), source.getType());
+        final List<Feature> expected = new ArrayList<>();
+        try (Stream<Feature> stream = target.features(false)) {
+            final Iterator<Feature> ite = stream.iterator();
+            while (ite.hasNext()) {
+                expected.add(SpatialJoinProcess.join(ite.next(), newType, source, intersect));
+            }
+        }
+        for (boolean parallel : new boolean[]{false, true}) {
+            final List<Feature> result;
+            try (Stream<Feature> stream = new SpatialJoinEngine(source, target, newType, intersect).join(parallel)) {
+                result = stream.collect(Collectors.toList());
+            }
+            assertEquals(expected.size(), result.size());
+            for (int i = 0, n = expected.size(); i < n; i++) {
+                assertEquals(expected.get(i).getPropertyValue(AttributeConvention.IDENTIFIER),
+                             result.get(i).getPropertyValue(AttributeConvention.IDENTIFIER));
+                assertEquals(expected.get(i).getPropertyValue("age_SJ_Type2"),
+                             result.get(i).getPropertyValue("age_SJ_Type2"));
+            }
+        }
+    }
+
+    /**
+     * Build a list of small squares and points on an integer grid, which leads to
+     * many equal distances and intersection areas.
+     */
+    private static FeatureSet buildRandomList(final FeatureType type, final String name, final int nb, final Random random) {
+        final FeatureCollection featureList = FeatureStoreUtilities.collection(name, type);
+        for (int i = 0; i < nb; i++) {
+            final Feature feature = type.newInstance();
+            feature.setPropertyValue(AttributeConvention.IDENTIFIER, name + "-" + i);
+            feature.setPropertyValue("age", i);
+            feature.setPropertyValue("geom1", randomGeometry(random));
+            if (type.getProperties(true).stream().anyMatch(p -> "geom2".equals(p.getName().toString()))) {
+                feature.setPropertyValue("geom2", randomGeometry(random));
+            }
+            featureList.add(feature);
+        }
+        return featureList;
+    }
+
+    private static Geometry randomGeometry(final Random random) {
+        final int x = random.nextInt(100);
+        final int y = random.nextInt(100);
+        final int size = random.nextInt(4);
+        if (size == 0) {
+            return geometryFactory.createPoint(new Coordinate(x, y));
+        }
+        return geometryFactory.createPolygon(new Coordinate[]{
+            new Coordinate(x, y),
+            new Coordinate(x, y + size),
+            new Coordinate(x + size, y + size),
+            new Coordinate(x + size, y),
+            new Coordinate(x, y)
+        });
+    }
+
+    private static FeatureType createMultiGeometryType(final String name) throws NoSuchAuthorityCodeException, FactoryException {
+        final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
+        ftb.setName(name);
+        ftb.addAttribute(String.class).setName(AttributeConvention.IDENTIFIER_PROPERTY);
+        ftb.addAttribute(Integer.class).setName("age");
+        ftb.addAttribute(Geometry.class).setName("geom1").setCRS(CRS.forCode("EPSG:3395")).addRole(AttributeRole.DEFAULT_GEOMETRY);
+        ftb.addAttribute(Geometry.class).setName("geom2").setCRS(CRS.forCode("EPSG:3395"));
+        return ftb.build();
+    }
+
     private static FeatureType createSimpleType1() throws NoSuchAuthorityCodeException, FactoryException {
         final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
         ftb.setName("SJ_Type1");
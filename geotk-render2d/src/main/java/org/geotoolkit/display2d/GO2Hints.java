@@ -19,6 +19,7 @@ package org.geotoolkit.display2d;
 import java.awt.RenderingHints.Key;
 import java.awt.image.ColorModel;
 import org.geotoolkit.display.HintKey;
+import org.geotoolkit.display2d.canvas.HitTestCache;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.image.interpolation.InterpolationCase;
 
@@ -59,14 +60,24 @@ public final class GO2Hints {
     }
 
     /**
-     * Configure the multithreading support. This usually makes the canvas
-     * build several buffered images to render each layer separately.
+     * Configure the multithreading support. This makes the canvas
+     * build several buffered images to render each layer separately and concurrently,
+     * buffers are then composited in layer order with the layer opacity and labels
+     * of all layers are portrayed in a final pass.
      * This raises memory concumption.
      *
      * WARNING : experimental
      */
     public static final Key KEY_MULTI_THREAD = new NamedKey(Boolean.class, "GO2 - MultiThread");
 
+    /**
+     * Cache of painted feature bounds used to answer hit tests, like feature info requests,
+     * without portraying the layers again. The value must be a
+     * {@link HitTestCache} instance, shared by
+     * the canvas painting and searching the same view.
+     */
+    public static final Key KEY_HIT_CACHE = new NamedKey(HitTestCache.class, "GO2 - Hit cache");
+
     /**
      * Configure the generalization, false by default in stateless mode, true
      * in statefull mode.
@@ -0,0 +1,393 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.canvas;
+
+import java.awt.geom.Rectangle2D;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.feature.internal.shared.AttributeConvention;
+import org.apache.sis.map.MapLayer;
+import org.apache.sis.map.Presentation;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.FeatureQuery;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.Resource;
+import org.apache.sis.storage.event.StoreEvent;
+import org.apache.sis.storage.event.StoreListener;
+import org.geotoolkit.display2d.presentation.Grid2DPresentation;
+import org.geotoolkit.display2d.service.DefaultPortrayalService;
+import org.geotoolkit.filter.FilterUtilities;
+import org.geotoolkit.renderer.GroupPresentation;
+import org.geotoolkit.storage.event.FeatureStoreContentEvent;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.opengis.feature.Feature;
+import org.opengis.feature.PropertyNotFoundException;
+import org.opengis.filter.ResourceId;
+
+/**
+ * Cache of painted presentations used to answer hit tests without portraying layers again.
+ * <p>
+ * While a feature layer is painted, the bounds in display crs and the identifier of the
+ * features of its presentations are recorded in an R-tree. A following hit test on the same
+ * layer, with the same canvas grid geometry, resolution and style only fetches and tests
+ * the features painted near the searched area.
+ * </p>
+ * <p>
+ * The cache is shared by canvas using the {@link org.geotoolkit.display2d.GO2Hints#KEY_HIT_CACHE}
+ * hint, a service can use the same instance for map and feature info requests.
+ * Layers whose presentations do not all have a feature identifier are not cached.
+ * Renderings of a layer are removed when the layer style, query or data is changed
+ * or when its data sends a {@link StoreEvent}.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public final class HitTestCache {
+
+    private final int maxEntries;
+    private final Map<Key,Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Listeners registered on cached layers and their data.
+     */
+    private final Map<MapLayer,Registration> registrations = new HashMap<>();
+    /**
+     * Incremented on each invalidation, renderings started before are not cached.
+     */
+    private long version;
+
+    /**
+     * @param maxEntries maximum number of layer renderings kept in the cache.
+     */
+    public HitTestCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive : " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Canvas state and layer a rendering is valid for.
+     */
+    private static final class Key {
+        private final MapLayer layer;
+        private final Object style;
+        private final Object query;
+        private final GridGeometry gridGeometry;
+        private final double dpi;
+
+        private Key(final MapLayer layer, final RenderingContext2D context) {
+            this.layer = layer;
+            this.style = layer.getStyle();
+            this.query = layer.getQuery();
+            this.gridGeometry = context.getGridGeometry();
+            this.dpi = context.getDPI();
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(layer) + 31 * Objects.hashCode(gridGeometry);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            //style and query are compared by identity, they may be mutable
+            return layer == other.layer
+                && style == other.style
+                && query == other.query
+                && dpi == other.dpi
+                && Objects.equals(gridGeometry, other.gridGeometry);
+        }
+    }
+
+    /**
+     * A feature identifier and its position in the rendering order.
+     */
+    private static final class Item {
+        private final int order;
+        private final String id;
+
+        private Item(final int order, final String id) {
+            this.order = order;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Recorded features of a layer rendering.
+     */
+    private static final class Entry {
+        private final STRtree tree = new STRtree();
+        /**
+         * Features without known bounds, always candidates.
+         */
+        private final List<Item> unbounded = new ArrayList<>();
+        private int count;
+        /**
+         * False if a presentation could not be recorded.
+         */
+        private boolean valid = true;
+
+        private void add(final Presentation presentation) {
+            if (presentation instanceof GroupPresentation) {
+                for (Presentation p : ((GroupPresentation) presentation).elements()) {
+                    add(p);
+                }
+                return;
+            }
+            final String id = getIdentifier(presentation);
+            if (id == null) {
+                valid = false;
+                return;
+            }
+            final Item item = new Item(count++, id);
+            final Rectangle2D bounds = (presentation instanceof Grid2DPresentation) ?
+                    ((Grid2DPresentation) presentation).getDisplayBounds() : null;
+            if (bounds == null) {
+                unbounded.add(item);
+            } else {
+                tree.insert(new Envelope(bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY()), item);
+            }
+        }
+
+        private Set<String> search(final Rectangle2D area) {
+            final List<Item> items = new ArrayList<>(unbounded);
+            if (!tree.isEmpty()) {
+                for (Object candidate : tree.query(new Envelope(area.getMinX(), area.getMaxX(), area.getMinY(), area.getMaxY()))) {
+                    items.add((Item) candidate);
+                }
+            }
+            //preserve the rendering order
+            items.sort((Item i1, Item i2) -> Integer.compare(i1.order, i2.order));
+            final Set<String> result = new LinkedHashSet<>();
+            for (Item item : items) {
+                result.add(item.id);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Listeners invalidating the renderings of a layer.
+     */
+    private final class Registration implements PropertyChangeListener, StoreListener<StoreEvent> {
+        private final MapLayer layer;
+        private final Resource data;
+        /**
+         * Number of renderings of the layer being recorded.
+         */
+        private int recording;
+
+        private Registration(final MapLayer layer) {
+            this.layer = layer;
+            this.data = layer.getData();
+            layer.addPropertyChangeListener(MapLayer.STYLE_PROPERTY, this);
+            layer.addPropertyChangeListener(MapLayer.QUERY_PROPERTY, this);
+            layer.addPropertyChangeListener(MapLayer.DATA_PROPERTY, this);
+            data.addListener(StoreEvent.class, this);
+        }
+
+        @Override
+        public void propertyChange(final PropertyChangeEvent evt) {
+            invalidate(layer);
+        }
+
+        @Override
+        public void eventOccured(final StoreEvent event) {
+            invalidate(layer);
+        }
+
+        private void dispose() {
+            layer.removePropertyChangeListener(MapLayer.STYLE_PROPERTY, this);
+            layer.removePropertyChangeListener(MapLayer.QUERY_PROPERTY, this);
+            layer.removePropertyChangeListener(MapLayer.DATA_PROPERTY, this);
+            data.removeListener(StoreEvent.class, this);
+        }
+    }
+
+    /**
+     * Record the presentations of a layer while they are painted.
+     * The rendering is cached when the returned stream has been fully consumed and is closed
+     * without the rendering being canceled, the layer being changed or a presentation
+     * without feature identifier.
+     *
+     * @param layer painted layer
+     * @param context rendering context
+     * @param presentations layer presentations
+     * @return stream of the same presentations
+     */
+    public Stream<Presentation> record(final MapLayer layer, final RenderingContext2D context, final Stream<Presentation> presentations) {
+        if (!(layer.getData() instanceof FeatureSet)) {
+            return presentations;
+        }
+        final Key key = new Key(layer, context);
+        final Entry entry = new Entry();
+        final long startVersion;
+        synchronized (this) {
+            //listen before painting, changes made while painting must not be missed
+            registrations.computeIfAbsent(layer, Registration::new).recording++;
+            startVersion = version;
+        }
+        final Iterator<Presentation> ite = presentations.iterator();
+        final boolean[] complete = new boolean[1];
+        final Iterator<Presentation> recorder = new Iterator<Presentation>() {
+            @Override
+            public boolean hasNext() {
+                final boolean hasNext = ite.hasNext();
+                if (!hasNext) complete[0] = true;
+                return hasNext;
+            }
+
+            @Override
+            public Presentation next() {
+                final Presentation next = ite.next();
+                entry.add(next);
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recorder, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    presentations.close();
+                    final boolean store = complete[0] && entry.valid && !context.getMonitor().stopRequested();
+                    if (store) {
+                        //build the tree now, it is immutable and thread safe afterward
+                        entry.tree.build();
+                    }
+                    synchronized (this) {
+                        if (store && startVersion == version) {
+                            entries.put(key, entry);
+                            final Iterator<Key> keys = entries.keySet().iterator();
+                            while (entries.size() > maxEntries) {
+                                keys.next();
+                                keys.remove();
+                            }
+                        }
+                        final Registration registration = registrations.get(layer);
+                        if (registration != null) registration.recording--;
+                        release();
+                    }
+                });
+    }
+
+    /**
+     * Get the features of a layer painted near the given area.
+     * Features are fetched again from the layer data and presented with the given context.
+     *
+     * @param layer searched layer
+     * @param context search context, the canvas grid geometry must be the same as the painted one
+     * @param area searched area in display crs
+     * @return candidate presentations, null if the layer rendering is not cached
+     * @throws DataStoreException if features could not be fetched
+     */
+    public Stream<Presentation> search(final MapLayer layer, final RenderingContext2D context, final Rectangle2D area)
+            throws DataStoreException {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(new Key(layer, context));
+        }
+        if (entry == null) {
+            return null;
+        }
+        final Set<String> ids = entry.search(area);
+        if (ids.isEmpty()) {
+            return Stream.empty();
+        }
+        final Set<ResourceId> filters = new LinkedHashSet<>();
+        for (String id : ids) {
+            filters.add(FilterUtilities.FF.resourceId(id));
+        }
+        final FeatureQuery query = new FeatureQuery();
+        query.setSelection(FeatureStoreContentEvent.resourceId(filters));
+        final FeatureSet subset = ((FeatureSet) layer.getData()).subset(query);
+        return DefaultPortrayalService.present(layer, subset, context);
+    }
+
+    /**
+     * Remove all cached renderings of a layer.
+     * Called when the layer or its data change.
+     *
+     * @param layer layer to remove
+     */
+    public synchronized void invalidate(final MapLayer layer) {
+        version++;
+        entries.keySet().removeIf((Key k) -> k.layer == layer);
+        release();
+    }
+
+    /**
+     * Remove all cached renderings.
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+        release();
+    }
+
+    /**
+     * @return number of cached layer renderings
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove listeners of layers without cached or recording renderings.
+     * Must be called while holding this object lock.
+     */
+    private void release() {
+        registrations.values().removeIf((Registration r) -> {
+            if (r.recording > 0) return false;
+            for (Key key : entries.keySet()) {
+                if (key.layer == r.layer) return false;
+            }
+            r.dispose();
+            return true;
+        });
+    }
+
+    /**
+     * @return identifier of the presentation feature, null if none
+     */
+    private static String getIdentifier(final Presentation presentation) {
+        final Feature feature = presentation.getCandidate();
+        if (feature != null) {
+            try {
+                final Object id = feature.getPropertyValue(AttributeConvention.IDENTIFIER);
+                if (id != null) return id.toString();
+            } catch (PropertyNotFoundException ex) {
+                //feature has no identifier
+            }
+        }
+        return null;
+    }
+}
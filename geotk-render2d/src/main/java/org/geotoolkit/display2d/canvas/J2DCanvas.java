@@ -16,16 +16,33 @@
  */
 package org.geotoolkit.display2d.canvas;
 
+import java.awt.AlphaComposite;
+import java.awt.Composite;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
+import org.apache.sis.map.MapLayer;
 import org.apache.sis.map.Presentation;
 import org.apache.sis.storage.DataStoreException;
 import static org.apache.sis.util.ArgumentChecks.ensureNonNull;
@@ -42,6 +59,8 @@ import org.geotoolkit.display2d.container.MapLayerJ2D;
 import org.geotoolkit.display2d.primitive.DefaultSearchAreaJ2D;
 import org.geotoolkit.display2d.primitive.GraphicJ2D;
 import org.geotoolkit.display2d.primitive.SearchAreaJ2D;
+import org.geotoolkit.display2d.presentation.TextPresentation;
+import org.geotoolkit.display2d.style.labeling.LabelLayer;
 import org.geotoolkit.display2d.style.labeling.LabelRenderer;
 import org.geotoolkit.factory.Hints;
 import org.geotoolkit.geometry.isoonjts.JTSUtils;
@@ -58,7 +77,24 @@ import org.opengis.referencing.operation.TransformException;
  */
 public abstract class J2DCanvas extends AbstractCanvas2D{
 
+    /**
+     * Default executor used to paint layers when {@link GO2Hints#KEY_MULTI_THREAD} is enabled.
+     * Threads are released when idle.
+     */
+    private static final ThreadPoolExecutor LAYER_EXECUTOR;
+    static {
+        final int nbThread = Runtime.getRuntime().availableProcessors();
+        LAYER_EXECUTOR = new ThreadPoolExecutor(nbThread, nbThread, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), (Runnable r) -> {
+                    final Thread thread = new Thread(r, "J2DCanvas layer rendering");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        LAYER_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     protected BackgroundPainter painter = null;
+    private Executor layerExecutor = null;
 
     protected J2DCanvas(final CoordinateReferenceSystem crs,final Hints hints) {
         super(crs,hints);
@@ -72,6 +108,23 @@ public abstract class J2DCanvas extends AbstractCanvas2D{
         return painter;
     }
 
+    /**
+     * Set the executor used to paint layers concurrently when {@link GO2Hints#KEY_MULTI_THREAD}
+     * is enabled.
+     *
+     * @param executor layer executor, null to use a shared pool sized on the number of processors
+     */
+    public void setLayerExecutor(final Executor executor) {
+        this.layerExecutor = executor;
+    }
+
+    /**
+     * @return executor used to paint layers concurrently, never null
+     */
+    public Executor getLayerExecutor() {
+        return layerExecutor != null ? layerExecutor : LAYER_EXECUTOR;
+    }
+
     @Override
     public void dispose() {
         super.dispose();
@@ -111,6 +164,10 @@ public abstract class J2DCanvas extends AbstractCanvas2D{
 
     protected boolean render(final RenderingContext2D context2D, final List<SceneNode> graphics){
 
+        if (Boolean.TRUE.equals(getRenderingHint(GO2Hints.KEY_MULTI_THREAD))) {
+            return renderMultiThread(context2D, graphics);
+        }
+
         boolean dataPainted = false;
         /*
          * Draw all graphics, starting with the one with the lowest <var>z</var> value. Before
@@ -162,6 +219,201 @@ public abstract class J2DCanvas extends AbstractCanvas2D{
         return dataPainted;
     }
 
+    /**
+     * Multi-thread rendering : each layer is painted concurrently in its own buffer,
+     * buffers are then composited on the main context in graphic order with the layer opacity.
+     * Layers are submitted ahead of the compositing up to the executor parallelism, buffers are
+     * reused once composited so at most that many buffers exist at the same time.
+     * Labels of opaque layers are collected and portrayed in a final pass on top of everything,
+     * labels of translucent layers are portrayed in the layer buffer to share its opacity.
+     */
+    private boolean renderMultiThread(final RenderingContext2D context2D, final List<SceneNode> graphics) {
+
+        final Rectangle rect = context2D.getCanvasDisplayBounds();
+        final Executor executor = getLayerExecutor();
+        final int window = getParallelism(executor);
+        //created before the layer contexts, which share it
+        final LabelRenderer labelRenderer = context2D.getLabelRenderer(true);
+
+        //layers and other graphics, in painting order
+        final List<Graphic> steps = new ArrayList<>();
+        for (final Graphic graphic : graphics) {
+            if (graphic instanceof MapLayerJ2D) {
+                final MapLayer layer = ((MapLayerJ2D) graphic).getUserObject();
+                //we abort painting if the layer is not visible or opacity is to low
+                if (!layer.isVisible() || layer.getOpacity() < 1e-6) continue;
+                steps.add(graphic);
+            } else if (graphic instanceof GraphicJ2D) {
+                steps.add(graphic);
+            }
+        }
+
+        final int n = steps.size();
+        final LayerBuffer[] buffers = new LayerBuffer[n];
+        final Deque<BufferedImage> freeImages = new ArrayDeque<>();
+        int submitted = 0;
+        int inProgress = 0;
+        boolean dataPainted = false;
+        for (int i = 0; i < n; i++) {
+            if (monitor.stopRequested()) {
+                cancel(buffers, i, submitted);
+                return dataPainted;
+            }
+
+            //submit following layers, within the parallelism limit
+            for (; submitted < n && inProgress < window; submitted++) {
+                if (steps.get(submitted) instanceof MapLayerJ2D) {
+                    BufferedImage image = freeImages.poll();
+                    if (image == null) {
+                        image = new BufferedImage(rect.width, rect.height, BufferedImage.TYPE_INT_ARGB_PRE);
+                    }
+                    buffers[submitted] = submit((MapLayerJ2D) steps.get(submitted), image, context2D, executor);
+                    inProgress++;
+                }
+            }
+
+            final Graphic step = steps.get(i);
+            if (!(step instanceof MapLayerJ2D)) {
+                dataPainted |= ((GraphicJ2D) step).paint(context2D);
+                continue;
+            }
+
+            final LayerBuffer buffer = buffers[i];
+            buffers[i] = null;
+            inProgress--;
+            final boolean painted;
+            try {
+                painted = buffer.task.join();
+            } catch (CancellationException ex) {
+                continue;
+            } catch (CompletionException ex) {
+                final Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                monitor.exceptionOccured(cause instanceof Exception ? (Exception) cause : ex, Level.INFO);
+                clear(buffer.image);
+                freeImages.add(buffer.image);
+                continue;
+            }
+            if (painted) {
+                dataPainted = true;
+
+                context2D.switchToDisplayCRS();
+                final Graphics2D g2d = context2D.getGraphics();
+                final Composite composite = g2d.getComposite();
+                if (!buffer.isOpaque()) {
+                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) buffer.opacity));
+                }
+                g2d.drawImage(buffer.image, 0, 0, null);
+                g2d.setComposite(composite);
+
+                if (!buffer.labels.isEmpty()) {
+                    final LabelLayer labelLayer = labelRenderer.createLabelLayer();
+                    for (TextPresentation tp : buffer.labels) {
+                        labelLayer.labels().add(tp.labelDesc);
+                    }
+                    labelRenderer.append(labelLayer);
+                }
+                clear(buffer.image);
+            }
+            freeImages.add(buffer.image);
+        }
+
+        if (monitor.stopRequested()) {
+            return dataPainted;
+        }
+
+        //draw opaque layers labels in a single pass
+        try {
+            dataPainted |= labelRenderer.portrayLabels();
+        } catch (TransformException ex) {
+            monitor.exceptionOccured(ex, Level.WARNING);
+        }
+
+        return dataPainted;
+    }
+
+    /**
+     * Start painting a layer in the given image.
+     * The layer context is created in this thread, it reads the main context state.
+     */
+    private static LayerBuffer submit(final MapLayerJ2D layer, final BufferedImage image,
+            final RenderingContext2D context2D, final Executor executor) {
+        final LayerBuffer buffer = new LayerBuffer(layer.getUserObject().getOpacity(), image);
+        final Graphics2D g2d = image.createGraphics();
+        final boolean opaque = buffer.isOpaque();
+        final RenderingContext2D layerContext = opaque ? context2D.create(g2d) : context2D.createWithOwnLabels(g2d);
+        buffer.task = CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean painted = layer.paintLayer(layerContext, buffer.labels);
+                if (!opaque && !buffer.labels.isEmpty()) {
+                    //labels are painted in the buffer to be composited with the layer opacity
+                    final LabelRenderer lr = layerContext.getLabelRenderer(true);
+                    final LabelLayer labelLayer = lr.createLabelLayer();
+                    for (TextPresentation tp : buffer.labels) {
+                        labelLayer.labels().add(tp.labelDesc);
+                    }
+                    lr.append(labelLayer);
+                    painted |= lr.portrayLabels();
+                    buffer.labels.clear();
+                }
+                return painted;
+            } catch (PortrayalException | DataStoreException | TransformException ex) {
+                throw new CompletionException(ex);
+            } finally {
+                g2d.dispose();
+            }
+        }, executor);
+        return buffer;
+    }
+
+    private static void cancel(final LayerBuffer[] buffers, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (buffers[i] != null) {
+                buffers[i].task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Reset all pixels to transparent.
+     */
+    private static void clear(final BufferedImage image) {
+        final Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+    }
+
+    /**
+     * @return number of tasks the executor can run at the same time
+     */
+    private static int getParallelism(final Executor executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            return Math.max(1, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        } else if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Offscreen buffer of a single layer.
+     */
+    private static final class LayerBuffer {
+        private final double opacity;
+        private final BufferedImage image;
+        private final List<TextPresentation> labels = new ArrayList<>();
+        private CompletableFuture<Boolean> task;
+
+        private LayerBuffer(final double opacity, final BufferedImage image) {
+            this.opacity = opacity;
+            this.image = image;
+        }
+
+        private boolean isOpaque() {
+            return 1 - opacity < 1e-6;
+        }
+    }
+
     /**
      * Visit the {@code Graphics} that occupy the given shape.
      * You should give an Area Object if you can, this will avoid many creation
@@ -191,9 +443,22 @@ public abstract class J2DCanvas extends AbstractCanvas2D{
             if (visitor.isStopRequested()){ visitor.endVisit(); return; }
             //--------------------------------------------------------------
 
+            final Object cache = getRenderingHint(GO2Hints.KEY_HIT_CACHE);
+            final Rectangle2D searchBounds = displayShape.getBounds2D();
+
             for (final Graphic graphic : sorted) {
                 if (graphic instanceof MapLayerJ2D) {
-                    try (Stream<Presentation> presentations = ((MapLayerJ2D) graphic).paintLayer(searchContext)) {
+                    Stream<Presentation> candidates = null;
+                    if (cache instanceof HitTestCache) {
+                        //test only the features painted near the searched area
+                        try {
+                            candidates = ((HitTestCache) cache).search(
+                                    ((MapLayerJ2D) graphic).getUserObject(), searchContext, searchBounds);
+                        } catch (DataStoreException ex) {
+                            Logger.getLogger("org.geotoolkit.display2d").log(Level.INFO, ex.getMessage(), ex);
+                        }
+                    }
+                    try (Stream<Presentation> presentations = (candidates != null) ? candidates : ((MapLayerJ2D) graphic).paintLayer(searchContext)) {
                         final Iterator<Presentation> iterator = presentations.iterator();
                         while (iterator.hasNext()) {
                             final Presentation presentation = iterator.next();
@@ -853,6 +853,20 @@ public class RenderingContext2D implements RenderingContext{
         return context;
     }
 
+    /**
+     * Same as {@link #create(Graphics2D)} but the created context has its own label renderer,
+     * labels appended to it are portrayed in the given Graphics2D.
+     * @param g2d Graphics2D
+     * @return RenderingContext2D
+     */
+    RenderingContext2D createWithOwnLabels(final Graphics2D g2d) {
+        final RenderingContext2D context = new RenderingContext2D(getGridGeometry(), monitor);
+        context.initGraphic(g2d);
+        g2d.setRenderingHints(this.graphics.getRenderingHints());
+        context.labelRendererClass = labelRendererClass;
+        return context;
+    }
+
     /**
      * Get or Create a label renderer for this rendering context.
      * @param create : if true will create a label renderer if there is none.
@@ -22,6 +22,7 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
 import org.apache.sis.coverage.grid.GridCoverage;
@@ -34,11 +35,15 @@ import org.apache.sis.storage.event.StoreListener;
 import org.geotoolkit.display.PortrayalException;
 import org.geotoolkit.display.SearchArea;
 import org.geotoolkit.display.canvas.RenderingContext;
+import org.geotoolkit.display2d.GO2Hints;
+import org.geotoolkit.display2d.canvas.HitTestCache;
 import org.geotoolkit.display2d.canvas.J2DCanvas;
 import org.geotoolkit.display2d.canvas.RenderingContext2D;
 import org.geotoolkit.display2d.presentation.RasterPresentation;
+import org.geotoolkit.display2d.presentation.TextPresentation;
 import org.geotoolkit.display2d.service.DefaultPortrayalService;
 import org.geotoolkit.display.primitive.Graphic;
+import org.geotoolkit.renderer.GroupPresentation;
 
 
 /**
@@ -101,8 +106,55 @@ public final class MapLayerJ2D extends MapItemJ2D<MapLayer> {
         }
     }
 
+    /**
+     * Paint the layer presentations directly in the given context.
+     * Layer visibility and opacity are not checked, they are expected to be handled
+     * by the caller when compositing the result.
+     * Text presentations are not painted but added to the given list, labels are
+     * expected to be portrayed afterwards in a single pass over all layers.
+     *
+     * @param context rendering context, usually backed by a buffer dedicated to this layer
+     * @param labels list where text presentations are collected
+     * @return true if some data has been painted
+     */
+    public boolean paintLayer(final RenderingContext2D context, final List<TextPresentation> labels) throws PortrayalException, DataStoreException {
+        boolean dataPainted = false;
+        final J2DPainter painter = new J2DPainter();
+        try (Stream<Presentation> stream = streamPresentations(context)) {
+            final Iterator<Presentation> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                if (context.getMonitor().stopRequested()) break;
+                paint(painter, context, iterator.next(), labels);
+                dataPainted = true;
+            }
+        }
+        return dataPainted;
+    }
+
+    /**
+     * Paint a presentation, walking groups to collect text presentations at any depth.
+     */
+    private static void paint(final J2DPainter painter, final RenderingContext2D context,
+            final Presentation presentation, final List<TextPresentation> labels) throws PortrayalException {
+        if (presentation instanceof TextPresentation) {
+            labels.add((TextPresentation) presentation);
+        } else if (presentation instanceof GroupPresentation) {
+            for (Presentation p : ((GroupPresentation) presentation).elements()) {
+                paint(painter, context, p, labels);
+            }
+        } else {
+            painter.paint(context, presentation);
+        }
+    }
+
     private Stream<Presentation> streamPresentations(final RenderingContext2D context) throws DataStoreException, PortrayalException {
-        return DefaultPortrayalService.present(item, item.getData(), context);
+        final Stream<Presentation> stream = DefaultPortrayalService.present(item, item.getData(), context);
+        final Object cache = getCanvas().getRenderingHint(GO2Hints.KEY_HIT_CACHE);
+        if (cache instanceof HitTestCache && context.getGraphics() != null) {
+            //record painted presentations for following hit tests
+            return ((HitTestCache) cache).record(item, context, stream);
+        }
+        return stream;
     }
 
     /**
@@ -16,6 +16,7 @@
  */
 package org.geotoolkit.display2d.presentation;
 
+import java.awt.geom.Rectangle2D;
 import org.apache.sis.map.Presentation;
 import org.apache.sis.map.MapLayer;
 import org.apache.sis.storage.Resource;
@@ -51,4 +52,15 @@ public abstract class Grid2DPresentation extends Presentation {
     public abstract boolean paint(RenderingContext2D renderingContext) throws PortrayalException;
 
     public abstract boolean hit(RenderingContext2D renderingContext, final SearchAreaJ2D search);
+
+    /**
+     * Get the area covered by this presentation in display crs.
+     * The returned rectangle may be larger then the painted area but never smaller,
+     * it is used to skip presentations which can not be hit.
+     *
+     * @return painted area in display crs, null if unknown
+     */
+    public Rectangle2D getDisplayBounds() {
+        return null;
+    }
 }
@@ -66,4 +66,10 @@ public class PointPresentation extends Grid2DPresentation {
         area.intersect(area2);
         return !area.isEmpty();
     }
+
+    @Override
+    public Rectangle2D getDisplayBounds() {
+        final Rectangle2D rect = new Rectangle2D.Double(0, 0, image.getWidth(), image.getHeight());
+        return displayTransform.createTransformedShape(rect).getBounds2D();
+    }
 }
@@ -17,11 +17,13 @@
 package org.geotoolkit.display2d.presentation;
 
 import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
 import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
 import org.apache.sis.map.MapLayer;
 import org.apache.sis.storage.Resource;
 import org.geotoolkit.display2d.GO2Utilities;
@@ -90,4 +92,26 @@ public class ShapePresentation extends Grid2DPresentation {
         return false;
     }
 
+    @Override
+    public Rectangle2D getDisplayBounds() {
+        if (shape == null) return null;
+        if (stroke == null) {
+            return shape.getBounds2D();
+        } else if (stroke instanceof BasicStroke) {
+            //enlarge by the largest distance a cap or join can reach
+            final BasicStroke bs = (BasicStroke) stroke;
+            double factor = Math.sqrt(2);
+            if (bs.getLineJoin() == BasicStroke.JOIN_MITER) {
+                factor = Math.max(factor, bs.getMiterLimit());
+            }
+            final double margin = bs.getLineWidth() * factor / 2.0 + 1.0;
+            final Rectangle2D bounds = shape.getBounds2D();
+            bounds.setRect(bounds.getX() - margin, bounds.getY() - margin,
+                    bounds.getWidth() + 2 * margin, bounds.getHeight() + 2 * margin);
+            return bounds;
+        } else {
+            return stroke.createStrokedShape(shape).getBounds2D().createUnion(shape.getBounds2D());
+        }
+    }
+
 }
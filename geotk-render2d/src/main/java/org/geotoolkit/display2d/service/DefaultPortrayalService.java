@@ -21,6 +21,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Image;
 import java.awt.RenderingHints.Key;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
@@ -85,12 +86,14 @@ import org.geotoolkit.coverage.io.GridCoverageWriteParam;
 import org.geotoolkit.coverage.io.ImageCoverageWriter;
 import org.geotoolkit.display.PortrayalException;
 import org.geotoolkit.display.canvas.control.CanvasMonitor;
+import org.geotoolkit.display.container.GraphicContainer;
 import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.GO2Utilities;
 
 import static org.geotoolkit.display2d.GO2Utilities.getCached;
 import static org.geotoolkit.display2d.GO2Utilities.mergeColors;
 import org.geotoolkit.display2d.GraphicVisitor;
+import org.geotoolkit.display2d.canvas.HitTestCache;
 import org.geotoolkit.display2d.canvas.J2DCanvas;
 import org.geotoolkit.display2d.canvas.J2DCanvasBuffered;
 import org.geotoolkit.display2d.canvas.J2DCanvasSVG;
@@ -211,17 +214,62 @@ public final class DefaultPortrayalService implements PortrayalService{
             g.fillRect(0, 0, width, height);
         }
 
-        final GraphicsPortrayer portrayer = new GraphicsPortrayer();
-        portrayer.setCanvas(g);
-        portrayer.setDomain(CoverageUtilities.forceLowerToZero(grid));
-        try {
-            portrayer.portray(sceneDef.getContext());
-        } catch (RenderingException ex) {
-            throw new PortrayalException(ex);
+        if (Boolean.TRUE.equals(hints.get(GO2Hints.KEY_MULTI_THREAD))
+                || hints.get(GO2Hints.KEY_HIT_CACHE) instanceof HitTestCache) {
+            //concurrent layer rendering and hit cache recording are canvas features
+            portray(g, CoverageUtilities.forceLowerToZero(grid), monitor, sceneDef);
+        } else {
+            final GraphicsPortrayer portrayer = new GraphicsPortrayer();
+            portrayer.setCanvas(g);
+            portrayer.setDomain(CoverageUtilities.forceLowerToZero(grid));
+            try {
+                portrayer.portray(sceneDef.getContext());
+            } catch (RenderingException ex) {
+                throw new PortrayalException(ex);
+            }
         }
         return image;
     }
 
+    /**
+     * Paint the scene in the given graphics using a J2DCanvas and the scene hints.
+     */
+    private static void portray(final Graphics2D g, final GridGeometry grid, final CanvasMonitor monitor,
+            final SceneDef sceneDef) throws PortrayalException {
+        final J2DCanvas canvas = new J2DCanvas(grid.getCoordinateReferenceSystem(), new Hints()) {
+            @Override
+            public boolean repaint(Shape area) {
+                final RenderingContext2D context = prepareContext(g);
+                final GraphicContainer container = getContainer();
+                boolean dataPainted = false;
+                if (container != null) {
+                    dataPainted |= render(context, container.flatten(true));
+                }
+                return dataPainted;
+            }
+
+            @Override
+            public Image getSnapShot() {
+                throw new UnsupportedOperationException("Not supported ");
+            }
+        };
+        final ContextContainer2D container = new ContextContainer2D(canvas);
+        canvas.setContainer(container);
+        if (monitor != null) {
+            canvas.setMonitor(monitor);
+        }
+        for (Entry<?,?> entry : sceneDef.getHints().entrySet()) {
+            canvas.setRenderingHint((Key) entry.getKey(), entry.getValue());
+        }
+        container.setContext(sceneDef.getContext());
+        try {
+            canvas.setGridGeometry(grid);
+        } catch (FactoryException ex) {
+            throw new PortrayalException("Could not set objective crs", ex);
+        }
+        canvas.repaint();
+    }
+
     public static void prepareCanvas(final J2DCanvas canvas, final CanvasDef canvasDef, final SceneDef sceneDef) throws PortrayalException{
 
         final ContextContainer2D renderer = new ContextContainer2D(canvas);
@@ -619,18 +667,27 @@ public final class DefaultPortrayalService implements PortrayalService{
         canvas.setContainer(renderer);
 
         renderer.setContext(context);
-        try {
-            canvas.setObjectiveCRS(contextEnv.getCoordinateReferenceSystem());
-        } catch (TransformException | FactoryException ex) {
-            throw new PortrayalException("Could not set objective crs",ex);
-        }
+        if (hints != null && hints.get(GO2Hints.KEY_HIT_CACHE) instanceof HitTestCache) {
+            //same grid geometry as the portrayal, for cached renderings to match
+            try {
+                canvas.setGridGeometry(CoverageUtilities.forceLowerToZero(canvasDef.getOrCreateGridGeometry()));
+            } catch (FactoryException ex) {
+                throw new PortrayalException("Could not set objective crs",ex);
+            }
+        } else {
+            try {
+                canvas.setObjectiveCRS(contextEnv.getCoordinateReferenceSystem());
+            } catch (TransformException | FactoryException ex) {
+                throw new PortrayalException("Could not set objective crs",ex);
+            }
 
-        //we specifically say to not repect X/Y proportions
-        canvas.setAxisProportions(!strechImage);
-        try {
-            canvas.setVisibleArea(contextEnv);
-        } catch (NoninvertibleTransformException | TransformException ex) {
-            throw new PortrayalException(ex);
+            //we specifically say to not repect X/Y proportions
+            canvas.setAxisProportions(!strechImage);
+            try {
+                canvas.setVisibleArea(contextEnv);
+            } catch (NoninvertibleTransformException | TransformException ex) {
+                throw new PortrayalException(ex);
+            }
         }
 
         final Shape selectedArea = visitDef.getArea();
@@ -339,27 +339,7 @@ public class CachedGraphic<C extends Graphic> extends Cache<C>{
         }
 
         //the subbuffer image
-        BufferedImage subBuffer = null;
-
-//        //we have a cached subbuffer ------------------------------------------------------------
-//        if(cachedValues.containsKey(ID_SUBBUFFER)){
-//            subBuffer = (BufferedImage) cachedValues.get(ID_SUBBUFFER);
-//        }
-
-        //we have a cached mark ------------------------------------------------------------------
-        if (cachedMark != null) {
-            if (candidateSize.isNaN()) {
-                subBuffer = cachedMark.getImage(candidate, 16*coeff,hints);
-            } else {
-                subBuffer = cachedMark.getImage(candidate, candidateSize*coeff,hints);
-            }
-        }
-
-
-        //we have a cached external --------------------------------------------------------------
-        if (cachedExternal != null) {
-            subBuffer = cachedExternal.getImage(candidateSize,coeff,hints);
-        }
+        final BufferedImage subBuffer = getSymbolImage(candidate, candidateSize, coeff, hints);
 
         if (subBuffer == null) {
             //may happen if image is too small
@@ -410,6 +390,81 @@ public class CachedGraphic<C extends Graphic> extends Cache<C>{
         return buffer;
     }
 
+    /**
+     * Image of the graphic symbol, without opacity and rotation.
+     */
+    private BufferedImage getSymbolImage(final Object candidate, final Float candidateSize, final float coeff, final RenderingHints hints) {
+        //we have a cached mark ------------------------------------------------------------------
+        if (cachedMark != null) {
+            if (candidateSize.isNaN()) {
+                return cachedMark.getImage(candidate, 16*coeff,hints);
+            } else {
+                return cachedMark.getImage(candidate, candidateSize*coeff,hints);
+            }
+        }
+
+        //we have a cached external --------------------------------------------------------------
+        if (cachedExternal != null) {
+            return cachedExternal.getImage(candidateSize,coeff,hints);
+        }
+        return null;
+    }
+
+    /**
+     * Sprites can be used if the graphic symbol does not depend on the feature,
+     * size, opacity and rotation may still be dynamic.
+     *
+     * @return true if {@link #getSprite } can be used
+     */
+    public boolean isSpriteCacheable() {
+        evaluate();
+        return (cachedMark != null && cachedMark.isStatic())
+            || (cachedExternal != null && cachedExternal.isStatic());
+    }
+
+    /**
+     * Get the pre-rasterized symbol for a feature from the shared {@link SpriteCache}.
+     * Should be used only if {@link #isSpriteCacheable() } returns true.
+     *
+     * @param candidate feature
+     * @param coeff display unit coefficient
+     * @param rotation clockwise rotation in radians
+     * @param x point position on display
+     * @param y point position on display
+     * @param hints rendering hints
+     * @return sprite, null if not visible
+     */
+    public SpriteCache.Sprite getSprite(final Object candidate, final float coeff, final double rotation,
+            final double x, final double y, final RenderingHints hints) {
+        evaluate();
+
+        float candidateOpacity = cachedOpacity;
+        float candidateSize = cachedSize;
+
+        if (Float.isNaN(candidateOpacity)) {
+            final Expression expOpacity = styleElement.getOpacity();
+            candidateOpacity = GO2Utilities.evaluate(expOpacity, candidate, 1f,0f,1);
+        }
+
+        if (Float.isNaN(candidateSize)) {
+            final Expression expSize = styleElement.getSize();
+            candidateSize = GO2Utilities.evaluate(expSize, candidate, Number.class, Float.NaN).floatValue();
+        }
+        if (candidateSize < 1f || candidateOpacity <= 0f) {
+            //requested image is too small or translucent, will not be visible
+            return null;
+        }
+
+        final float[] anchor = getAnchor(candidate, new float[2]);
+        final float[] disps = getDisplacement(candidate, new float[2]);
+        disps[0] *= coeff;
+        disps[1] *= coeff;
+
+        final Float size = candidateSize;
+        return SpriteCache.getDefault().getSprite(styleElement, candidateSize, coeff, candidateOpacity,
+                rotation, anchor, disps, x, y, hints, () -> getSymbolImage(candidate, size, coeff, hints));
+    }
+
     /**
      * return an Array of 2 floats always in display unit.
      */
@@ -136,6 +136,23 @@ public class CachedPointSymbolizer extends CachedSymbolizer<PointSymbolizer>{
         return cachedGraphic.getImage(candidate, forcedSize, coeff, withRotation,hints);
     }
 
+    /**
+     * @return true if {@link #getSprite } can be used
+     */
+    public boolean isSpriteCacheable() {
+        evaluate();
+        return cachedGraphic.isSpriteCacheable();
+    }
+
+    /**
+     * @return pre-rasterized symbol for a feature, null if not visible
+     */
+    public SpriteCache.Sprite getSprite(final Object candidate, final float coeff, final double rotation,
+            final double x, final double y, final RenderingHints hints) {
+        evaluate();
+        return cachedGraphic.getSprite(candidate, coeff, rotation, x, y, hints);
+    }
+
     /**
      * return an Array of 2 floats always in display unit.
      */
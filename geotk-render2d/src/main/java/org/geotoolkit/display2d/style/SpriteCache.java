@@ -0,0 +1,299 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.style;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of pre-rasterized point symbols.
+ * <p>
+ * A sprite is the symbol image with its opacity, rotation, anchor and displacement already applied,
+ * rendered at a fraction of pixel offset. Painting a sprite is then a simple image copy at an
+ * integer position instead of filling and stroking a shape or resampling an image for each point.
+ * </p>
+ * <p>
+ * Rotations are rounded to the nearest {@link #ROTATION_STEP} and positions to the nearest
+ * {@code 1/}{@link #SUBPIXEL} pixel. The cache is bounded by a total number of pixels,
+ * the least recently used sprites are evicted first. This class is thread safe.
+ * </p>
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public final class SpriteCache {
+
+    /**
+     * Number of sub-pixel positions along each axis.
+     */
+    public static final int SUBPIXEL = 4;
+
+    /**
+     * Number of rotation steps in a full turn.
+     */
+    public static final int ROTATION_STEP = 360;
+
+    private static final SpriteCache DEFAULT = new SpriteCache(16 * 1024 * 1024);
+
+    /**
+     * @return shared sprite cache, holding at most 16 mega pixels.
+     */
+    public static SpriteCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * A rasterized symbol.
+     * Top left corner of the image must be placed at {@link #getDisplayX(double)}, {@link #getDisplayY(double)}.
+     */
+    public static final class Sprite {
+        private final BufferedImage image;
+        private final int offsetX;
+        private final int offsetY;
+
+        private Sprite(final BufferedImage image, final int offsetX, final int offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+
+        /**
+         * @return symbol image, must not be modified
+         */
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        /**
+         * @param x point position on display
+         * @return image position on display
+         */
+        public int getDisplayX(final double x) {
+            return (int) Math.floorDiv(Math.round(x * SUBPIXEL), (long) SUBPIXEL) + offsetX;
+        }
+
+        /**
+         * @param y point position on display
+         * @return image position on display
+         */
+        public int getDisplayY(final double y) {
+            return (int) Math.floorDiv(Math.round(y * SUBPIXEL), (long) SUBPIXEL) + offsetY;
+        }
+    }
+
+    private static final class Key {
+        private final Object symbol;
+        private final float size;
+        private final float coeff;
+        private final int opacity;
+        private final int rotation;
+        private final float anchorX;
+        private final float anchorY;
+        private final float dispX;
+        private final float dispY;
+        private final int phaseX;
+        private final int phaseY;
+        private final Object antialiasing;
+        private final int hash;
+
+        private Key(final Object symbol, final float size, final float coeff, final int opacity, final int rotation,
+                final float anchorX, final float anchorY, final float dispX, final float dispY,
+                final int phaseX, final int phaseY, final Object antialiasing) {
+            this.symbol = symbol;
+            this.size = size;
+            this.coeff = coeff;
+            this.opacity = opacity;
+            this.rotation = rotation;
+            this.anchorX = anchorX;
+            this.anchorY = anchorY;
+            this.dispX = dispX;
+            this.dispY = dispY;
+            this.phaseX = phaseX;
+            this.phaseY = phaseY;
+            this.antialiasing = antialiasing;
+            int h = System.identityHashCode(symbol);
+            h = 31 * h + Float.floatToIntBits(size);
+            h = 31 * h + Float.floatToIntBits(coeff);
+            h = 31 * h + opacity;
+            h = 31 * h + rotation;
+            h = 31 * h + Float.floatToIntBits(anchorX);
+            h = 31 * h + Float.floatToIntBits(anchorY);
+            h = 31 * h + Float.floatToIntBits(dispX);
+            h = 31 * h + Float.floatToIntBits(dispY);
+            h = 31 * h + phaseX * SUBPIXEL + phaseY;
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return hash == other.hash
+                && Float.floatToIntBits(size) == Float.floatToIntBits(other.size)
+                && coeff == other.coeff
+                && opacity == other.opacity
+                && rotation == other.rotation
+                && anchorX == other.anchorX
+                && anchorY == other.anchorY
+                && dispX == other.dispX
+                && dispY == other.dispY
+                && phaseX == other.phaseX
+                && phaseY == other.phaseY
+                && antialiasing == other.antialiasing
+                && symbol == other.symbol;
+        }
+    }
+
+    private final long maxPixels;
+    private final LinkedHashMap<Key,Sprite> sprites = new LinkedHashMap<>(64, 0.75f, true);
+    private long pixels;
+
+    /**
+     * @param maxPixels maximum number of pixels of all cached sprites.
+     */
+    public SpriteCache(final long maxPixels) {
+        if (maxPixels < 1) {
+            throw new IllegalArgumentException("Maximum number of pixels must be positive : " + maxPixels);
+        }
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Get or create the sprite of a symbol.
+     *
+     * @param symbol symbol style element, compared by identity, must not depend on the rendered feature
+     * @param size symbol size, may be NaN
+     * @param coeff display unit coefficient
+     * @param opacity symbol opacity, between 0 and 1
+     * @param rotation clockwise rotation in radians around the anchor point
+     * @param anchor symbol anchor, relative to the symbol image size
+     * @param displacement symbol displacement in display units
+     * @param x point position on display
+     * @param y point position on display
+     * @param hints rendering hints, can be null
+     * @param symbolImage creates the symbol image at the given size, without opacity and rotation
+     * @return sprite, null if the symbol is not visible
+     */
+    public Sprite getSprite(final Object symbol, final float size, final float coeff, final float opacity,
+            final double rotation, final float[] anchor, final float[] displacement, final double x, final double y,
+            final RenderingHints hints, final Supplier<BufferedImage> symbolImage) {
+
+        final int phaseX = (int) Math.floorMod(Math.round(x * SUBPIXEL), (long) SUBPIXEL);
+        final int phaseY = (int) Math.floorMod(Math.round(y * SUBPIXEL), (long) SUBPIXEL);
+        final int rotationStep = (int) Math.floorMod(Math.round(rotation / (2 * Math.PI) * ROTATION_STEP), (long) ROTATION_STEP);
+        final Object antialiasing = (hints != null) ? hints.get(RenderingHints.KEY_ANTIALIASING) : null;
+        final Key key = new Key(symbol, size, coeff, Math.round(opacity * 255), rotationStep,
+                anchor[0], anchor[1], displacement[0], displacement[1], phaseX, phaseY, antialiasing);
+
+        synchronized (this) {
+            final Sprite sprite = sprites.get(key);
+            if (sprite != null) return sprite;
+        }
+
+        //rasterize outside of the lock, concurrent creations of the same sprite are harmless
+        final BufferedImage image = symbolImage.get();
+        if (image == null) return null;
+        final Sprite sprite = rasterize(image, key.opacity / 255f, rotationStep * (2 * Math.PI / ROTATION_STEP),
+                -image.getWidth() * anchor[0] + displacement[0], -image.getHeight() * anchor[1] - displacement[1],
+                phaseX / (double) SUBPIXEL, phaseY / (double) SUBPIXEL, hints);
+        if (sprite == null) return null;
+
+        final long spritePixels = (long) sprite.image.getWidth() * sprite.image.getHeight();
+        if (spritePixels <= maxPixels) {
+            synchronized (this) {
+                if (sprites.put(key, sprite) == null) {
+                    pixels += spritePixels;
+                }
+                final Iterator<Sprite> ite = sprites.values().iterator();
+                while (pixels > maxPixels && ite.hasNext()) {
+                    final Sprite eldest = ite.next();
+                    pixels -= (long) eldest.image.getWidth() * eldest.image.getHeight();
+                    ite.remove();
+                }
+            }
+        }
+        return sprite;
+    }
+
+    private static Sprite rasterize(final BufferedImage image, final float opacity, final double rotation,
+            final double postX, final double postY, final double phaseX, final double phaseY, final RenderingHints hints) {
+        final AffineTransform trs = AffineTransform.getTranslateInstance(phaseX, phaseY);
+        trs.rotate(rotation);
+        trs.translate(postX, postY);
+
+        final Rectangle2D bounds = trs.createTransformedShape(new Rectangle(image.getWidth(), image.getHeight())).getBounds2D();
+        final int minX = (int) Math.floor(bounds.getMinX());
+        final int minY = (int) Math.floor(bounds.getMinY());
+        final int width = (int) Math.ceil(bounds.getMaxX()) - minX;
+        final int height = (int) Math.ceil(bounds.getMaxY()) - minY;
+        if (width <= 0 || height <= 0) return null;
+
+        //surround the symbol with a transparent border, otherwise Java2D interpolation
+        //extends the image edges and fractions of pixels are lost
+        final BufferedImage padded = new BufferedImage(image.getWidth() + 2, image.getHeight() + 2, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = padded.createGraphics();
+        g2.drawImage(image, 1, 1, null);
+        g2.dispose();
+
+        final BufferedImage sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        g2 = sprite.createGraphics();
+        if (hints != null) {
+            g2.setRenderingHints(hints);
+        }
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+        g2.translate(-minX, -minY);
+        g2.transform(trs);
+        g2.drawImage(padded, -1, -1, null);
+        g2.dispose();
+        return new Sprite(sprite, minX, minY);
+    }
+
+    /**
+     * Remove all cached sprites.
+     */
+    public synchronized void clear() {
+        sprites.clear();
+        pixels = 0;
+    }
+
+    /**
+     * @return number of cached sprites
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * @return number of pixels of all cached sprites
+     */
+    public synchronized long getPixels() {
+        return pixels;
+    }
+}
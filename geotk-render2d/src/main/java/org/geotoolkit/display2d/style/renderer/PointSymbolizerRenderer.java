@@ -30,6 +30,7 @@ import org.geotoolkit.display2d.presentation.PointPresentation;
 import org.geotoolkit.display2d.primitive.ProjectedFeature;
 import org.geotoolkit.display2d.primitive.ProjectedGeometry;
 import org.geotoolkit.display2d.style.CachedPointSymbolizer;
+import org.geotoolkit.display2d.style.SpriteCache;
 import org.geotoolkit.renderer.DefaultGroupPresentation;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
@@ -98,6 +99,10 @@ public class PointSymbolizerRenderer extends AbstractSymbolizerRenderer<CachedPo
             coeff *= Math.abs(AffineTransforms2D.getScale(inverse));
         }
 
+        if (symbol.isSpriteCacheable()) {
+            return spritePresentation(group, projectedGeometry, candidate, coeff);
+        }
+
         //create the image--------------------------------------------------
         final RenderedImage img = symbol.getImage(candidate,coeff,false, hints);
 
@@ -190,4 +195,63 @@ public class PointSymbolizerRenderer extends AbstractSymbolizerRenderer<CachedPo
         return dataRendered;
     }
 
+    /**
+     * Same as {@link #presentation(DefaultGroupPresentation, ProjectedGeometry, Object) } using pre-rasterized
+     * symbols from the sprite cache, placed at integer pixel positions.
+     */
+    private boolean spritePresentation(final DefaultGroupPresentation group, final ProjectedGeometry projectedGeometry,
+            final Object candidate, final float coeff) throws TransformException {
+
+        final Geometry[] geoms = projectedGeometry.getDisplayGeometryJTS();
+
+        if (geoms == null) {
+            //no geometry
+            return false;
+        }
+
+        double cwRotation = symbol.getRotation(candidate);
+        if (Math.abs(cwRotation) < ROTATION_TOLERANCE) cwRotation = 0.0;
+
+        boolean dataRendered = false;
+        for (Geometry geom : geoms) {
+            if (geom instanceof Point || geom instanceof MultiPoint) {
+                final Coordinate[] coords = geom.getCoordinates();
+                for (int i=0, n = coords.length; i<n ; i++) {
+                    dataRendered |= spritePresentation(group, candidate, coeff, cwRotation, coords[i]);
+                }
+            } else {
+                //get most appropriate point
+                final Point pt2d = GO2Utilities.getBestPoint(geom);
+                if (pt2d == null || pt2d.isEmpty()) {
+                    //no geometry
+                    return dataRendered;
+                }
+
+                Coordinate pcoord = pt2d.getCoordinate();
+                if (Double.isNaN(pcoord.x)) {
+                    pcoord = geom.getCoordinate();
+                }
+                dataRendered |= spritePresentation(group, candidate, coeff, cwRotation, pcoord);
+            }
+        }
+
+        return dataRendered;
+    }
+
+    private boolean spritePresentation(final DefaultGroupPresentation group, final Object candidate,
+            final float coeff, final double cwRotation, final Coordinate coord) {
+        final SpriteCache.Sprite sprite = symbol.getSprite(candidate, coeff, cwRotation, coord.x, coord.y, hints);
+        if (sprite == null) {
+            //may be correct, image can be too small for rendering
+            return false;
+        }
+        final PointPresentation presentation = new PointPresentation(group.getLayer(), group.getResource(), (Feature) group.getCandidate());
+        presentation.forGrid(renderingContext);
+        presentation.composite = GO2Utilities.ALPHA_COMPOSITE_1F;
+        presentation.displayTransform = AffineTransform.getTranslateInstance(sprite.getDisplayX(coord.x), sprite.getDisplayY(coord.y));
+        presentation.image = sprite.getImage();
+        group.elements().add(presentation);
+        return true;
+    }
+
 }
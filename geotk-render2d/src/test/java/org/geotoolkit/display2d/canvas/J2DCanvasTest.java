@@ -17,20 +17,43 @@
 
 package org.geotoolkit.display2d.canvas;
 
+import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.sis.feature.builder.AttributeRole;
+import org.apache.sis.feature.builder.FeatureTypeBuilder;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.referencing.internal.shared.GeodeticObjectBuilder;
+import org.apache.sis.map.MapLayer;
 import org.apache.sis.map.MapLayers;
 import org.apache.sis.referencing.CommonCRS;
 import org.geotoolkit.display.PortrayalException;
+import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.service.CanvasDef;
 import org.geotoolkit.display2d.service.DefaultPortrayalService;
 import org.geotoolkit.display2d.service.SceneDef;
+import org.geotoolkit.factory.Hints;
+import org.geotoolkit.filter.FilterUtilities;
 import org.geotoolkit.map.MapBuilder;
+import org.geotoolkit.storage.memory.InMemoryFeatureSet;
+import org.geotoolkit.style.DefaultStyleFactory;
+import org.geotoolkit.style.MutableStyleFactory;
 import static org.junit.Assert.*;
 import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.style.Symbolizer;
 import org.opengis.util.FactoryException;
 
 /**
@@ -41,6 +64,9 @@ import org.opengis.util.FactoryException;
  */
 public class J2DCanvasTest {
 
+    private static final GeometryFactory GF = org.geotoolkit.geometry.jts.JTS.getFactory();
+    private static final MutableStyleFactory SF = DefaultStyleFactory.provider();
+
     public J2DCanvasTest() {
     }
 
@@ -104,4 +130,162 @@ public class J2DCanvasTest {
         DefaultPortrayalService.portray(new CanvasDef(new Dimension(800, 600), env),  new SceneDef(context));
      }
 
+    /**
+     * Layers painted concurrently must be composited in order with their opacity,
+     * the result must match the sequential rendering.
+     */
+    @Test
+    public void testMultiThreadRendering() throws Exception {
+        final MapLayers context = MapBuilder.createContext();
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-180, 0, -90, 90)),
+                SF.polygonSymbolizer(null, SF.fill(Color.RED), null), 1.0));
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-90, 90, -90, 90)),
+                SF.polygonSymbolizer(null, SF.fill(Color.BLUE), null), 0.5));
+        context.getComponents().add(createLayer(GF.createPoint(new Coordinate(0, 45)),
+                SF.textSymbolizer(SF.fill(Color.BLACK), SF.font(), SF.halo(Color.WHITE, 0), FilterUtilities.FF.literal("LABEL"), SF.pointPlacement(), null), 1.0));
+
+        final RenderedImage sequential = render(context, false);
+        final RenderedImage parallel = render(context, true);
+
+        final Raster seqRaster = sequential.getData();
+        final Raster parRaster = parallel.getData();
+        final int[] seqPixel = new int[4];
+        final int[] parPixel = new int[4];
+        for (int y = 0; y < 180; y++) {
+            for (int x = 0; x < 360; x++) {
+                seqRaster.getPixel(x, y, seqPixel);
+                parRaster.getPixel(x, y, parPixel);
+                for (int b = 0; b < 4; b++) {
+                    assertEquals("Pixel " + x + "," + y + " : " + Arrays.toString(seqPixel) + " " + Arrays.toString(parPixel),
+                            seqPixel[b], parPixel[b], 2);
+                }
+            }
+        }
+
+        //opaque red layer alone
+        assertArrayEquals(new int[]{255, 0, 0, 255}, parRaster.getPixel(45, 135, parPixel));
+        //half transparent blue layer above red layer
+        parRaster.getPixel(135, 135, parPixel);
+        assertEquals(128, parPixel[0], 2);
+        assertEquals(0, parPixel[1], 2);
+        assertEquals(128, parPixel[2], 2);
+        //half transparent blue layer above white background
+        parRaster.getPixel(225, 135, parPixel);
+        assertEquals(128, parPixel[0], 2);
+        assertEquals(128, parPixel[1], 2);
+        assertEquals(255, parPixel[2], 2);
+
+        //label must be painted on top, close to the point
+        boolean found = false;
+        for (int y = 25; y < 65 && !found; y++) {
+            for (int x = 150; x < 230 && !found; x++) {
+                parRaster.getPixel(x, y, parPixel);
+                found = parPixel[0] < 64 && parPixel[1] < 64 && parPixel[2] < 64;
+            }
+        }
+        assertTrue("Label not found", found);
+    }
+
+    /**
+     * Portrayal service must use the multi-thread rendering when requested.
+     */
+    @Test
+    public void testMultiThreadPortray() throws Exception {
+        final MapLayers context = MapBuilder.createContext();
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-180, 0, -90, 90)),
+                SF.polygonSymbolizer(null, SF.fill(Color.RED), null), 1.0));
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-90, 90, -90, 90)),
+                SF.polygonSymbolizer(null, SF.fill(Color.BLUE), null), 0.5));
+
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, -180, +180);
+        env.setRange(1, -90, +90);
+        final Hints hints = new Hints();
+        hints.put(GO2Hints.KEY_COLOR_MODEL, ColorModel.getRGBdefault());
+        hints.put(GO2Hints.KEY_MULTI_THREAD, true);
+        final CanvasDef canvasdef = new CanvasDef(new Dimension(360, 180), env);
+        canvasdef.setBackground(Color.WHITE);
+
+        final Raster raster = DefaultPortrayalService.portray(canvasdef, new SceneDef(context, hints)).getData();
+        final int[] pixel = new int[4];
+        assertArrayEquals(new int[]{255, 0, 0, 255}, raster.getPixel(45, 135, pixel));
+        raster.getPixel(135, 135, pixel);
+        assertEquals(128, pixel[0], 2);
+        assertEquals(0, pixel[1], 2);
+        assertEquals(128, pixel[2], 2);
+        assertArrayEquals(new int[]{255, 255, 255, 255}, raster.getPixel(315, 135, pixel));
+    }
+
+    /**
+     * Labels of a translucent layer must be painted with the layer opacity.
+     * A single thread executor is used, layer buffers are reused.
+     */
+    @Test
+    public void testMultiThreadTranslucentLabels() throws Exception {
+        final MapLayers context = MapBuilder.createContext();
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-180, 0, -90, 90)),
+                SF.polygonSymbolizer(null, SF.fill(Color.RED), null), 1.0));
+        context.getComponents().add(createLayer(GF.createPoint(new Coordinate(90, 45)),
+                SF.textSymbolizer(SF.fill(Color.BLACK), SF.font(), SF.halo(Color.WHITE, 0), FilterUtilities.FF.literal("LABEL"), SF.pointPlacement(), null), 0.5));
+        context.getComponents().add(createLayer(GF.toGeometry(new org.locationtech.jts.geom.Envelope(-180, 0, -90, 0)),
+                SF.polygonSymbolizer(null, SF.fill(Color.BLUE), null), 1.0));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            final Raster raster = render(context, true, executor).getData();
+            final int[] pixel = new int[4];
+            assertArrayEquals(new int[]{255, 0, 0, 255}, raster.getPixel(45, 45, pixel));
+            assertArrayEquals(new int[]{0, 0, 255, 255}, raster.getPixel(45, 135, pixel));
+
+            //label must be painted, half transparent
+            int darkest = 255;
+            for (int y = 25; y < 65; y++) {
+                for (int x = 240; x < 320; x++) {
+                    raster.getPixel(x, y, pixel);
+                    darkest = Math.min(darkest, Math.max(pixel[0], Math.max(pixel[1], pixel[2])));
+                }
+            }
+            assertTrue("Label not found", darkest < 192);
+            assertTrue("Label is opaque", darkest > 96);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MapLayer createLayer(final Geometry geometry, final Symbolizer symbolizer, final double opacity) {
+        final FeatureTypeBuilder ftb = new FeatureTypeBuilder();
+        ftb.setName("test");
+        ftb.addAttribute(Geometry.class).setName("geom").setCRS(CommonCRS.defaultGeographic()).addRole(AttributeRole.DEFAULT_GEOMETRY);
+        final FeatureType type = ftb.build();
+        final Feature feature = type.newInstance();
+        feature.setPropertyValue("geom", geometry);
+
+        final MapLayer layer = MapBuilder.createLayer(new InMemoryFeatureSet(type, Arrays.asList(feature)));
+        layer.setStyle(SF.style(symbolizer));
+        layer.setOpacity(opacity);
+        return layer;
+    }
+
+    private static RenderedImage render(final MapLayers context, final boolean multiThread) throws PortrayalException {
+        return render(context, multiThread, null);
+    }
+
+    private static RenderedImage render(final MapLayers context, final boolean multiThread, final Executor executor) throws PortrayalException {
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, -180, +180);
+        env.setRange(1, -90, +90);
+
+        final Hints hints = new Hints();
+        hints.put(GO2Hints.KEY_COLOR_MODEL, ColorModel.getRGBdefault());
+        hints.put(GO2Hints.KEY_MULTI_THREAD, multiThread);
+
+        final CanvasDef canvasdef = new CanvasDef(new Dimension(360, 180), env);
+        canvasdef.setBackground(Color.WHITE);
+        final J2DCanvasBuffered canvas = new J2DCanvasBuffered(CommonCRS.defaultGeographic(), canvasdef.getDimension(), hints);
+        canvas.setLayerExecutor(executor);
+        DefaultPortrayalService.prepareCanvas(canvas, canvasdef, new SceneDef(context, hints));
+        canvas.repaint();
+        return canvas.getSnapShot();
+    }
+
 }
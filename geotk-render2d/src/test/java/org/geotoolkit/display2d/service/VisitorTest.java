@@ -34,14 +34,20 @@ import org.apache.sis.referencing.internal.shared.AffineTransform2D;
 import org.apache.sis.map.MapLayer;
 import org.apache.sis.map.MapLayers;
 import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.GridCoverageResource;
 import org.apache.sis.storage.WritableFeatureSet;
+import org.apache.sis.storage.event.StoreEvent;
+import org.geotoolkit.display2d.GO2Hints;
 import org.geotoolkit.display2d.canvas.AbstractGraphicVisitor;
+import org.geotoolkit.display2d.canvas.HitTestCache;
 import org.geotoolkit.display2d.canvas.RenderingContext2D;
 import org.geotoolkit.display2d.primitive.SearchAreaJ2D;
+import org.geotoolkit.factory.Hints;
 import org.geotoolkit.feature.FeatureExt;
 import org.geotoolkit.image.BufferedImages;
 import org.geotoolkit.map.MapBuilder;
+import org.geotoolkit.storage.event.FeatureStoreContentEvent;
 import org.geotoolkit.storage.memory.InMemoryFeatureSet;
 import org.geotoolkit.storage.memory.InMemoryGridCoverageResource;
 import org.geotoolkit.style.DefaultStyleFactory;
@@ -55,6 +61,7 @@ import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Polygon;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureType;
+import org.opengis.filter.Filter;
 import org.opengis.referencing.crs.GeographicCRS;
 import org.apache.sis.coverage.grid.PixelInCell;
 
@@ -125,6 +132,105 @@ public class VisitorTest {
         assertTrue(visitor.features.size() == 0);
     }
 
+    /**
+     * Hit tests must use the features recorded while portraying when a hit cache is set,
+     * features are fetched again and cached renderings are removed on change events.
+     */
+    @Test
+    public void hitCacheTest() throws Exception {
+        final MutableStyleFactory sf = DefaultStyleFactory.provider();
+        final GeographicCRS crs = CommonCRS.WGS84.normalizedGeographic();
+
+        final FeatureTypeBuilder sftb = new FeatureTypeBuilder();
+        sftb.setName("testingCache");
+        sftb.addAttribute(String.class).setName("id").addRole(AttributeRole.IDENTIFIER_COMPONENT);
+        sftb.addAttribute(Polygon.class).setName("geom").setCRS(crs).addRole(AttributeRole.DEFAULT_GEOMETRY);
+        final FeatureType sft = sftb.build();
+
+        final NotifyingFeatureSet collection = new NotifyingFeatureSet(sft);
+        final List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            features.add(createSquare(sft, "id-" + i, i * 10, 10));
+        }
+        collection.add(features.iterator());
+
+        final MapLayer layer = MapBuilder.createLayer(collection);
+        layer.setStyle(sf.style(sf.polygonSymbolizer()));
+        final MapLayers context = MapBuilder.createContext(crs);
+        context.getComponents().add(layer);
+
+        final GeneralEnvelope env = new GeneralEnvelope(crs);
+        env.setRange(0, -180, 180);
+        env.setRange(1, -90, 90);
+        final Dimension dim = new Dimension(360, 180);
+
+        final HitTestCache cache = new HitTestCache(10);
+        final Hints hints = new Hints(GO2Hints.KEY_HIT_CACHE, cache);
+        final SceneDef scene = new SceneDef(context, hints);
+        DefaultPortrayalService.portray(new CanvasDef(dim, env), scene);
+        assertEquals(1, cache.size());
+
+        ListVisitor visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env), scene, new VisitDef(new Rectangle(231, 73, 2, 2), visitor));
+        assertEquals(1, visitor.features.size());
+        assertEquals("id-5", FeatureExt.getId(visitor.features.get(0)).getIdentifier());
+
+        //outside of any feature
+        visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env), scene, new VisitDef(new Rectangle(236, 73, 2, 2), visitor));
+        assertEquals(0, visitor.features.size());
+
+        //features are fetched again, a removed feature is not returned
+        collection.removeIf((Feature f) -> "id-5".equals(f.getPropertyValue("id")));
+        visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env), scene, new VisitDef(new Rectangle(231, 73, 2, 2), visitor));
+        assertEquals(0, visitor.features.size());
+
+        //without event, a new feature is unknown to the cache
+        collection.add(Arrays.asList(createSquare(sft, "id-new", -50, 10)).iterator());
+        visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env), scene, new VisitDef(new Rectangle(131, 73, 2, 2), visitor));
+        assertEquals(0, visitor.features.size());
+        assertEquals(1, cache.size());
+
+        //data change event invalidates the layer renderings
+        collection.fireChange();
+        assertEquals(0, cache.size());
+        visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env), scene, new VisitDef(new Rectangle(131, 73, 2, 2), visitor));
+        assertEquals(1, visitor.features.size());
+        assertEquals("id-new", FeatureExt.getId(visitor.features.get(0)).getIdentifier());
+
+        //a different view is not cached
+        DefaultPortrayalService.portray(new CanvasDef(dim, env), scene);
+        assertEquals(1, cache.size());
+        final GeneralEnvelope env2 = new GeneralEnvelope(env);
+        env2.setRange(0, -170, 190);
+        visitor = new ListVisitor();
+        DefaultPortrayalService.visit(new CanvasDef(dim, env2), scene, new VisitDef(new Rectangle(121, 73, 2, 2), visitor));
+        assertEquals(1, visitor.features.size());
+        assertEquals("id-new", FeatureExt.getId(visitor.features.get(0)).getIdentifier());
+
+        //style change invalidates the layer renderings
+        layer.setStyle(sf.style(sf.lineSymbolizer()));
+        assertEquals(0, cache.size());
+    }
+
+    private static Feature createSquare(final FeatureType type, final String id, final double x, final double y) {
+        final GeometryFactory gf = org.geotoolkit.geometry.jts.JTS.getFactory();
+        final Polygon pol = gf.createPolygon(new Coordinate[]{
+                    new Coordinate(x, y),
+                    new Coordinate(x + 5, y),
+                    new Coordinate(x + 5, y + 10),
+                    new Coordinate(x, y + 10),
+                    new Coordinate(x, y)});
+        pol.setUserData(CommonCRS.WGS84.normalizedGeographic());
+        final Feature f = type.newInstance();
+        f.setPropertyValue("id", id);
+        f.setPropertyValue("geom", pol);
+        return f;
+    }
+
     /**
      * Coverage visitor test
      */
@@ -158,6 +264,21 @@ public class VisitorTest {
         assertTrue(visitor.coverages.size() != 0);
     }
 
+    /**
+     * Feature set sending a content event on demand.
+     */
+    private static final class NotifyingFeatureSet extends InMemoryFeatureSet {
+
+        private NotifyingFeatureSet(final FeatureType type) {
+            super("id", type);
+        }
+
+        private void fireChange() throws DataStoreException {
+            listeners.fire(StoreEvent.class, new FeatureStoreContentEvent(this,
+                    FeatureStoreContentEvent.Type.UPDATE, getType().getName(), Filter.include()));
+        }
+    }
+
     private static class ListVisitor extends AbstractGraphicVisitor {
 
         public List<Feature> features = new ArrayList<>();
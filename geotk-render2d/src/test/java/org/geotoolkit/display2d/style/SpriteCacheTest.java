@@ -0,0 +1,132 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.display2d.style;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test sprite creation and placement of {@link SpriteCache}.
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class SpriteCacheTest {
+
+    private static final float[] CENTER = new float[]{0.5f, 0.5f};
+    private static final float[] CORNER = new float[]{0f, 0f};
+    private static final float[] NO_DISPLACEMENT = new float[]{0f, 0f};
+
+    private final Object symbol = new Object();
+    private final AtomicInteger created = new AtomicInteger();
+
+    private BufferedImage createSymbol() {
+        created.incrementAndGet();
+        final BufferedImage img = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = img.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 4, 2);
+        g.dispose();
+        return img;
+    }
+
+    /**
+     * Sprites must be reused for the same symbol and pixel position.
+     */
+    @Test
+    public void testReuse() {
+        final SpriteCache cache = new SpriteCache(1000);
+        final SpriteCache.Sprite s1 = cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 10, 20, null, this::createSymbol);
+        final SpriteCache.Sprite s2 = cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 35, 7, null, this::createSymbol);
+        assertSame(s1, s2);
+        assertEquals(1, created.get());
+        assertEquals(1, cache.size());
+
+        assertEquals(4, s1.getImage().getWidth());
+        assertEquals(2, s1.getImage().getHeight());
+        assertEquals(8, s1.getDisplayX(10));
+        assertEquals(19, s1.getDisplayY(20));
+        assertEquals(Color.RED.getRGB(), s1.getImage().getRGB(0, 0));
+        assertEquals(Color.RED.getRGB(), s1.getImage().getRGB(3, 1));
+
+        //different opacity
+        final SpriteCache.Sprite s3 = cache.getSprite(symbol, 4, 1, 0.5f, 0, CENTER, NO_DISPLACEMENT, 10, 20, null, this::createSymbol);
+        assertNotSame(s1, s3);
+        assertEquals(127, s3.getImage().getRGB(0, 0) >>> 24, 1);
+    }
+
+    /**
+     * Positions between pixels must use a shifted sprite.
+     */
+    @Test
+    public void testSubPixel() {
+        final SpriteCache cache = new SpriteCache(1000);
+        final SpriteCache.Sprite sprite = cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 10.5, 20, null, this::createSymbol);
+        //symbol covers [8.5 .. 12.5]
+        assertEquals(5, sprite.getImage().getWidth());
+        assertEquals(8, sprite.getDisplayX(10.5));
+        //half covered pixels on both sides
+        assertEquals(127, sprite.getImage().getRGB(0, 0) >>> 24, 2);
+        assertEquals(255, sprite.getImage().getRGB(2, 0) >>> 24);
+        assertEquals(127, sprite.getImage().getRGB(4, 0) >>> 24, 2);
+
+        //rounded to the closest quarter of pixel
+        assertSame(sprite, cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 3.51, 7, null, this::createSymbol));
+        assertNotSame(sprite, cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 3.75, 7, null, this::createSymbol));
+    }
+
+    /**
+     * Rotation is made around the anchor point.
+     */
+    @Test
+    public void testRotation() {
+        final SpriteCache cache = new SpriteCache(1000);
+        final SpriteCache.Sprite sprite = cache.getSprite(symbol, 4, 1, 1, Math.PI / 2, CORNER, NO_DISPLACEMENT, 10, 20, null, this::createSymbol);
+        assertEquals(2, sprite.getImage().getWidth());
+        assertEquals(4, sprite.getImage().getHeight());
+        assertEquals(8, sprite.getDisplayX(10));
+        assertEquals(20, sprite.getDisplayY(20));
+
+        //rotations are rounded to the degree
+        assertSame(sprite, cache.getSprite(symbol, 4, 1, 1, Math.PI / 2 + 0.001, CORNER, NO_DISPLACEMENT, 10, 20, null, this::createSymbol));
+    }
+
+    /**
+     * Least recently used sprites must be evicted when the pixel limit is reached.
+     */
+    @Test
+    public void testEviction() {
+        final SpriteCache cache = new SpriteCache(20);
+        cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 0, 0, null, this::createSymbol);
+        cache.getSprite(symbol, 4, 1, 0.9f, 0, CENTER, NO_DISPLACEMENT, 0, 0, null, this::createSymbol);
+        assertEquals(16, cache.getPixels());
+        cache.getSprite(symbol, 4, 1, 0.8f, 0, CENTER, NO_DISPLACEMENT, 0, 0, null, this::createSymbol);
+        assertEquals(2, cache.size());
+        assertEquals(16, cache.getPixels());
+
+        //first sprite has been evicted
+        cache.getSprite(symbol, 4, 1, 1, 0, CENTER, NO_DISPLACEMENT, 0, 0, null, this::createSymbol);
+        assertEquals(4, created.get());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getPixels());
+    }
+}
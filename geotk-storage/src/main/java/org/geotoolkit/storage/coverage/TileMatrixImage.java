@@ -21,6 +21,8 @@ import java.awt.Rectangle;
 import java.awt.image.*;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.sis.coverage.SampleDimension;
@@ -77,7 +79,23 @@ public class TileMatrixImage extends ComputedImage {
      */
     private final double[] fillPixel;
 
+    /**
+     * Planner holding pending tile reads, can be null.
+     */
+    private final TileReadPlanner planner;
+
     public static TileMatrixImage create(TileMatrix matrix, Rectangle gridRange, final List<SampleDimension> sampleDimensions) throws DataStoreException {
+        return create(matrix, gridRange, sampleDimensions, null);
+    }
+
+    /**
+     * Create an image of the TileMatrix, tiles already planned in the given planner
+     * are taken from it instead of being read again.
+     *
+     * @param planner tile read planner, can be null
+     */
+    public static TileMatrixImage create(TileMatrix matrix, Rectangle gridRange, final List<SampleDimension> sampleDimensions,
+            final TileReadPlanner planner) throws DataStoreException {
         if (gridRange == null) {
             gridRange = new Rectangle(TileMatrices.getGridSize(matrix));
         }
@@ -126,7 +144,7 @@ public class TileMatrixImage extends ComputedImage {
         final SampleModel sm = sample.getSampleModel().createCompatibleSampleModel(tileSize[0], tileSize[1]);
         final ColorModel cm = sample.getColorModel();
         final Raster rm = sample.getTile(sample.getMinTileX(), sample.getMinTileY());
-        return new TileMatrixImage(matrix, gridRange, sm, cm, rm, fillPixel);
+        return new TileMatrixImage(matrix, gridRange, sm, cm, rm, fillPixel, planner);
     }
 
     /**
@@ -135,13 +153,15 @@ public class TileMatrixImage extends ComputedImage {
      * @param gridRange the tile to include in the rendered image.
      *        rectangle max max values are exclusive.
      */
-    private TileMatrixImage(final TileMatrix matrix, Rectangle gridRange, SampleModel sampleModel, ColorModel colorModel, Raster rasterModel, double[] fillPixel){
+    private TileMatrixImage(final TileMatrix matrix, Rectangle gridRange, SampleModel sampleModel, ColorModel colorModel,
+            Raster rasterModel, double[] fillPixel, TileReadPlanner planner){
         super(sampleModel);
         this.matrix = matrix;
         this.gridRange = gridRange;
         this.colorModel = colorModel;
         this.rasterModel = rasterModel;
         this.fillPixel = fillPixel;
+        this.planner = planner;
     }
 
     /**
@@ -213,26 +233,14 @@ public class TileMatrixImage extends ComputedImage {
         try {
             DataBuffer buffer = null;
 
-            final Tile tile = matrix.getTile(mosaictileX,mosaictileY).orElse(null);
-            //can be null if tile is really missing, the isMissing method is a best effort call
-            if (tile != null) {
-                final Resource resource = tile.getResource();
-                if (resource instanceof GridCoverageResource gcr) {
-                    GridCoverage coverage = gcr.read(null);
-                    RenderedImage image = coverage.render(null);
-                    Raster tileRaster;
-                    if (image.getNumXTiles() == 1 && image.getNumYTiles() == 1) {
-                        tileRaster = image.getTile(image.getMinTileX(), image.getMinTileY());
-                    } else {
-                        tileRaster = image.getData();
-                    }
-                    try {
-                        tileRaster = BufferedImages.makeConform(tileRaster, rasterModel);
-                    } catch (ImagingOpException ex) {
-                        throw new BackingStoreException("Fix mosaic implementation " + matrix.getClass().getName() + " " + ex.getMessage(), ex);
-                    }
-                    buffer = tileRaster.getDataBuffer();
+            Raster tileRaster = readRaster(mosaictileX, mosaictileY);
+            if (tileRaster != null) {
+                try {
+                    tileRaster = BufferedImages.makeConform(tileRaster, rasterModel);
+                } catch (ImagingOpException ex) {
+                    throw new BackingStoreException("Fix mosaic implementation " + matrix.getClass().getName() + " " + ex.getMessage(), ex);
                 }
+                buffer = tileRaster.getDataBuffer();
             }
 
             boolean isEmpty = false;
@@ -275,6 +283,51 @@ public class TileMatrixImage extends ComputedImage {
         return raster;
     }
 
+    /**
+     * Read a tile raster, waiting for the planned read if any.
+     *
+     * @param col tile column in the TileMatrix
+     * @param row tile row in the TileMatrix
+     * @return tile raster, null if tile is missing
+     */
+    private Raster readRaster(final long col, final long row) throws DataStoreException {
+        if (planner != null) {
+            final CompletableFuture<Raster> pending = planner.pending(matrix, col, row);
+            if (pending != null) {
+                try {
+                    return pending.join();
+                } catch (CompletionException ex) {
+                    final Throwable cause = ex.getCause();
+                    if (cause instanceof DataStoreException dse) throw dse;
+                    if (cause instanceof RuntimeException re) throw re;
+                    throw new DataStoreException(cause.getMessage(), cause);
+                }
+            }
+        }
+        final Tile tile = matrix.getTile(col, row).orElse(null);
+        //can be null if tile is really missing, the isMissing method is a best effort call
+        return (tile != null) ? readRaster(tile) : null;
+    }
+
+    /**
+     * Read the raster of a tile, as returned by the tile resource.
+     *
+     * @return tile raster, null if the tile resource is not a coverage
+     */
+    static Raster readRaster(final Tile tile) throws DataStoreException {
+        final Resource resource = tile.getResource();
+        if (resource instanceof GridCoverageResource gcr) {
+            GridCoverage coverage = gcr.read(null);
+            RenderedImage image = coverage.render(null);
+            if (image.getNumXTiles() == 1 && image.getNumYTiles() == 1) {
+                return image.getTile(image.getMinTileX(), image.getMinTileY());
+            } else {
+                return image.getData();
+            }
+        }
+        return null;
+    }
+
     /**
      * @param matrix
      * @param x tile X coordinate in the image range
@@ -77,11 +77,22 @@ import org.opengis.util.FactoryException;
 public class TileMatrixSetCoverageReader <T extends TiledResource & org.apache.sis.storage.GridCoverageResource> {
 
     private final T ref;
+    private final TileReadPlanner planner;
 
     protected static final Logger LOGGER = Logger.getLogger("org.geotoolkit.storage.coverage");
 
     public TileMatrixSetCoverageReader(T ref) {
+        this(ref, null);
+    }
+
+    /**
+     * @param ref resource to read
+     * @param planner planner used to read tiles, can be null.
+     *        It should be shared by all readers of the resource.
+     */
+    public TileMatrixSetCoverageReader(T ref, TileReadPlanner planner) {
         this.ref = ref;
+        this.planner = planner;
     }
 
     public GridGeometry getGridGeometry() throws DataStoreException, CancellationException {
@@ -293,7 +304,10 @@ public class TileMatrixSetCoverageReader <T extends TiledResource & org.apache.s
         }
 
 
-        RenderedImage image =  TileMatrixImage.create((org.geotoolkit.storage.multires.TileMatrix) matrix, tilesInEnvelope, sampleDimensions);
+        if (planner != null) {
+            planner.plan(findTileMatrixSet(matrix), matrix, area, wantedEnv);
+        }
+        RenderedImage image =  TileMatrixImage.create((org.geotoolkit.storage.multires.TileMatrix) matrix, tilesInEnvelope, sampleDimensions, planner);
         if (range != null) {
             image = new ImageProcessor().selectBands(image, range);
         }
@@ -317,6 +331,22 @@ public class TileMatrixSetCoverageReader <T extends TiledResource & org.apache.s
 
     }
 
+    /**
+     * Search the TileMatrixSet containing given matrix.
+     *
+     * @return TileMatrixSet or null if not found
+     */
+    private TileMatrixSet findTileMatrixSet(TileMatrix matrix) throws DataStoreException {
+        for (TileMatrixSet set : ref.getTileMatrixSets()) {
+            for (TileMatrix candidate : set.getTileMatrices().values()) {
+                if (candidate == matrix) {
+                    return set;
+                }
+            }
+        }
+        return null;
+    }
+
     private GridCoverage readCube(List<TileMatrix> mosaics, Envelope wantedEnv, int... range) throws DataStoreException {
         //regroup mosaic by hierarchy cubes
         final TreeMap groups = new TreeMap();
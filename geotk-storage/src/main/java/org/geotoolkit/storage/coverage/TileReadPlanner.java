@@ -0,0 +1,237 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.storage.coverage;
+
+import java.awt.image.Raster;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.NoSuchDataException;
+import org.apache.sis.storage.tiling.Tile;
+import org.apache.sis.storage.tiling.TileMatrix;
+import org.apache.sis.storage.tiling.TileMatrixSet;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.collection.Cache;
+import org.geotoolkit.internal.Threads;
+import org.geotoolkit.storage.multires.TileMatrices;
+import org.opengis.geometry.Envelope;
+
+/**
+ * Plans and runs tile reads for a {@link TileMatrixSetCoverageReader}.
+ * <p>
+ * Tiles needed for a read are listed up front with a single
+ * {@link TileMatrix#getTiles(GridExtent, boolean)} call, then read concurrently
+ * by a bounded number of threads. Optionally a ring of tiles around the read
+ * area and the tiles of the next finer matrix are read speculatively, with a
+ * lower priority, in anticipation of panning and zooming.
+ * <p>
+ * Read tiles are kept in a small cache, a planner is expected to be owned by a
+ * resource and shared by all its readers. This is mostly useful for remote
+ * resources where each tile read has a high latency.
+ *
+ * @author Johann Sorel (Geomatys)
+ * @since 5.0
+ */
+public final class TileReadPlanner {
+
+    private static final Logger LOGGER = Logger.getLogger("org.geotoolkit.storage.coverage");
+
+    /**
+     * Tasks priorities, tiles of the read area first.
+     */
+    private static final int VIEW = 0;
+    private static final int PREFETCH = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final Cache<TileKey,CompletableFuture<Raster>> tiles;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+    private final int ring;
+    private final boolean nextLevel;
+
+    /**
+     * @param parallelism maximum number of tiles read at the same time
+     * @param capacity number of tiles kept in cache, areas with more tiles are not planned
+     * @param ring number of tiles around the read area to prefetch, 0 to disable
+     * @param nextLevel whether to prefetch the tiles of the next finer matrix
+     */
+    public TileReadPlanner(final int parallelism, final int capacity, final int ring, final boolean nextLevel) {
+        ArgumentChecks.ensureStrictlyPositive("parallelism", parallelism);
+        ArgumentChecks.ensureStrictlyPositive("capacity", capacity);
+        ArgumentChecks.ensurePositive("ring", ring);
+        this.capacity = capacity;
+        this.ring = ring;
+        this.nextLevel = nextLevel;
+        tiles = new Cache<>(capacity, capacity, false);
+        executor = new ThreadPoolExecutor(
+                parallelism, parallelism, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                Threads.createThreadFactory("Tile read planner thread "));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Plans the reading of the given tiles, then the prefetch of the surrounding
+     * tiles and of the next finer matrix.
+     *
+     * @param set tile matrix set containing the matrix, can be null
+     * @param matrix read tile matrix
+     * @param area tiles to read
+     * @param envelope read envelope, used to find tiles in the next matrix
+     */
+    void plan(final TileMatrixSet set, final TileMatrix matrix, final GridExtent area, final Envelope envelope) {
+        submit(matrix, area, VIEW);
+
+        if (ring > 0) {
+            final long[] margins = new long[area.getDimension()];
+            margins[0] = ring;
+            margins[1] = ring;
+            submit(matrix, area.expand(margins).intersect(matrix.getTilingScheme().getExtent()), PREFETCH);
+        }
+
+        if (nextLevel && set != null && envelope != null) {
+            final double resolution = matrix.getResolution()[0];
+            double nextResolution = 0;
+            for (TileMatrix candidate : set.getTileMatrices().values()) {
+                final double res = candidate.getResolution()[0];
+                if (res < resolution && res > nextResolution) {
+                    nextResolution = res;
+                }
+            }
+            for (TileMatrix candidate : set.getTileMatrices().values()) {
+                if (candidate.getResolution()[0] != nextResolution) continue;
+                final GeneralEnvelope scheme = new GeneralEnvelope(candidate.getTilingScheme().getEnvelope());
+                if (!scheme.intersects(envelope, false)) continue;
+                try {
+                    submit(candidate, TileMatrices.getTilesInEnvelope(candidate, envelope), PREFETCH);
+                } catch (NoSuchDataException ex) {
+                    //matrix does not cover the envelope
+                } catch (DataStoreException ex) {
+                    LOGGER.log(Level.FINE, ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the pending read of a tile.
+     *
+     * @return tile raster future, the raster is null if tile is missing.
+     *         Returns null if the tile read has not been planned.
+     */
+    CompletableFuture<Raster> pending(final TileMatrix matrix, final long col, final long row) {
+        return tiles.peek(new TileKey(matrix, col, row));
+    }
+
+    /**
+     * Removes all cached tiles, to be called when the resource content changes.
+     * Reads in progress are not cancelled.
+     */
+    public void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * Lists the tiles not already planned, then reads them with the given priority.
+     */
+    private void submit(final TileMatrix matrix, final GridExtent area, final int priority) {
+        if (area.getSize(0) * area.getSize(1) > capacity) {
+            return;
+        }
+
+        final Map<TileKey,CompletableFuture<Raster>> planned = new HashMap<>();
+        for (long row = area.getLow(1), maxRow = area.getHigh(1); row <= maxRow; row++) {
+            for (long col = area.getLow(0), maxCol = area.getHigh(0); col <= maxCol; col++) {
+                final TileKey key = new TileKey(matrix, col, row);
+                final CompletableFuture<Raster> future = new CompletableFuture<>();
+                if (tiles.putIfAbsent(key, future) == null) {
+                    planned.put(key, future);
+                }
+            }
+        }
+        if (planned.isEmpty()) {
+            return;
+        }
+
+        execute(priority, () -> {
+            try (Stream<Tile> stream = matrix.getTiles(area, false)) {
+                stream.forEach((Tile tile) -> {
+                    final long[] indices = tile.getIndices();
+                    final TileKey key = new TileKey(matrix, indices[0], indices[1]);
+                    final CompletableFuture<Raster> future = planned.remove(key);
+                    if (future != null) {
+                        execute(priority, () -> read(key, tile, future));
+                    }
+                });
+            } catch (DataStoreException | RuntimeException ex) {
+                planned.forEach((TileKey key, CompletableFuture<Raster> future) -> fail(key, future, ex));
+                planned.clear();
+            }
+            //remaining tiles are missing
+            planned.values().forEach((CompletableFuture<Raster> future) -> future.complete(null));
+        });
+    }
+
+    private void read(final TileKey key, final Tile tile, final CompletableFuture<Raster> future) {
+        try {
+            future.complete(TileMatrixImage.readRaster(tile));
+        } catch (Exception ex) {
+            fail(key, future, ex);
+        }
+    }
+
+    /**
+     * Forgets a failed read, a later read will try again.
+     */
+    private void fail(final TileKey key, final CompletableFuture<Raster> future, final Exception ex) {
+        tiles.remove(key, future);
+        future.completeExceptionally(ex);
+        LOGGER.log(Level.FINE, ex.getMessage(), ex);
+    }
+
+    private void execute(final int priority, final Runnable runnable) {
+        executor.execute(new Task(priority, sequence.getAndIncrement(), runnable));
+    }
+
+    private record TileKey(TileMatrix matrix, long col, long row) {
+    }
+
+    /**
+     * Executor task, ordered by priority then submission order.
+     */
+    private record Task(int priority, long order, Runnable runnable) implements Runnable, Comparable<Task> {
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(final Task other) {
+            final int c = Integer.compare(priority, other.priority);
+            return (c != 0) ? c : Long.compare(order, other.order);
+        }
+    }
+}
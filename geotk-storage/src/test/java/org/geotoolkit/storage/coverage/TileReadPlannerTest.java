@@ -0,0 +1,235 @@
+/*
+ *    Geotoolkit - An Open Source Java GIS Toolkit
+ *    http://www.geotoolkit.org
+ *
+ *    (C) 2026, Geomatys
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotoolkit.storage.coverage;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridOrientation;
+import org.apache.sis.geometry.GeneralDirectPosition;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.tiling.Tile;
+import org.apache.sis.storage.tiling.TileMatrix;
+import org.apache.sis.storage.tiling.TileStatus;
+import org.apache.sis.storage.tiling.WritableTileMatrix;
+import org.apache.sis.storage.tiling.WritableTileMatrixSet;
+import org.geotoolkit.image.BufferedImages;
+import org.geotoolkit.storage.memory.InMemoryTiledGridCoverageResource;
+import org.geotoolkit.storage.multires.DefiningTileMatrix;
+import org.geotoolkit.storage.multires.DefiningTileMatrixSet;
+import org.geotoolkit.storage.multires.TileMatrices;
+import org.geotoolkit.util.NamesExt;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.GenericName;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Johann Sorel (Geomatys)
+ */
+public class TileReadPlannerTest {
+
+    /**
+     * Test planned read returns the same result as a direct read, and surrounding tiles
+     * and next level tiles are prefetched.
+     */
+    @Test
+    public void testPlannedRead() throws Exception {
+        final CoordinateReferenceSystem crs = CommonCRS.WGS84.normalizedGeographic();
+        final InMemoryTiledGridCoverageResource resource = createResource();
+        final WritableTileMatrixSet set = resource.createTileMatrixSet(new DefiningTileMatrixSet(crs));
+        final WritableTileMatrix coarse = createMatrix(set, new Dimension(4, 3), 1.0);
+        final WritableTileMatrix fine = createMatrix(set, new Dimension(8, 6), 0.5);
+
+        //tile (1,1) of the coarse matrix
+        final GeneralEnvelope env = new GeneralEnvelope(crs);
+        env.setRange(0, -39, -31);
+        env.setRange(1, 41, 49);
+        final GridGeometry domain = new GridGeometry(new GridExtent(8, 8), env, GridOrientation.REFLECTION_Y);
+
+        final TileReadPlanner planner = new TileReadPlanner(2, 64, 1, true);
+        final Raster planned = new TileMatrixSetCoverageReader<>(resource, planner).read(domain).render(null).getData();
+        final Raster direct = new TileMatrixSetCoverageReader<>(resource).read(domain).render(null).getData();
+
+        assertEquals(direct.getBounds(), planned.getBounds());
+        for (int y = direct.getMinY(); y < direct.getMinY() + direct.getHeight(); y++) {
+            for (int x = direct.getMinX(); x < direct.getMinX() + direct.getWidth(); x++) {
+                assertEquals(direct.getSampleDouble(x, y, 0), planned.getSampleDouble(x, y, 0), 0.0);
+            }
+        }
+
+        //read tile, surrounding tiles and next level tiles
+        assertEquals(11.0, planner.pending(coarse, 1, 1).join().getSampleDouble(0, 0, 0), 0.0);
+        assertNotNull(planner.pending(coarse, 0, 0));
+        assertNotNull(planner.pending(coarse, 2, 2));
+        assertNull(planner.pending(coarse, 3, 0));
+        assertEquals(22.0, planner.pending(fine, 2, 2).join().getSampleDouble(0, 0, 0), 0.0);
+        assertNull(planner.pending(fine, 0, 0));
+    }
+
+    /**
+     * Test a failed read is forgotten and read again when planned again.
+     */
+    @Test
+    public void testRetryAfterFailure() throws Exception {
+        final InMemoryTiledGridCoverageResource resource = createResource();
+        final WritableTileMatrixSet set = resource.createTileMatrixSet(new DefiningTileMatrixSet(CommonCRS.WGS84.normalizedGeographic()));
+        final FailingTileMatrix matrix = new FailingTileMatrix(createMatrix(set, new Dimension(4, 3), 1.0));
+        final GridExtent area = new GridExtent(null, new long[]{1, 1}, new long[]{1, 1}, true);
+
+        final TileReadPlanner planner = new TileReadPlanner(1, 16, 0, false);
+        planner.plan(null, matrix, area, null);
+        final CompletableFuture<Raster> failed = planner.pending(matrix, 1, 1);
+        assertNotNull(failed);
+        matrix.release.countDown();
+        try {
+            failed.join();
+            fail("Read should have failed.");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof DataStoreException);
+        }
+        assertNull(planner.pending(matrix, 1, 1));
+
+        planner.plan(null, matrix, area, null);
+        assertEquals(11.0, planner.pending(matrix, 1, 1).join().getSampleDouble(0, 0, 0), 0.0);
+        assertEquals(2, matrix.calls.get());
+    }
+
+    /**
+     * Test areas with more tiles than the planner capacity are not planned,
+     * the read falls back on direct tile reads.
+     */
+    @Test
+    public void testCapacityExceeded() throws Exception {
+        final CoordinateReferenceSystem crs = CommonCRS.WGS84.normalizedGeographic();
+        final InMemoryTiledGridCoverageResource resource = createResource();
+        final WritableTileMatrixSet set = resource.createTileMatrixSet(new DefiningTileMatrixSet(crs));
+        final WritableTileMatrix coarse = createMatrix(set, new Dimension(4, 3), 1.0);
+
+        //tiles (1,1) to (2,2) of the coarse matrix
+        final GeneralEnvelope env = new GeneralEnvelope(crs);
+        env.setRange(0, -38, -22);
+        env.setRange(1, 32, 48);
+        final GridGeometry domain = new GridGeometry(new GridExtent(16, 16), env, GridOrientation.REFLECTION_Y);
+
+        final TileReadPlanner planner = new TileReadPlanner(2, 3, 0, false);
+        final Raster planned = new TileMatrixSetCoverageReader<>(resource, planner).read(domain).render(null).getData();
+        final Raster direct = new TileMatrixSetCoverageReader<>(resource).read(domain).render(null).getData();
+
+        assertEquals(direct.getBounds(), planned.getBounds());
+        for (int y = direct.getMinY(); y < direct.getMinY() + direct.getHeight(); y++) {
+            for (int x = direct.getMinX(); x < direct.getMinX() + direct.getWidth(); x++) {
+                assertEquals(direct.getSampleDouble(x, y, 0), planned.getSampleDouble(x, y, 0), 0.0);
+            }
+        }
+        assertNull(planner.pending(coarse, 1, 1));
+        assertNull(planner.pending(coarse, 2, 2));
+    }
+
+    private static InMemoryTiledGridCoverageResource createResource() {
+        final InMemoryTiledGridCoverageResource resource = new InMemoryTiledGridCoverageResource(NamesExt.create("test"));
+        resource.setSampleDimensions(Collections.singletonList(new SampleDimension.Builder().setName(0).build()));
+        return resource;
+    }
+
+    /**
+     * Create a matrix with upper left corner at (-50,60), tiles value is col + 10*row.
+     */
+    private static WritableTileMatrix createMatrix(WritableTileMatrixSet set, Dimension gridSize, double scale)
+            throws DataStoreException {
+        final int[] tileSize = new int[]{10, 10};
+        final GeneralDirectPosition upperLeft = new GeneralDirectPosition(set.getCoordinateReferenceSystem());
+        upperLeft.setCoordinates(-50, 60);
+        final WritableTileMatrix matrix = set.createTileMatrix(new DefiningTileMatrix(null,
+                TileMatrices.toTilingScheme(upperLeft, gridSize, scale, tileSize), tileSize));
+        for (int x = 0; x < gridSize.width; x++) {
+            for (int y = 0; y < gridSize.height; y++) {
+                final BufferedImage image = BufferedImages.createImage(tileSize[0], tileSize[1], 1, DataBuffer.TYPE_FLOAT);
+                BufferedImages.setAll(image, new double[]{x + 10 * y});
+                matrix.writeTiles(Stream.of(new DefaultImageTile(matrix, image, x, y)));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Matrix whose first tiles listing fails, once released.
+     */
+    private static final class FailingTileMatrix implements TileMatrix {
+
+        private final TileMatrix base;
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FailingTileMatrix(final TileMatrix base) {
+            this.base = base;
+        }
+
+        @Override
+        public GenericName getIdentifier() {
+            return base.getIdentifier();
+        }
+
+        @Override
+        public double[] getResolution() {
+            return base.getResolution();
+        }
+
+        @Override
+        public GridGeometry getTilingScheme() {
+            return base.getTilingScheme();
+        }
+
+        @Override
+        public TileStatus getTileStatus(final long... indices) throws DataStoreException {
+            return base.getTileStatus(indices);
+        }
+
+        @Override
+        public Optional<Tile> getTile(final long... indices) throws DataStoreException {
+            return base.getTile(indices);
+        }
+
+        @Override
+        public Stream<Tile> getTiles(final GridExtent indicesRanges, final boolean parallel) throws DataStoreException {
+            if (calls.getAndIncrement() == 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new DataStoreException("Simulated failure.");
+            }
+            return base.getTiles(indicesRanges, parallel);
+        }
+    }
+}
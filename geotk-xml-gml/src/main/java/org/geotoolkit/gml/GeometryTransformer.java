@@ -712,7 +712,18 @@ public class GeometryTransformer implements Supplier<Geometry> {
 
     protected CoordinateReferenceSystem findCRS(final String srsName) {
         applyAxisResolveStrategy();
-        final boolean longitudeFirst = isLongitudeFirst();
+        return getCRS(srsName, isLongitudeFirst());
+    }
+
+    /**
+     * Decode a GML srsName, sharing the cache used by geometry conversions.
+     *
+     * @param srsName The srsName attribute of a GML geometry.
+     * @param longitudeFirst True to force {@link AxesConvention#RIGHT_HANDED} convention.
+     * @return Decoded coordinate reference system, never null.
+     * @throws UnconvertibleObjectException If the srsName cannot be decoded.
+     */
+    public static CoordinateReferenceSystem getCRS(final String srsName, final boolean longitudeFirst) throws UnconvertibleObjectException {
         try {
             return CRS_CACHE.getOrCreate(new AbstractMap.SimpleImmutableEntry<>(srsName, longitudeFirst), () -> GeometryTransformer.loadCRS(srsName, longitudeFirst));
         } catch (Exception ex) {